@@ -195,4 +195,14 @@ public class ApplicationProperties {
 
 	@Value("${statelevel.rolecode.excluded.list}")
 	private List<String> statelevelRolecodeExclusionList;
+
+	// Bulk bill generation
+	@Value("${bulk.bill.generation.chunk.size:500}")
+	private Integer bulkBillChunkSize;
+
+	@Value("${bulk.bill.generation.parallelism:4}")
+	private Integer bulkBillParallelism;
+
+	@Value("${bulk.bill.generation.run.idle.timeout.ms:1800000}")
+	private Long bulkBillRunIdleTimeout;
 }
\ No newline at end of file
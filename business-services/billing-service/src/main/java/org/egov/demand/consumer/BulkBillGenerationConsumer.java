@@ -81,7 +81,7 @@ public class BulkBillGenerationConsumer {
 				.build();
 		
 		try {
-			billService.generateBill(genBillCriteria, billGenerator.getRequestInfo());
+			billService.generateBulkBill(genBillCriteria, billGenerator.getRequestInfo());
 		} catch (Exception e) {
 			logError(" Bill Gen ", e.getMessage(), billGenerator.getMigrationCount());
 		}
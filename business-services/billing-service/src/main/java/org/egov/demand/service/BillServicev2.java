@@ -61,10 +61,19 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.egov.common.contract.request.PlainAccessRequest;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.demand.config.ApplicationProperties;
@@ -163,6 +172,24 @@ public class BillServicev2 {
 	
 	
 	private List<String> ADVANCE_ALLOWED_BUSINESS_SERVICES=Arrays.asList("WS","SW");
+
+	/*
+	 * Bulk runs in progress keyed by tenantId and businessService, the masters
+	 * fetched by a run are reused by all its batches
+	 */
+	private final Map<String, BulkBillRun> bulkBillRuns = new ConcurrentHashMap<>();
+
+	private ExecutorService bulkBillExecutor;
+
+	@PostConstruct
+	public void initBulkBillExecutor() {
+		bulkBillExecutor = Executors.newFixedThreadPool(appProps.getBulkBillParallelism());
+	}
+
+	@PreDestroy
+	public void shutdownBulkBillExecutor() {
+		bulkBillExecutor.shutdown();
+	}
 	
 	/**
 	 * Cancell bill operation can be carried by this method, based on consumerCodes
@@ -369,6 +396,72 @@ public class BillServicev2 {
 	 */
 	public BillResponseV2 generateBill(GenerateBillCriteria billCriteria, RequestInfo requestInfo) {
 
+		/* Fetching demands for the given bill search criteria */
+		List<Demand> demands = demandService.getDemands(getDemandCriteria(billCriteria), requestInfo);
+		
+		List<BillV2> bills;
+
+		if (!demands.isEmpty())
+			bills = prepareBill(demands, requestInfo, new BillMasters(), false);
+		else
+			return getBillResponse(Collections.emptyList());
+
+		BillRequestV2 billRequest = BillRequestV2.builder().bills(bills).requestInfo(requestInfo).build();
+		//kafkaTemplate.send(notifTopicName, null, billRequest);
+		return create(billRequest);
+	}
+
+	/**
+	 * Generates bills for one batch of a bulk bill generation run
+	 * 
+	 * The batches of a run (same tenantId and businessService) share the fetched
+	 * tax-head and business service masters, bill numbers are requested in a
+	 * single idgen call per tenant, bills are built in parallel chunks and saved
+	 * in chunked batch inserts. Progress and throughput of the run are logged
+	 * after every batch.
+	 * 
+	 * @param billCriteria
+	 * @param requestInfo
+	 * @return
+	 */
+	public BillResponseV2 generateBulkBill(GenerateBillCriteria billCriteria, RequestInfo requestInfo) {
+
+		long startTime = System.currentTimeMillis();
+		BulkBillRun run = getBulkBillRun(billCriteria.getTenantId() + ":" + billCriteria.getBusinessService());
+
+		List<Demand> demands = demandService.getDemands(getDemandCriteria(billCriteria), requestInfo);
+		if (demands.isEmpty())
+			return getBillResponse(Collections.emptyList());
+
+		List<BillV2> bills = prepareBill(demands, requestInfo, run.masters, true);
+
+		int chunkSize = appProps.getBulkBillChunkSize();
+		for (int i = 0; i < bills.size(); i += chunkSize) {
+			List<BillV2> chunk = bills.subList(i, Math.min(i + chunkSize, bills.size()));
+			create(BillRequestV2.builder().bills(chunk).requestInfo(requestInfo).build());
+		}
+
+		long batchTime = System.currentTimeMillis() - startTime;
+		long runBills = run.billCount.addAndGet(bills.size());
+		long runBatches = run.batchCount.incrementAndGet();
+		long runTime = Math.max(System.currentTimeMillis() - run.startTime, 1);
+		log.info("Bulk bill run {} batch {}: {} bills generated in {} ms, {} bills in {} s so far at {} bills/s",
+				run.key, runBatches, bills.size(), batchTime, runBills, runTime / 1000, runBills * 1000 / runTime);
+
+		return getBillResponse(bills);
+	}
+
+	private BulkBillRun getBulkBillRun(String key) {
+
+		long now = System.currentTimeMillis();
+		bulkBillRuns.values().removeIf(run -> now - run.lastUsedTime > appProps.getBulkBillRunIdleTimeout());
+		BulkBillRun run = bulkBillRuns.computeIfAbsent(key, BulkBillRun::new);
+		run.lastUsedTime = now;
+		return run;
+	}
+
+	private DemandCriteria getDemandCriteria(GenerateBillCriteria billCriteria) {
+
 		Set<String> demandIds = new HashSet<>();
 		Set<String> consumerCodes = new HashSet<>();
 
@@ -403,21 +496,7 @@ public class BillServicev2 {
 			.receiptRequired(false)
 			.demandId(demandIds)
 			.build();
-		
-
-		/* Fetching demands for the given bill search criteria */
-		List<Demand> demands = demandService.getDemands(demandCriteria, requestInfo);
-		
-		List<BillV2> bills;
-
-		if (!demands.isEmpty())
-			bills = prepareBill(demands, requestInfo);
-		else
-			return getBillResponse(Collections.emptyList());
-
-		BillRequestV2 billRequest = BillRequestV2.builder().bills(bills).requestInfo(requestInfo).build();
-		//kafkaTemplate.send(notifTopicName, null, billRequest);
-		return create(billRequest);
+		return demandCriteria;
 	}
 
 	/**
@@ -454,18 +533,22 @@ public class BillServicev2 {
 	/**
 	 * Prepares the bill object from the list of given demands
 	 * 
+	 * Bill numbers of a tenant are requested in one idgen call, in parallel mode
+	 * the bills of a tenant are built in chunks on the bulk bill executor
+	 * 
 	 * @param demands demands for which bill should be generated
 	 * @param requestInfo 
+	 * @param masters masters already fetched, missing ones are added to it
+	 * @param isParallel
 	 * @return
 	 */
-	private List<BillV2> prepareBill(List<Demand> demands, RequestInfo requestInfo) {
+	private List<BillV2> prepareBill(List<Demand> demands, RequestInfo requestInfo, BillMasters masters, boolean isParallel) {
 
 		log.info("Demand received in prepare Bill are of size "+ demands.size() );
-		log.info("Demands are::"+demands);
 		List<BillV2> bills = new ArrayList<>();
-		User payer = null != demands.get(0).getPayer() ? demands.get(0).getPayer() : new User();
-		if (payer.getUuid() != null)
-			payer = getUnmaskedUser(requestInfo, payer.getUuid());
+		User user = null != demands.get(0).getPayer() ? demands.get(0).getPayer() : new User();
+		User payer = user.getUuid() != null ? getUnmaskedUser(requestInfo, user.getUuid()) : user;
+		boolean isAdvanceAllowed = ADVANCE_ALLOWED_BUSINESS_SERVICES.contains(demands.get(0).getBusinessService());
 
 		Map<String, List<Demand>> tenatIdDemandsList = demands.stream().collect(Collectors.groupingBy(Demand::getTenantId));
 		for (Entry<String, List<Demand>> demandTenantEntry : tenatIdDemandsList.entrySet()) {
@@ -484,62 +567,94 @@ public class BillServicev2 {
 				demand.getDemandDetails().forEach(detail -> taxHeadCodes.add(detail.getTaxHeadMasterCode()));
 			}
 			
-			Map<String, TaxHeadMaster> taxHeadMap = getTaxHeadMaster(taxHeadCodes, tenantId, requestInfo);
-			Map<String, BusinessServiceDetail> businessMap = getBusinessService(businessCodes, tenantId, requestInfo);
+			Map<String, TaxHeadMaster> taxHeadMap = getTaxHeadMaster(taxHeadCodes, tenantId, requestInfo, masters);
+			Map<String, BusinessServiceDetail> businessMap = getBusinessService(businessCodes, tenantId, requestInfo, masters);
 			
 			
 			/*
 			 * Grouping the demands by their consumer code and generating a bill for each consumer code
 			 */
-			Map<String, List<Demand>> consumerCodeAndDemandsMap = demandForOneTenant.stream().collect(Collectors.groupingBy(Demand::getConsumerCode));
-			
-			for (Entry<String, List<Demand>> consumerCodeAndDemands : consumerCodeAndDemandsMap.entrySet()) {
-				
-				BigDecimal billAmount = BigDecimal.ZERO;
-				List<BillDetailV2> billDetails = new ArrayList<>();
-				
-				String consumerCode = consumerCodeAndDemands.getKey();
-				BigDecimal minimumAmtPayableForBill = BigDecimal.ZERO;
-				List<Demand> demandsForSingleCode = consumerCodeAndDemands.getValue();
-				BusinessServiceDetail business = businessMap.get(demandsForSingleCode.get(0).getBusinessService());
-				
-				String billId = UUID.randomUUID().toString();
-				String billNumber = getBillNumbers(requestInfo, tenantId, demandForOneTenant.get(0).getBusinessService(), 1).get(0);
-				
-				for (Demand demand : demandsForSingleCode) {
-
-					minimumAmtPayableForBill = minimumAmtPayableForBill.add(demand.getMinimumAmountPayable());
-					String billDetailId = UUID.randomUUID().toString();
-					BillDetailV2 billDetail = getBillDetailForDemand(demand, taxHeadMap, billDetailId);
-					billDetail.setBillId(billId);
-					billDetail.setId(billDetailId);
-					billDetails.add(billDetail);
-					billAmount = billAmount.add(billDetail.getAmount());
-				}
-				
-				if ((billAmount.compareTo(BigDecimal.ZERO) >= 0) || (billAmount.compareTo(BigDecimal.ZERO) < 0 && ADVANCE_ALLOWED_BUSINESS_SERVICES.contains(demands.get(0).getBusinessService()))) {
-
-					BillV2 bill = BillV2.builder()
-						.auditDetails(util.getAuditDetail(requestInfo))
-						.payerAddress(payer.getPermanentAddress())
-						.mobileNumber(payer.getMobileNumber())
-						.billDate(System.currentTimeMillis())
-						.businessService(business.getCode())
-						.payerName(payer.getName())
-						.consumerCode(consumerCode)
-						.status(BillStatus.ACTIVE)
-						.billDetails(billDetails)
-						.totalAmount(billAmount)
-						.userId(payer.getUuid())
-						.billNumber(billNumber)
-						.tenantId(tenantId)
-						.id(billId)
-						.build();
-				
-					bills.add(bill);
-				}
+			List<List<Demand>> demandsByConsumerCode = new ArrayList<>(demandForOneTenant.stream()
+					.collect(Collectors.groupingBy(Demand::getConsumerCode)).values());
+			List<String> billNumbers = getBillNumbers(requestInfo, tenantId, demandForOneTenant.get(0).getBusinessService(),
+					demandsByConsumerCode.size());
+
+			int chunkSize = isParallel ? appProps.getBulkBillChunkSize() : demandsByConsumerCode.size();
+			if (demandsByConsumerCode.size() <= chunkSize) {
+				bills.addAll(prepareBillChunk(demandsByConsumerCode, billNumbers, 0, demandsByConsumerCode.size(),
+						tenantId, payer, isAdvanceAllowed, taxHeadMap, businessMap, requestInfo));
+				continue;
 			}
 
+			List<CompletableFuture<List<BillV2>>> chunks = new ArrayList<>();
+			for (int i = 0; i < demandsByConsumerCode.size(); i += chunkSize) {
+				int from = i;
+				int to = Math.min(i + chunkSize, demandsByConsumerCode.size());
+				chunks.add(CompletableFuture.supplyAsync(() -> prepareBillChunk(demandsByConsumerCode, billNumbers, from, to,
+						tenantId, payer, isAdvanceAllowed, taxHeadMap, businessMap, requestInfo), bulkBillExecutor));
+			}
+			try {
+				chunks.forEach(chunk -> bills.addAll(chunk.join()));
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+		return bills;
+	}
+
+	/**
+	 * Builds the bills for the consumer codes in the given range of the demands grouped by consumer code
+	 */
+	private List<BillV2> prepareBillChunk(List<List<Demand>> demandsByConsumerCode, List<String> billNumbers, int from, int to,
+			String tenantId, User payer, boolean isAdvanceAllowed, Map<String, TaxHeadMaster> taxHeadMap,
+			Map<String, BusinessServiceDetail> businessMap, RequestInfo requestInfo) {
+
+		List<BillV2> bills = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+
+			BigDecimal billAmount = BigDecimal.ZERO;
+			List<BillDetailV2> billDetails = new ArrayList<>();
+
+			List<Demand> demandsForSingleCode = demandsByConsumerCode.get(i);
+			String consumerCode = demandsForSingleCode.get(0).getConsumerCode();
+			BigDecimal minimumAmtPayableForBill = BigDecimal.ZERO;
+			BusinessServiceDetail business = businessMap.get(demandsForSingleCode.get(0).getBusinessService());
+
+			String billId = UUID.randomUUID().toString();
+			String billNumber = billNumbers.get(i);
+
+			for (Demand demand : demandsForSingleCode) {
+
+				minimumAmtPayableForBill = minimumAmtPayableForBill.add(demand.getMinimumAmountPayable());
+				String billDetailId = UUID.randomUUID().toString();
+				BillDetailV2 billDetail = getBillDetailForDemand(demand, taxHeadMap, billDetailId);
+				billDetail.setBillId(billId);
+				billDetail.setId(billDetailId);
+				billDetails.add(billDetail);
+				billAmount = billAmount.add(billDetail.getAmount());
+			}
+
+			if ((billAmount.compareTo(BigDecimal.ZERO) >= 0) || (billAmount.compareTo(BigDecimal.ZERO) < 0 && isAdvanceAllowed)) {
+
+				BillV2 bill = BillV2.builder()
+					.auditDetails(util.getAuditDetail(requestInfo))
+					.payerAddress(payer.getPermanentAddress())
+					.mobileNumber(payer.getMobileNumber())
+					.billDate(System.currentTimeMillis())
+					.businessService(business.getCode())
+					.payerName(payer.getName())
+					.consumerCode(consumerCode)
+					.status(BillStatus.ACTIVE)
+					.billDetails(billDetails)
+					.totalAmount(billAmount)
+					.userId(payer.getUuid())
+					.billNumber(billNumber)
+					.tenantId(tenantId)
+					.id(billId)
+					.build();
+
+				bills.add(bill);
+			}
 		}
 		return bills;
 	}
@@ -686,16 +801,22 @@ public class BillServicev2 {
 	 * @param info     RequestInfo object
 	 * @return returns a map of tax-head code as key and tax-head object as value
 	 */
-	private Map<String, TaxHeadMaster> getTaxHeadMaster(Set<String> taxHeadCodes, String tenantId, RequestInfo info) {
+	private Map<String, TaxHeadMaster> getTaxHeadMaster(Set<String> taxHeadCodes, String tenantId, RequestInfo info, BillMasters masters) {
 
-		TaxHeadMasterCriteria taxHeadCriteria = TaxHeadMasterCriteria.builder().tenantId(tenantId).code(taxHeadCodes)
+		Map<String, TaxHeadMaster> taxHeadMap = masters.taxHeads.computeIfAbsent(tenantId, key -> new ConcurrentHashMap<>());
+		Set<String> missingCodes = taxHeadCodes.stream().filter(code -> !taxHeadMap.containsKey(code)).collect(Collectors.toSet());
+		if (missingCodes.isEmpty())
+			return taxHeadMap;
+
+		TaxHeadMasterCriteria taxHeadCriteria = TaxHeadMasterCriteria.builder().tenantId(tenantId).code(missingCodes)
 				.build();
 		List<TaxHeadMaster> taxHeads = taxHeadService.getTaxHeads(taxHeadCriteria, info).getTaxHeadMasters();
 
-		if (taxHeads.isEmpty())
+		if (taxHeads.isEmpty() && missingCodes.size() == taxHeadCodes.size())
 			throw new CustomException("EG_BS_TAXHEADCODE_EMPTY", "No taxhead masters found for the given codes");
 
-		return taxHeads.stream().collect(Collectors.toMap(TaxHeadMaster::getCode, Function.identity()));
+		taxHeads.forEach(taxHead -> taxHeadMap.put(taxHead.getCode(), taxHead));
+		return taxHeadMap;
 	}
 
 	
@@ -707,10 +828,17 @@ public class BillServicev2 {
 	 * @param requestInfo
 	 * @return returns a map with business code and businessDetail object
 	 */
-	private Map<String, BusinessServiceDetail> getBusinessService(Set<String> businessService, String tenantId, RequestInfo requestInfo) {
-		List<BusinessServiceDetail> businessServiceDetails = businessServDetailService.searchBusinessServiceDetails(BusinessServiceDetailCriteria.builder().businessService(businessService).tenantId(tenantId).build(), requestInfo)
+	private Map<String, BusinessServiceDetail> getBusinessService(Set<String> businessService, String tenantId, RequestInfo requestInfo, BillMasters masters) {
+
+		Map<String, BusinessServiceDetail> businessMap = masters.businessServices.computeIfAbsent(tenantId, key -> new ConcurrentHashMap<>());
+		Set<String> missingCodes = businessService.stream().filter(code -> !businessMap.containsKey(code)).collect(Collectors.toSet());
+		if (missingCodes.isEmpty())
+			return businessMap;
+
+		List<BusinessServiceDetail> businessServiceDetails = businessServDetailService.searchBusinessServiceDetails(BusinessServiceDetailCriteria.builder().businessService(missingCodes).tenantId(tenantId).build(), requestInfo)
 				.getBusinessServiceDetails();
-		return businessServiceDetails.stream().collect(Collectors.toMap(BusinessServiceDetail::getCode, Function.identity()));
+		businessServiceDetails.forEach(detail -> businessMap.put(detail.getCode(), detail));
+		return businessMap;
 	}
 	
 	public BillResponseV2 getBillResponse(List<BillV2> bills) {
@@ -761,4 +889,33 @@ public class BillServicev2 {
 		return ownerPlainRequestFieldsList;
 	}
 	
+	/**
+	 * Tax-head and business service masters per tenant, fetched once for a bill
+	 * generation and kept across the batches of a bulk run
+	 */
+	private static class BillMasters {
+
+		private final Map<String, Map<String, TaxHeadMaster>> taxHeads = new ConcurrentHashMap<>();
+
+		private final Map<String, Map<String, BusinessServiceDetail>> businessServices = new ConcurrentHashMap<>();
+	}
+
+	private static class BulkBillRun {
+
+		private final String key;
+
+		private final BillMasters masters = new BillMasters();
+
+		private final long startTime = System.currentTimeMillis();
+
+		private final AtomicLong billCount = new AtomicLong();
+
+		private final AtomicLong batchCount = new AtomicLong();
+
+		private volatile long lastUsedTime = startTime;
+
+		private BulkBillRun(String key) {
+			this.key = key;
+		}
+	}
 }
@@ -9,7 +9,9 @@ import org.egov.demand.repository.ServiceRequestRepository;
 import org.egov.demand.util.Util;
 import org.egov.demand.web.contract.BillRequestV2;
 import org.egov.demand.web.contract.BillResponseV2;
+import org.egov.demand.web.contract.BusinessServiceDetailResponse;
 import org.egov.demand.web.contract.RequestInfoWrapper;
+import org.egov.demand.web.contract.TaxHeadMasterResponse;
 import org.egov.demand.web.validator.BillValidator;
 import org.egov.tracer.model.CustomException;
 import org.junit.jupiter.api.DisplayName;
@@ -21,9 +23,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -208,5 +217,61 @@ RequestInfoWrapper requestInfoWrapper = new RequestInfoWrapper();
         assertNull(actualCreateResult.getResposneInfo());
         assertTrue(actualCreateResult.getBill().isEmpty());
     }
-}
 
+    @Test
+    @DisplayName("Should request all bill numbers in one call and reuse the masters across batches of a bulk run")
+    void testGenerateBulkBill() {
+
+        GenerateBillCriteria billCriteria = GenerateBillCriteria.builder()
+                .businessService("WS")
+                .tenantId("pb.amritsar")
+                .consumerCode(new HashSet<>(Arrays.asList("WS-1", "WS-2")))
+                .build();
+        RequestInfo requestInfo = new RequestInfo();
+
+        TaxHeadMaster taxHead = new TaxHeadMaster();
+        taxHead.setCode("WS_CHARGE");
+        taxHead.setOrder(1);
+
+        when(demandService.getDemands(any(), eq(requestInfo)))
+                .thenReturn(Arrays.asList(getDemand("WS-1"), getDemand("WS-2")));
+        when(taxHeadMasterService.getTaxHeads(any(), eq(requestInfo)))
+                .thenReturn(TaxHeadMasterResponse.builder().taxHeadMasters(Collections.singletonList(taxHead)).build());
+        when(businessServDetailService.searchBusinessServiceDetails(any(), eq(requestInfo)))
+                .thenReturn(BusinessServiceDetailResponse.builder().businessServiceDetails(Collections.singletonList(
+                        BusinessServiceDetail.builder().code("WS").build())).build());
+        when(idGenRepo.getId(eq(requestInfo), eq("pb.amritsar"), anyString(), anyString(), eq(2)))
+                .thenReturn(Arrays.asList("BILL-1", "BILL-2"));
+        when(util.getAuditDetail(requestInfo)).thenReturn(AuditDetails.builder().createdTime(1L).lastModifiedTime(1L).build());
+
+        BillResponseV2 firstBatch = billServicev2.generateBulkBill(billCriteria, requestInfo);
+        BillResponseV2 secondBatch = billServicev2.generateBulkBill(billCriteria, requestInfo);
+
+        assertEquals(2, firstBatch.getBill().size());
+        assertEquals(2, secondBatch.getBill().size());
+        verify(idGenRepo, times(2)).getId(eq(requestInfo), eq("pb.amritsar"), anyString(), anyString(), anyInt());
+        verify(taxHeadMasterService, times(1)).getTaxHeads(any(), eq(requestInfo));
+        verify(businessServDetailService, times(1)).searchBusinessServiceDetails(any(), eq(requestInfo));
+    }
+
+    private Demand getDemand(String consumerCode) {
+
+        DemandDetail demandDetail = DemandDetail.builder()
+                .taxHeadMasterCode("WS_CHARGE")
+                .taxAmount(BigDecimal.TEN)
+                .collectionAmount(BigDecimal.ZERO)
+                .tenantId("pb.amritsar")
+                .build();
+
+        return Demand.builder()
+                .id(UUID.randomUUID().toString())
+                .tenantId("pb.amritsar")
+                .consumerCode(consumerCode)
+                .businessService("WS")
+                .taxPeriodFrom(1L)
+                .taxPeriodTo(2L)
+                .minimumAmountPayable(BigDecimal.ZERO)
+                .demandDetails(Collections.singletonList(demandDetail))
+                .build();
+    }
+}
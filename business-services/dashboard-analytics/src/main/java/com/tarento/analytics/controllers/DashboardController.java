@@ -32,6 +32,7 @@ import com.tarento.analytics.dto.RequestDtoV3;
 import com.tarento.analytics.dto.RoleDto;
 import com.tarento.analytics.dto.UserDto;
 import com.tarento.analytics.exception.AINException;
+import com.tarento.analytics.org.service.ChartResponseCache;
 import com.tarento.analytics.org.service.ClientService;
 import com.tarento.analytics.service.MetadataService;
 import com.tarento.analytics.utils.PathRoutes;
@@ -57,6 +58,9 @@ public class DashboardController {
 	@Autowired
 	private ClientServiceFactory clientServiceFactory;
 
+	@Autowired
+	private ChartResponseCache chartResponseCache;
+
 	@RequestMapping(value = PathRoutes.DashboardApi.FILE_PATH, method = RequestMethod.POST)
 	public Map<String, String> uploadFile(@RequestPart(value = "file") MultipartFile file)
 	{
@@ -96,6 +100,15 @@ public class DashboardController {
 
 	}
 
+	/**
+	 * Flushes the cached chart responses, to be called once new data has been ingested
+	 */
+	@RequestMapping(value = PathRoutes.DashboardApi.FLUSH_CHART_CACHE, method = RequestMethod.POST)
+	public String flushChartCache() throws JsonProcessingException {
+		chartResponseCache.flush();
+		return ResponseGenerator.successResponse("success");
+	}
+
 	@RequestMapping(value = PathRoutes.DashboardApi.GET_DASHBOARD_CONFIG + "/{dashboardId}", method = RequestMethod.GET)
 	public String getDashboardConfiguration(@PathVariable String dashboardId, @RequestParam(value="catagory", required = false) String catagory, @RequestHeader(value = "x-user-info", required = false) String xUserInfo)
 			throws AINException, IOException {
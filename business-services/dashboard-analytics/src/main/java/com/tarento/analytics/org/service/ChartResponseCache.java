@@ -0,0 +1,119 @@
+package com.tarento.analytics.org.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tarento.analytics.dto.AggregateDto;
+import com.tarento.analytics.dto.AggregateRequestDto;
+import com.tarento.analytics.dto.RequestDate;
+
+/**
+ * TTL and size bounded cache of the chart responses.
+ *
+ * Entries are keyed on the normalized request: visualization code, module level, query type, filters with
+ * their keys sorted and the request dates rounded down to the configured granularity, so dashboards opened
+ * within the same window share the responses. The cache is flushed after ingest through the flush api.
+ */
+@Component
+public class ChartResponseCache {
+
+	public static final Logger logger = LoggerFactory.getLogger(ChartResponseCache.class);
+
+	@Value("${chart.cache.enabled:true}")
+	private Boolean enabled;
+
+	@Value("${chart.cache.expiry.time.in.seconds:300}")
+	private Long expirySeconds;
+
+	@Value("${chart.cache.capacity:5000}")
+	private Long capacity;
+
+	@Value("${chart.cache.date.granularity.in.millis:300000}")
+	private Long dateGranularity;
+
+	private final ObjectMapper mapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+	private Cache<String, AggregateDto> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = Cache2kBuilder.of(String.class, AggregateDto.class)
+				.name("chartResponses")
+				.expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+				.entryCapacity(capacity)
+				.build();
+	}
+
+	/**
+	 * Key of the request, to be taken before the request is enriched for the queries
+	 * @param request The API request
+	 * @return key, null when the request is not to be cached
+	 */
+	public String getKey(AggregateRequestDto request) {
+		if (!enabled)
+			return null;
+
+		Map<String, Object> key = new LinkedHashMap<>();
+		key.put("visualizationCode", request.getVisualizationCode());
+		key.put("moduleLevel", request.getModuleLevel());
+		key.put("queryType", request.getQueryType());
+		key.put("interval", request.getInterval());
+		key.put("filters", request.getFilters());
+		key.put("aggregationFactors", request.getAggregationFactors());
+
+		RequestDate requestDate = request.getRequestDate();
+		if (requestDate != null) {
+			key.put("startDate", round(requestDate.getStartDate()));
+			key.put("endDate", round(requestDate.getEndDate()));
+			key.put("targetDate", round(requestDate.getTargetDate()));
+			key.put("dateInterval", requestDate.getInterval());
+		}
+		try {
+			return mapper.writeValueAsString(key);
+		} catch (JsonProcessingException e) {
+			logger.error("Unable to build the cache key, the response will not be cached : " + e.getMessage());
+			return null;
+		}
+	}
+
+	public AggregateDto get(String key) {
+		return key == null ? null : cache.peek(key);
+	}
+
+	public void put(String key, AggregateDto aggregateDto) {
+		if (key != null && aggregateDto != null)
+			cache.put(key, aggregateDto);
+	}
+
+	/**
+	 * Removes all the responses, to be called once new data is ingested
+	 */
+	public void flush() {
+		cache.clear();
+		logger.info("Chart response cache flushed");
+	}
+
+	private String round(String date) {
+		if (date == null || dateGranularity <= 0)
+			return date;
+		try {
+			long millis = Long.parseLong(date);
+			return String.valueOf(millis - Math.floorMod(millis, dateGranularity));
+		} catch (NumberFormatException e) {
+			return date;
+		}
+	}
+}
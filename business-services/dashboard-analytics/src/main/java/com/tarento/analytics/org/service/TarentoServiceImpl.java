@@ -1,18 +1,26 @@
 package com.tarento.analytics.org.service;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -66,10 +74,39 @@ public class TarentoServiceImpl implements ClientService {
 	@Autowired
 	private MdmsApiMappings mdmsApiMappings;
 
+	@Autowired
+	private ChartResponseCache chartResponseCache;
+
+	@Value("${chart.query.parallelism:8}")
+	private int queryParallelism;
+
+	private ExecutorService queryExecutor;
+
+	@PostConstruct
+	public void init() {
+		queryExecutor = Executors.newFixedThreadPool(queryParallelism);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		queryExecutor.shutdown();
+	}
 
 	@Override
-	//@Cacheable(value="versions", key="#request.hashKey")
 	public AggregateDto getAggregatedData(AggregateRequestDto request, List<RoleDto> roles) throws AINException, IOException {
+		// Key is taken before the request is enriched for the queries
+		String cacheKey = chartResponseCache.getKey(request);
+		AggregateDto cached = chartResponseCache.get(cacheKey);
+		if(cached != null) {
+			logger.info("Chart response served from cache for " + request.getVisualizationCode());
+			return cached;
+		}
+		AggregateDto aggregateDto = getAggregatedDataFromQueries(request);
+		chartResponseCache.put(cacheKey, aggregateDto);
+		return aggregateDto;
+	}
+
+	private AggregateDto getAggregatedDataFromQueries(AggregateRequestDto request) throws AINException, IOException {
 		// Read visualization Code
 		logger.info("inside Tarento AggregateDto");
 		String internalChartId = request.getVisualizationCode();
@@ -190,6 +227,8 @@ public class TarentoServiceImpl implements ClientService {
 
 	/**
 	 * Executes queries and enriches the respons in aggrObjectNode
+	 * The queries are built one after another as building them updates the request, and are then
+	 * searched on Elastic Search concurrently. The responses are added in the order of the queries.
 	 * @param chartNode The Chart Config defined in ChartApiConfig.json
 	 * @param aggrObjectNode Object in which response is enriched
 	 * @param nodes Don't know why passed as argument should have been defined in function itself
@@ -202,7 +241,8 @@ public class TarentoServiceImpl implements ClientService {
 		preHandle(request, chartNode, mdmsApiMappings);
 
 		ArrayNode queries = (ArrayNode) chartNode.get(Constants.JsonPaths.QUERIES);
-		int randIndexCount = 1;
+		List<String> indexNames = new ArrayList<>();
+		List<CompletableFuture<JsonNode>> searches = new ArrayList<>();
 		for(JsonNode query : queries) {
 			String module = query.get(Constants.JsonPaths.MODULE).asText();
 		
@@ -214,21 +254,28 @@ public class TarentoServiceImpl implements ClientService {
 
 				String indexName = query.get(Constants.JsonPaths.INDEX_NAME).asText();
 				logger.info("indexName in  executeConfiguredQueries:: {}"+indexName);
-				ObjectNode objectNode = queryService.getChartConfigurationQuery(request, query, indexName, interval);
-				try {
-					JsonNode aggrNode = restService.search(indexName,objectNode.toString());
-					if(nodes.has(indexName)) { 
-						indexName = indexName + "_" + randIndexCount;
-						randIndexCount += 1;
-					}
-					nodes.set(indexName,aggrNode.get(Constants.JsonPaths.AGGREGATIONS));
-				}catch (Exception e) {
-					logger.error("Encountered an Exception while Executing the Query : " + e.getMessage());
-					throw new RuntimeException(e);
-				}
-				aggrObjectNode.set(Constants.JsonPaths.AGGREGATIONS, nodes);
+				String searchQuery = queryService.getChartConfigurationQuery(request, query, indexName, interval).toString();
+				indexNames.add(indexName);
+				searches.add(CompletableFuture.supplyAsync(() -> restService.search(indexName, searchQuery), queryExecutor));
+			}
+		}
 
+		int randIndexCount = 1;
+		for(int i = 0; i < searches.size(); i++) {
+			String indexName = indexNames.get(i);
+			try {
+				JsonNode aggrNode = searches.get(i).join();
+				if(nodes.has(indexName)) { 
+					indexName = indexName + "_" + randIndexCount;
+					randIndexCount += 1;
+				}
+				nodes.set(indexName,aggrNode.get(Constants.JsonPaths.AGGREGATIONS));
+			}catch (Exception e) {
+				Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+				logger.error("Encountered an Exception while Executing the Query : " + cause.getMessage());
+				throw new RuntimeException(cause);
 			}
+			aggrObjectNode.set(Constants.JsonPaths.AGGREGATIONS, nodes);
 		}
 	}
 
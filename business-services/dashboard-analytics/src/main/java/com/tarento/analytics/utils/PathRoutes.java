@@ -20,6 +20,7 @@ public interface PathRoutes {
 		final String GET_HEADER_DATA = "/getDashboardHeader";
 		final String GET_FEEDBACK_MESSAGE="/getPulseFeedbackMessage";
 		final String TARGET_DISTRICT_ULB = "/targetDistrict";
+		final String FLUSH_CHART_CACHE = "/flushChartCache";
 
 	}
 	
@@ -0,0 +1,187 @@
+package org.egov.access.domain.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.egov.access.util.Utils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable, pre-compiled form of the role actions of a tenant.
+ *
+ *  - Every role is given an index, the roles allowed on a URI are kept as a bitset of those indices
+ *  - Regular URIs are looked up in a map of URI to roles
+ *  - URIs with path params are kept in a trie of path segments, a segment which is just a path param
+ *    is a wildcard node matching one word, ex: /foo/{id}/bar
+ *  - Segments mixing path params and text, ex: /foo/{id}_update, are matched against the segment regex
+ *  - URIs whose text has regex characters are matched as a whole, as done by {@link Utils#isRegexUriMatch}
+ *
+ * Authorizing a request is a map lookup and a single walk of the trie, the role actions are not
+ * merged or copied for every request.
+ */
+@Slf4j
+public final class RoleActionMatcher {
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private final Map<String, Integer> roleIndices;
+    private final Map<String, BitSet> uris;
+    private final Node root;
+    private final List<RegexUri> regexUris;
+
+    private RoleActionMatcher(Map<String, Integer> roleIndices, Map<String, BitSet> uris, Node root,
+                              List<RegexUri> regexUris) {
+        this.roleIndices = roleIndices;
+        this.uris = uris;
+        this.root = root;
+        this.regexUris = regexUris;
+    }
+
+    /**
+     * Compile the role to URIs map into a matcher
+     *
+     * @param roleActions Map of role code to URIs authorized
+     * @return matcher, safe to be shared across threads
+     */
+    public static RoleActionMatcher compile(Map<String, ActionContainer> roleActions) {
+        Map<String, Integer> roleIndices = new HashMap<>();
+        Map<String, BitSet> uris = new HashMap<>();
+        Node root = new Node();
+        Map<String, RegexUri> regexUris = new LinkedHashMap<>();
+
+        for (Map.Entry<String, ActionContainer> entry : roleActions.entrySet()) {
+            int roleIndex = roleIndices.size();
+            roleIndices.put(entry.getKey(), roleIndex);
+
+            for (String uri : entry.getValue().getUris())
+                uris.computeIfAbsent(uri, key -> new BitSet()).set(roleIndex);
+
+            for (String uri : entry.getValue().getRegexUris()) {
+                if (Utils.hasRegexCharacters(uri)) {
+                    RegexUri regexUri = regexUris.get(uri);
+                    if (regexUri == null) {
+                        try {
+                            regexUri = new RegexUri(Utils.compileRegexUri(uri));
+                        } catch (PatternSyntaxException e) {
+                            log.error("Skipping action URI which is not a valid pattern: {}", uri);
+                            continue;
+                        }
+                        regexUris.put(uri, regexUri);
+                    }
+                    regexUri.roles.set(roleIndex);
+                } else
+                    root.add(uri.split(PATH_SEPARATOR, -1), 0).roles.set(roleIndex);
+            }
+        }
+
+        return new RoleActionMatcher(Collections.unmodifiableMap(roleIndices), Collections.unmodifiableMap(uris),
+                root, Collections.unmodifiableList(new ArrayList<>(regexUris.values())));
+    }
+
+    /**
+     * Checks if any of the given roles is authorized for the URI
+     *
+     * @param roleCodes roles applicable to the request
+     * @param uri URI to be authorized
+     * @return true when authorized
+     */
+    public boolean isAuthorized(Collection<String> roleCodes, String uri) {
+        BitSet roles = new BitSet(roleIndices.size());
+        for (String roleCode : roleCodes) {
+            Integer roleIndex = roleIndices.get(roleCode);
+            if (roleIndex != null)
+                roles.set(roleIndex);
+        }
+        if (roles.isEmpty())
+            return false;
+
+        BitSet uriRoles = uris.get(uri);
+        if (uriRoles != null && uriRoles.intersects(roles))
+            return true;
+
+        if (root.matches(uri, 0, roles))
+            return true;
+
+        for (RegexUri regexUri : regexUris) {
+            if (regexUri.roles.intersects(roles) && regexUri.pattern.matcher(uri).matches())
+                return true;
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private final Map<String, SegmentPattern> patterns = new LinkedHashMap<>();
+        //Roles authorized for the URI ending at this node
+        private final BitSet roles = new BitSet();
+
+        private Node add(String[] segments, int index) {
+            if (index == segments.length)
+                return this;
+
+            String segment = segments[index];
+            Node child;
+            if (Utils.isPathParam(segment)) {
+                if (wildcard == null)
+                    wildcard = new Node();
+                child = wildcard;
+            } else if (Utils.isRegexUri(segment)) {
+                child = patterns.computeIfAbsent(segment,
+                        key -> new SegmentPattern(Utils.compileRegexUri(key), new Node())).node;
+            } else
+                child = literals.computeIfAbsent(segment, key -> new Node());
+
+            return child.add(segments, index + 1);
+        }
+
+        /**
+         * Matches the segment of the URI starting at position against the children of this node.
+         * A position past the end of the URI means all the segments have been consumed.
+         */
+        private boolean matches(String uri, int position, BitSet requestRoles) {
+            if (position > uri.length())
+                return roles.intersects(requestRoles);
+
+            int end = uri.indexOf('/', position);
+            if (end < 0)
+                end = uri.length();
+
+            if (!literals.isEmpty()) {
+                Node child = literals.get(uri.substring(position, end));
+                if (child != null && child.matches(uri, end + 1, requestRoles))
+                    return true;
+            }
+            if (wildcard != null && Utils.isWord(uri, position, end)
+                    && wildcard.matches(uri, end + 1, requestRoles))
+                return true;
+            for (SegmentPattern segmentPattern : patterns.values()) {
+                if (segmentPattern.pattern.matcher(uri).region(position, end).matches()
+                        && segmentPattern.node.matches(uri, end + 1, requestRoles))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class SegmentPattern {
+        private final Pattern pattern;
+        private final Node node;
+
+        private SegmentPattern(Pattern pattern, Node node) {
+            this.pattern = pattern;
+            this.node = node;
+        }
+    }
+
+    private static final class RegexUri {
+        private final Pattern pattern;
+        private final BitSet roles = new BitSet();
+
+        private RegexUri(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
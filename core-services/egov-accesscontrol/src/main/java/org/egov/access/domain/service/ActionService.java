@@ -4,8 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.egov.access.domain.criteria.ActionSearchCriteria;
 import org.egov.access.domain.criteria.ValidateActionCriteria;
 import org.egov.access.domain.model.Action;
-import org.egov.access.domain.model.ActionContainer;
 import org.egov.access.domain.model.ActionValidation;
+import org.egov.access.domain.model.RoleActionMatcher;
 import org.egov.access.domain.model.authorize.AuthorizationRequest;
 import org.egov.access.domain.model.authorize.Role;
 import org.egov.access.persistence.repository.ActionRepository;
@@ -15,7 +15,6 @@ import org.egov.access.persistence.repository.querybuilder.ActionFinderQueryBuil
 import org.egov.access.persistence.repository.querybuilder.ValidateActionQueryBuilder;
 import org.egov.access.persistence.repository.rowmapper.ActionRowMapper;
 import org.egov.access.persistence.repository.rowmapper.ActionValidationRowMapper;
-import org.egov.access.util.Utils;
 import org.egov.access.web.contract.action.ActionRequest;
 import org.egov.access.web.contract.action.Module;
 import org.json.JSONException;
@@ -97,23 +96,13 @@ public class ActionService {
      */
 	public boolean isAuthorized(AuthorizationRequest authorizeRequest){
 
-		Map<String, ActionContainer>  roleActions = mdmsRepository.fetchRoleActionData(getStateLevelTenant
+		RoleActionMatcher roleActionMatcher = mdmsRepository.fetchRoleActionMatcher(getStateLevelTenant
                 (authorizeRequest.getTenantIds().iterator().next()));
 
 		String uriToBeAuthorized = authorizeRequest.getUri();
 		Set<String> applicableRoles = getApplicableRoles(authorizeRequest);
-		Set<String> uris = new HashSet<>();
-		List<String> regexUris = new ArrayList<>();
 
-		for(String roleCode : applicableRoles){
-			if(roleActions.containsKey(roleCode))
-				uris.addAll(roleActions.get(roleCode).getUris());
-
-			if(roleActions.containsKey(roleCode))
-				regexUris.addAll(roleActions.get(roleCode).getRegexUris());
-		}
-
-		boolean isAuthorized = uris.contains(uriToBeAuthorized) || containsRegexUri(regexUris, uriToBeAuthorized);
+		boolean isAuthorized = roleActionMatcher.isAuthorized(applicableRoles, uriToBeAuthorized);
 
 		log.info("Request tenant ids:  " + authorizeRequest.getTenantIds());
 		log.info("Role {} has access to requested URI {} : {}", applicableRoles, uriToBeAuthorized,
@@ -137,14 +126,6 @@ public class ActionService {
 		return applicableRoles.stream().map(Role::getCode).collect(Collectors.toSet());
 	}
 
-	private boolean containsRegexUri(List<String> actionUris, String requestUri){
-	    for(String actionUri : actionUris){
-            if(Utils.isRegexUriMatch(actionUri, requestUri))
-                return true;
-        }
-        return false;
-    }
-
     private String getStateLevelTenant(String tenantId){
             return tenantId.split("\\.")[0];
     }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.egov.access.domain.model.Action;
 import org.egov.access.domain.model.ActionContainer;
 import org.egov.access.domain.model.RoleAction;
+import org.egov.access.domain.model.RoleActionMatcher;
 import org.egov.access.util.Utils;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.mdms.model.MasterDetail;
@@ -53,20 +54,21 @@ public class MdmsRepository {
 
 
     /**
-     * Returns a map of role to URIs authorized
+     * Returns the compiled map of role to URIs authorized
      *  - Ex, CITIZEN -> [/foo/bar, /foo/{}/bar]
      *  - Regular URIs will be part of regular uris
      *  - Regex patterns such as path params are handled and will be part of regex uris]
+     *  - The map is compiled into a {@link RoleActionMatcher} once, when it is fetched
      *
      *  This method is cacheable and will only run the method when the cache expiration has reached
      *   part of config
      *
      *
      * @param tenantId tenant for which role actions need to be retrieved
-     * @return Map of roles to URIs authorized
+     * @return Matcher of roles to URIs authorized
      */
     @Cacheable(value = "roleActions", sync = true)
-    public  Map<String, ActionContainer> fetchRoleActionData(String tenantId){
+    public RoleActionMatcher fetchRoleActionMatcher(String tenantId){
         List<ModuleDetail> moduleDetail = new ArrayList<ModuleDetail>();
         RequestInfo requestInfo = new RequestInfo();
 
@@ -97,7 +99,7 @@ public class MdmsRepository {
             throw new CustomException("DATA_NOT_AVAILABLE", "Data not available for this tenant");
 
 
-        return transformMdmsResponse(response);
+        return RoleActionMatcher.compile(transformMdmsResponse(response));
 
 //        Map<String, List<String>> map = Arrays.stream(roleActions)
 //                .filter( roleAction -> actionMap.containsKey(roleAction.getActionId()) )
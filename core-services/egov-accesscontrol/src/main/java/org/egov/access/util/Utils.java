@@ -1,5 +1,7 @@
 package org.egov.access.util;
 
+import java.util.regex.Pattern;
+
 public class Utils {
 
     private Utils(){}
@@ -8,6 +10,8 @@ public class Utils {
     private static final String CLOSING_BRACES = "}";
     private static final String PARAMETER_PLACEHOLDER_REGEX = "\\{\\w+\\}";
     private static final String ANY_WORD_REGEX = "\\\\w+";
+    private static final Pattern PARAMETER_PLACEHOLDER = Pattern.compile(PARAMETER_PLACEHOLDER_REGEX);
+    private static final String REGEX_CHARACTERS = "\\.[]{}()*+?^$|";
 
 
     public static boolean isRegexUri(String url) {
@@ -19,6 +23,43 @@ public class Utils {
         return requestUri.matches(getRegexUri(actionUri));
     }
 
+    public static Pattern compileRegexUri(String url) {
+        return Pattern.compile(getRegexUri(url));
+    }
+
+    /**
+     * Checks if the url, leaving out the path param placeholders, has characters with a meaning in a regex
+     */
+    public static boolean hasRegexCharacters(String url) {
+        String text = PARAMETER_PLACEHOLDER.matcher(url).replaceAll("");
+        for (int i = 0; i < text.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(text.charAt(i)) >= 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the path segment is just a path param placeholder, ex: {id}
+     */
+    public static boolean isPathParam(String segment) {
+        return PARAMETER_PLACEHOLDER.matcher(segment).matches();
+    }
+
+    /**
+     * Checks if the given region is matched by \w+
+     */
+    public static boolean isWord(String value, int start, int end) {
+        if (start >= end)
+            return false;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'))
+                return false;
+        }
+        return true;
+    }
+
     private static String getRegexUri(String url) {
         return url.replaceAll(PARAMETER_PLACEHOLDER_REGEX, ANY_WORD_REGEX);
     }
@@ -0,0 +1,96 @@
+package org.egov.access.benchmark;
+
+import org.egov.access.domain.model.ActionContainer;
+import org.egov.access.domain.model.RoleActionMatcher;
+import org.egov.access.util.Utils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the authorization of a request against the role actions of a tenant, as it was done by
+ * ActionService before the matcher (merging the role URIs and evaluating every regex URI), with
+ * {@link RoleActionMatcher}.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=org.egov.access.benchmark.AuthorizationBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+	//Number of actions given to each role
+	@Param({"100", "500"})
+	private int actionsPerRole;
+
+	private Map<String, ActionContainer> roleActions;
+	private RoleActionMatcher matcher;
+	private Set<String> roles;
+	private String[] requestUris;
+	private int next;
+
+	@Setup
+	public void setup() {
+		roleActions = new HashMap<>();
+		for (int role = 0; role < 20; role++) {
+			ActionContainer container = new ActionContainer();
+			for (int action = 0; action < actionsPerRole; action++) {
+				if (action % 5 == 0)
+					container.getRegexUris().add("/module" + action + "/v1/{id}/_update" + role);
+				else
+					container.getUris().add("/module" + action + "/v1/_search" + role);
+			}
+			roleActions.put("ROLE_" + role, container);
+		}
+		matcher = RoleActionMatcher.compile(roleActions);
+		roles = new HashSet<>(Arrays.asList("ROLE_3", "ROLE_7", "ROLE_11"));
+		requestUris = new String[] { "/module3/v1/_search7", "/module10/v1/1234/_update11", "/module10/v1/1234/_update19",
+				"/unknown/v1/_search" };
+	}
+
+	@Benchmark
+	public boolean current() {
+		return legacyIsAuthorized(roles, requestUris[next++ & 3]);
+	}
+
+	@Benchmark
+	public boolean matcher() {
+		return matcher.isAuthorized(roles, requestUris[next++ & 3]);
+	}
+
+	private boolean legacyIsAuthorized(Set<String> applicableRoles, String uriToBeAuthorized) {
+		Set<String> uris = new HashSet<>();
+		List<String> regexUris = new ArrayList<>();
+
+		for (String roleCode : applicableRoles) {
+			if (roleActions.containsKey(roleCode))
+				uris.addAll(roleActions.get(roleCode).getUris());
+
+			if (roleActions.containsKey(roleCode))
+				regexUris.addAll(roleActions.get(roleCode).getRegexUris());
+		}
+
+		if (uris.contains(uriToBeAuthorized))
+			return true;
+		for (String actionUri : regexUris) {
+			if (Utils.isRegexUriMatch(actionUri, uriToBeAuthorized))
+				return true;
+		}
+		return false;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(AuthorizationBenchmark.class.getSimpleName())
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,69 @@
+package org.egov.access.domain.model;
+
+import org.egov.access.util.Utils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RoleActionMatcherTest {
+
+	private static final List<String> ACTION_URIS = Arrays.asList("/pgr/seva/v1/_create", "/pgr/seva/v1/_search",
+			"/pt-services-v2/property/{id}/_update", "/user/users/{id}/_update", "/egov-workflow/tasks/{id}",
+			"/filestore/v1/files/{id}_download", "/report/{moduleName}/{reportName}/_get", "/foo/{id}.json",
+			"/user/users/_search/");
+
+	private static final List<String> REQUEST_URIS = Arrays.asList("/pgr/seva/v1/_create", "/pgr/seva/v1/_update",
+			"/pt-services-v2/property/123/_update", "/pt-services-v2/property/12-3/_update",
+			"/pt-services-v2/property//_update", "/user/users/abc_1/_update", "/user/users/1/2/_update",
+			"/egov-workflow/tasks/45", "/egov-workflow/tasks/45/", "/filestore/v1/files/abc_download",
+			"/filestore/v1/files/_download", "/report/pt/demand/_get", "/report/pt/_get", "/foo/1.json",
+			"/foo/1xjson", "/user/users/_search/", "/user/users/_search", "");
+
+	@Test
+	public void testMatchesSameAsRegexEvaluation() {
+		Map<String, ActionContainer> roleActions = new HashMap<>();
+		roleActions.put("EMPLOYEE", container(ACTION_URIS));
+		RoleActionMatcher matcher = RoleActionMatcher.compile(roleActions);
+
+		for (String requestUri : REQUEST_URIS) {
+			boolean expected = false;
+			for (String actionUri : ACTION_URIS) {
+				expected |= Utils.isRegexUri(actionUri) ? Utils.isRegexUriMatch(actionUri, requestUri)
+						: actionUri.equals(requestUri);
+			}
+			assertEquals(requestUri, expected, matcher.isAuthorized(Collections.singleton("EMPLOYEE"), requestUri));
+		}
+	}
+
+	@Test
+	public void testAuthorizesOnlyRolesOfTheAction() {
+		Map<String, ActionContainer> roleActions = new HashMap<>();
+		roleActions.put("CITIZEN", container(Arrays.asList("/pgr/seva/v1/_create", "/pgr/seva/{id}/_view")));
+		roleActions.put("GRO", container(Arrays.asList("/pgr/seva/v1/_update", "/pgr/seva/{id}/_assign")));
+		RoleActionMatcher matcher = RoleActionMatcher.compile(roleActions);
+
+		assertTrue(matcher.isAuthorized(Collections.singleton("CITIZEN"), "/pgr/seva/v1/_create"));
+		assertTrue(matcher.isAuthorized(Collections.singleton("CITIZEN"), "/pgr/seva/12/_view"));
+		assertFalse(matcher.isAuthorized(Collections.singleton("CITIZEN"), "/pgr/seva/12/_assign"));
+		assertFalse(matcher.isAuthorized(Collections.singleton("CITIZEN"), "/pgr/seva/v1/_update"));
+		assertTrue(matcher.isAuthorized(Arrays.asList("CITIZEN", "GRO"), "/pgr/seva/12/_assign"));
+		assertFalse(matcher.isAuthorized(Collections.singleton("UNKNOWN"), "/pgr/seva/v1/_create"));
+	}
+
+	private ActionContainer container(List<String> actionUris) {
+		ActionContainer container = new ActionContainer();
+		for (String actionUri : actionUris) {
+			if (Utils.isRegexUri(actionUri))
+				container.getRegexUris().add(actionUri);
+			else
+				container.getUris().add(actionUri);
+		}
+		return container;
+	}
+}
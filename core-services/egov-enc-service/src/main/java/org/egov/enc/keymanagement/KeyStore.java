@@ -23,6 +23,9 @@ import java.security.spec.X509EncodedKeySpec;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 
@@ -57,6 +60,12 @@ public class KeyStore implements ApplicationRunner {
     private static HashMap<String, Integer> activeSymmetricKeys;
     private static HashMap<String, Integer> activeAsymmetricKeys;
 
+    //Decoded keys indexed with keyId, so keys are not decoded again for every value
+    private static final Map<Integer, SecretKey> secretKeys = new ConcurrentHashMap<>();
+    private static final Map<Integer, byte[]> initialVectors = new ConcurrentHashMap<>();
+    private static final Map<Integer, PublicKey> publicKeys = new ConcurrentHashMap<>();
+    private static final Map<Integer, PrivateKey> privateKeys = new ConcurrentHashMap<>();
+
     @Autowired
     public KeyStore()  {
         Security.addProvider(new BouncyCastleProvider());
@@ -71,6 +80,11 @@ public class KeyStore implements ApplicationRunner {
 
         decryptAllKeys();
 
+        secretKeys.clear();
+        initialVectors.clear();
+        publicKeys.clear();
+        privateKeys.clear();
+
         symmetricKeyHashMap = new HashMap<>();
         asymmetricKeyHashMap = new HashMap<>();
 
@@ -134,6 +148,16 @@ public class KeyStore implements ApplicationRunner {
     }
 
 
+    //Get all symmetric keys, active and inactive, of given tenantId
+    public List<SymmetricKey> getSymmetricKeysForTenant(String tenantId) {
+        List<SymmetricKey> keys = new ArrayList<>();
+        for(SymmetricKey symmetricKey : symmetricKeys) {
+            if(symmetricKey.getTenantId().equalsIgnoreCase(tenantId))
+                keys.add(symmetricKey);
+        }
+        return keys;
+    }
+
     //Return type of encryption method based on key id
     public MethodEnum getTypeOfKey(Integer keyId) {
         if(symmetricKeyHashMap.containsKey(keyId)) {
@@ -149,6 +173,10 @@ public class KeyStore implements ApplicationRunner {
 
     //Generate Secret Key to be used by AES from custom object SymmetricKey
     public SecretKey getSecretKey(SymmetricKey symmetricKey) {
+        return secretKeys.computeIfAbsent(symmetricKey.getKeyId(), keyId -> decodeSecretKey(symmetricKey));
+    }
+
+    private SecretKey decodeSecretKey(SymmetricKey symmetricKey) {
         String encodedKey = symmetricKey.getSecretKey();
         byte[] decodedKey = Base64.getDecoder().decode(encodedKey);
         return new SecretKeySpec(decodedKey, "AES");
@@ -156,6 +184,15 @@ public class KeyStore implements ApplicationRunner {
 
     //Generate PublicKey to be used by RSA from custom object AsymmetricKey
     public PublicKey getPublicKey(AsymmetricKey asymmetricKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PublicKey publicKey = publicKeys.get(asymmetricKey.getKeyId());
+        if(publicKey == null) {
+            publicKey = decodePublicKey(asymmetricKey);
+            publicKeys.put(asymmetricKey.getKeyId(), publicKey);
+        }
+        return publicKey;
+    }
+
+    private PublicKey decodePublicKey(AsymmetricKey asymmetricKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
         String encodedPublicKey = asymmetricKey.getPublicKey();
         byte[] decodedPublicKey = Base64.getDecoder().decode(encodedPublicKey);
 
@@ -166,6 +203,15 @@ public class KeyStore implements ApplicationRunner {
 
     //Generate PrivateKey to be used by RSA from custom object AsymmetricKey
     public PrivateKey getPrivateKey(AsymmetricKey asymmetricKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        PrivateKey privateKey = privateKeys.get(asymmetricKey.getKeyId());
+        if(privateKey == null) {
+            privateKey = decodePrivateKey(asymmetricKey);
+            privateKeys.put(asymmetricKey.getKeyId(), privateKey);
+        }
+        return privateKey;
+    }
+
+    private PrivateKey decodePrivateKey(AsymmetricKey asymmetricKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
         String encodedPrivateKey = asymmetricKey.getPrivateKey();
         byte[] decodedPrivateKey = Base64.getDecoder().decode(encodedPrivateKey);
 
@@ -176,7 +222,8 @@ public class KeyStore implements ApplicationRunner {
 
     //Generate Initial Vecctor to be used by AES from custom object SymmetricKey
     public byte[] getInitialVector(SymmetricKey symmetricKey) {
-        return Base64.getDecoder().decode(symmetricKey.getInitialVector());
+        return initialVectors.computeIfAbsent(symmetricKey.getKeyId(),
+                keyId -> Base64.getDecoder().decode(symmetricKey.getInitialVector()));
     }
 
     //Decrypt all keys
@@ -1,12 +1,16 @@
 package org.egov.enc.services;
 
 import lombok.extern.slf4j.Slf4j;
+import org.egov.enc.config.AppProperties;
 import org.egov.enc.keymanagement.KeyGenerator;
 import org.egov.enc.keymanagement.KeyIdGenerator;
 import org.egov.enc.keymanagement.KeyStore;
 import org.egov.enc.models.AsymmetricKey;
 import org.egov.enc.models.SymmetricKey;
 import org.egov.enc.repository.KeyRepository;
+import org.egov.enc.utils.Constants;
+import org.egov.enc.web.models.DataKeyRequest;
+import org.egov.enc.web.models.DataKeyResponse;
 import org.egov.enc.web.models.RotateKeyRequest;
 import org.egov.enc.web.models.RotateKeyResponse;
 import org.egov.tracer.model.CustomException;
@@ -33,6 +37,8 @@ import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 @Slf4j
@@ -56,6 +62,11 @@ public class KeyManagementService implements ApplicationRunner {
     private KeyStore keyStore;
     @Autowired
     private KeyIdGenerator keyIdGenerator;
+    @Autowired
+    private AppProperties appProperties;
+
+    @Value("${crypto.datakey.export.enabled:false}")
+    private boolean dataKeyExportEnabled;
 
 
     //Initialize active tenant id list and Check for any new tenants
@@ -160,6 +171,36 @@ public class KeyManagementService implements ApplicationRunner {
 
 
 
+    //Returns decrypted symmetric keys for clients doing encryption in process, only if export is enabled
+    public DataKeyResponse getDataKeys(DataKeyRequest dataKeyRequest) throws Exception {
+        if(!dataKeyExportEnabled) {
+            throw new CustomException("DATA_KEY_EXPORT_DISABLED", "Export of data keys is not enabled");
+        }
+
+        Map<Integer, SymmetricKey> keys = new LinkedHashMap<>();
+        if(dataKeyRequest.getTenantIds() != null) {
+            for(String tenantId : dataKeyRequest.getTenantIds()) {
+                if(!checkIfTenantExists(tenantId)) {
+                    throw new CustomException(tenantId + Constants.TENANT_NOT_FOUND, tenantId + Constants.TENANT_NOT_FOUND);
+                }
+                for(SymmetricKey symmetricKey : keyStore.getSymmetricKeysForTenant(tenantId))
+                    keys.put(symmetricKey.getKeyId(), symmetricKey);
+            }
+        }
+        if(dataKeyRequest.getKeyIds() != null) {
+            for(Integer keyId : dataKeyRequest.getKeyIds()) {
+                if(!keyStore.checkIfKeyExists(keyId))
+                    keyStore.refreshKeys();
+                SymmetricKey symmetricKey = keyStore.getSymmetricKey(keyId);
+                if(symmetricKey != null)
+                    keys.put(symmetricKey.getKeyId(), symmetricKey);
+            }
+        }
+        log.info("Exported " + keys.size() + " data key(s)");
+
+        return new DataKeyResponse(appProperties.getTypeToMethodMap(), new ArrayList<>(keys.values()));
+    }
+
     private ArrayList<String> getTenantIds() throws JSONException {
         RestTemplate restTemplate = new RestTemplate();
 
@@ -32,14 +32,23 @@ public class AsymmetricEncryptionUtil {
         Security.addProvider(new BouncyCastleProvider());
     }
 
+    //RSA ciphers are reset by every init, so one instance is reused per thread for both modes
+    private static final ThreadLocal<Cipher> cipher = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(asymmetricEncryptionMethod);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     public static byte[] encrypt(byte[] plaintext, PublicKey publicKey) throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(asymmetricEncryptionMethod);
+        Cipher cipher = AsymmetricEncryptionUtil.cipher.get();
         cipher.init(Cipher.ENCRYPT_MODE, publicKey);
         return cipher.doFinal(plaintext);
     }
 
     public static byte[] decrypt(byte[] ciphertext, PrivateKey privateKey) throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(asymmetricEncryptionMethod);
+        Cipher cipher = AsymmetricEncryptionUtil.cipher.get();
         cipher.init(Cipher.DECRYPT_MODE, privateKey);
         return cipher.doFinal(ciphertext);
     }
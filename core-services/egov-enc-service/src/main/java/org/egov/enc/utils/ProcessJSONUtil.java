@@ -2,118 +2,244 @@ package org.egov.enc.utils;
 
 import lombok.extern.slf4j.Slf4j;
 import org.egov.enc.keymanagement.KeyStore;
+import org.egov.enc.models.AsymmetricKey;
 import org.egov.enc.models.Ciphertext;
 import org.egov.enc.models.MethodEnum;
 import org.egov.enc.models.ModeEnum;
-import org.egov.enc.models.Plaintext;
-import org.egov.enc.services.SymmetricEncryptionService;
-import org.egov.enc.services.AsymmetricEncryptionService;
+import org.egov.enc.models.SymmetricKey;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.BadPaddingException;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.security.spec.InvalidKeySpecException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.util.*;
+import java.util.concurrent.*;
 
 /*
     ProcessJSONUtil is used to navigate through a JSON Object.
     All the values will be encrypted, keys will remain as it is.
+    Keys are resolved once per request, and large arrays are split across a bounded worker pool.
 */
 
 @Slf4j
 @Component
 public class ProcessJSONUtil {
 
-    @Autowired
-    private SymmetricEncryptionService symmetricEncryptionService;
-    @Autowired
-    private AsymmetricEncryptionService asymmetricEncryptionService;
     @Autowired
     private KeyStore keyStore;
 
+    //Arrays with at least these many elements are processed in parallel
+    @Value("${crypto.bulk.parallel.threshold:500}")
+    private int parallelThreshold;
+
+    @Value("${crypto.bulk.pool.size:4}")
+    private int poolSize;
+
+    @Value("${crypto.bulk.queue.size:64}")
+    private int queueSize;
+
+    private ExecutorService executorService;
+
+    @PostConstruct
+    public void init() {
+        //When the queue is full the request thread processes the chunk itself
+        executorService = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
     //The input object may be JSON Object or a JSON Array
     public Object processJSON(Object inputObject, ModeEnum mode, MethodEnum method, String tenantId) throws Exception {
+        RequestKeys requestKeys = new RequestKeys(mode, method, tenantId);
         Object outputObject;
 
         if(inputObject instanceof Map) {
-            outputObject = processJSONMap((Map) inputObject, mode, method, tenantId);
+            outputObject = processJSONMap((Map) inputObject, requestKeys);
         } else if(inputObject instanceof List) {
-            outputObject = processJSONList((List) inputObject, mode, method, tenantId);
+            List jsonList = (List) inputObject;
+            if(jsonList.size() >= parallelThreshold && poolSize > 1)
+                outputObject = processJSONListInParallel(jsonList, requestKeys);
+            else
+                outputObject = processJSONList(jsonList, requestKeys);
         } else {
-            outputObject = processValue(inputObject, mode, method, tenantId);
+            outputObject = processValue(inputObject, requestKeys);
         }
         return outputObject;
     }
 
     //Navigate through JSON Object
-    private Map<String, Object> processJSONMap(Map jsonMap, ModeEnum mode, MethodEnum method, String tenantId) throws Exception {
+    private Map<String, Object> processJSONMap(Map jsonMap, RequestKeys requestKeys) throws Exception {
         HashMap<String, Object> outputJSONMap = new HashMap<>();
         Set<String> keySet = jsonMap.keySet();
         Iterator<String> keyNames = keySet.iterator();
         while(keyNames.hasNext()) {
             String key = keyNames.next();
-            if(jsonMap.get(key) instanceof List) {
-                outputJSONMap.put(key, processJSONList((List) jsonMap.get(key), mode, method, tenantId));
-            } else if(jsonMap.get(key) instanceof Map) {
-                outputJSONMap.put(key, processJSONMap((Map) jsonMap.get(key), mode, method, tenantId));
-            } else {
-                outputJSONMap.put(key, processValue(jsonMap.get(key), mode, method, tenantId));
-            }
+            outputJSONMap.put(key, processElement(jsonMap.get(key), requestKeys));
         }
         return outputJSONMap;
     }
 
     //Navigate through JSON Array
-    private List<Object> processJSONList(List jsonList, ModeEnum mode, MethodEnum method, String tenantId) throws Exception {
-        ArrayList<Object> outputJSONList = new ArrayList<>();
+    private List<Object> processJSONList(List jsonList, RequestKeys requestKeys) throws Exception {
+        ArrayList<Object> outputJSONList = new ArrayList<>(jsonList.size());
         for(int i = 0; i < jsonList.size(); i++) {
-            if(jsonList.get(i) instanceof List) {
-                outputJSONList.add(i, processJSONList((List) jsonList.get(i), mode, method, tenantId));
-            } else if(jsonList.get(i) instanceof Map) {
-                outputJSONList.add(i, processJSONMap((Map) jsonList.get(i), mode, method, tenantId));
-            } else {
-                outputJSONList.add(i, processValue(jsonList.get(i), mode, method, tenantId));
-            }
+            outputJSONList.add(i, processElement(jsonList.get(i), requestKeys));
         }
         return outputJSONList;
     }
 
+    //Splits the array in contiguous chunks, one per worker, preserving the order of the elements
+    private List<Object> processJSONListInParallel(List jsonList, RequestKeys requestKeys) throws Exception {
+        Object[] outputs = new Object[jsonList.size()];
+        int chunkSize = (jsonList.size() + poolSize - 1) / poolSize;
+        List<Future<?>> futures = new ArrayList<>();
+        for(int start = 0; start < jsonList.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, jsonList.size());
+            futures.add(executorService.submit(() -> {
+                for(int i = from; i < to; i++) {
+                    outputs[i] = processElement(jsonList.get(i), requestKeys);
+                }
+                return null;
+            }));
+        }
+        for(Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof Exception)
+                    throw (Exception) e.getCause();
+                throw e;
+            }
+        }
+        return new ArrayList<>(Arrays.asList(outputs));
+    }
+
+    private Object processElement(Object element, RequestKeys requestKeys) throws Exception {
+        if(element instanceof List) {
+            return processJSONList((List) element, requestKeys);
+        } else if(element instanceof Map) {
+            return processJSONMap((Map) element, requestKeys);
+        } else {
+            return processValue(element, requestKeys);
+        }
+    }
+
     //Each value in the object will be encrypted
-    private String processValue(Object value, ModeEnum mode, MethodEnum method, String tenantId) throws Exception {
+    private String processValue(Object value, RequestKeys requestKeys) throws Exception {
         if(value == null) {
             return null;
         }
-        if(mode.equals(ModeEnum.ENCRYPT)) {
-            Ciphertext ciphertext;
-            Plaintext plaintext = new Plaintext(tenantId, value.toString());
-            if(method.equals(MethodEnum.SYM)) {
-                ciphertext = symmetricEncryptionService.encrypt(plaintext);
+        if(requestKeys.mode.equals(ModeEnum.ENCRYPT)) {
+            ResolvedKey key = requestKeys.getEncryptionKey();
+            byte[] plainBytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] cipherBytes;
+            if(key.method.equals(MethodEnum.SYM)) {
+                cipherBytes = SymmetricEncryptionUtil.encrypt(plainBytes, key.secretKey, key.initialVector);
             } else {
-                ciphertext = asymmetricEncryptionService.encrypt(plaintext);
+                cipherBytes = AsymmetricEncryptionUtil.encrypt(plainBytes, key.publicKey);
             }
-            return ciphertext.toString();
+            return new Ciphertext(key.keyId, Base64.getEncoder().encodeToString(cipherBytes)).toString();
         }
         else {
-            Plaintext plaintext;
             Ciphertext ciphertext = new Ciphertext(value.toString());
-            if(!keyStore.checkIfKeyExists(ciphertext.getKeyId())) {
-                keyStore.refreshKeys();
-                if(!keyStore.checkIfKeyExists(ciphertext.getKeyId()))
-                    throw new CustomException("KEY_NOT_FOUND", "Key not found in the database");
-            }
-            method = keyStore.getTypeOfKey(ciphertext.getKeyId());
-            if(method.equals(MethodEnum.SYM)) {
-                plaintext = symmetricEncryptionService.decrypt(ciphertext);
+            ResolvedKey key = requestKeys.getDecryptionKey(ciphertext.getKeyId());
+            byte[] cipherBytes = Base64.getDecoder().decode(ciphertext.getCiphertext());
+            byte[] plainBytes;
+            if(key.method.equals(MethodEnum.SYM)) {
+                plainBytes = SymmetricEncryptionUtil.decrypt(cipherBytes, key.secretKey, key.initialVector);
             } else {
-                plaintext = asymmetricEncryptionService.decrypt(ciphertext);
+                plainBytes = AsymmetricEncryptionUtil.decrypt(cipherBytes, key.privateKey);
             }
-            return plaintext.toString();
+            return new String(plainBytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private ResolvedKey resolveEncryptionKey(MethodEnum method, String tenantId) throws Exception {
+        if(method.equals(MethodEnum.SYM)) {
+            SymmetricKey symmetricKey = keyStore.getSymmetricKey(tenantId);
+            return new ResolvedKey(symmetricKey.getKeyId(), MethodEnum.SYM, keyStore.getSecretKey(symmetricKey),
+                    keyStore.getInitialVector(symmetricKey), null, null);
+        } else {
+            AsymmetricKey asymmetricKey = keyStore.getAsymmetricKey(tenantId);
+            return new ResolvedKey(asymmetricKey.getKeyId(), MethodEnum.ASY, null, null,
+                    keyStore.getPublicKey(asymmetricKey), null);
+        }
+    }
+
+    private ResolvedKey resolveDecryptionKey(int keyId) throws Exception {
+        if(!keyStore.checkIfKeyExists(keyId)) {
+            keyStore.refreshKeys();
+            if(!keyStore.checkIfKeyExists(keyId))
+                throw new CustomException("KEY_NOT_FOUND", "Key not found in the database");
+        }
+        if(keyStore.getTypeOfKey(keyId).equals(MethodEnum.SYM)) {
+            SymmetricKey symmetricKey = keyStore.getSymmetricKey(keyId);
+            return new ResolvedKey(keyId, MethodEnum.SYM, keyStore.getSecretKey(symmetricKey),
+                    keyStore.getInitialVector(symmetricKey), null, null);
+        } else {
+            AsymmetricKey asymmetricKey = keyStore.getAsymmetricKey(keyId);
+            return new ResolvedKey(keyId, MethodEnum.ASY, null, null, null,
+                    keyStore.getPrivateKey(asymmetricKey));
+        }
+    }
+
+    //Keys used by a single request, shared by the workers processing its chunks
+    private class RequestKeys {
+        private final ModeEnum mode;
+        private final MethodEnum method;
+        private final String tenantId;
+        private volatile ResolvedKey encryptionKey;
+        private final Map<Integer, ResolvedKey> decryptionKeys = new ConcurrentHashMap<>();
+
+        private RequestKeys(ModeEnum mode, MethodEnum method, String tenantId) {
+            this.mode = mode;
+            this.method = method;
+            this.tenantId = tenantId;
+        }
+
+        private ResolvedKey getEncryptionKey() throws Exception {
+            if(encryptionKey == null)
+                encryptionKey = resolveEncryptionKey(method, tenantId);
+            return encryptionKey;
+        }
+
+        private ResolvedKey getDecryptionKey(int keyId) throws Exception {
+            ResolvedKey key = decryptionKeys.get(keyId);
+            if(key == null) {
+                key = resolveDecryptionKey(keyId);
+                decryptionKeys.put(keyId, key);
+            }
+            return key;
+        }
+    }
+
+    private static class ResolvedKey {
+        private final int keyId;
+        private final MethodEnum method;
+        private final SecretKey secretKey;
+        private final byte[] initialVector;
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+
+        private ResolvedKey(int keyId, MethodEnum method, SecretKey secretKey, byte[] initialVector,
+                            PublicKey publicKey, PrivateKey privateKey) {
+            this.keyId = keyId;
+            this.method = method;
+            this.secretKey = secretKey;
+            this.initialVector = initialVector;
+            this.publicKey = publicKey;
+            this.privateKey = privateKey;
         }
     }
 
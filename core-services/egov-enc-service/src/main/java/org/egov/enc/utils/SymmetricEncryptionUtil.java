@@ -13,6 +13,7 @@ import javax.crypto.spec.IvParameterSpec;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
 import java.security.Security;
 
 @Slf4j
@@ -31,14 +32,33 @@ public class SymmetricEncryptionUtil {
     //Initialize Security Provider to BouncyCastleProvider
     public static void init() { Security.addProvider(new BouncyCastleProvider()); }
 
+    //Provider resolved on first use, so encryption does not scan the provider list for every value
+    private static volatile Provider symmetricEncryptionProvider;
+
+    //GCM ciphers can be re-initialised with the same key and iv for decryption, so they are reused per thread
+    private static final ThreadLocal<Cipher> decryptionCipher = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(symmetricEncryptionMethod, getProvider());
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static Provider getProvider() throws NoSuchPaddingException, NoSuchAlgorithmException {
+        if(symmetricEncryptionProvider == null)
+            symmetricEncryptionProvider = Cipher.getInstance(symmetricEncryptionMethod).getProvider();
+        return symmetricEncryptionProvider;
+    }
+
+    //A new cipher is used for every encryption as the JCE refuses to re-initialise a GCM cipher with the last key and iv for encryption
     public static byte[] encrypt(byte[] plaintext, SecretKey secretKey, byte[] initialVector) throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidAlgorithmParameterException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(symmetricEncryptionMethod);
+        Cipher cipher = Cipher.getInstance(symmetricEncryptionMethod, getProvider());
         cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(128, initialVector));
         return cipher.doFinal(plaintext);
     }
 
     public static byte[] decrypt(byte[] ciphertext, SecretKey secretKey, byte[] initialVector) throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidAlgorithmParameterException, InvalidKeyException, BadPaddingException, IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(symmetricEncryptionMethod);
+        Cipher cipher = decryptionCipher.get();
         cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, initialVector));
         return cipher.doFinal(ciphertext);
     }
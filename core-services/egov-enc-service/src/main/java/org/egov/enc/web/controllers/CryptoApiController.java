@@ -70,4 +70,10 @@ public class CryptoApiController{
         return new ResponseEntity<RotateKeyResponse>(keyManagementService.rotateKey(rotateKeyRequest), HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/crypto/v1/_datakeys", method=RequestMethod.POST)
+    public ResponseEntity<DataKeyResponse> cryptoDataKeys(@Valid @RequestBody DataKeyRequest dataKeyRequest) throws
+            Exception {
+        return new ResponseEntity<DataKeyResponse>(keyManagementService.getDataKeys(dataKeyRequest), HttpStatus.OK);
+    }
+
 }
@@ -0,0 +1,23 @@
+package org.egov.enc.web.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DataKeyRequest {
+
+    //Active and inactive symmetric keys of these tenants are returned
+    @JsonProperty("tenantIds")
+    private List<String> tenantIds;
+
+    //Symmetric keys with these key ids are returned, used to resolve ciphertexts of rotated keys
+    @JsonProperty("keyIds")
+    private List<Integer> keyIds;
+
+}
@@ -0,0 +1,23 @@
+package org.egov.enc.web.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import org.egov.enc.models.SymmetricKey;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DataKeyResponse {
+
+    @JsonProperty("typeToMethodMap")
+    private Map<String, String> typeToMethodMap;
+
+    @JsonProperty("symmetricKeys")
+    private List<SymmetricKey> symmetricKeys;
+
+}
@@ -0,0 +1,115 @@
+package org.egov.enc.benchmark;
+
+import org.egov.enc.keymanagement.KeyStore;
+import org.egov.enc.models.MethodEnum;
+import org.egov.enc.models.ModeEnum;
+import org.egov.enc.models.SymmetricKey;
+import org.egov.enc.utils.ProcessJSONUtil;
+import org.egov.enc.utils.SymmetricEncryptionUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+    Throughput of the work done by /crypto/v1/_encrypt and /crypto/v1/_decrypt for a search response sized payload.
+    Keys are served from a mocked KeyStore so only the JSON walk and the crypto are measured.
+    Run with: mvn test-compile exec:java -Dexec.mainClass=org.egov.enc.benchmark.CryptoBenchmark -Dexec.classpathScope=test
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptoBenchmark {
+
+    private static final String TENANT_ID = "pb";
+    private static final int KEY_ID = 100001;
+
+    //Number of records in the payload, each record has a handful of encrypted fields like a user search response
+    @Param({"10", "1000"})
+    private int records;
+
+    private ProcessJSONUtil processJSONUtil;
+    private List<Object> plainPayload;
+    private Object encryptedPayload;
+
+    @Setup
+    public void setup() throws Exception {
+        SecureRandom random = new SecureRandom();
+        byte[] secret = new byte[32];
+        byte[] initialVector = new byte[12];
+        random.nextBytes(secret);
+        random.nextBytes(initialVector);
+
+        new SymmetricEncryptionUtil().setSymmetricEncryptionMethod("AES/GCM/NoPadding");
+
+        SymmetricKey symmetricKey = new SymmetricKey(1, KEY_ID, null, null, true, TENANT_ID);
+        KeyStore keyStore = mock(KeyStore.class);
+        when(keyStore.getSymmetricKey(anyString())).thenReturn(symmetricKey);
+        when(keyStore.getSymmetricKey(anyInt())).thenReturn(symmetricKey);
+        when(keyStore.getSecretKey(symmetricKey)).thenReturn(new SecretKeySpec(secret, "AES"));
+        when(keyStore.getInitialVector(symmetricKey)).thenReturn(initialVector);
+        when(keyStore.checkIfKeyExists(anyInt())).thenReturn(true);
+        when(keyStore.getTypeOfKey(anyInt())).thenReturn(MethodEnum.SYM);
+
+        processJSONUtil = new ProcessJSONUtil();
+        ReflectionTestUtils.setField(processJSONUtil, "keyStore", keyStore);
+        ReflectionTestUtils.setField(processJSONUtil, "parallelThreshold", 500);
+        ReflectionTestUtils.setField(processJSONUtil, "poolSize", 4);
+        ReflectionTestUtils.setField(processJSONUtil, "queueSize", 64);
+        processJSONUtil.init();
+
+        plainPayload = new ArrayList<>();
+        for(int i = 0; i < records; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("name", "Citizen " + i);
+            record.put("mobileNumber", String.valueOf(9000000000L + i));
+            record.put("emailId", "citizen" + i + "@example.com");
+            record.put("fatherOrHusbandName", "Guardian " + i);
+            record.put("permanentAddress", i + ", Sector " + (i % 50) + ", Mohali");
+            plainPayload.add(record);
+        }
+        encryptedPayload = processJSONUtil.processJSON(plainPayload, ModeEnum.ENCRYPT, MethodEnum.SYM, TENANT_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        processJSONUtil.shutdown();
+    }
+
+    @Benchmark
+    public Object encrypt() throws Exception {
+        return processJSONUtil.processJSON(plainPayload, ModeEnum.ENCRYPT, MethodEnum.SYM, TENANT_ID);
+    }
+
+    @Benchmark
+    public Object decrypt() throws Exception {
+        return processJSONUtil.processJSON(encryptedPayload, ModeEnum.DECRYPT, null, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CryptoBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
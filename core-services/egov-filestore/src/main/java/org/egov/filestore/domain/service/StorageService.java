@@ -1,16 +1,14 @@
 package org.egov.filestore.domain.service;
 
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.filestore.config.FileStoreConfig;
@@ -20,10 +18,8 @@ import org.egov.filestore.domain.model.FileLocation;
 import org.egov.filestore.domain.model.Resource;
 import org.egov.filestore.persistence.repository.ArtifactRepository;
 import org.egov.filestore.repository.CloudFilesManager;
-import org.egov.filestore.repository.impl.CloudFileMgrUtils;
 import org.egov.filestore.repository.impl.minio.MinioConfig;
 import org.egov.filestore.validator.StorageValidator;
-import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -36,7 +32,7 @@ import lombok.extern.slf4j.Slf4j;
 public class StorageService {
 
 	@Autowired
-	private CloudFileMgrUtils util;
+	private ThumbnailService thumbnailService;
 	
 	private FileStoreConfig configs;
 
@@ -86,12 +82,14 @@ public class StorageService {
 		return this.artifactRepository.save(artifacts, requestInfo);
 	}
 
+	/*
+	 * The files are not read here, validation sniffs the head of the upload and the storage streams it.
+	 * Versions of images are created in the background once the original is stored.
+	 */
 	private List<Artifact> mapFilesToArtifact(List<MultipartFile> files, String module, String tag, String tenantId) {
 
 		final String folderName = getFolderName(module, tenantId);
-		String inputStreamAsString = null;
 		List<Artifact> artifacts = new ArrayList<>();
-		Artifact artifact = null;
 		for (MultipartFile file : files) {
 			String randomString = RandomStringUtils.random(filenameLength, useLetters, useNumbers);
 			String orignalFileName = file.getOriginalFilename();
@@ -99,51 +97,14 @@ public class StorageService {
 			String fileName = folderName + System.currentTimeMillis() + randomString + "." +imagetype;
 			String id = this.idGeneratorService.getId();
 			FileLocation fileLocation = new FileLocation(id, module, tag, tenantId, fileName, null);
-			try {
-				inputStreamAsString = IOUtils.toString(file.getInputStream(), fileStoreConfig.getImageCharsetType());
-				artifact = Artifact.builder().fileContentInString(inputStreamAsString).multipartFile(file)
-						.fileLocation(fileLocation).build();
-				artifacts.add(artifact);
-
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				log.error("IO Exception while mapping files to artifact: " + e.getMessage());
-			}
+			Artifact artifact = Artifact.builder().multipartFile(file).fileLocation(fileLocation).build();
 			storageValidator.validate(artifact);
-			
-			if (fileStoreConfig.getImageFormats().contains(FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename())))
-				setThumbnailImages(artifact);
+			artifacts.add(artifact);
 		}
 
 		return artifacts;
 	}
 
-	private void setThumbnailImages(Artifact artifact) {
-		
-		String completeName = artifact.getFileLocation().getFileName();
-		int index = completeName.indexOf('/');
-		String fileNameWithPath = completeName.substring(index + 1, completeName.length());
-
-		try {
-
-			String imagetype = FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename());
-			String inputStreamAsString = artifact.getFileContentInString();
-			if (fileStoreConfig.getImageFormats().contains(imagetype)) {
-
-				InputStream ipStreamForImg = IOUtils.toInputStream(inputStreamAsString, configs.getImageCharsetType());
-				Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(ipStreamForImg,
-						fileNameWithPath);
-				artifact.setThumbnailImages(mapOfImagesAndPaths);
-			}
-
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			log.error("EG_FILESTORE_INPUT_ERROR", e);
-			throw new CustomException("EG_FILESTORE_INPUT_ERROR", "Failed to read input stream from multipart file");
-		}
-
-	}
-
 	private String getFolderName(String module, String tenantId) {
 
 		Calendar calendar = Calendar.getInstance();
@@ -158,6 +119,16 @@ public class StorageService {
 		return artifactRepository.findByTag(tag, tenantId);
 	}
 
+	/**
+	 * Depth of the queue of images waiting for their versions to be created
+	 */
+	public Map<String, Integer> getThumbnailQueueStatus() {
+		Map<String, Integer> status = new HashMap<>();
+		status.put("queueDepth", thumbnailService.getQueueDepth());
+		status.put("active", thumbnailService.getActiveCount());
+		return status;
+	}
+
 	public Map<String, String> getUrls(String tenantId, List<String> fileStoreIds) {
 		Map<String, String> urlMap = getUrlMap(
 				artifactRepository.getByTenantIdAndFileStoreIdList(tenantId, fileStoreIds));
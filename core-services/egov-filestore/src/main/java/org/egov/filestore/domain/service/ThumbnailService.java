@@ -0,0 +1,104 @@
+package org.egov.filestore.domain.service;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the small, medium and large versions of uploaded images in the background.
+ *
+ * The original is read back from the storage once it has been uploaded, so the upload request does not hold
+ * the image in memory. The queue is bounded, when it is full the request thread creates the versions itself
+ * which slows down uploads instead of piling up decoded images.
+ */
+@Service
+@Slf4j
+public class ThumbnailService {
+
+	@Autowired
+	private CloudFileMgrUtils util;
+
+	@Value("${image.thumbnail.pool.size:2}")
+	private Integer poolSize;
+
+	@Value("${image.thumbnail.queue.capacity:100}")
+	private Integer queueCapacity;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	public void init() {
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Queues the creation of the versions of an image
+	 *
+	 * @param fileNameWithPath path of the original image, the versions are stored next to it
+	 * @param source opens the original image from the storage
+	 * @param writer stores a version of the image
+	 */
+	public void submit(String fileNameWithPath, ImageSource source, VersionWriter writer) {
+		executor.execute(() -> createVersions(fileNameWithPath, source, writer));
+	}
+
+	/**
+	 * Images waiting for their versions to be created
+	 *
+	 * @return
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Images whose versions are being created
+	 *
+	 * @return
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	private void createVersions(String fileNameWithPath, ImageSource source, VersionWriter writer) {
+		try (InputStream inputStream = source.open()) {
+			Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(inputStream, fileNameWithPath);
+			for (Map.Entry<String, BufferedImage> entry : mapOfImagesAndPaths.entrySet()) {
+				writer.write(entry.getKey(), entry.getValue());
+				entry.getValue().flush();
+			}
+		} catch (Exception e) {
+			log.error("Error while creating the versions of the image " + fileNameWithPath + ": ", e);
+		}
+	}
+
+	@FunctionalInterface
+	public interface ImageSource {
+		InputStream open() throws Exception;
+	}
+
+	@FunctionalInterface
+	public interface VersionWriter {
+		void write(String fileNameWithPath, BufferedImage image) throws Exception;
+	}
+
+}
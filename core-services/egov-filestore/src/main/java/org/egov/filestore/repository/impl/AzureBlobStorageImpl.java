@@ -14,6 +14,7 @@ import javax.imageio.ImageIO;
 
 import org.apache.commons.io.FilenameUtils;
 import org.egov.filestore.domain.model.Artifact;
+import org.egov.filestore.domain.service.ThumbnailService;
 import org.egov.filestore.repository.AzureClientFacade;
 import org.egov.filestore.repository.CloudFilesManager;
 import org.egov.tracer.model.CustomException;
@@ -44,6 +45,9 @@ public class AzureBlobStorageImpl implements CloudFilesManager {
 	
 	@Autowired
 	private CloudFileMgrUtils util;
+
+	@Autowired
+	private ThumbnailService thumbnailService;
 	
 	@Value("${is.container.fixed}")
 	private Boolean isContainerFixed;
@@ -93,17 +97,18 @@ public class AzureBlobStorageImpl implements CloudFilesManager {
 				container.createIfNotExists(BlobContainerPublicAccessType.CONTAINER, new BlobRequestOptions(), new OperationContext());
 				
 				Long contentLength = artifact.getMultipartFile().getSize();
-				BufferedInputStream inputStream = new BufferedInputStream(artifact.getMultipartFile().getInputStream());
+				try (BufferedInputStream inputStream = new BufferedInputStream(artifact.getMultipartFile().getInputStream())) {
+					upload(container, fileNameWithPath, inputStream, contentLength, null, null);
+				}
 				
+				// versions are created in the background from the uploaded blob
 				if(artifact.getMultipartFile().getContentType().startsWith("image/")) {
 					String extension = FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename());
-					Map<String, BufferedImage> mapOfImagesAndPaths = util.createVersionsOfImage(inputStream, fileNameWithPath);
-					for(String key: mapOfImagesAndPaths.keySet()) {
-						upload(container, key, null, null, mapOfImagesAndPaths.get(key), extension);
-						mapOfImagesAndPaths.get(key).flush();
-					}
+					CloudBlobContainer imageContainer = container;
+					thumbnailService.submit(fileNameWithPath,
+							() -> imageContainer.getBlockBlobReference(fileNameWithPath).openInputStream(),
+							(path, image) -> upload(imageContainer, path, null, null, image, extension));
 				}
-				upload(container, fileNameWithPath, inputStream, contentLength, null, null);
 				
 				for (ListBlobItem blobItem : container.listBlobs())
 					log.info("URI of blob is: " + blobItem.getStorageUri().getPrimaryUri());
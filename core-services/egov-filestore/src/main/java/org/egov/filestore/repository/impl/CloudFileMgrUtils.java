@@ -83,9 +83,12 @@ public class CloudFileMgrUtils {
 		} catch (Exception e) {
 			log.error("Error while creating different versions of the image: ", e);
 		} finally {
-			largeImage.flush();
-			mediumImg.flush();
-			smallImg.flush();
+			if (null != largeImage)
+				largeImage.flush();
+			if (null != mediumImg)
+				mediumImg.flush();
+			if (null != smallImg)
+				smallImg.flush();
 		}
 
 		return mapOfImagesAndPaths;
@@ -20,6 +20,7 @@ import javax.imageio.ImageIO;
 import org.apache.commons.io.FilenameUtils;
 import org.egov.filestore.config.FileStoreConfig;
 import org.egov.filestore.domain.model.FileLocation;
+import org.egov.filestore.domain.service.ThumbnailService;
 import org.egov.filestore.persistence.entity.Artifact;
 import org.egov.filestore.repository.CloudFilesManager;
 import org.egov.filestore.repository.impl.CloudFileMgrUtils;
@@ -62,6 +63,9 @@ public class MinioRepository implements CloudFilesManager {
 	@Autowired
 	private FileStoreConfig fileStoreConfig;
 
+	@Autowired
+	private ThumbnailService thumbnailService;
+
 	@Override
 	public void saveFiles(List<org.egov.filestore.domain.model.Artifact> artifacts) {
 
@@ -73,8 +77,8 @@ public class MinioRepository implements CloudFilesManager {
 			String fileNameWithPath = completeName.substring(index + 1, completeName.length());
 			push(artifact.getMultipartFile(), fileNameWithPath);
 
-			if (artifact.getThumbnailImages() != null && !artifact.getThumbnailImages().isEmpty())
-				pushThumbnailImages(artifact);
+			if (util.isFileAnImage(fileNameWithPath))
+				submitThumbnailImages(artifact.getMultipartFile(), fileNameWithPath);
 
 			fileLocation.setFileSource(minioConfig.getSource());
 			persistList.add(mapToEntity(artifact));
@@ -85,8 +89,7 @@ public class MinioRepository implements CloudFilesManager {
 	
 
 	private void push(MultipartFile multipartFile, String fileNameWithPath) {
-		try {
-			InputStream is = multipartFile.getInputStream();
+		try (InputStream is = multipartFile.getInputStream()) {
 			long contentLength = multipartFile.getSize();
 			PutObjectOptions putObjectOptions = new PutObjectOptions(contentLength, PutObjectOptions.MAX_PART_SIZE);
 			putObjectOptions.setContentType(multipartFile.getContentType());
@@ -115,19 +118,28 @@ public class MinioRepository implements CloudFilesManager {
 
 	}
 
-	private void pushThumbnailImages(org.egov.filestore.domain.model.Artifact artifact) {
+	/*
+	 * The versions are created from the stored original, the multipart file is gone once the request returns
+	 */
+	private void submitThumbnailImages(MultipartFile multipartFile, String fileNameWithPath) {
+
+		String extension = FilenameUtils.getExtension(multipartFile.getOriginalFilename());
+		String contentType = multipartFile.getContentType();
+		thumbnailService.submit(fileNameWithPath,
+				() -> minioClient.getObject(minioConfig.getBucketName(), fileNameWithPath),
+				(path, image) -> pushThumbnailImage(path, image, extension, contentType));
+	}
+
+	private void pushThumbnailImage(String fileNameWithPath, BufferedImage image, String extension, String contentType) {
 
 		try {
 
-			for (Map.Entry<String, BufferedImage> entry : artifact.getThumbnailImages().entrySet()) {
-				ByteArrayOutputStream os = new ByteArrayOutputStream();
-				ImageIO.write(entry.getValue(),
-						FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename()), os);
-				byte[] byteArray = os.toByteArray();
-				ByteArrayInputStream is = new ByteArrayInputStream(byteArray);
-				push(is, byteArray.length, artifact.getMultipartFile().getContentType(), entry.getKey());
-				os.flush();
-			}
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			ImageIO.write(image, extension, os);
+			byte[] byteArray = os.toByteArray();
+			ByteArrayInputStream is = new ByteArrayInputStream(byteArray);
+			push(is, byteArray.length, contentType, fileNameWithPath);
+			os.flush();
 
 		} catch (Exception ioe) {
 
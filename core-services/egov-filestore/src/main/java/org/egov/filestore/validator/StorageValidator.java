@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.tika.Tika;
 import org.egov.filestore.config.FileStoreConfig;
 import org.egov.filestore.domain.model.Artifact;
@@ -30,7 +29,7 @@ public class StorageValidator {
 			
 		String extension = (FilenameUtils.getExtension(artifact.getMultipartFile().getOriginalFilename())).toLowerCase();
 		validateFileExtention(extension);
-		validateContentType(artifact.getFileContentInString(), extension);
+		validateContentType(artifact.getMultipartFile(), extension);
 		validateInputContentType(artifact);
 	}
 	
@@ -40,15 +39,15 @@ public class StorageValidator {
 		}
 	}
 	
-	private void validateContentType(String inputStreamAsString, String extension) {
+	/*
+	 * Tika only reads the head of the stream to detect the format, the upload is not read fully
+	 */
+	private void validateContentType(MultipartFile file, String extension) {
 		
 		String inputFormat = null;
 		Tika tika = new Tika();
-		try {
-			
-			InputStream ipStreamForValidation = IOUtils.toInputStream(inputStreamAsString, fileStoreConfig.getImageCharsetType());
+		try (InputStream ipStreamForValidation = file.getInputStream()) {
 			inputFormat = tika.detect(ipStreamForValidation);
-			ipStreamForValidation.close();
 		} catch (IOException e) {
 			throw new CustomException("EG_FILESTORE_PARSING_ERROR","not able to parse the input please upload a proper file of allowed type : " + e.getMessage());
 		}
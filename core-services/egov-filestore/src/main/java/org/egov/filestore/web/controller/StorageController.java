@@ -135,5 +135,11 @@ public class StorageController {
 		
 		return new ResponseEntity<>(responseMap, HttpStatus.OK);
 	}
+
+	@GetMapping(value = "/thumbnails/queue", produces = APPLICATION_JSON_UTF8_VALUE)
+	@ResponseBody
+	public ResponseEntity<Map<String, Integer>> getThumbnailQueueStatus() {
+		return new ResponseEntity<>(storageService.getThumbnailQueueStatus(), HttpStatus.OK);
+	}
 	
 }
@@ -0,0 +1,145 @@
+package org.egov.filestore.domain.service;
+
+import org.egov.filestore.config.FileStoreConfig;
+import org.egov.filestore.repository.impl.CloudFileMgrUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThumbnailServiceTest {
+
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        FileStoreConfig fileStoreConfig = mock(FileStoreConfig.class);
+        when(fileStoreConfig.getSmallWidth()).thenReturn(50);
+        when(fileStoreConfig.getMediumWidth()).thenReturn(100);
+        when(fileStoreConfig.getLargeWidth()).thenReturn(200);
+        when(fileStoreConfig.get_small()).thenReturn("_small");
+        when(fileStoreConfig.get_medium()).thenReturn("_medium");
+        when(fileStoreConfig.get_large()).thenReturn("_large");
+        CloudFileMgrUtils util = new CloudFileMgrUtils();
+        ReflectionTestUtils.setField(util, "fileStoreConfig", fileStoreConfig);
+
+        thumbnailService = new ThumbnailService();
+        ReflectionTestUtils.setField(thumbnailService, "util", util);
+        ReflectionTestUtils.setField(thumbnailService, "poolSize", 1);
+        ReflectionTestUtils.setField(thumbnailService, "queueCapacity", 1);
+        thumbnailService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailService.destroy();
+    }
+
+    @Test
+    void testSubmitCreatesResizedVersions() throws Exception {
+        byte[] image = png(400, 200);
+        Map<String, BufferedImage> versions = new ConcurrentHashMap<>();
+        CountDownLatch written = new CountDownLatch(3);
+
+        thumbnailService.submit("pb/rainmaker/photo.png", () -> new ByteArrayInputStream(image),
+                (fileNameWithPath, version) -> {
+                    versions.put(fileNameWithPath, version);
+                    written.countDown();
+                });
+
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        assertEquals(50, versions.get("pb/rainmaker/photo_small.png").getWidth());
+        assertEquals(25, versions.get("pb/rainmaker/photo_small.png").getHeight());
+        assertEquals(100, versions.get("pb/rainmaker/photo_medium.png").getWidth());
+        assertEquals(200, versions.get("pb/rainmaker/photo_large.png").getWidth());
+    }
+
+    @Test
+    void testSubmitRunsOnCallerWhenQueueIsFull() throws Exception {
+        byte[] image = png(400, 200);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(3);
+        List<String> writerThreads = new CopyOnWriteArrayList<>();
+
+        thumbnailService.submit("blocking.png", () -> {
+            started.countDown();
+            release.await();
+            return new ByteArrayInputStream(image);
+        }, (fileNameWithPath, version) -> finished.countDown());
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        thumbnailService.submit("queued.png", () -> new ByteArrayInputStream(image),
+                (fileNameWithPath, version) -> {});
+        assertEquals(1, thumbnailService.getQueueDepth());
+        assertEquals(1, thumbnailService.getActiveCount());
+
+        thumbnailService.submit("caller.png", () -> new ByteArrayInputStream(image),
+                (fileNameWithPath, version) -> writerThreads.add(Thread.currentThread().getName()));
+
+        assertEquals(3, writerThreads.size());
+        assertTrue(writerThreads.stream().allMatch(Thread.currentThread().getName()::equals));
+
+        release.countDown();
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testUnreadableImageWritesNoVersions() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        thumbnailService.submit("notes.png",
+                () -> new ByteArrayInputStream("not an image".getBytes(StandardCharsets.UTF_8)),
+                (fileNameWithPath, version) -> written.add(fileNameWithPath));
+        thumbnailService.submit("marker.png", () -> {
+            done.countDown();
+            throw new IOException("marker");
+        }, (fileNameWithPath, version) -> {});
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void testFailureDoesNotStopLaterImages() throws Exception {
+        byte[] image = png(400, 200);
+        CountDownLatch written = new CountDownLatch(3);
+
+        thumbnailService.submit("missing.png", () -> {
+            throw new IOException("Object does not exist");
+        }, (fileNameWithPath, version) -> fail("No version expected for a missing image"));
+        thumbnailService.submit("failing-writer.png", () -> new ByteArrayInputStream(image),
+                (fileNameWithPath, version) -> {
+                    throw new IOException("Storage unavailable");
+                });
+        thumbnailService.submit("photo.png", () -> new ByteArrayInputStream(image),
+                (fileNameWithPath, version) -> written.countDown());
+
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+}
@@ -7,7 +7,6 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
-import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -31,7 +30,7 @@ class MinioRepositoryTest {
         FileLocation fileLocation1 = new FileLocation("42", "Module", "Tag", "42", "foo.txt", "File Source");
 
         org.egov.filestore.domain.model.Artifact artifact = new org.egov.filestore.domain.model.Artifact(
-                "Not all who wander are lost", multipartFile, fileLocation1, new HashMap<>(), "Jan 1, 2020 8:00am GMT+0100",
+                multipartFile, fileLocation1, "Jan 1, 2020 8:00am GMT+0100",
                 "Jan 1, 2020 9:00am GMT+0100", 4L, 4L);
         artifact.setFileLocation(fileLocation);
 
@@ -4,7 +4,9 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.egov.filestore.domain.model.FileInfo;
 import org.egov.filestore.domain.model.Resource;
@@ -123,5 +125,17 @@ class StorageControllerTest {
                 .perform(requestBuilder);
         actualPerformResult.andExpect(MockMvcResultMatchers.status().is(405));
     }
-}
 
+    @Test
+    void testGetThumbnailQueueStatus() throws Exception {
+        Map<String, Integer> status = new HashMap<>();
+        status.put("queueDepth", 3);
+        when(storageService.getThumbnailQueueStatus()).thenReturn(status);
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.get("/v1/files/thumbnails/queue");
+        MockMvcBuilders.standaloneSetup(storageController)
+                .build()
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("{\"queueDepth\":3}"));
+    }
+}
@@ -2,6 +2,9 @@ package org.egov.id.service;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -61,9 +64,33 @@ public class IdGenerationService {
     public boolean autoCreateNewSeq;
 
 
+    //Lease blocks of sequence values and serve ids from memory, ids can have gaps when enabled
+    @Value("${idgen.sequence.lease.enabled:false}")
+    public boolean sequenceLeaseEnabled;
+
+    @Value("${idgen.sequence.lease.block.size:100}")
+    public int sequenceBlockSize = 100;
+
+    @Value("${idgen.idformat.cache.ttl.seconds:300}")
+    public long idFormatCacheTtlSeconds = 300;
+
     //default count value
     public Integer defaultCount = 1;
 
+    private static final Pattern ATTRIBUTE_PATTERN = Pattern.compile("\\[(.*?)\\]");
+
+    private static final int MAX_COMPILED_FORMATS = 10000;
+
+    private final Map<String, CachedValue> idFormatCache = new ConcurrentHashMap<>();
+
+    private final Map<String, CachedValue> cityCodeCache = new ConcurrentHashMap<>();
+
+    private final Map<String, CompiledIdFormat> compiledFormats = new ConcurrentHashMap<>();
+
+    private final Map<String, SequenceBlock> sequenceBlocks = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> sequenceLocks = new ConcurrentHashMap<>();
+
 
     /**
      * Description : This method to generate idGenerationResponse
@@ -143,6 +170,11 @@ public class IdGenerationService {
      */
     private String getIdFormatFinal(IdRequest idRequest, RequestInfo requestInfo) throws Exception {
 
+        String formatKey = idRequest.getTenantId() + "|" + idRequest.getIdName();
+        CachedValue cachedFormat = idFormatCache.get(formatKey);
+        if (cachedFormat != null && !cachedFormat.isExpired())
+            return cachedFormat.value;
+
         String idFormat = null;
         try{
             if (idFormatFromMDMS == true) {
@@ -150,6 +182,8 @@ public class IdGenerationService {
             } else {
                 idFormat = getIdFormatfromDB(idRequest, requestInfo); //from DB
             }
+            if (!StringUtils.isEmpty(idFormat))
+                idFormatCache.put(formatKey, new CachedValue(idFormat, idFormatCacheTtlSeconds));
         }catch(Exception ex){
             if(StringUtils.isEmpty(idFormat)){
                 throw new CustomException("ID_NOT_FOUND",
@@ -221,47 +255,46 @@ public class IdGenerationService {
             }
         }
 
-        List<String> matchList = new ArrayList<String>();
-
-        Pattern regExpPattern = Pattern.compile("\\[(.*?)\\]");
-        Matcher regExpMatcher = regExpPattern.matcher(idFormat);
+        CompiledIdFormat compiledFormat = compiledFormats.get(idFormat);
+        if (compiledFormat == null) {
+            compiledFormat = CompiledIdFormat.compile(idFormat);
+            if (compiledFormats.size() < MAX_COMPILED_FORMATS)
+                compiledFormats.put(idFormat, compiledFormat);
+        }
 
         Integer count = getCount(idRequest);
 
-        while (regExpMatcher.find()) {// Finds Matching Pattern in String
-            matchList.add(regExpMatcher.group(1));// Fetching Group from String
+        // values that do not change across the ids of a request are resolved once
+        String[] requestValues = new String[compiledFormat.attributes.length];
+        List<List<String>> sequences = new ArrayList<>(compiledFormat.attributes.length);
+
+        for (int a = 0; a < compiledFormat.attributes.length; a++) {
+            String attributeName = compiledFormat.attributes[a];
+            List<String> sequence = null;
+
+            if (startsWithIgnoreCase(attributeName, "seq")) {
+                sequence = generateSequenceNumber(attributeName, requestInfo, idRequest, autoCreateNewSeqFlag);
+            } else if (startsWithIgnoreCase(attributeName, "fy")) {
+                requestValues[a] = generateFinancialYearDateFormat(attributeName, requestInfo);
+            } else if (startsWithIgnoreCase(attributeName, "cy")) {
+                requestValues[a] = generateCurrentYearDateFormat(attributeName, requestInfo);
+            } else if (startsWithIgnoreCase(attributeName, "city")) {
+                requestValues[a] = getCityCode(requestInfo, idRequest);
+            }
+            sequences.add(sequence);
         }
 
-        HashMap<String, List<String>> sequences = new HashMap<>();
-        String idFormatTemplate = idFormat;
-        String cityName = null;
-
+        String[] values = new String[compiledFormat.attributes.length];
         for (int i = 0; i < count; i++) {
-            idFormat = idFormatTemplate;
-
-            for (String attributeName : matchList) {
-
-                if (attributeName.substring(0, 3).equalsIgnoreCase("seq")) {
-                    if (!sequences.containsKey(attributeName)) {
-                        sequences.put(attributeName, generateSequenceNumber(attributeName, requestInfo, idRequest,autoCreateNewSeqFlag));
-                    }
-					idFormat = idFormat.replace("[" + attributeName + "]", sequences.get(attributeName).get(i));
-                } else if (attributeName.substring(0, 2).equalsIgnoreCase("fy")) {
-                    idFormat = idFormat.replace("[" + attributeName + "]",
-                            generateFinancialYearDateFormat(attributeName, requestInfo));
-                } else if (attributeName.substring(0, 2).equalsIgnoreCase("cy")) {
-                    idFormat = idFormat.replace("[" + attributeName + "]",
-                            generateCurrentYearDateFormat(attributeName, requestInfo));
-                } else if (attributeName.substring(0, 4).equalsIgnoreCase("city")) {
-                    if (cityName == null) {
-                        cityName = mdmsService.getCity(requestInfo, idRequest);
-                    }
-                    idFormat = idFormat.replace("[" + attributeName + "]", cityName);
-                } else {
-                    idFormat = idFormat.replace("[" + attributeName + "]", generateRandomText(attributeName, requestInfo));
-                }
+            for (int a = 0; a < values.length; a++) {
+                if (sequences.get(a) != null)
+                    values[a] = sequences.get(a).get(i);
+                else if (requestValues[a] != null)
+                    values[a] = requestValues[a];
+                else
+                    values[a] = generateRandomText(compiledFormat.attributes[a], requestInfo);
             }
-            idFormatList.add(idFormat);
+            idFormatList.add(compiledFormat.format(values));
         }
 
         return idFormatList;
@@ -420,8 +453,67 @@ public class IdGenerationService {
      */
     private List<String> generateSequenceNumber(String sequenceName, RequestInfo requestInfo, IdRequest idRequest,boolean autoCreateNewSeqFlag) throws Exception {
         Integer count = getCount(idRequest);
+        List<String> sequenceLists = new ArrayList<>(count);
+
+        if (sequenceLeaseEnabled && count <= sequenceBlockSize) {
+            SequenceBlock block = leaseSequenceBlock(sequenceName, count, autoCreateNewSeqFlag);
+            int start = block.reservedStart;
+            for (int i = 0; i < count; i++)
+                sequenceLists.add(String.format("%06d", block.get(start + i)));
+            return sequenceLists;
+        }
+
+        for (String seqId : fetchSequenceNumbers(sequenceName, count, autoCreateNewSeqFlag)) {
+            String seqNumber = String.format("%06d", Long.parseLong(seqId));
+            sequenceLists.add(seqNumber);
+        }
+        return sequenceLists;
+    }
+
+    /**
+     * Description : Reserves count values from the in memory block leased for the
+     * sequence, leasing a new block of sequenceBlockSize values from the DB when the
+     * current one cannot serve the request. Values left in a replaced block and in
+     * blocks held by a pod that restarts are never used, so ids can have gaps.
+     *
+     * @param sequenceName
+     * @param count
+     * @param autoCreateNewSeqFlag
+     * @return block holding the reserved values, starting at reservedStart
+     */
+    private SequenceBlock leaseSequenceBlock(String sequenceName, int count, boolean autoCreateNewSeqFlag) throws Exception {
+        SequenceBlock block = sequenceBlocks.get(sequenceName);
+        if (block != null) {
+            int start = block.reserve(count);
+            if (start >= 0)
+                return block.withReservedStart(start);
+        }
+
+        synchronized (sequenceLocks.computeIfAbsent(sequenceName, name -> new Object())) {
+            block = sequenceBlocks.get(sequenceName);
+            if (block != null) {
+                int start = block.reserve(count);
+                if (start >= 0)
+                    return block.withReservedStart(start);
+            }
+            block = new SequenceBlock(fetchSequenceNumbers(sequenceName, sequenceBlockSize, autoCreateNewSeqFlag));
+            int start = block.reserve(count);
+            sequenceBlocks.put(sequenceName, block);
+            log.info("Leased a block of {} values for sequence {}", sequenceBlockSize, sequenceName);
+            return block.withReservedStart(start);
+        }
+    }
+
+    /**
+     * Description : This method fetches a block of sequence numbers from the DB
+     *
+     * @param sequenceName
+     * @param count
+     * @param autoCreateNewSeqFlag
+     * @return seqNumbers
+     */
+    private List<String> fetchSequenceNumbers(String sequenceName, Integer count, boolean autoCreateNewSeqFlag) throws Exception {
         List<String> sequenceList = new LinkedList<>();
-        List<String> sequenceLists = new LinkedList<>();
         // To generate a block of seq numbers
 
         String sequenceSql = "SELECT NEXTVAL ('" + sequenceName + "') FROM GENERATE_SERIES(1,?)";
@@ -446,11 +538,137 @@ public class IdGenerationService {
             log.error("Error retrieving seq number from DB",ex);
             throw new CustomException("SEQ_NUMBER_ERROR","Error retrieving seq number from existing seq in DB");
         }
-        for (String seqId : sequenceList) {
-            String seqNumber = String.format("%06d", Integer.parseInt(seqId)).toString();
-            sequenceLists.add(seqNumber.toString());
+        return sequenceList;
+    }
+
+    /**
+     * Description : Returns the city code of the tenant, cached for the format cache ttl
+     *
+     * @param requestInfo
+     * @param idRequest
+     * @return cityCode
+     */
+    private String getCityCode(RequestInfo requestInfo, IdRequest idRequest) {
+        CachedValue cachedCity = cityCodeCache.get(idRequest.getTenantId());
+        if (cachedCity != null && !cachedCity.isExpired())
+            return cachedCity.value;
+
+        String cityCode = mdmsService.getCity(requestInfo, idRequest);
+        cityCodeCache.put(idRequest.getTenantId(), new CachedValue(cityCode, idFormatCacheTtlSeconds));
+        return cityCode;
+    }
+
+    private static boolean startsWithIgnoreCase(String attributeName, String prefix) {
+        return attributeName.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long ttlSeconds) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    /**
+     * Id format split into literals and [attribute] placeholders, so ids are built by
+     * appending parts instead of a regex scan and String.replace per attribute per id.
+     * An attribute used more than once in a format gets the same value at every place.
+     */
+    static final class CompiledIdFormat {
+        private final String[] literals;
+        private final int[] slots;
+        private final String[] attributes;
+
+        private CompiledIdFormat(String[] literals, int[] slots, String[] attributes) {
+            this.literals = literals;
+            this.slots = slots;
+            this.attributes = attributes;
+        }
+
+        static CompiledIdFormat compile(String idFormat) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> slots = new ArrayList<>();
+            List<String> attributes = new ArrayList<>();
+
+            Matcher regExpMatcher = ATTRIBUTE_PATTERN.matcher(idFormat);
+            int last = 0;
+            while (regExpMatcher.find()) {
+                literals.add(idFormat.substring(last, regExpMatcher.start()));
+                String attributeName = regExpMatcher.group(1);
+                int slot = attributes.indexOf(attributeName);
+                if (slot < 0) {
+                    slot = attributes.size();
+                    attributes.add(attributeName);
+                }
+                slots.add(slot);
+                last = regExpMatcher.end();
+            }
+            literals.add(idFormat.substring(last));
+
+            int[] slotArray = new int[slots.size()];
+            for (int i = 0; i < slotArray.length; i++)
+                slotArray[i] = slots.get(i);
+            return new CompiledIdFormat(literals.toArray(new String[0]), slotArray, attributes.toArray(new String[0]));
+        }
+
+        String format(String[] values) {
+            StringBuilder id = new StringBuilder();
+            for (int i = 0; i < slots.length; i++)
+                id.append(literals[i]).append(values[slots[i]]);
+            return id.append(literals[slots.length]).toString();
+        }
+    }
+
+    /**
+     * Block of sequence values leased from the DB, handed out through a lock free cursor
+     */
+    static final class SequenceBlock {
+        private final long[] values;
+        private final AtomicInteger cursor;
+        private final int reservedStart;
+
+        SequenceBlock(List<String> sequenceList) {
+            this.values = new long[sequenceList.size()];
+            int i = 0;
+            for (String seqId : sequenceList)
+                values[i++] = Long.parseLong(seqId);
+            this.cursor = new AtomicInteger();
+            this.reservedStart = -1;
+        }
+
+        private SequenceBlock(SequenceBlock block, int reservedStart) {
+            this.values = block.values;
+            this.cursor = block.cursor;
+            this.reservedStart = reservedStart;
+        }
+
+        /**
+         * @return index of the first of count reserved values, -1 if the block cannot serve them
+         */
+        int reserve(int count) {
+            while (true) {
+                int current = cursor.get();
+                if (current + count > values.length)
+                    return -1;
+                if (cursor.compareAndSet(current, current + count))
+                    return current;
+            }
+        }
+
+        SequenceBlock withReservedStart(int start) {
+            return new SequenceBlock(this, start);
+        }
+
+        long get(int index) {
+            return values[index];
         }
-        return sequenceLists;
     }
 
 }
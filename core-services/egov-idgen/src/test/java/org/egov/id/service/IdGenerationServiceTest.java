@@ -13,8 +13,10 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -160,5 +162,23 @@ class IdGenerationServiceTest {
         verify(idGenerationRequest).setIdRequests((List<IdRequest>) any());
     }
 
-}
+    @Test
+    void testCompiledIdFormatReusesValueOfRepeatedAttribute() {
+        IdGenerationService.CompiledIdFormat compiledFormat = IdGenerationService.CompiledIdFormat
+                .compile("PB-[cy:yyyy]-[SEQ_EG_PT]-[cy:yyyy]");
+
+        assertEquals("PB-2024-000042-2024", compiledFormat.format(new String[]{"2024", "000042"}));
+    }
 
+    @Test
+    void testSequenceBlockReservesUntilExhausted() {
+        IdGenerationService.SequenceBlock block = new IdGenerationService.SequenceBlock(Arrays.asList("7", "8", "9"));
+
+        assertEquals(0, block.reserve(2));
+        assertEquals(7L, block.get(0));
+        assertEquals(-1, block.reserve(2));
+        assertEquals(2, block.reserve(1));
+        assertEquals(9L, block.get(2));
+    }
+
+}
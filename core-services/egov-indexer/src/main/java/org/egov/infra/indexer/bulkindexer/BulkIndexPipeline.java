@@ -0,0 +1,385 @@
+package org.egov.infra.indexer.bulkindexer;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLException;
+
+import org.egov.infra.indexer.producer.IndexerProducer;
+import org.egov.infra.indexer.util.IndexerUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Buffers bulk index actions across kafka messages and flushes them to the
+ * _bulk API of ES when a buffer reaches the configured number of actions, size
+ * in bytes or linger time. Several bulk requests are kept in flight over a
+ * pooled non-blocking client, and only the items ES reports as failed are
+ * retried or pushed to the dead letter topic.
+ *
+ * Buffered actions live in memory until flushed, so this is meant for topics
+ * where a replay is cheap (reindex, DSS) and is disabled by default.
+ */
+@Service
+@Slf4j
+public class BulkIndexPipeline {
+
+	private static final String FILTER_PATH = "filter_path=errors,items.*.status,items.*.error";
+
+	@Value("${egov.indexer.bulk.pipeline.enabled:false}")
+	private Boolean enabled;
+
+	@Value("${egov.indexer.bulk.pipeline.max.actions:1000}")
+	private int maxActions;
+
+	@Value("${egov.indexer.bulk.pipeline.max.bytes:5242880}")
+	private long maxBytes;
+
+	@Value("${egov.indexer.bulk.pipeline.linger.ms:1000}")
+	private long lingerMs;
+
+	@Value("${egov.indexer.bulk.pipeline.max.inflight:4}")
+	private int maxInFlight;
+
+	@Value("${egov.indexer.bulk.pipeline.max.retries:3}")
+	private int maxRetries;
+
+	@Value("${egov.indexer.bulk.pipeline.timeout.ms:60000}")
+	private long timeoutMs;
+
+	@Value("${egov.indexer.bulk.pipeline.dlq.topic:egov-indexer-bulk-dlq}")
+	private String dlqTopic;
+
+	@Autowired
+	private IndexerUtils indexerUtils;
+
+	@Autowired
+	private IndexerProducer producer;
+
+	private WebClient webClient;
+
+	private Semaphore inFlight;
+
+	private ScheduledExecutorService scheduler;
+
+	private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean esDown = new AtomicBoolean(false);
+
+	@PostConstruct
+	public void init() throws SSLException {
+		if (!enabled)
+			return;
+
+		SslContext sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE)
+				.build();
+		HttpClient httpClient = HttpClient.create(ConnectionProvider.fixed("es-bulk", maxInFlight * 2))
+				.secure(t -> t.sslContext(sslContext));
+		webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient))
+				.exchangeStrategies(ExchangeStrategies.builder()
+						.codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)).build())
+				.build();
+
+		inFlight = new Semaphore(maxInFlight);
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		scheduler.scheduleWithFixedDelay(this::flushExpired, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+		log.info("Bulk index pipeline started with maxActions: {}, maxBytes: {}, lingerMs: {}, maxInFlight: {}",
+				maxActions, maxBytes, lingerMs, maxInFlight);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Adds the actions of a _bulk body to the buffer of the given bulk url. The
+	 * calling thread blocks only when the buffer is full and all in flight slots
+	 * are taken, which throttles the kafka consumer instead of growing the heap.
+	 *
+	 * @param url
+	 * @param bulkJson
+	 */
+	public void submit(String url, String bulkJson) {
+		List<BulkItem> items = parse(bulkJson);
+		if (!items.isEmpty())
+			add(url, items, true);
+	}
+
+	/**
+	 * Number of buffered actions not yet sent to ES, across all indices.
+	 *
+	 * @return
+	 */
+	public int getBufferedActions() {
+		int count = 0;
+		for (Buffer buffer : buffers.values()) {
+			synchronized (buffer) {
+				count += buffer.items.size();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Retries are added from the response callbacks which run on the event loop,
+	 * they are only buffered and left to the linger flush so the event loop never
+	 * waits on an in flight slot.
+	 */
+	private void add(String url, List<BulkItem> items, boolean flushWhenFull) {
+		Buffer buffer = buffers.computeIfAbsent(url, key -> new Buffer());
+		List<BulkItem> drained = null;
+		synchronized (buffer) {
+			if (buffer.items.isEmpty())
+				buffer.firstAddedAt = System.currentTimeMillis();
+			for (BulkItem item : items) {
+				buffer.items.add(item);
+				buffer.bytes += item.bytes;
+			}
+			if (flushWhenFull && (buffer.items.size() >= maxActions || buffer.bytes >= maxBytes))
+				drained = buffer.drain();
+		}
+		if (drained != null)
+			send(url, drained);
+	}
+
+	private void flushExpired() {
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, Buffer> entry : buffers.entrySet()) {
+			List<BulkItem> drained = null;
+			Buffer buffer = entry.getValue();
+			synchronized (buffer) {
+				if (!buffer.items.isEmpty() && now - buffer.firstAddedAt >= lingerMs)
+					drained = buffer.drain();
+			}
+			if (drained != null) {
+				try {
+					send(entry.getKey(), drained);
+				} catch (Exception e) {
+					log.error("Exception while flushing bulk buffer for: " + entry.getKey(), e);
+				}
+			}
+		}
+	}
+
+	private void send(String url, List<BulkItem> items) {
+		StringBuilder body = new StringBuilder();
+		for (BulkItem item : items)
+			body.append(item.action).append("\n").append(item.source).append("\n");
+
+		Mono<JsonNode> request;
+		try {
+			request = webClient.post().uri(url + (url.contains("?") ? "&" : "?") + FILTER_PATH)
+					.header("Authorization", indexerUtils.getESEncodedCredentials())
+					.contentType(MediaType.APPLICATION_JSON).bodyValue(body.toString())
+					.retrieve().bodyToMono(JsonNode.class)
+					.timeout(Duration.ofMillis(timeoutMs));
+		} catch (Exception e) {
+			handleError(url, items, e);
+			return;
+		}
+
+		// the slot is taken only once the request is built and released exactly once, whether the
+		// request completes, fails, is cancelled or the subscription itself throws
+		AtomicBoolean released = new AtomicBoolean(false);
+		Runnable release = () -> {
+			if (released.compareAndSet(false, true))
+				inFlight.release();
+		};
+		inFlight.acquireUninterruptibly();
+		long startTime = System.currentTimeMillis();
+		try {
+			request.doFinally(signal -> release.run())
+					.subscribe(response -> {
+						log.info("Bulk indexed {} action(s) onto {} in {}ms", items.size(), url,
+								System.currentTimeMillis() - startTime);
+						esDown.set(false);
+						handleResponse(url, items, response);
+					}, error -> handleError(url, items, error));
+		} catch (Exception e) {
+			release.run();
+			handleError(url, items, e);
+		}
+	}
+
+	/**
+	 * Walks the per item results of a _bulk response, retrying items rejected
+	 * with a retryable status and dead lettering the rest of the failures.
+	 */
+	private void handleResponse(String url, List<BulkItem> items, JsonNode response) {
+		if (!response.path("errors").asBoolean(false))
+			return;
+
+		JsonNode results = response.path("items");
+		List<BulkItem> retries = new ArrayList<>();
+		for (int i = 0; i < results.size() && i < items.size(); i++) {
+			Iterator<JsonNode> operations = results.get(i).elements();
+			if (!operations.hasNext())
+				continue;
+			JsonNode result = operations.next();
+			int status = result.path("status").asInt(200);
+			if (status < 300)
+				continue;
+
+			BulkItem item = items.get(i);
+			if (isRetryable(status) && item.attempts < maxRetries) {
+				item.attempts++;
+				retries.add(item);
+			} else
+				deadLetter(url, item, result.path("error").toString());
+		}
+		log.info("Bulk indexing onto {} had failures, retrying: {} action(s)", url, retries.size());
+		if (!retries.isEmpty())
+			add(url, retries, false);
+	}
+
+	private void handleError(String url, List<BulkItem> items, Throwable error) {
+		boolean retryable = true;
+		if (error instanceof WebClientResponseException) {
+			retryable = isRetryable(((WebClientResponseException) error).getRawStatusCode());
+		} else if (isConnectionFailure(error) && esDown.compareAndSet(false, true)) {
+			log.error("ES is DOWN, Pausing kafka listener.......");
+			indexerUtils.orchestrateListenerOnESHealth();
+		}
+		log.error("Exception while bulk indexing " + items.size() + " action(s) onto " + url, error);
+
+		List<BulkItem> retries = new ArrayList<>();
+		for (BulkItem item : items) {
+			if (retryable && item.attempts < maxRetries) {
+				item.attempts++;
+				retries.add(item);
+			} else
+				deadLetter(url, item, String.valueOf(error.getMessage()));
+		}
+		if (!retries.isEmpty())
+			add(url, retries, false);
+	}
+
+	private void deadLetter(String url, BulkItem item, String error) {
+		Map<String, Object> record = new HashMap<>();
+		record.put("url", url);
+		record.put("action", item.action);
+		record.put("source", item.source);
+		record.put("attempts", item.attempts);
+		record.put("error", error);
+		// the kafka send can block on metadata or a full buffer, so it is kept off the event loop
+		Mono.fromRunnable(() -> producer.producer(dlqTopic, record))
+				.subscribeOn(Schedulers.boundedElastic())
+				.subscribe(null, e -> log.error("Exception while dead lettering a bulk action of " + url, e));
+	}
+
+	private boolean isRetryable(int status) {
+		return status == 429 || status >= 500;
+	}
+
+	private boolean isConnectionFailure(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConnectException)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Splits a _bulk body into action/source pairs. Bodies are built by the
+	 * indexer itself, so every action line is followed by exactly one source line.
+	 */
+	static List<BulkItem> parse(String bulkJson) {
+		List<BulkItem> items = new ArrayList<>();
+		String action = null;
+		for (String line : bulkJson.split("\n")) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty())
+				continue;
+			if (action == null)
+				action = trimmed;
+			else {
+				items.add(new BulkItem(action, trimmed));
+				action = null;
+			}
+		}
+		if (action != null)
+			log.error("Dropping bulk action without a source: " + action);
+		return items;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (!enabled)
+			return;
+
+		scheduler.shutdown();
+		for (Map.Entry<String, Buffer> entry : buffers.entrySet()) {
+			List<BulkItem> drained;
+			synchronized (entry.getValue()) {
+				drained = entry.getValue().drain();
+			}
+			if (!drained.isEmpty())
+				send(entry.getKey(), drained);
+		}
+		try {
+			if (inFlight.tryAcquire(maxInFlight, timeoutMs, TimeUnit.MILLISECONDS))
+				inFlight.release(maxInFlight);
+			else
+				log.error("Timed out waiting for in flight bulk requests to complete");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class Buffer {
+		private List<BulkItem> items = new ArrayList<>();
+		private long bytes;
+		private long firstAddedAt;
+
+		private List<BulkItem> drain() {
+			List<BulkItem> drained = items;
+			items = new ArrayList<>();
+			bytes = 0;
+			return drained;
+		}
+	}
+
+	static final class BulkItem {
+		private final String action;
+		private final String source;
+		private final int bytes;
+		private int attempts;
+
+		BulkItem(String action, String source) {
+			this.action = action;
+			this.source = source;
+			this.bytes = action.length() + source.length() + 2;
+		}
+	}
+
+}
@@ -12,8 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.JsonPath;
 import org.springframework.http.HttpMethod;
 
 import lombok.extern.slf4j.Slf4j;
@@ -38,7 +36,6 @@ public class BulkIndexer {
 	 * @throws Exception
 	 */
 	public void indexJsonOntoES(String url, String indexJson, Index index) throws Exception {
-		ObjectMapper mapper = new ObjectMapper();
 		try {
 			log.debug("Record being indexed: " + indexJson);
 			final HttpHeaders headers = new HttpHeaders();
@@ -46,9 +43,9 @@ public class BulkIndexer {
 			headers.add("Authorization", indexerUtils.getESEncodedCredentials());
 			log.info("Headers: " + headers.toString());
 			final HttpEntity<String> entity = new HttpEntity<>(indexJson, headers);
-			Object response = restTemplate.postForObject(url.toString(), entity, Map.class);
+			Map<String, Object> response = restTemplate.postForObject(url.toString(), entity, Map.class);
 			if (url.contains("_bulk")) {
-				if (JsonPath.read(mapper.writeValueAsString(response), "$.errors").equals(true)) {
+				if (response != null && Boolean.TRUE.equals(response.get("errors"))) {
 					log.info("Indexing FAILED!!!!");
 					log.info("Response from ES: " + response);
 				}
@@ -3,6 +3,7 @@ package org.egov.infra.indexer.controller;
 import javax.validation.Valid;
 
 import org.egov.infra.indexer.producer.IndexerProducer;
+import org.egov.infra.indexer.service.EnrichmentLookupCache;
 import org.egov.infra.indexer.service.LegacyIndexService;
 import org.egov.infra.indexer.service.ReindexService;
 import org.egov.infra.indexer.validator.Validator;
@@ -37,6 +38,9 @@ public class IndexerController {
 	@Autowired
 	private LegacyIndexService legacyIndexService;
 
+	@Autowired
+	private EnrichmentLookupCache enrichmentLookupCache;
+
 	
 	@Autowired
 	private Validator validator;
@@ -74,4 +78,11 @@ public class IndexerController {
 		return new ResponseEntity<>(response ,HttpStatus.OK);
 
     }
+
+    @PostMapping("/_enrichmentcache/_clear")
+    @ResponseBody
+    public ResponseEntity<?> clearEnrichmentCache(){
+    	enrichmentLookupCache.clear();
+		return new ResponseEntity<>(HttpStatus.OK);
+    }
 }
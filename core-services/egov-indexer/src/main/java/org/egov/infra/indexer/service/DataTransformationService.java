@@ -37,6 +37,9 @@ public class DataTransformationService {
     @Autowired
     private IndexerUtils indexerUtils;
 
+    @Autowired
+    private EnrichmentLookupCache enrichmentLookupCache;
+
     @Value("${egov.core.reindex.topic.name}")
     private String reindexTopic;
 
@@ -199,7 +202,9 @@ public class DataTransformationService {
                 String uri = null;
                 try {
                     uri = indexerUtils.buildUri(uriMapping, kafkaJson);
-                    response = restTemplate.postForObject(uri, uriMapping.getRequest(), Map.class);
+                    final String resolvedUri = uri;
+                    response = enrichmentLookupCache.get("external:" + uriMapping.getPath(), uriMapping, resolvedUri,
+                            uriMapping.getRequest(), () -> restTemplate.postForObject(resolvedUri, uriMapping.getRequest(), Map.class));
                     if (null == response)
                         continue;
                 } catch (Exception e) {
@@ -218,7 +223,7 @@ public class DataTransformationService {
                             UriMapping uriMappingForInput = UriMapping.builder().filter(fieldMapping.getFilter()).filterMapping(fieldMapping.getFilterMapping()).build();
                             inputJsonPath += indexerUtils.buildFilter(uriMappingForInput, kafkaJson);
                         }
-                        Object value = JsonPath.read(mapper.writeValueAsString(response), inputJsonPath);
+                        Object value = JsonPath.read(response, inputJsonPath);
                         documentContext.put(expression, expressionArray[expressionArray.length - 1], value);
                     } catch (Exception e) {
                         log.error("Value: " + fieldMapping.getInjsonpath() + " is not found!");
@@ -242,7 +247,6 @@ public class DataTransformationService {
      * @return
      */
     public DocumentContext denormalizeDataFromMDMS(DocumentContext documentContext, CustomJsonMapping customJsonMappings, String kafkaJson) {
-        ObjectMapper mapper = new ObjectMapper();
         if (!CollectionUtils.isEmpty(customJsonMappings.getMdmsMapping())) {
             for (UriMapping uriMapping : customJsonMappings.getMdmsMapping()) {
                 Object response = null;
@@ -254,8 +258,11 @@ public class DataTransformationService {
                         uri = uri + mdmsHost + mdmsEndpoint;
 
                     String filter = indexerUtils.buildFilter(uriMapping, kafkaJson);
-                    response = indexerUtils.fetchMdmsData(uri, uriMapping.getTenantId(), uriMapping.getModuleName(),
-                            uriMapping.getMasterName(), filter);
+                    final String mdmsUri = uri;
+                    response = enrichmentLookupCache.get("mdms:" + uriMapping.getModuleName() + "." + uriMapping.getMasterName(),
+                            uriMapping, mdmsUri, uriMapping.getTenantId() + "|" + filter,
+                            () -> indexerUtils.fetchMdmsData(mdmsUri, uriMapping.getTenantId(), uriMapping.getModuleName(),
+                                    uriMapping.getMasterName(), filter));
 
                     if (null == response)
                         continue;
@@ -269,7 +276,7 @@ public class DataTransformationService {
                     String[] expressionArray = (fieldMapping.getOutJsonPath()).split("[.]");
                     String expression = indexerUtils.getProcessedJsonPath(fieldMapping.getOutJsonPath());
                     try {
-                        Object value = JsonPath.read(mapper.writeValueAsString(response), fieldMapping.getInjsonpath());
+                        Object value = JsonPath.read(response, fieldMapping.getInjsonpath());
                         if (value instanceof List) {
                             if (((List) value).size() == 1) {
                                 value = ((List) value).get(0);
@@ -0,0 +1,170 @@
+package org.egov.infra.indexer.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.egov.infra.indexer.web.contract.UriMapping;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * TTL and size bounded cache of the responses of externalUriMapping and
+ * mdmsMapping lookups, one cache per mapping. Entries are keyed by the
+ * resolved uri plus the request body, so records resolving to the same lookup
+ * share a single call. Concurrent misses on the same key are coalesced onto
+ * the call already in flight.
+ *
+ * Responses are stored serialized and every caller gets its own parsed copy,
+ * as the values read from it are put in the documents being indexed. Only
+ * identical lookups are shared, records needing different lookups still make
+ * one call each. The counts of hits, misses, coalesced calls and failures are
+ * published per mapping as egov.indexer.enrichment.lookups.
+ */
+@Service
+public class EnrichmentLookupCache {
+
+	@Value("${egov.indexer.enrichment.cache.enabled:false}")
+	private Boolean enabled;
+
+	@Value("${egov.indexer.enrichment.cache.ttl.seconds:300}")
+	private Long defaultTtlSeconds;
+
+	@Value("${egov.indexer.enrichment.cache.max.entries:10000}")
+	private Long maxEntries;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Map<String, MappingCache> caches = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	public EnrichmentLookupCache(ObjectProvider<MeterRegistry> meterRegistry) {
+		this.meterRegistry = meterRegistry.getIfAvailable();
+	}
+
+	/**
+	 * Returns the parsed response of the lookup, calling the loader only when
+	 * there is no live entry for the key and no identical call in flight.
+	 *
+	 * @param mappingKey Identifies the mapping the lookup belongs to
+	 * @param uriMapping Mapping config, used for the per mapping ttl
+	 * @param uri Resolved uri of the lookup
+	 * @param body Request body of the lookup
+	 * @param loader Makes the actual call
+	 * @return Parsed response owned by the caller, null if the call returned nothing
+	 */
+	public Object get(String mappingKey, UriMapping uriMapping, String uri, Object body, Supplier<Object> loader) {
+		if (!enabled)
+			return parse(serialize(loader.get()));
+
+		MappingCache mappingCache = caches.computeIfAbsent(mappingKey, key -> new MappingCache(mappingKey, uriMapping));
+		String key = buildKey(uri, body);
+
+		String cached = mappingCache.cache.peek(key);
+		if (cached != null) {
+			mappingCache.hits.increment();
+			return parse(cached);
+		}
+
+		CompletableFuture<String> call = new CompletableFuture<>();
+		CompletableFuture<String> inFlight = mappingCache.inFlight.putIfAbsent(key, call);
+		if (inFlight != null) {
+			mappingCache.coalesced.increment();
+			try {
+				return parse(inFlight.join());
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+
+		mappingCache.misses.increment();
+		try {
+			String response = serialize(loader.get());
+			if (response != null)
+				mappingCache.cache.put(key, response);
+			call.complete(response);
+			return parse(response);
+		} catch (RuntimeException e) {
+			mappingCache.failures.increment();
+			call.completeExceptionally(e);
+			throw e;
+		} finally {
+			mappingCache.inFlight.remove(key, call);
+		}
+	}
+
+	public void clear() {
+		caches.values().forEach(mappingCache -> mappingCache.cache.clear());
+	}
+
+	private String buildKey(String uri, Object body) {
+		if (body == null)
+			return uri;
+		try {
+			return uri + "|" + (body instanceof String ? body : mapper.writeValueAsString(body));
+		} catch (JsonProcessingException e) {
+			return uri + "|" + body;
+		}
+	}
+
+	private String serialize(Object response) {
+		if (response == null)
+			return null;
+		try {
+			return mapper.writeValueAsString(response);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Failed to serialize lookup response", e);
+		}
+	}
+
+	private Object parse(String response) {
+		return response == null ? null : Configuration.defaultConfiguration().jsonProvider().parse(response);
+	}
+
+	private class MappingCache {
+		private final Cache<String, String> cache;
+		private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder coalesced = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+
+		private MappingCache(String mappingKey, UriMapping uriMapping) {
+			long ttl = uriMapping.getCacheTtlSeconds() != null ? uriMapping.getCacheTtlSeconds() : defaultTtlSeconds;
+			cache = Cache2kBuilder.of(String.class, String.class)
+					.expireAfterWrite(ttl, TimeUnit.SECONDS)
+					.entryCapacity(maxEntries)
+					.build();
+			if (meterRegistry != null) {
+				register(mappingKey, "hit", hits);
+				register(mappingKey, "miss", misses);
+				register(mappingKey, "coalesced", coalesced);
+				register(mappingKey, "failure", failures);
+			}
+		}
+
+		private void register(String mappingKey, String result, LongAdder count) {
+			FunctionCounter.builder("egov.indexer.enrichment.lookups", count, LongAdder::sum)
+					.description("Lookups of externalUriMapping and mdmsMapping by cache result")
+					.tag("mapping", mappingKey)
+					.tag("result", result)
+					.register(meterRegistry);
+		}
+	}
+
+}
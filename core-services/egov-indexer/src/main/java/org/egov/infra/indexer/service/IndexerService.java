@@ -7,6 +7,7 @@ import com.jayway.jsonpath.PathNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.egov.IndexerApplicationRunnerImpl;
+import org.egov.infra.indexer.bulkindexer.BulkIndexPipeline;
 import org.egov.infra.indexer.bulkindexer.BulkIndexer;
 import org.egov.infra.indexer.util.IndexerUtils;
 import org.egov.infra.indexer.web.contract.Index;
@@ -28,6 +29,9 @@ public class IndexerService {
 	@Autowired
 	private BulkIndexer bulkIndexer;
 
+	@Autowired
+	private BulkIndexPipeline bulkIndexPipeline;
+
 	@Autowired
 	private IndexerApplicationRunnerImpl runner;
 
@@ -158,7 +162,9 @@ public class IndexerService {
 	 */
 	public void validateAndIndex(String finalJson, String url, Index index) throws Exception {
 		if (!StringUtils.isEmpty(finalJson)) {
-			if (finalJson.startsWith("{ \"index\""))
+			if (finalJson.startsWith("{ \"index\"") && bulkIndexPipeline.isEnabled())
+				bulkIndexPipeline.submit(url, finalJson);
+			else if (finalJson.startsWith("{ \"index\""))
 				bulkIndexer.indexJsonOntoES(url.toString(), finalJson, index);
 			else
 				indexWithESId(index, finalJson);
@@ -49,4 +49,7 @@ public class UriMapping {
 	  
 	  @JsonProperty("uriResponseMapping")
 	  private List<FieldMapping> uriResponseMapping;
+
+	  @JsonProperty("cacheTtlSeconds")
+	  private Long cacheTtlSeconds;
 }
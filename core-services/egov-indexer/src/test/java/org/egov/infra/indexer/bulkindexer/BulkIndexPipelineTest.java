@@ -0,0 +1,231 @@
+package org.egov.infra.indexer.bulkindexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+
+import org.egov.infra.indexer.producer.IndexerProducer;
+import org.egov.infra.indexer.util.IndexerUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+public class BulkIndexPipelineTest {
+
+	private static final String URL = "http://elasticsearch:9200/property-services/_bulk";
+
+	private static final String DLQ_TOPIC = "egov-indexer-bulk-dlq";
+
+	private IndexerUtils indexerUtils;
+
+	private IndexerProducer producer;
+
+	private BulkIndexPipeline pipeline;
+
+	private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+
+	private final List<ClientResponse> responses = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	public void setUp() {
+		indexerUtils = mock(IndexerUtils.class);
+		producer = mock(IndexerProducer.class);
+		when(indexerUtils.getESEncodedCredentials()).thenReturn("Basic ZWxhc3RpYzpjaGFuZ2VtZQ==");
+
+		pipeline = new BulkIndexPipeline();
+		ReflectionTestUtils.setField(pipeline, "enabled", true);
+		ReflectionTestUtils.setField(pipeline, "maxActions", 2);
+		ReflectionTestUtils.setField(pipeline, "maxBytes", 1024L * 1024);
+		ReflectionTestUtils.setField(pipeline, "lingerMs", 0L);
+		ReflectionTestUtils.setField(pipeline, "maxInFlight", 2);
+		ReflectionTestUtils.setField(pipeline, "maxRetries", 1);
+		ReflectionTestUtils.setField(pipeline, "timeoutMs", 5000L);
+		ReflectionTestUtils.setField(pipeline, "dlqTopic", DLQ_TOPIC);
+		ReflectionTestUtils.setField(pipeline, "indexerUtils", indexerUtils);
+		ReflectionTestUtils.setField(pipeline, "producer", producer);
+		ReflectionTestUtils.setField(pipeline, "inFlight", new Semaphore(2));
+		ReflectionTestUtils.setField(pipeline, "webClient", WebClient.builder().exchangeFunction(request -> {
+			requestBodies.add(body(request));
+			return Mono.just(responses.isEmpty() ? ok("{\"errors\":false}") : responses.remove(0));
+		}).build());
+	}
+
+	@Test
+	public void testParseSplitsTheBodyInActionAndSourcePairs() {
+		List<BulkIndexPipeline.BulkItem> items = BulkIndexPipeline.parse(bulk("1", "2") + "{\"index\":{\"_id\":\"3\"}}\n");
+
+		assertEquals(2, items.size());
+	}
+
+	@Test
+	public void testActionsAreBatchedUpToMaxActions() {
+		pipeline.submit(URL, bulk("1"));
+		assertTrue(requestBodies.isEmpty());
+		assertEquals(1, pipeline.getBufferedActions());
+
+		pipeline.submit(URL, bulk("2"));
+		pipeline.submit(URL, bulk("3"));
+
+		assertEquals(1, requestBodies.size());
+		assertEquals(bulk("1", "2"), requestBodies.get(0));
+		assertEquals(1, pipeline.getBufferedActions());
+
+		flushExpired();
+
+		assertEquals(2, requestBodies.size());
+		assertEquals(bulk("3"), requestBodies.get(1));
+		assertEquals(0, pipeline.getBufferedActions());
+		assertPermitsReleased();
+	}
+
+	@Test
+	public void testOnlyRejectedItemsAreRetried() {
+		responses.add(ok("{\"errors\":true,\"items\":[{\"index\":{\"status\":201}},"
+				+ "{\"index\":{\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\"}}}]}"));
+
+		pipeline.submit(URL, bulk("1", "2"));
+
+		// the retry is buffered and left to the linger flush
+		assertEquals(1, requestBodies.size());
+		assertEquals(1, pipeline.getBufferedActions());
+
+		flushExpired();
+
+		assertEquals(bulk("2"), requestBodies.get(1));
+		assertEquals(0, pipeline.getBufferedActions());
+		verify(producer, never()).producer(eq(DLQ_TOPIC), any());
+	}
+
+	@Test
+	public void testNonRetryableItemIsDeadLettered() {
+		responses.add(ok("{\"errors\":true,\"items\":[{\"index\":{\"status\":400,"
+				+ "\"error\":{\"type\":\"mapper_parsing_exception\"}}},{\"index\":{\"status\":201}}]}"));
+
+		pipeline.submit(URL, bulk("1", "2"));
+
+		Map<String, Object> record = deadLetter();
+		assertEquals(URL, record.get("url"));
+		assertEquals("{\"index\":{\"_id\":\"1\"}}", record.get("action"));
+		assertTrue(String.valueOf(record.get("error")).contains("mapper_parsing_exception"));
+		assertEquals(0, pipeline.getBufferedActions());
+	}
+
+	@Test
+	public void testItemIsDeadLetteredOnceTheRetriesAreExhausted() {
+		String rejected = "{\"errors\":true,\"items\":[{\"index\":{\"status\":201}},"
+				+ "{\"index\":{\"status\":503,\"error\":{\"type\":\"unavailable_shards_exception\"}}}]}";
+		responses.add(ok(rejected));
+		responses.add(ok("{\"errors\":true,\"items\":[{\"index\":{\"status\":503,\"error\":{\"type\":\"unavailable_shards_exception\"}}}]}"));
+
+		pipeline.submit(URL, bulk("1", "2"));
+		flushExpired();
+
+		Map<String, Object> record = deadLetter();
+		assertEquals("{\"index\":{\"_id\":\"2\"}}", record.get("action"));
+		assertEquals(1, record.get("attempts"));
+		assertEquals(0, pipeline.getBufferedActions());
+	}
+
+	@Test
+	public void testFailedRequestRetriesAllItems() {
+		responses.add(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+		pipeline.submit(URL, bulk("1", "2"));
+
+		assertEquals(2, pipeline.getBufferedActions());
+		flushExpired();
+		assertEquals(bulk("1", "2"), requestBodies.get(1));
+		assertPermitsReleased();
+	}
+
+	@Test
+	public void testFailureWhileBuildingTheRequestLeaksNoPermit() {
+		when(indexerUtils.getESEncodedCredentials()).thenThrow(new IllegalStateException("credentials unavailable"));
+
+		for (int i = 0; i < 3; i++) {
+			pipeline.submit(URL, bulk("1", "2"));
+			flushExpired();
+		}
+
+		assertTrue(requestBodies.isEmpty());
+		assertPermitsReleased();
+		// each batch is retried once and then dead lettered item by item
+		verify(producer, timeout(1000).times(6)).producer(eq(DLQ_TOPIC), any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> deadLetter() {
+		ArgumentCaptor<Object> record = ArgumentCaptor.forClass(Object.class);
+		verify(producer, timeout(1000)).producer(eq(DLQ_TOPIC), record.capture());
+		return (Map<String, Object>) record.getValue();
+	}
+
+	private void assertPermitsReleased() {
+		assertEquals(2, ((Semaphore) ReflectionTestUtils.getField(pipeline, "inFlight")).availablePermits());
+	}
+
+	private void flushExpired() {
+		ReflectionTestUtils.invokeMethod(pipeline, "flushExpired");
+	}
+
+	private static String bulk(String... ids) {
+		StringBuilder bulk = new StringBuilder();
+		for (String id : ids)
+			bulk.append("{\"index\":{\"_id\":\"").append(id).append("\"}}\n").append("{\"id\":\"").append(id).append("\"}\n");
+		return bulk.toString();
+	}
+
+	private static ClientResponse ok(String body) {
+		return ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).body(body).build();
+	}
+
+	private static String body(ClientRequest request) {
+		MockClientHttpRequest httpRequest = new MockClientHttpRequest(request.method(), request.url());
+		request.body().insert(httpRequest, new BodyInserter.Context() {
+			@Override
+			public List<HttpMessageWriter<?>> messageWriters() {
+				return ExchangeStrategies.withDefaults().messageWriters();
+			}
+
+			@Override
+			public Optional<ServerHttpRequest> serverRequest() {
+				return Optional.empty();
+			}
+
+			@Override
+			public Map<String, Object> hints() {
+				return Collections.emptyMap();
+			}
+		}).block();
+		return httpRequest.getBodyAsString().block();
+	}
+
+}
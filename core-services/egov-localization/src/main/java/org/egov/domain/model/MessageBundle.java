@@ -0,0 +1,47 @@
+package org.egov.domain.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.Getter;
+
+/**
+ * Serialized search response of a version of the computed messages.
+ * The gzipped form is created on the first request accepting it and kept along with the bundle.
+ */
+public class MessageBundle {
+
+	@Getter
+	private final String eTag;
+
+	@Getter
+	private final byte[] json;
+
+	private volatile byte[] gzippedJson;
+
+	public MessageBundle(String eTag, byte[] json) {
+		this.eTag = eTag;
+		this.json = json;
+	}
+
+	public byte[] getGzippedJson() {
+		byte[] gzipped = gzippedJson;
+		if (gzipped == null) {
+			gzipped = gzip(json);
+			gzippedJson = gzipped;
+		}
+		return gzipped;
+	}
+
+	private static byte[] gzip(byte[] content) {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 4 + 64);
+		try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+			gzipOutputStream.write(content);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return outputStream.toByteArray();
+	}
+}
@@ -1,19 +1,29 @@
 package org.egov.domain.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.egov.domain.model.AuthenticatedUser;
 import org.egov.domain.model.Message;
+import org.egov.domain.model.MessageBundle;
 import org.egov.domain.model.MessageIdentity;
 import org.egov.domain.model.MessageSearchCriteria;
 import org.egov.domain.model.Tenant;
 import org.egov.persistence.repository.MessageCacheRepository;
 import org.egov.persistence.repository.MessageRepository;
 import org.egov.tracer.model.CustomException;
+import org.egov.web.contract.MessagesResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Responsible for creating, updating and computing localization message list.
@@ -40,14 +50,35 @@ import org.springframework.util.CollectionUtils;
  * c) For a create/update request to locale: <locale> and tenant: default- 1) In
  * validate all computed messages entries. 2) In validate cache entry for raw
  * messages with key <locale>:default
+ *
+ * Every cache bust also increments the version of the locale and tenant in Redis.
+ * The computed message lists are kept in memory along with their version, and are
+ * reused till the version read from Redis changes, so searches do not deserialize
+ * the computed messages from Redis. The search responses of the modules are kept
+ * serialized with the computed messages, the version is the ETag of the responses.
  */
 @Service
 //@Slf4j
 public class MessageService {
 	private static final String ENGLISH_INDIA = "en_IN";
+	private static final int MAX_BUNDLES_PER_LOCALE = 64;
 	private MessageRepository messageRepository;
 	private MessageCacheRepository messageCacheRepository;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${localization.cache.near.capacity:100}")
+	private int nearCacheCapacity;
+
+	private final Map<String, ComputedMessages> nearCache = Collections
+			.synchronizedMap(new LinkedHashMap<String, ComputedMessages>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, ComputedMessages> eldest) {
+					return size() > nearCacheCapacity;
+				}
+			});
+
 	public MessageService(MessageRepository messageRepository, MessageCacheRepository messageCacheRepository) {
 		this.messageRepository = messageRepository;
 		this.messageCacheRepository = messageCacheRepository;
@@ -76,10 +107,44 @@ public class MessageService {
 
 	public void bustCache() {
 		messageCacheRepository.bustCache();
+		nearCache.clear();
 	}
 
 	public List<Message> getFilteredMessages(MessageSearchCriteria searchCriteria) {
-		List<Message> messages = getMessages(searchCriteria);
+		return filterMessages(getMessages(searchCriteria), searchCriteria);
+	}
+
+	/**
+	 * Serialized search response for the criteria, the responses of searches on modules alone are kept with the
+	 * computed messages so that they are serialized once for a version of the messages.
+	 *
+	 * @param searchCriteria search criteria
+	 * @return the bundle, null when the messages are not versioned
+	 */
+	public MessageBundle getMessageBundle(MessageSearchCriteria searchCriteria) {
+		final String locale = searchCriteria.getLocale();
+		final Tenant tenant = searchCriteria.getTenantId();
+		final String version = messageCacheRepository.getVersion(locale, tenant);
+		if (version == null)
+			return null;
+
+		final ComputedMessages computedMessages = getComputedMessages(locale, tenant, version);
+		final String eTag = "W/\"" + DigestUtils.md5DigestAsHex((version + "|" + getCriteriaKey(searchCriteria))
+				.getBytes(StandardCharsets.UTF_8)) + "\"";
+
+		if (searchCriteria.isModuleAbsent() || !CollectionUtils.isEmpty(searchCriteria.getCodes()))
+			return createBundle(eTag, filterMessages(computedMessages.messages, searchCriteria));
+
+		final MessageBundle bundle = computedMessages.bundles.get(searchCriteria.getModule());
+		if (bundle != null)
+			return bundle;
+		final MessageBundle newBundle = createBundle(eTag, filterMessages(computedMessages.messages, searchCriteria));
+		if (computedMessages.bundles.size() < MAX_BUNDLES_PER_LOCALE)
+			computedMessages.bundles.putIfAbsent(searchCriteria.getModule(), newBundle);
+		return newBundle;
+	}
+
+	private List<Message> filterMessages(List<Message> messages, MessageSearchCriteria searchCriteria) {
 		if (searchCriteria.isModuleAbsent() && !CollectionUtils.isEmpty(searchCriteria.getCodes())) {
 
 		    /*if(!CollectionUtils.isEmpty(searchCriteria.getCodes()))
@@ -143,18 +208,56 @@ public class MessageService {
 	}
 
 	private List<Message> getMessages(MessageSearchCriteria searchCriteria) {
-		final List<Message> cachedMessages = messageCacheRepository.getComputedMessages(searchCriteria.getLocale(),
+		final String version = messageCacheRepository.getVersion(searchCriteria.getLocale(),
 				searchCriteria.getTenantId());
+		if (version == null)
+			return getCachedMessages(searchCriteria.getLocale(), searchCriteria.getTenantId());
+		return getComputedMessages(searchCriteria.getLocale(), searchCriteria.getTenantId(), version).messages;
+	}
+
+	/*
+	 * The version is to be read before the messages, a bust in between leaves the entry
+	 * with an older version which is replaced on the next search
+	 */
+	private ComputedMessages getComputedMessages(String locale, Tenant tenant, String version) {
+		final String key = locale + ":" + tenant.getTenantId();
+		final ComputedMessages computedMessages = nearCache.get(key);
+		if (computedMessages != null && computedMessages.version.equals(version))
+			return computedMessages;
+
+		final ComputedMessages newComputedMessages = new ComputedMessages(version,
+				Collections.unmodifiableList(getCachedMessages(locale, tenant)));
+		nearCache.put(key, newComputedMessages);
+		return newComputedMessages;
+	}
+
+	private List<Message> getCachedMessages(String locale, Tenant tenant) {
+		final List<Message> cachedMessages = messageCacheRepository.getComputedMessages(locale, tenant);
 		if (cachedMessages != null) {
 			return cachedMessages;
 		}
-		final List<Message> computedMessages = computeMessageList(searchCriteria.getLocale(),
-				searchCriteria.getTenantId());
-		messageCacheRepository.cacheComputedMessages(searchCriteria.getLocale(), searchCriteria.getTenantId(),
-				computedMessages);
+		final List<Message> computedMessages = computeMessageList(locale, tenant);
+		messageCacheRepository.cacheComputedMessages(locale, tenant, computedMessages);
 		return computedMessages;
 	}
 
+	private MessageBundle createBundle(String eTag, List<Message> messages) {
+		final MessagesResponse response = new MessagesResponse(
+				messages.stream().map(org.egov.web.contract.Message::new).collect(Collectors.toList()));
+		try {
+			return new MessageBundle(eTag, objectMapper.writeValueAsBytes(response));
+		} catch (JsonProcessingException e) {
+			throw new CustomException("MESSAGE_SERIALIZATION_ERROR", "Unable to serialize the messages");
+		}
+	}
+
+	private String getCriteriaKey(MessageSearchCriteria searchCriteria) {
+		final String codes = CollectionUtils.isEmpty(searchCriteria.getCodes()) ? ""
+				: new TreeSet<>(searchCriteria.getCodes()).toString();
+		return searchCriteria.getLocale() + "|" + searchCriteria.getTenantId().getTenantId() + "|"
+				+ searchCriteria.getModule() + "|" + codes;
+	}
+
 	private void deleteMessagesForGivenTenant(Map<Tenant, List<MessageIdentity>> tenantToMessageIdentitiesMap,
 			Tenant tenant) {
 		final List<MessageIdentity> messageIdentitiesForGivenTenant = tenantToMessageIdentitiesMap.get(tenant);
@@ -242,4 +345,15 @@ public class MessageService {
 		return messages;
 	}
 
+	private static class ComputedMessages {
+		private final String version;
+		private final List<Message> messages;
+		private final Map<String, MessageBundle> bundles = new ConcurrentHashMap<>();
+
+		private ComputedMessages(String version, List<Message> messages) {
+			this.version = version;
+			this.messages = messages;
+		}
+	}
+
 }
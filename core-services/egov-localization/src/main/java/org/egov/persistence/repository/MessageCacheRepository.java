@@ -11,7 +11,10 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -19,6 +22,10 @@ public class MessageCacheRepository {
 
 	private static final String MESSAGES_HASH_KEY = "messages";
 	private static final String COMPUTED_MESSAGES_HASH_KEY = "computedMessages";
+	private static final String VERSIONS_HASH_KEY = "messageVersions";
+	private static final String EPOCH_VERSION_KEY = "epoch";
+	private static final String ALL_VERSION_KEY = "all";
+	private static final String ENGLISH_INDIA = "en_IN";
 	private StringRedisTemplate stringRedisTemplate;
 	private ObjectMapper objectMapper;
     public static final Logger logger = LoggerFactory.getLogger(MessageCacheRepository.class);
@@ -47,11 +54,39 @@ public class MessageCacheRepository {
 	public void bustCache() {
 		stringRedisTemplate.delete(MESSAGES_HASH_KEY);
 		bustAllComputedMessagesCache();
+		stringRedisTemplate.opsForHash().increment(VERSIONS_HASH_KEY, ALL_VERSION_KEY, 1);
 	}
 
 	public void bustCacheEntry(String locale, Tenant tenant) {
 		bustRawMessagesCacheEntry(locale, tenant);
 		bustComputedMessagesCache(locale, tenant);
+		stringRedisTemplate.opsForHash().increment(VERSIONS_HASH_KEY, getKey(locale, tenant.getTenantId()), 1);
+	}
+
+	/**
+	 * Version of the computed messages of the locale and tenant, changes whenever the messages of the locale for
+	 * the tenant or any of its parents, or the default english messages, are busted.
+	 *
+	 * The version is made of the counters incremented on every bust, along with an epoch which is regenerated when
+	 * the counters are lost, so that a version is never reused for different messages.
+	 */
+	public String getVersion(String locale, Tenant tenant) {
+		final List<Object> keys = new ArrayList<>();
+		keys.add(EPOCH_VERSION_KEY);
+		keys.add(ALL_VERSION_KEY);
+		keys.add(getKey(ENGLISH_INDIA, Tenant.DEFAULT_TENANT));
+		tenant.getTenantHierarchy().forEach(tenantItem -> keys.add(getKey(locale, tenantItem.getTenantId())));
+
+		List<Object> versions = stringRedisTemplate.opsForHash().multiGet(VERSIONS_HASH_KEY, keys);
+		if (versions == null || versions.isEmpty())
+			return null;
+		if (versions.get(0) == null) {
+			stringRedisTemplate.opsForHash().putIfAbsent(VERSIONS_HASH_KEY, EPOCH_VERSION_KEY,
+					UUID.randomUUID().toString());
+			versions = stringRedisTemplate.opsForHash().multiGet(VERSIONS_HASH_KEY, keys);
+		}
+		return versions.stream().map(version -> version == null ? "0" : (String) version)
+				.collect(Collectors.joining(":"));
 	}
 
 	private void bustRawMessagesCacheEntry(String locale, Tenant tenant) {
@@ -1,14 +1,20 @@
 package org.egov.web.controller;
 
+import org.egov.domain.model.MessageBundle;
 import org.egov.domain.model.MessageRequest;
 import org.egov.domain.model.MessageSearchCriteria;
 import org.egov.domain.model.Tenant;
 import org.egov.domain.service.MessageService;
 import org.egov.web.contract.*;
 import org.egov.web.exception.InvalidMessageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Size;
@@ -28,27 +34,27 @@ public class MessageController {
 	}
 
 	@GetMapping()
-	public MessagesResponse getMessagesForLocale(@RequestParam("locale") String locale,
+	public ResponseEntity<?> getMessagesForLocale(@RequestParam("locale") String locale,
 			@RequestParam(value = "module", required = false) String module,
-			@RequestParam("tenantId") String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes) {
-		return getMessages(locale, module, tenantId, codes);
+			@RequestParam("tenantId") String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes,
+			WebRequest webRequest) {
+		return getMessages(locale, module, tenantId, codes, webRequest);
 	}
 
 	@PostMapping("/v1/_search")
-	public MessagesResponse getMessages(@RequestParam("locale") String locale,
+	public ResponseEntity<?> getMessages(@RequestParam("locale") String locale,
 			@RequestParam(value = "module", required = false)  String module,
-			@RequestParam("tenantId") @Size(max = 256) String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes) {
+			@RequestParam("tenantId") @Size(max = 256) String tenantId,@RequestParam(value = "codes",required = false) Set<String> codes,
+			WebRequest webRequest) {
 		final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder().locale(locale)
 				.tenantId(new Tenant(tenantId)).codes(codes).module(module).build();
-		List<org.egov.domain.model.Message> domainMessages = messageService.getFilteredMessages(searchCriteria);
-		return createResponse(domainMessages);
+		return searchMessages(searchCriteria, webRequest);
 	}
 	
 	@PostMapping("/v2/_search")
-	public MessagesResponse getMessages(@RequestBody MessageRequest messageRequest) {
+	public ResponseEntity<?> getMessages(@RequestBody MessageRequest messageRequest, WebRequest webRequest) {
 		
-		List<org.egov.domain.model.Message> domainMessages = messageService.getFilteredMessages(messageRequest.getMessageSearchCriteria());
-		return createResponse(domainMessages);
+		return searchMessages(messageRequest.getMessageSearchCriteria(), webRequest);
 	}
 
 	@PostMapping("/v1/_upsert")
@@ -81,6 +87,38 @@ public class MessageController {
 		return new CacheBustResponse(null, true);
 	}
 
+	/*
+	 * Responds with the serialized bundle of the messages when they are versioned, the ETag of the bundle
+	 * is checked against If-None-Match and the gzipped bundle is sent to clients accepting it
+	 */
+	private ResponseEntity<?> searchMessages(MessageSearchCriteria searchCriteria, WebRequest webRequest) {
+		final MessageBundle bundle = messageService.getMessageBundle(searchCriteria);
+		if (bundle == null)
+			return ResponseEntity.ok(createResponse(messageService.getFilteredMessages(searchCriteria)));
+
+		if (isNotModified(bundle.getETag(), webRequest.getHeader(HttpHeaders.IF_NONE_MATCH)))
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(bundle.getETag()).build();
+
+		final String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		final ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+				.eTag(bundle.getETag()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding != null && acceptEncoding.contains("gzip"))
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bundle.getGzippedJson());
+		return response.body(bundle.getJson());
+	}
+
+	private boolean isNotModified(String eTag, String ifNoneMatch) {
+		if (ifNoneMatch == null)
+			return false;
+		final String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag))
+				return true;
+		}
+		return false;
+	}
+
 	private MessagesResponse createResponse(List<org.egov.domain.model.Message> domainMessages) {
 		return new MessagesResponse(domainMessages.stream().map(Message::new).collect(Collectors.toList()));
 	}
@@ -9,6 +9,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -296,6 +297,28 @@ public class MessageServiceTest {
         assertEquals(0, actualMessages.size());
     }
 
+    @Test
+    public void test_should_reuse_computed_messages_in_memory_till_the_version_changes() {
+        ReflectionTestUtils.setField(messageService, "nearCacheCapacity", 10);
+        final Tenant tenant = new Tenant(TENANT_ID);
+        final List<Message> expectedMessages = getMessages();
+        when(messageCacheRepository.getComputedMessages(MR_IN, tenant)).thenReturn(expectedMessages);
+        when(messageCacheRepository.getVersion(MR_IN, tenant)).thenReturn("e:0:0:1", "e:0:0:1", "e:0:0:2");
+        final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder()
+            .locale(MR_IN)
+            .tenantId(tenant)
+            .module("module")
+            .build();
+
+        messageService.getFilteredMessages(searchCriteria);
+        messageService.getFilteredMessages(searchCriteria);
+        verify(messageCacheRepository, times(1)).getComputedMessages(MR_IN, tenant);
+
+        List<Message> actualMessages = messageService.getFilteredMessages(searchCriteria);
+        verify(messageCacheRepository, times(2)).getComputedMessages(MR_IN, tenant);
+        assertEquals(2, actualMessages.size());
+    }
+
     @Test
     public void test_should_return_messages_filtered_by_module_name() {
         String tenantId = "a.b.c";
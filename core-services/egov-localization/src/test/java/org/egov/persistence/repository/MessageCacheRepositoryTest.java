@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -73,4 +74,24 @@ public class MessageCacheRepositoryTest {
         verify(stringRedisTemplate).delete(COMPUTED_MESSAGE_HASH_KEY);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_should_increment_version_of_the_locale_and_tenant_on_bust() {
+        final Tenant tenant = new Tenant("a.b");
+
+        cacheRepository.bustCacheEntry("mr_IN", tenant);
+
+        verify(hashOperations).increment("messageVersions", "mr_IN:a.b", 1);
+    }
+
+    @Test
+    public void test_should_build_version_from_the_tenant_hierarchy_and_default_english_messages() {
+        final Tenant tenant = new Tenant("a.b");
+        final List<Object> versionKeys = Arrays.asList("epoch", "all", "en_IN:default", "mr_IN:a.b", "mr_IN:a",
+            "mr_IN:default");
+        when(hashOperations.multiGet("messageVersions", versionKeys))
+            .thenReturn(Arrays.asList("e1", null, "2", "1", null, "3"));
+
+        assertEquals("e1:0:2:1:0:3", cacheRepository.getVersion("mr_IN", tenant));
+    }
+
+}
@@ -10,11 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,6 +29,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -78,6 +81,46 @@ public class MessageControllerTest {
             .andExpect(content().json(getFileContents("messagesResponse.json")));
     }
 
+    @Test
+    public void test_should_return_not_modified_when_etag_of_the_bundle_matches() throws Exception {
+        final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder()
+            .locale(LOCALE)
+            .tenantId(new Tenant(TENANT_ID))
+            .module("CS")
+            .build();
+        final MessageBundle bundle = new MessageBundle("W/\"abc\"",
+            getFileContents("messagesResponse.json").getBytes(StandardCharsets.UTF_8));
+        when(messageService.getMessageBundle(searchCriteria)).thenReturn(bundle);
+        mockMvc.perform(post("/messages/v1/_search")
+            .param("tenantId", TENANT_ID)
+            .param("module", "CS")
+            .param("locale", LOCALE)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"xyz\", W/\"abc\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"abc\""));
+    }
+
+    @Test
+    public void test_should_return_gzipped_bundle_when_accepted() throws Exception {
+        final MessageSearchCriteria searchCriteria = MessageSearchCriteria.builder()
+            .locale(LOCALE)
+            .tenantId(new Tenant(TENANT_ID))
+            .module("CS")
+            .build();
+        final MessageBundle bundle = new MessageBundle("W/\"abc\"",
+            getFileContents("messagesResponse.json").getBytes(StandardCharsets.UTF_8));
+        when(messageService.getMessageBundle(searchCriteria)).thenReturn(bundle);
+        mockMvc.perform(post("/messages/v1/_search")
+            .param("tenantId", TENANT_ID)
+            .param("module", "CS")
+            .param("locale", LOCALE)
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"abc\""))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(content().bytes(bundle.getGzippedJson()));
+    }
+
     @Test
     public void test_should_save_new_messages() throws Exception {
         final Tenant defaultTenant = new Tenant("default");
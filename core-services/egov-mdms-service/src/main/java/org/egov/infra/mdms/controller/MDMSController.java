@@ -10,6 +10,7 @@ import org.egov.infra.mdms.service.MDMSService;
 import org.egov.mdms.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +29,10 @@ public class MDMSController {
     @ResponseBody
     private ResponseEntity<?> search(@RequestBody @Valid MdmsCriteriaReq mdmsCriteriaReq) {
 
+        byte[] serializedResponse = mdmsService.getSerializedResponse(mdmsCriteriaReq);
+        if (serializedResponse != null)
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(serializedResponse);
+
         Map<String, Map<String, JSONArray>> response = mdmsService.searchMaster(mdmsCriteriaReq);
         MdmsResponse mdmsResponse = new MdmsResponse();
         mdmsResponse.setMdmsRes(response);
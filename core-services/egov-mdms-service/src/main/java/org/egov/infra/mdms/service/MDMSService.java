@@ -1,17 +1,25 @@
 package org.egov.infra.mdms.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.egov.MDMSApplicationRunnerImpl;
 import org.egov.infra.mdms.utils.MDMSConstants;
 import org.egov.mdms.model.MasterDetail;
 import org.egov.mdms.model.MdmsCriteriaReq;
+import org.egov.mdms.model.MdmsResponse;
 import org.egov.mdms.model.ModuleDetail;
 import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
 
@@ -21,6 +29,86 @@ import net.minidev.json.JSONArray;
 @Service
 @Slf4j
 public class MDMSService {
+
+    @Autowired
+    private MasterDataIndex masterDataIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${egov.mdms.filter.cache.capacity:1000}")
+    private int filterCacheCapacity;
+
+    @Value("${egov.mdms.response.cache.capacity:200}")
+    private int responseCacheCapacity;
+
+    private final Map<String, Boolean> stateLevelMasters = new ConcurrentHashMap<>();
+
+    private final Map<String, JsonPath> compiledFilters = Collections
+            .synchronizedMap(new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+                    return size() > filterCacheCapacity;
+                }
+            });
+
+    private final Map<String, byte[]> serializedResponses = Collections
+            .synchronizedMap(new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                    return size() > responseCacheCapacity;
+                }
+            });
+
+    /**
+     * Serialized response of a search without filters, kept for the next searches of the same masters as the
+     * master data does not change once loaded
+     *
+     * @param mdmsCriteriaReq
+     * @return the response serialized to json, null when the search has filters
+     */
+    public byte[] getSerializedResponse(MdmsCriteriaReq mdmsCriteriaReq) {
+        String key = getResponseKey(mdmsCriteriaReq);
+        if (key == null)
+            return null;
+
+        byte[] serializedResponse = serializedResponses.get(key);
+        if (serializedResponse == null) {
+            MdmsResponse mdmsResponse = new MdmsResponse();
+            mdmsResponse.setMdmsRes(searchMaster(mdmsCriteriaReq));
+            try {
+                serializedResponse = objectMapper.writeValueAsBytes(mdmsResponse);
+            } catch (JsonProcessingException e) {
+                log.error("Unable to serialize the search response", e);
+                return null;
+            }
+            serializedResponses.put(key, serializedResponse);
+        }
+        return serializedResponse;
+    }
+
+    /*
+     * Tenant followed by the sorted module and master names, null when any of the masters is filtered
+     */
+    private String getResponseKey(MdmsCriteriaReq mdmsCriteriaReq) {
+        List<ModuleDetail> moduleDetails = mdmsCriteriaReq.getMdmsCriteria().getModuleDetails();
+        if (moduleDetails == null)
+            return null;
+
+        List<String> masterNames = new ArrayList<>();
+        for (ModuleDetail moduleDetail : moduleDetails) {
+            if (moduleDetail.getMasterDetails() == null)
+                return null;
+            for (MasterDetail masterDetail : moduleDetail.getMasterDetails()) {
+                if (masterDetail.getFilter() != null)
+                    return null;
+                masterNames.add(moduleDetail.getModuleName() + "|" + masterDetail.getName());
+            }
+        }
+        Collections.sort(masterNames);
+        return mdmsCriteriaReq.getMdmsCriteria().getTenantId() + "|" + String.join(",", masterNames);
+    }
+
     public Map<String, Map<String, JSONArray>> searchMaster(MdmsCriteriaReq mdmsCriteriaReq) {
 
         Map<String, Map<String, Map<String, JSONArray>>> tenantIdMap = MDMSApplicationRunnerImpl.getTenantMap();
@@ -90,26 +178,9 @@ public class MDMSService {
     private JSONArray getMasterData(Map<String, Map<String, JSONArray>> stateLevel,
                                     Map<String, Map<String, JSONArray>> ulbLevel, String moduleName, String masterName, String tenantId) throws Exception {
 
-        Map<String, Map<String, Object>> masterConfigMap = MDMSApplicationRunnerImpl.getMasterConfigMap();
-
-        Map<String, Object> moduleData = masterConfigMap.get(moduleName);
-        Boolean isStateLevel = false;
-
-        Object masterData = null;
-        ObjectMapper mapper = new ObjectMapper();
-        if (moduleData != null)
-            masterData = moduleData.get(masterName);
-
-        if (null != masterData) {
-            try {
-                isStateLevel = JsonPath.read(mapper.writeValueAsString(masterData),
-                        MDMSConstants.STATE_LEVEL_JSONPATH);
-            } catch (Exception e) {
-                log.error("Error while determining state level, falling back to false state.");
-                isStateLevel = false;
-            }
-        }
-        log.info("MasterName... " + masterName + "isStateLevelConfiguration.." + isStateLevel);
+        boolean isStateLevel = stateLevelMasters.computeIfAbsent(moduleName + "|" + masterName,
+                key -> isStateLevel(moduleName, masterName));
+        log.debug("MasterName... " + masterName + "isStateLevelConfiguration.." + isStateLevel);
         if (ulbLevel == null || isStateLevel) {
             if (stateLevel.get(moduleName) != null) {
                 return stateLevel.get(moduleName).get(masterName);
@@ -123,8 +194,42 @@ public class MDMSService {
         }
     }
 
+    /*
+     * The master config does not change once loaded, the flag is read from it once per master
+     */
+    private boolean isStateLevel(String moduleName, String masterName) {
+        Map<String, Object> moduleData = MDMSApplicationRunnerImpl.getMasterConfigMap().get(moduleName);
+        Object masterData = moduleData == null ? null : moduleData.get(masterName);
+        if (null == masterData)
+            return false;
+
+        try {
+            Boolean isStateLevel = JsonPath.read(masterData, MDMSConstants.STATE_LEVEL_JSONPATH);
+            return Boolean.TRUE.equals(isStateLevel);
+        } catch (Exception e) {
+            log.error("Error while determining state level, falling back to false state.");
+            return false;
+        }
+    }
+
+    /**
+     * Filters the master, equality filters on the indexed fields are looked up in the indexes and the other
+     * filters are evaluated by JsonPath, the compiled filters being kept for the next searches
+     *
+     * @param masters
+     * @param filterExp
+     * @return
+     */
     public JSONArray filterMaster(JSONArray masters, String filterExp) {
-        JSONArray filteredMasters = JsonPath.read(masters, filterExp);
-        return filteredMasters;
+        JSONArray filteredMasters = masterDataIndex.filter(masters, filterExp);
+        if (filteredMasters != null)
+            return filteredMasters;
+
+        JsonPath compiledFilter = compiledFilters.get(filterExp);
+        if (compiledFilter == null) {
+            compiledFilter = JsonPath.compile(filterExp);
+            compiledFilters.put(filterExp, compiledFilter);
+        }
+        return compiledFilter.read(masters);
     }
 }
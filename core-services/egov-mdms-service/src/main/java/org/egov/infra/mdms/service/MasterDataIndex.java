@@ -0,0 +1,159 @@
+package org.egov.infra.mdms.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.egov.MDMSApplicationRunnerImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import net.minidev.json.JSONArray;
+
+/**
+ * Hash indexes of the masters on the commonly filtered fields, built once the master data is loaded.
+ *
+ * Filters made only of equalities on indexed fields, like [?(@.code == 'PT' && @.active == true)], are answered
+ * from the indexes. Only string and boolean values are indexed, a field holding any other value in a master is
+ * not indexed for that master, so that the result is the same as the one of JsonPath. Any other filter returns
+ * null and is to be evaluated by JsonPath.
+ */
+@Component
+@Slf4j
+public class MasterDataIndex {
+
+    private static final Pattern FILTER_PATTERN = Pattern.compile("^\\$?\\.?\\[\\?\\((.+)\\)\\]$");
+
+    private static final Pattern EQUALITY_PATTERN = Pattern
+            .compile("^@\\.(\\w+)\\s*==\\s*(?:'([^'\\\\]*)'|\"([^\"\\\\]*)\"|(true|false))$");
+
+    // Injected so that the master data is loaded before the indexes are built
+    @Autowired
+    private MDMSApplicationRunnerImpl mdmsApplicationRunner;
+
+    @Value("${egov.mdms.index.fields:code,active,service}")
+    private String[] indexFields;
+
+    private final Map<JSONArray, Map<String, Map<Object, List<Object>>>> indexes = new IdentityHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int masters = 0;
+        for (Map<String, Map<String, JSONArray>> modules : MDMSApplicationRunnerImpl.getTenantMap().values()) {
+            for (Map<String, JSONArray> masterMap : modules.values()) {
+                for (JSONArray masterData : masterMap.values()) {
+                    if (masterData != null && !indexes.containsKey(masterData)) {
+                        indexes.put(masterData, buildIndexes(masterData));
+                        masters++;
+                    }
+                }
+            }
+        }
+        log.info("Indexed " + masters + " masters on the fields " + Arrays.toString(indexFields));
+    }
+
+    /**
+     * Elements of the master matching the filter, in the order of the master
+     *
+     * @param masterData master to be filtered
+     * @param filterExp JsonPath filter of the request
+     * @return the matching elements, null when the filter cannot be answered from the indexes
+     */
+    public JSONArray filter(JSONArray masterData, String filterExp) {
+        Map<String, Map<Object, List<Object>>> masterIndexes = indexes.get(masterData);
+        if (masterIndexes == null || masterIndexes.isEmpty())
+            return null;
+
+        Matcher filterMatcher = FILTER_PATTERN.matcher(filterExp.trim());
+        if (!filterMatcher.matches())
+            return null;
+
+        List<List<Object>> matches = new ArrayList<>();
+        for (String condition : filterMatcher.group(1).split("&&")) {
+            Matcher equalityMatcher = EQUALITY_PATTERN.matcher(condition.trim());
+            if (!equalityMatcher.matches())
+                return null;
+
+            Map<Object, List<Object>> fieldIndex = masterIndexes.get(equalityMatcher.group(1));
+            if (fieldIndex == null)
+                return null;
+
+            List<Object> elements = fieldIndex.get(getValue(equalityMatcher));
+            matches.add(elements == null ? Collections.emptyList() : elements);
+        }
+        return intersect(matches);
+    }
+
+    private Map<String, Map<Object, List<Object>>> buildIndexes(JSONArray masterData) {
+        Map<String, Map<Object, List<Object>>> masterIndexes = new HashMap<>();
+        for (String field : indexFields) {
+            Map<Object, List<Object>> fieldIndex = buildIndex(masterData, field.trim());
+            if (fieldIndex != null)
+                masterIndexes.put(field.trim(), fieldIndex);
+        }
+        return masterIndexes;
+    }
+
+    private Map<Object, List<Object>> buildIndex(JSONArray masterData, String field) {
+        Map<Object, List<Object>> fieldIndex = new HashMap<>();
+        for (Object element : masterData) {
+            if (!(element instanceof Map))
+                return null;
+            Object value = ((Map<?, ?>) element).get(field);
+            if (value == null)
+                continue;
+            if (!(value instanceof String) && !(value instanceof Boolean))
+                return null;
+            fieldIndex.computeIfAbsent(value, k -> new ArrayList<>()).add(element);
+        }
+        return fieldIndex;
+    }
+
+    private Object getValue(Matcher equalityMatcher) {
+        if (equalityMatcher.group(2) != null)
+            return equalityMatcher.group(2);
+        if (equalityMatcher.group(3) != null)
+            return equalityMatcher.group(3);
+        return Boolean.valueOf(equalityMatcher.group(4));
+    }
+
+    /*
+     * The elements of the smallest list are kept in order when they are present in all the other lists
+     */
+    private JSONArray intersect(List<List<Object>> matches) {
+        List<Object> smallest = matches.get(0);
+        for (List<Object> elements : matches)
+            if (elements.size() < smallest.size())
+                smallest = elements;
+
+        List<Set<Object>> others = new ArrayList<>();
+        for (List<Object> elements : matches) {
+            if (elements != smallest) {
+                Set<Object> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+                identities.addAll(elements);
+                others.add(identities);
+            }
+        }
+
+        JSONArray result = new JSONArray();
+        for (Object element : smallest) {
+            boolean inAll = true;
+            for (Set<Object> identities : others)
+                inAll = inAll && identities.contains(element);
+            if (inAll)
+                result.add(element);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+package org.egov.infra.mdms.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.egov.MDMSApplicationRunnerImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jayway.jsonpath.JsonPath;
+
+import net.minidev.json.JSONArray;
+
+public class MasterDataIndexTest {
+
+    private static final String TENANT_ID = "pb.indextest";
+
+    private static final JSONArray SERVICES = JsonPath.read("["
+            + "{\"code\":\"PT\",\"active\":true,\"service\":\"PT\"},"
+            + "{\"code\":\"TL\",\"active\":false,\"service\":\"TL\"},"
+            + "{\"code\":\"WS\",\"active\":true},"
+            + "{\"code\":\"SW\",\"service\":\"WS\"},"
+            + "{\"active\":true,\"service\":\"PT\"},"
+            + "{\"code\":\"FSM\",\"active\":\"true\",\"service\":\"FSM\"},"
+            + "{\"code\":\"PT\",\"active\":false,\"service\":\"PT.MUTATION\"}]", "$");
+
+    // The code holds a number in one element, so the code is not indexed for this master
+    private static final JSONArray MIXED = JsonPath.read("["
+            + "{\"code\":\"1\",\"active\":true},"
+            + "{\"code\":1,\"active\":true},"
+            + "{\"code\":\"2\",\"active\":false}]", "$");
+
+    private MasterDataIndex masterDataIndex;
+
+    private MDMSService mdmsService;
+
+    @Before
+    public void setUp() {
+        Map<String, JSONArray> masters = new HashMap<>();
+        masters.put("Services", SERVICES);
+        masters.put("Mixed", MIXED);
+        Map<String, Map<String, JSONArray>> modules = new HashMap<>();
+        modules.put("common-masters", masters);
+        MDMSApplicationRunnerImpl.getTenantMap().put(TENANT_ID, modules);
+
+        masterDataIndex = new MasterDataIndex();
+        ReflectionTestUtils.setField(masterDataIndex, "indexFields", new String[] { "code", "active", "service" });
+        masterDataIndex.init();
+
+        mdmsService = new MDMSService();
+        ReflectionTestUtils.setField(mdmsService, "masterDataIndex", masterDataIndex);
+        ReflectionTestUtils.setField(mdmsService, "filterCacheCapacity", 10);
+    }
+
+    @After
+    public void tearDown() {
+        MDMSApplicationRunnerImpl.getTenantMap().remove(TENANT_ID);
+    }
+
+    @Test
+    public void testStringEqualityIsAnsweredFromTheIndex() {
+        assertIndexed(SERVICES, "$[?(@.code == 'PT')]", 2);
+        assertIndexed(SERVICES, "[?(@.code==\"TL\")]", 1);
+        assertIndexed(SERVICES, "$[?(@.service == 'PT')]", 2);
+        assertIndexed(SERVICES, "$[?(@.code == 'NONE')]", 0);
+    }
+
+    @Test
+    public void testBooleanEqualityIsAnsweredFromTheIndex() {
+        assertIndexed(SERVICES, "$[?(@.active == true)]", 3);
+        assertIndexed(SERVICES, "$[?(@.active == false)]", 2);
+        assertIndexed(SERVICES, "$[?(@.active == 'true')]", 1);
+    }
+
+    @Test
+    public void testConjunctionIsAnsweredFromTheIndex() {
+        assertIndexed(SERVICES, "$[?(@.code == 'PT' && @.active == true)]", 1);
+        assertIndexed(SERVICES, "$[?(@.service == 'PT' && @.active == true)]", 2);
+        assertIndexed(SERVICES, "$[?(@.active == false && @.code == 'PT' && @.service == 'PT.MUTATION')]", 1);
+        assertIndexed(SERVICES, "$[?(@.code == 'TL' && @.active == true)]", 0);
+    }
+
+    @Test
+    public void testElementsMissingTheFieldDoNotMatch() {
+        assertIndexed(SERVICES, "$[?(@.service == 'WS')]", 1);
+        assertIndexed(SERVICES, "$[?(@.code == 'WS' && @.service == 'WS')]", 0);
+        assertIndexed(SERVICES, "$[?(@.active == true && @.code == 'PT')]", 1);
+    }
+
+    @Test
+    public void testInListIsEvaluatedByJsonPath() {
+        assertNotIndexed(SERVICES, "$[?(@.code in ['PT', 'WS', 'NONE'])]");
+        assertNotIndexed(SERVICES, "$[?(@.active in [true])]");
+        assertNotIndexed(SERVICES, "$[?(@.code in ['TL'] && @.active == false)]");
+    }
+
+    @Test
+    public void testOtherFiltersAreEvaluatedByJsonPath() {
+        assertNotIndexed(SERVICES, "$[?(@.code != 'PT')]");
+        assertNotIndexed(SERVICES, "$[?(@.code == 'PT' || @.code == 'TL')]");
+        assertNotIndexed(SERVICES, "$[?(@.name == 'PT')]");
+        assertNotIndexed(SERVICES, "$[?(@.service)]");
+        assertNotIndexed(SERVICES, "$.*.code");
+    }
+
+    @Test
+    public void testFieldWithOtherValuesIsNotIndexed() {
+        assertNotIndexed(MIXED, "$[?(@.code == '1')]");
+        assertIndexed(MIXED, "$[?(@.active == true)]", 2);
+    }
+
+    @Test
+    public void testMasterNotLoadedIsNotIndexed() {
+        JSONArray copy = new JSONArray();
+        copy.addAll(SERVICES);
+        assertNotIndexed(copy, "$[?(@.code == 'PT')]");
+    }
+
+    private void assertIndexed(JSONArray master, String filter, int size) {
+        JSONArray expected = JsonPath.read(master, filter);
+        JSONArray indexed = masterDataIndex.filter(master, filter);
+        assertNotNull(filter + " should be answered from the index", indexed);
+        assertSameElements(filter, expected, indexed);
+        assertSameElements(filter, expected, mdmsService.filterMaster(master, filter));
+        assertEquals(filter, size, indexed.size());
+    }
+
+    private void assertNotIndexed(JSONArray master, String filter) {
+        JSONArray expected = JsonPath.read(master, filter);
+        assertNull(filter + " should be left to JsonPath", masterDataIndex.filter(master, filter));
+        assertSameElements(filter, expected, mdmsService.filterMaster(master, filter));
+    }
+
+    /*
+     * Same elements in the same order, compared by identity as the index returns the elements of the master
+     */
+    private static void assertSameElements(String filter, JSONArray expected, JSONArray actual) {
+        assertEquals(filter, expected, actual);
+        for (int i = 0; i < expected.size(); i++)
+            assertTrue(filter, expected.get(i) == actual.get(i) || !(expected.get(i) instanceof Map));
+    }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.egov.infra.persist.web.contract.Mapping;
+import org.egov.infra.persist.web.contract.QueryMap;
 import org.egov.infra.persist.web.contract.Service;
 import org.egov.infra.persist.web.contract.TopicMap;
 import org.egov.tracer.model.CustomException;
@@ -117,6 +118,7 @@ public class EgovPersistApplication {
                     Service service = mapper.readValue(inputStream, Service.class);
 
                     for (Mapping mapping : service.getServiceMaps().getMappings()) {
+                        compileQueryMaps(mapping);
                         if (mappingsMap.containsKey(mapping.getFromTopic())) {
                             mappingsMap.get(mapping.getFromTopic()).add(mapping);
                         } else {
@@ -159,4 +161,23 @@ public class EgovPersistApplication {
 
         return topicMap;
     }
+
+    /**
+     * Compiles the json maps of every query map into row extraction plans up front,
+     * so json paths are not re-parsed while persisting records
+     *
+     * @param mapping Mapping loaded from config
+     */
+    private void compileQueryMaps(Mapping mapping) {
+        if (mapping.getQueryMaps() == null)
+            return;
+
+        for (QueryMap queryMap : mapping.getQueryMaps()) {
+            try {
+                queryMap.getExtractionPlan();
+            } catch (Exception e) {
+                log.error("Failed to compile json maps for topic: " + mapping.getFromTopic() + " and query: " + queryMap.getQuery(), e);
+            }
+        }
+    }
 }
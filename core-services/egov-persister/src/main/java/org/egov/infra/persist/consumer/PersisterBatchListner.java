@@ -1,20 +1,18 @@
 package org.egov.infra.persist.consumer;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.egov.infra.persist.service.PersistService;
 import org.egov.tracer.kafka.CustomKafkaTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.BatchMessageListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +20,6 @@ import java.util.Map;
 @Slf4j
 public class PersisterBatchListner implements BatchMessageListener<String, Object> {
 
-    @Autowired
-    private ObjectMapper objectMapper;
-
     @Autowired
     private PersistService persistService;
 
@@ -37,33 +32,38 @@ public class PersisterBatchListner implements BatchMessageListener<String, Objec
     @Value("${audit.generate.kafka.topic}")
     private String auditGenerateKafkaTopic;
 
+    /**
+     * Persists the whole poll in one go. Values are already deserialized by the consumer,
+     * so they are handed to the persist service as is instead of being re-serialized per record.
+     *
+     * @param dataList Records received in the poll
+     */
     @Override
     public void onMessage(List<ConsumerRecord<String, Object>> dataList) {
 
-        Map<String,List<String>> topicTorcvDataList = new HashMap<>();
-
-            dataList.forEach(data -> {
-                try {
-                    if(!topicTorcvDataList.containsKey(data.topic())){
-                        List<String> rcvDataList= new LinkedList<>();
-                        rcvDataList.add(objectMapper.writeValueAsString(data.value()));
-                        topicTorcvDataList.put(data.topic(),rcvDataList);
-                    }
-                    else {
-                        topicTorcvDataList.get(data.topic()).add(objectMapper.writeValueAsString(data.value()));
-                    }
-                }
-                catch (JsonProcessingException e) {
-                    log.error("Failed to serialize incoming message", e);
-                }
-            });
-
-        for(Map.Entry<String,List<String>> entry : topicTorcvDataList.entrySet()){
-            persistService.persist(entry.getKey(),entry.getValue());
-            if(!entry.getKey().equalsIgnoreCase(persistAuditKafkaTopic)){
+        Map<String, List<Object>> topicToDocuments = new LinkedHashMap<>();
+
+        dataList.forEach(data -> {
+            if (data.value() == null) {
+                log.error("Skipping record with empty value on topic: {}", data.topic());
+                return;
+            }
+            topicToDocuments.computeIfAbsent(data.topic(), topic -> new ArrayList<>()).add(data.value());
+        });
+
+        if (topicToDocuments.isEmpty())
+            return;
+
+        persistService.persist(topicToDocuments);
+
+        for (Map.Entry<String, List<Object>> entry : topicToDocuments.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(persistAuditKafkaTopic))
+                continue;
+
+            for (Object value : entry.getValue()) {
                 Map<String, Object> producerRecord = new HashMap<>();
                 producerRecord.put("topic", entry.getKey());
-                producerRecord.put("value", entry.getValue());
+                producerRecord.put("value", value);
                 kafkaTemplate.send(auditGenerateKafkaTopic, producerRecord);
             }
         }
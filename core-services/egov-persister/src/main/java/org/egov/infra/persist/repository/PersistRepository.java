@@ -10,6 +10,7 @@ import org.egov.infra.persist.web.contract.JsonMap;
 import org.egov.infra.persist.web.contract.TypeEnum;
 import org.postgresql.util.PGobject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
@@ -32,13 +33,25 @@ public class PersistRepository {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${persister.jdbc.batch.max.size:1000}")
+    private int maxBatchSize;
+
+    private static final Object UNRESOLVED = new Object();
+
+    private static final ThreadLocal<DateFormat> DATE_FORMAT = ThreadLocal.withInitial(() -> new SimpleDateFormat("dd/MM/yyyy"));
+
 
     public void persist(String query, List<Object[]> rows) {
 
         try {
             if( ! rows.isEmpty()) {
                 log.info("Executing query : "+ query);
-                jdbcTemplate.batchUpdate(query, rows);
+                if (maxBatchSize <= 0 || rows.size() <= maxBatchSize)
+                    jdbcTemplate.batchUpdate(query, rows);
+                else {
+                    for (int from = 0; from < rows.size(); from += maxBatchSize)
+                        jdbcTemplate.batchUpdate(query, rows.subList(from, Math.min(from + maxBatchSize, rows.size())));
+                }
                 log.info("Persisted {} row(s) to DB!", rows.size());
             }
         } catch (Exception ex) {
@@ -48,14 +61,18 @@ public class PersistRepository {
     }
 
     public void persist(String query, List<JsonMap> jsonMaps, Object jsonObj, String baseJsonPath) {
+        persist(query, RowExtractionPlan.compile(jsonMaps, baseJsonPath), jsonObj);
+    }
+
+    public void persist(String query, RowExtractionPlan plan, Object jsonObj) {
 
-        List<Object[]> rows = getRows(jsonMaps,jsonObj,baseJsonPath);
+        List<Object[]> rows = getRows(plan, jsonObj);
 
         try {
             if( ! rows.isEmpty()) {
                 log.info("Executing query : "+ query);
                 jdbcTemplate.batchUpdate(query, rows);
-                log.info("Persisted {} row(s) to DB!", rows.size(), baseJsonPath);
+                log.info("Persisted {} row(s) to DB!", rows.size(), plan.getBaseJsonPath());
             }
         } catch (Exception ex) {
             log.error("Failed to persist {} row(s) using query: {}", rows.size(), query, ex);
@@ -65,214 +82,204 @@ public class PersistRepository {
 
 
     public List<Object[]> getRows(List<JsonMap> jsonMaps, Object jsonObj, String baseJsonPath) {
+        return getRows(RowExtractionPlan.compile(jsonMaps, baseJsonPath), jsonObj);
+    }
+
+    /**
+     * Extract rows from the document using a pre-compiled plan
+     *  - Absolute paths are evaluated at most once per document and shared across records
+     *  - Relative paths are resolved by walking the current record with pre-split segments
+     *
+     * @param plan Compiled extraction plan of the query map
+     * @param jsonObj Parsed document
+     * @return Rows in query parameter order
+     */
+    public List<Object[]> getRows(RowExtractionPlan plan, Object jsonObj) {
 
-        List<LinkedHashMap<String, Object>> dataSource = extractData(baseJsonPath, jsonObj);
+        List<Map<String, Object>> dataSource = extractData(plan, jsonObj);
 
-        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>(dataSource.size());
+        RowExtractionPlan.Column[] columns = plan.columns;
+        Object[] documentValues = null;
 
         for (int i = 0; i < dataSource.size(); i++) {
-            LinkedHashMap<String, Object> rawDataRecord = dataSource.get(i);
+            Map<String, Object> rawDataRecord = dataSource.get(i);
 
             if (rawDataRecord == null)
                 continue;
 
-            if (isChildObjectEmpty(baseJsonPath, rawDataRecord))
+            if (isChildObjectEmpty(plan, rawDataRecord))
                 continue;
 
+            if (documentValues == null) {
+                documentValues = new Object[columns.length];
+                Arrays.fill(documentValues, UNRESOLVED);
+            }
 
-            List<Object> row = new ArrayList<>();
-            for (JsonMap jsonMap : jsonMaps) {
-                String jsonPath = jsonMap.getJsonPath();
-                TypeEnum type = jsonMap.getType();
-                TypeEnum dbType = jsonMap.getDbType();
-                Object value = null;
-
-//                if(isNull(jsonPath))
-//                    throw new NullPointerException("JSON Path is null: "+jsonMap);
-
-
-                if (type == null) {
-                    type = TypeEnum.STRING;
-                }
-
-                if (jsonPath.contains("{")) {
-                    String attribute = jsonPath.substring(jsonPath.indexOf("{") + 1, jsonPath.indexOf("}"));
-                    jsonPath = jsonPath.replace("{".concat(attribute).concat("}"), "\"" + rawDataRecord.get(attribute).toString() + "\"");
-                    JSONArray jsonArray = JsonPath.read(jsonObj, jsonPath);
-                    row.add(jsonArray.get(0));
-
-                    continue;
-
-                }
-
-                else if (type.equals(TypeEnum.CURRENTDATE)) {
-                    if (dbType.equals(TypeEnum.DATE))
-                        row.add(new Date());
-                    else if (dbType.equals(TypeEnum.LONG))
-                        row.add(new Date().getTime());
-                    continue;
-                }
-
-                else if ((type.equals(TypeEnum.ARRAY)) && dbType.equals(TypeEnum.STRING)) {
-                    List<Object> list1 = JsonPath.read(jsonObj, jsonPath);
-                    if (CollectionUtils.isEmpty(list1)) {
-                        value = null;
-                    } else {
-                        value = StringUtils.join(list1.get(i), ",");
-                        value = value.toString().substring(2, value.toString().lastIndexOf("]") - 1).replace("\"", "");
-                    }
-                }
-
-                else if (jsonPath.contains("*.")) {
-                    jsonPath = jsonPath.substring(jsonPath.lastIndexOf("*.") + 2);
-                    value = extractValueFromTree(rawDataRecord, jsonPath);
-                }
-
-                else if (!(type.equals(TypeEnum.CURRENTDATE) || jsonPath.startsWith("default"))) {
-                    value = JsonPath.read(jsonObj, jsonPath);
-                }
-
-                if (jsonPath.startsWith("default"))
-                    row.add(null);
-
-                else if (type.equals(TypeEnum.JSON) && dbType.equals(TypeEnum.STRING)) {
-                    try {
-                        String json = objectMapper.writeValueAsString(value);
-                        row.add(json);
-                    } catch (JsonProcessingException e) {
-                        log.error("Error while processing JSON object to string", e);
-                    }
-                }
-
-                else if (type.equals(TypeEnum.JSON) && dbType.equals(TypeEnum.JSONB)) {
-                    try {
-                        String json = objectMapper.writeValueAsString(value);
-
-                        PGobject pGobject = new PGobject();
-                        pGobject.setType("jsonb");
-                        pGobject.setValue(json);
-                        row.add(pGobject);
-                    } catch (JsonProcessingException e) {
-                        log.error("Error while processing JSON object to string", e);
-                    } catch (SQLException e) {
-                        log.error("Error while setting JSONB object", e);
-                    }
-                }
-
-                else if (type.equals(TypeEnum.LONG)) {
-                    if (dbType == null)
-                        row.add(value);
-                    else if (dbType.equals(TypeEnum.DATE))
-                        row.add(new java.sql.Date(Long.parseLong(value.toString())));
+            Object[] row = new Object[columns.length];
+            int width = 0;
+
+            for (int c = 0; c < columns.length; c++) {
+                RowExtractionPlan.Column column = columns[c];
+                Object value;
+
+                switch (column.source) {
+                    case ATTRIBUTE_FILTER:
+                        String jsonPath = column.attributePathPrefix + "\"" + rawDataRecord.get(column.attribute).toString()
+                                + "\"" + column.attributePathSuffix;
+                        JSONArray jsonArray = JsonPath.read(jsonObj, jsonPath);
+                        row[width++] = jsonArray.get(0);
+                        continue;
+
+                    case CURRENT_DATE:
+                        if (column.dbType == TypeEnum.DATE)
+                            row[width++] = new Date();
+                        else if (column.dbType == TypeEnum.LONG)
+                            row[width++] = System.currentTimeMillis();
+                        continue;
+
+                    case ARRAY_AS_STRING:
+                        if (documentValues[c] == UNRESOLVED)
+                            documentValues[c] = column.path.read(jsonObj);
+                        List<Object> list = (List<Object>) documentValues[c];
+                        if (CollectionUtils.isEmpty(list)) {
+                            value = null;
+                        } else if (list.get(i) instanceof Collection) {
+                            // Documents deserialized by kafka are not json-smart trees, join the elements directly
+                            value = StringUtils.join((Collection<?>) list.get(i), ",").replace("\"", "");
+                        } else {
+                            value = StringUtils.join(list.get(i), ",");
+                            value = value.toString().substring(2, value.toString().lastIndexOf("]") - 1).replace("\"", "");
+                        }
+                        break;
+
+                    case RELATIVE:
+                        value = extractValueFromTree(rawDataRecord, column.relativePath);
+                        break;
+
+                    case ABSOLUTE:
+                        if (documentValues[c] == UNRESOLVED)
+                            documentValues[c] = column.path.read(jsonObj);
+                        value = documentValues[c];
+                        break;
+
+                    default:
+                        row[width++] = null;
+                        continue;
                 }
 
-                else if (type.equals(TypeEnum.DATE) & value != null) {
-
-                    String date = value.toString();
-                    DateFormat df = new SimpleDateFormat("dd/MM/yyyy");
-                    java.util.Date startDate = null;
-                    try {
-                        startDate = df.parse(date);
-                    } catch (ParseException e) {
-                        log.error("Unable to parse date", e);
-                    }
-                    row.add(startDate);
+                switch (column.conversion) {
+                    case JSON_STRING:
+                        try {
+                            row[width++] = objectMapper.writeValueAsString(value);
+                        } catch (JsonProcessingException e) {
+                            log.error("Error while processing JSON object to string", e);
+                        }
+                        break;
+
+                    case JSONB:
+                        try {
+                            PGobject pGobject = new PGobject();
+                            pGobject.setType("jsonb");
+                            pGobject.setValue(objectMapper.writeValueAsString(value));
+                            row[width++] = pGobject;
+                        } catch (JsonProcessingException e) {
+                            log.error("Error while processing JSON object to string", e);
+                        } catch (SQLException e) {
+                            log.error("Error while setting JSONB object", e);
+                        }
+                        break;
+
+                    case LONG_TO_DATE:
+                        row[width++] = new java.sql.Date(Long.parseLong(value.toString()));
+                        break;
+
+                    case STRING_TO_DATE:
+                        java.util.Date startDate = null;
+                        if (value != null) {
+                            try {
+                                startDate = DATE_FORMAT.get().parse(value.toString());
+                            } catch (ParseException e) {
+                                log.error("Unable to parse date", e);
+                            }
+                        }
+                        row[width++] = startDate;
+                        break;
+
+                    case SKIP:
+                        break;
+
+                    default:
+                        row[width++] = value;
                 }
-
-                else
-                    row.add(value);
-
             }
-            rows.add(row.toArray());
+            rows.add(width == row.length ? row : Arrays.copyOf(row, width));
         }
         return rows;
 
     }
 
     /**
-     * Extract data from the tree using provided base json path
+     * Extract data from the tree using the compiled base json path
      *  - If base path signifies bulk, then extract array of data
      *  - If base path is not bulk, then extract single row of data and wrap as list
      *
-     * @param baseJsonPath Base json path
+     * @param plan Compiled extraction plan
      * @param document Data source tree
      * @return Partial data source tree based on provided json base path
      */
-    private List<LinkedHashMap<String, Object>> extractData(String baseJsonPath, Object document) {
-        List<LinkedHashMap<String, Object>> list = null;
-        if(baseJsonPath.contains("*")) {
-            String arrayBasePath = baseJsonPath.substring(0, baseJsonPath.lastIndexOf(".*") + 2);
-            list = JsonPath.read(document, arrayBasePath);
-        }
+    private List<Map<String, Object>> extractData(RowExtractionPlan plan, Object document) {
+        if (plan.bulk)
+            return plan.basePath.read(document);
         else {
-            LinkedHashMap<String, Object> map = JsonPath.read(document, baseJsonPath);
-            list = Collections.singletonList(map);
+            Map<String, Object> map = plan.basePath.read(document);
+            return Collections.singletonList(map);
         }
-        return list;
     }
 
 
     /**
-     * Fetch leaf node value recursively based on json path from java represented json tree
+     * Fetch leaf node value based on pre-split json path from java represented json tree
      *
      * @param jsonTree Java represented json tree
-     * @param jsonPath Path of leaf node
+     * @param objDepth Segments of the path of leaf node
      * @return Value of leaf node
      */
-    private Object extractValueFromTree(LinkedHashMap<String, Object> jsonTree, String jsonPath) {
-        String[] objDepth = jsonPath.split("\\.");
-        Object value = null;
-        LinkedHashMap<String, Object> jsonTree1 = null;
-
-        for (int k = 0; k < objDepth.length; k++) {
-
-            if (objDepth.length > 1 && k != objDepth.length - 1) {
-                if (jsonTree1 == null)
-                    jsonTree1 = (LinkedHashMap<String, Object>) jsonTree.get(objDepth[k]);
-                else
-                    jsonTree1 = (LinkedHashMap<String, Object>) jsonTree1.get(objDepth[k]);
-                if (jsonTree1 == null) {
-                    value = null;
-                    break;
-                }
-
-            }
+    private Object extractValueFromTree(Map<String, Object> jsonTree, String[] objDepth) {
+        Map<String, Object> node = jsonTree;
 
-            if (k == objDepth.length - 1) {
-                if (jsonTree1 != null)
-                    value = jsonTree1.get(objDepth[k]);
-                else
-                    value = jsonTree.get(objDepth[k]);
-            }
+        for (int k = 0; k < objDepth.length - 1; k++) {
+            node = (Map<String, Object>) node.get(objDepth[k]);
+            if (node == null)
+                return null;
         }
-        return value;
+        return node.get(objDepth[objDepth.length - 1]);
     }
 
     /**
      * Check if leaf node, is null,
      *  for ex, user has optional address in config, if address is null in datasource skip persisting to address table
      *
-     * @param baseJsonPath Base json path
+     * @param plan Compiled extraction plan
      * @param jsonTree Java represented json tree
      * @return If node not available, return true, else false
      */
-    private boolean isChildObjectEmpty(String baseJsonPath, LinkedHashMap<String, Object> jsonTree) {
-
-        if ( baseJsonPath.contains("*") && ! baseJsonPath.endsWith("*")) {
-            String baseJsonPathForNullCheck = baseJsonPath.substring(baseJsonPath.lastIndexOf("*.") + 2);
-            String[] baseObjectsForNullCheck = baseJsonPathForNullCheck.split("\\.");
-            LinkedHashMap<String, Object> temp = new LinkedHashMap<>(jsonTree);
-            for (String baseObjectForNullCheck : baseObjectsForNullCheck) {
-                if (isNull(temp.get(baseObjectForNullCheck))) {
-                    log.info("Skipping persisting record with basePath {} as it's empty!", baseJsonPath);
-                    return true;
-                }
-                else
-                    temp = (LinkedHashMap<String, Object>) temp.get(baseObjectForNullCheck);
-            }
-            return false;
-        } else
+    private boolean isChildObjectEmpty(RowExtractionPlan plan, Map<String, Object> jsonTree) {
+
+        if (plan.nullCheckPath == null)
             return false;
+
+        Map<String, Object> temp = jsonTree;
+        for (String baseObjectForNullCheck : plan.nullCheckPath) {
+            Object child = temp.get(baseObjectForNullCheck);
+            if (isNull(child)) {
+                log.info("Skipping persisting record with basePath {} as it's empty!", plan.getBaseJsonPath());
+                return true;
+            }
+            else
+                temp = (Map<String, Object>) child;
+        }
+        return false;
     }
 
 
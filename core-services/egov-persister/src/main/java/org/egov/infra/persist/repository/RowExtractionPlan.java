@@ -0,0 +1,177 @@
+package org.egov.infra.persist.repository;
+
+import com.jayway.jsonpath.JsonPath;
+import org.egov.infra.persist.web.contract.JsonMap;
+import org.egov.infra.persist.web.contract.TypeEnum;
+
+import java.util.List;
+
+/**
+ * Pre-compiled form of a {@link org.egov.infra.persist.web.contract.QueryMap}'s json maps.
+ *
+ * All the string processing that used to happen per column per row (json path parsing, splitting
+ * of relative paths, {attribute} placeholder lookup, type resolution) is done once when the
+ * topic map is loaded. {@link PersistRepository#getRows(RowExtractionPlan, Object)} only walks
+ * the pre-built columns over a single parsed document.
+ */
+public final class RowExtractionPlan {
+
+    /**
+     * How a column value is resolved from the document / current record
+     */
+    enum Source {
+        /** Path with an {attribute} placeholder resolved from the current record */
+        ATTRIBUTE_FILTER,
+        /** Current time, converted as per db type */
+        CURRENT_DATE,
+        /** Array read from the document, indexed by record position, flattened to a string */
+        ARRAY_AS_STRING,
+        /** Path relative to the current record, ex: $.Properties.*.address.city */
+        RELATIVE,
+        /** Absolute path, same value for every record of a document */
+        ABSOLUTE,
+        /** default values, always persisted as null */
+        DEFAULT
+    }
+
+    /**
+     * How the resolved value is converted before being bound to the statement
+     */
+    enum Conversion {
+        NONE, JSON_STRING, JSONB, LONG_AS_IS, LONG_TO_DATE, STRING_TO_DATE, SKIP
+    }
+
+    static final class Column {
+
+        final Source source;
+        final Conversion conversion;
+        final TypeEnum dbType;
+        final JsonPath path;
+        final String[] relativePath;
+        final String attribute;
+        final String attributePathPrefix;
+        final String attributePathSuffix;
+
+        private Column(Source source, Conversion conversion, TypeEnum dbType, JsonPath path, String[] relativePath,
+                       String attribute, String attributePathPrefix, String attributePathSuffix) {
+            this.source = source;
+            this.conversion = conversion;
+            this.dbType = dbType;
+            this.path = path;
+            this.relativePath = relativePath;
+            this.attribute = attribute;
+            this.attributePathPrefix = attributePathPrefix;
+            this.attributePathSuffix = attributePathSuffix;
+        }
+    }
+
+    final String baseJsonPath;
+    final boolean bulk;
+    final JsonPath basePath;
+    final String[] nullCheckPath;
+    final Column[] columns;
+
+    private RowExtractionPlan(String baseJsonPath, boolean bulk, JsonPath basePath, String[] nullCheckPath,
+                              Column[] columns) {
+        this.baseJsonPath = baseJsonPath;
+        this.bulk = bulk;
+        this.basePath = basePath;
+        this.nullCheckPath = nullCheckPath;
+        this.columns = columns;
+    }
+
+    /**
+     * Compile the given json maps and base path into an extraction plan
+     *
+     * @param jsonMaps Column mappings in query parameter order
+     * @param baseJsonPath Base json path of the query map
+     * @return Compiled plan, safe to be shared across threads
+     */
+    public static RowExtractionPlan compile(List<JsonMap> jsonMaps, String baseJsonPath) {
+        boolean bulk = baseJsonPath.contains("*");
+        JsonPath basePath;
+        String[] nullCheckPath = null;
+
+        if (bulk) {
+            basePath = JsonPath.compile(baseJsonPath.substring(0, baseJsonPath.lastIndexOf(".*") + 2));
+            if (!baseJsonPath.endsWith("*"))
+                nullCheckPath = baseJsonPath.substring(baseJsonPath.lastIndexOf("*.") + 2).split("\\.");
+        } else
+            basePath = JsonPath.compile(baseJsonPath);
+
+        Column[] columns = new Column[jsonMaps.size()];
+        for (int i = 0; i < columns.length; i++)
+            columns[i] = compileColumn(jsonMaps.get(i));
+
+        return new RowExtractionPlan(baseJsonPath, bulk, basePath, nullCheckPath, columns);
+    }
+
+    private static Column compileColumn(JsonMap jsonMap) {
+        String jsonPath = jsonMap.getJsonPath();
+        TypeEnum type = jsonMap.getType() == null ? TypeEnum.STRING : jsonMap.getType();
+        TypeEnum dbType = jsonMap.getDbType();
+
+        if (jsonPath.contains("{")) {
+            String attribute = jsonPath.substring(jsonPath.indexOf("{") + 1, jsonPath.indexOf("}"));
+            String placeholder = "{".concat(attribute).concat("}");
+            int index = jsonPath.indexOf(placeholder);
+            return new Column(Source.ATTRIBUTE_FILTER, Conversion.NONE, dbType, null, null, attribute,
+                    jsonPath.substring(0, index), jsonPath.substring(index + placeholder.length()));
+        }
+
+        if (type == TypeEnum.CURRENTDATE) {
+            Conversion conversion = (dbType == TypeEnum.DATE || dbType == TypeEnum.LONG) ? Conversion.NONE : Conversion.SKIP;
+            return new Column(Source.CURRENT_DATE, conversion, dbType, null, null, null, null, null);
+        }
+
+        Source source;
+        JsonPath path = null;
+        String[] relativePath = null;
+
+        if (jsonPath.startsWith("default"))
+            source = Source.DEFAULT;
+        else if (type == TypeEnum.ARRAY && dbType == TypeEnum.STRING) {
+            source = Source.ARRAY_AS_STRING;
+            path = JsonPath.compile(jsonPath);
+        } else if (jsonPath.contains("*.")) {
+            jsonPath = jsonPath.substring(jsonPath.lastIndexOf("*.") + 2);
+            if (jsonPath.startsWith("default"))
+                source = Source.DEFAULT;
+            else {
+                source = Source.RELATIVE;
+                relativePath = jsonPath.split("\\.");
+            }
+        } else {
+            source = Source.ABSOLUTE;
+            path = JsonPath.compile(jsonPath);
+        }
+
+        return new Column(source, resolveConversion(type, dbType), dbType, path, relativePath, null, null, null);
+    }
+
+    private static Conversion resolveConversion(TypeEnum type, TypeEnum dbType) {
+        if (type == TypeEnum.JSON && dbType == TypeEnum.STRING)
+            return Conversion.JSON_STRING;
+        else if (type == TypeEnum.JSON && dbType == TypeEnum.JSONB)
+            return Conversion.JSONB;
+        else if (type == TypeEnum.LONG) {
+            if (dbType == null)
+                return Conversion.LONG_AS_IS;
+            else if (dbType == TypeEnum.DATE)
+                return Conversion.LONG_TO_DATE;
+            else
+                return Conversion.SKIP;
+        } else if (type == TypeEnum.DATE)
+            return Conversion.STRING_TO_DATE;
+        else
+            return Conversion.NONE;
+    }
+
+    public String getBaseJsonPath() {
+        return baseJsonPath;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+}
@@ -7,7 +7,6 @@ import com.jayway.jsonpath.PathNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.egov.infra.persist.repository.PersistRepository;
 import org.egov.infra.persist.utils.Utils;
-import org.egov.infra.persist.web.contract.JsonMap;
 import org.egov.infra.persist.web.contract.Mapping;
 import org.egov.infra.persist.web.contract.QueryMap;
 import org.egov.infra.persist.web.contract.TopicMap;
@@ -42,11 +41,7 @@ public class PersistService {
 		for (Mapping mapping : applicableMappings) {
 			List<QueryMap> queryMaps = mapping.getQueryMaps();
 			for (QueryMap queryMap : queryMaps) {
-				String query = queryMap.getQuery();
-				List<JsonMap> jsonMaps = queryMap.getJsonMaps();
-				String basePath = queryMap.getBasePath();
-				persistRepository.persist(query, jsonMaps, document, basePath);
-
+				persistRepository.persist(queryMap.getQuery(), queryMap.getExtractionPlan(), document);
 			}
 
 		}
@@ -67,19 +62,79 @@ public class PersistService {
 			for (Mapping mapping : mappings) {
 				List<QueryMap> queryMaps = mapping.getQueryMaps();
 				for (QueryMap queryMap : queryMaps) {
-					String query = queryMap.getQuery();
-					List<JsonMap> jsonMaps = queryMap.getJsonMaps();
-					String basePath = queryMap.getBasePath();
-
-					List<Object[]> rows = new LinkedList<>(persistRepository.getRows(jsonMaps, jsonObj, basePath));
+					List<Object[]> rows = persistRepository.getRows(queryMap.getExtractionPlan(), jsonObj);
 
-					persistRepository.persist(query, rows);
+					persistRepository.persist(queryMap.getQuery(), rows);
 				}
 
 			}
 		});
 	}
 
+	/**
+	 * Persists all the documents received in a single poll in one transaction.
+	 * Consecutive documents running the same sequence of queries are persisted together, every query of the
+	 * sequence being executed as a single multi-row batch for all of them. The statements of a sequence deleting
+	 * rows before writing them again, like the updates replacing child rows, depend on the order in which they
+	 * run for each document, documents with such a sequence are persisted one by one.
+	 *
+	 * @param topicToDocuments Already deserialized documents grouped by topic, in poll order
+	 */
+	@Transactional
+	public void persist(Map<String, List<Object>> topicToDocuments) {
+
+		Map<String, List<Mapping>> map = topicMap.getTopicMap();
+		List<String> batchQueries = Collections.emptyList();
+		List<List<Object[]>> batchRows = new ArrayList<>();
+
+		for (Map.Entry<String, List<Object>> entry : topicToDocuments.entrySet()) {
+			List<Mapping> mappings = map.get(entry.getKey());
+			if (mappings == null) {
+				log.error("No persister config found for topic: {}", entry.getKey());
+				continue;
+			}
+
+			for (Object document : entry.getValue()) {
+				List<String> queries = new ArrayList<>();
+				List<List<Object[]>> rows = new ArrayList<>();
+				for (Mapping mapping : filterMappings(mappings, document)) {
+					for (QueryMap queryMap : mapping.getQueryMaps()) {
+						queries.add(queryMap.getQuery());
+						rows.add(new ArrayList<>(persistRepository.getRows(queryMap.getExtractionPlan(), document)));
+					}
+				}
+
+				if (queries.equals(batchQueries) && !isOrderDependent(queries)) {
+					for (int i = 0; i < rows.size(); i++)
+						batchRows.get(i).addAll(rows.get(i));
+				} else {
+					persistBatch(batchQueries, batchRows);
+					batchQueries = queries;
+					batchRows = rows;
+				}
+			}
+		}
+		persistBatch(batchQueries, batchRows);
+	}
+
+	private void persistBatch(List<String> queries, List<List<Object[]>> rows) {
+		for (int i = 0; i < queries.size(); i++) {
+			if (!rows.get(i).isEmpty())
+				persistRepository.persist(queries.get(i), rows.get(i));
+		}
+	}
+
+	/*
+	 * A sequence having a DELETE followed by other statements has to be run document by document
+	 */
+	private boolean isOrderDependent(List<String> queries) {
+		for (int i = 0; i < queries.size() - 1; i++) {
+			if (queries.get(i).trim().toUpperCase(Locale.ROOT).startsWith("DELETE"))
+				return true;
+		}
+		return false;
+	}
+
 	private List<Mapping> filterMappings(List<Mapping> mappings, Object json){
 		List<Mapping> filteredMaps = new ArrayList<>();
 		String version = "";
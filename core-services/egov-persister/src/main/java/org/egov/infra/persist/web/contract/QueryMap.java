@@ -3,11 +3,14 @@ package org.egov.infra.persist.web.contract;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.egov.infra.persist.repository.RowExtractionPlan;
 
 @Setter
 @Getter
@@ -21,6 +24,36 @@ public class QueryMap  {
 
   @JsonProperty("basePath")
   private String basePath = null;
-  
+
+  @JsonIgnore
+  @ToString.Exclude
+  @Setter(AccessLevel.NONE)
+  @Getter(AccessLevel.NONE)
+  private volatile RowExtractionPlan extractionPlan = null;
+
+  public void setJsonMaps(List<JsonMap> jsonMaps) {
+    this.jsonMaps = jsonMaps;
+    this.extractionPlan = null;
+  }
+
+  public void setBasePath(String basePath) {
+    this.basePath = basePath;
+    this.extractionPlan = null;
+  }
+
+  /**
+   * Returns the compiled row extraction plan for this query map, compiling it on first use.
+   * Plans are compiled eagerly when the topic map is loaded, so this is a plain read on the hot path.
+   */
+  @JsonIgnore
+  public RowExtractionPlan getExtractionPlan() {
+    RowExtractionPlan plan = extractionPlan;
+    if (plan == null) {
+      plan = RowExtractionPlan.compile(jsonMaps, basePath);
+      extractionPlan = plan;
+    }
+    return plan;
+  }
+
 }
 
@@ -2,6 +2,7 @@ package org.egov.infra.persist.repository;
 
 import ch.qos.logback.core.util.COWArrayList;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.Configuration;
 import org.egov.infra.persist.web.contract.JsonMap;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +14,12 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -81,5 +87,43 @@ class PersistRepositoryTest {
         assertTrue(this.persistRepository.getRows(new ArrayList<>(), "Json Obj", ".*").isEmpty());
     }
 
-}
+    @Test
+    void testGetRowsWithCompiledPlan() {
+        Object document = Configuration.defaultConfiguration().jsonProvider()
+                .parse("{\"RequestInfo\":{\"userInfo\":{\"uuid\":\"u1\"}},"
+                        + "\"Properties\":[{\"id\":\"p1\",\"address\":{\"city\":\"c1\"}},"
+                        + "{\"id\":\"p2\",\"address\":null}]}");
+
+        RowExtractionPlan plan = RowExtractionPlan.compile(Arrays.asList(
+                jsonMap("$.Properties.*.id"),
+                jsonMap("$.RequestInfo.userInfo.uuid"),
+                jsonMap("$.Properties.*.address.city")), "$.Properties.*");
+
+        List<Object[]> rows = this.persistRepository.getRows(plan, document);
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{"p1", "u1", "c1"}, rows.get(0));
+        assertArrayEquals(new Object[]{"p2", "u1", null}, rows.get(1));
+    }
+
+    @Test
+    void testGetRowsSkipsEmptyChildObject() {
+        Object document = Configuration.defaultConfiguration().jsonProvider()
+                .parse("{\"Properties\":[{\"id\":\"p1\",\"address\":{\"city\":\"c1\"}},{\"id\":\"p2\"}]}");
+
+        RowExtractionPlan plan = RowExtractionPlan.compile(Collections.singletonList(jsonMap("$.Properties.*.address.city")),
+                "$.Properties.*.address");
 
+        List<Object[]> rows = this.persistRepository.getRows(plan, document);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[]{"c1"}, rows.get(0));
+    }
+
+    private JsonMap jsonMap(String jsonPath) {
+        JsonMap jsonMap = new JsonMap();
+        jsonMap.setJsonPath(jsonPath);
+        return jsonMap;
+    }
+
+}
@@ -3,18 +3,29 @@ package org.egov.infra.persist.service;
 import com.github.zafarkhaja.semver.Version;
 import com.jayway.jsonpath.PathNotFoundException;
 import org.egov.infra.persist.repository.PersistRepository;
+import org.egov.infra.persist.repository.RowExtractionPlan;
 import org.egov.infra.persist.utils.Utils;
+import org.egov.infra.persist.web.contract.Mapping;
+import org.egov.infra.persist.web.contract.QueryMap;
 import org.egov.infra.persist.web.contract.TopicMap;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -67,5 +78,103 @@ class PersistServiceTest {
         verify(this.utils).getSemVer((String) any());
         verify(this.topicMap).getTopicMap();
     }
-}
 
+    @Test
+    void testPersistBatchGroupsRowsByQuery() {
+        when(this.utils.getSemVer((String) any())).thenReturn(Version.forIntegers(1));
+
+        QueryMap queryMap = new QueryMap();
+        queryMap.setQuery("INSERT INTO t VALUES (?)");
+        queryMap.setBasePath("$.Properties.*");
+
+        Mapping mapping = new Mapping();
+        mapping.setVersion("1.0.0");
+        mapping.setQueryMaps(Collections.singletonList(queryMap));
+
+        HashMap<String, List<Mapping>> mappings = new HashMap<>();
+        mappings.put("Topic", Collections.singletonList(mapping));
+        when(this.topicMap.getTopicMap()).thenReturn(mappings);
+        when(this.persistRepository.getRows((RowExtractionPlan) any(), any()))
+                .thenReturn(Collections.singletonList(new Object[]{"42"}));
+
+        Map<String, List<Object>> topicToDocuments = new LinkedHashMap<>();
+        topicToDocuments.put("Topic", Arrays.asList(new HashMap<>(), new HashMap<>()));
+        this.persistService.persist(topicToDocuments);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(this.persistRepository, times(1)).persist(eq("INSERT INTO t VALUES (?)"), rows.capture());
+        assertEquals(2, rows.getValue().size());
+    }
+
+    @Test
+    void testPersistBatchKeepsStatementOrderOfUpdates() {
+        when(this.utils.getSemVer((String) any())).thenReturn(Version.forIntegers(1));
+
+        QueryMap delete = new QueryMap();
+        delete.setQuery("DELETE FROM t_child WHERE parentid = ?");
+        delete.setBasePath("$.Employees.*");
+        QueryMap insert = new QueryMap();
+        insert.setQuery("INSERT INTO t_child VALUES (?)");
+        insert.setBasePath("$.Employees.*");
+
+        Mapping mapping = new Mapping();
+        mapping.setVersion("1.0.0");
+        mapping.setQueryMaps(Arrays.asList(delete, insert));
+
+        HashMap<String, List<Mapping>> mappings = new HashMap<>();
+        mappings.put("update-topic", Collections.singletonList(mapping));
+        when(this.topicMap.getTopicMap()).thenReturn(mappings);
+        when(this.persistRepository.getRows((RowExtractionPlan) any(), any()))
+                .thenReturn(Collections.singletonList(new Object[]{"42"}));
+
+        Map<String, List<Object>> topicToDocuments = new LinkedHashMap<>();
+        topicToDocuments.put("update-topic", Arrays.asList(new HashMap<>(), new HashMap<>()));
+        this.persistService.persist(topicToDocuments);
+
+        InOrder inOrder = inOrder(this.persistRepository);
+        inOrder.verify(this.persistRepository).persist(eq("DELETE FROM t_child WHERE parentid = ?"), anyList());
+        inOrder.verify(this.persistRepository).persist(eq("INSERT INTO t_child VALUES (?)"), anyList());
+        inOrder.verify(this.persistRepository).persist(eq("DELETE FROM t_child WHERE parentid = ?"), anyList());
+        inOrder.verify(this.persistRepository).persist(eq("INSERT INTO t_child VALUES (?)"), anyList());
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void testPersistBatchDoesNotMergeDifferentSequences() {
+        when(this.utils.getSemVer((String) any())).thenReturn(Version.forIntegers(1));
+
+        QueryMap insertParent = new QueryMap();
+        insertParent.setQuery("INSERT INTO t_parent VALUES (?)");
+        QueryMap insertChild = new QueryMap();
+        insertChild.setQuery("INSERT INTO t_child VALUES (?)");
+
+        Mapping create = new Mapping();
+        create.setVersion("1.0.0");
+        create.setQueryMaps(Arrays.asList(insertParent, insertChild));
+        Mapping update = new Mapping();
+        update.setVersion("1.0.0");
+        update.setQueryMaps(Collections.singletonList(insertChild));
+
+        HashMap<String, List<Mapping>> mappings = new HashMap<>();
+        mappings.put("create-topic", Collections.singletonList(create));
+        mappings.put("update-topic", Collections.singletonList(update));
+        when(this.topicMap.getTopicMap()).thenReturn(mappings);
+        when(this.persistRepository.getRows((RowExtractionPlan) any(), any()))
+                .thenReturn(Collections.singletonList(new Object[]{"42"}));
+
+        Map<String, List<Object>> topicToDocuments = new LinkedHashMap<>();
+        topicToDocuments.put("create-topic", Arrays.asList(new HashMap<>(), new HashMap<>()));
+        topicToDocuments.put("update-topic", Collections.singletonList(new HashMap<>()));
+        this.persistService.persist(topicToDocuments);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(this.persistRepository);
+        inOrder.verify(this.persistRepository).persist(eq("INSERT INTO t_parent VALUES (?)"), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        inOrder.verify(this.persistRepository).persist(eq("INSERT INTO t_child VALUES (?)"), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        inOrder.verify(this.persistRepository).persist(eq("INSERT INTO t_child VALUES (?)"), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        inOrder.verifyNoMoreInteractions();
+    }
+}
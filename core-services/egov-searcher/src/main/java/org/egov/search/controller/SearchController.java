@@ -1,13 +1,17 @@
 package org.egov.search.controller;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.egov.search.model.SearchRequest;
 import org.egov.search.service.SearchService;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,10 +33,16 @@ public class SearchController {
 	@ResponseBody
 	public ResponseEntity<?> getData(@PathVariable("moduleName") String moduleName,
 			@PathVariable("searchName") String searchName,
-			@RequestBody SearchRequest searchRequest, @RequestParam Map<String, Object> queryParams) {	
+			@RequestBody SearchRequest searchRequest, @RequestParam Map<String, Object> queryParams,
+			HttpServletResponse response) throws IOException {	
 		if(null == searchRequest.getSearchCriteria()) {
 			searchRequest.setSearchCriteria(queryParams);
 		}
+		if(searchService.isStreamingEnabled(moduleName, searchName)) {
+			response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+			searchService.streamData(searchRequest, moduleName, searchName, response.getOutputStream());
+			return null;
+		}
 		Object searchResult = searchService.searchData(searchRequest,moduleName,searchName);
 		try {
 		    Type type = new TypeToken<Map<String, Object>>() {}.getType();
@@ -25,6 +25,9 @@ public class Definition {
 	@JsonProperty("isCustomerRowMapEnabled")
 	private Boolean isCustomerRowMapEnabled;
 	
+	@JsonProperty("isStreamingEnabled")
+	private Boolean isStreamingEnabled;
+	
 	@JsonProperty("rowMapperKey")
 	private String rowMapperKey;
 
@@ -5,6 +5,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
 import org.egov.custom.mapper.billing.impl.Bill;
 import org.egov.custom.mapper.billing.impl.BillRowMapper;
 import org.egov.search.model.Definition;
@@ -15,8 +18,11 @@ import org.postgresql.util.PGobject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,6 +46,21 @@ public class SearchRepository {
 
 	@Autowired
 	private BillRowMapper rowMapper;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Value("${search.streaming.fetch.size:500}")
+	private Integer streamingFetchSize;
+
+	private NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+	@PostConstruct
+	public void init() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.setFetchSize(streamingFetchSize);
+		streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+	}
 			
 	public List<String> fetchData(SearchRequest searchRequest, Definition definition) {
         Map<String, Object> preparedStatementValues = new HashMap<>();
@@ -51,6 +72,22 @@ public class SearchRepository {
 		return searchUtils.convertPGOBjects(maps);
 	}
 	
+	/**
+	 * Passes the rows of the search to the handler as they are fetched, the postgres driver
+	 * reads the rows in batches of the fetch size only within a transaction.
+	 * 
+	 * @param searchRequest
+	 * @param definition
+	 * @param rowCallbackHandler
+	 */
+	@Transactional(readOnly = true)
+	public void streamData(SearchRequest searchRequest, Definition definition, RowCallbackHandler rowCallbackHandler) {
+        Map<String, Object> preparedStatementValues = new HashMap<>();
+        String query = searchUtils.buildQuery(searchRequest, definition.getSearchParams(), definition.getQuery(), preparedStatementValues);
+		log.info("Final Query: " + query);
+		streamingJdbcTemplate.query(query, preparedStatementValues, rowCallbackHandler);
+	}
+	
 	public Object fetchWithCustomMapper(SearchRequest searchRequest, Definition searchDefinition) {
         Map<String, Object> preparedStatementValues = new HashMap<>();
 		String query = searchUtils.buildQuery(searchRequest, searchDefinition.getSearchParams(), searchDefinition.getQuery(), preparedStatementValues);
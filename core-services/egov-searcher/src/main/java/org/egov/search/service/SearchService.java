@@ -1,11 +1,13 @@
 package org.egov.search.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.egov.SearchApplicationRunnerImpl;
 import org.egov.common.contract.response.ResponseInfo;
@@ -17,10 +19,13 @@ import org.egov.search.repository.SearchRepository;
 import org.egov.search.utils.ResponseInfoFactory;
 import org.egov.search.utils.SearchReqValidator;
 import org.egov.search.utils.SearchUtils;
+import org.egov.search.utils.StreamingJsonWriter;
+import org.egov.search.utils.StreamingJsonWriter.StopReadingException;
 import org.egov.tracer.model.CustomException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.google.gson.Gson;
@@ -51,9 +56,17 @@ public class SearchService {
 
 	@Autowired
 	private EncryptionService encryptionService;
+
+	@Value("${search.streaming.max.elements:100000}")
+	private Long streamingMaxElements;
+
+	@Value("${search.streaming.max.bytes:104857600}")
+	private Long streamingMaxBytes;
 	
 	public static final Logger log = LoggerFactory.getLogger(SearchService.class);
 
+	private static final String TRUNCATED_KEY = "truncated";
+
 
 	public Object searchData(SearchRequest searchRequest, String moduleName, String searchName) {
 		searchReqValidator.validate(searchRequest, moduleName, searchName);
@@ -106,6 +119,69 @@ public class SearchService {
 		return data;
 	}
 
+	/**
+	 * Searches which write the json built by the query straight to the response. Searches with a custom
+	 * row mapper or with decryption need the whole result and are not streamed.
+	 * 
+	 * @param moduleName
+	 * @param searchName
+	 * @return
+	 */
+	public boolean isStreamingEnabled(String moduleName, String searchName) {
+		Definition searchDefinition = searchUtils.getSearchDefinition(runner.getSearchDefinitionMap(), moduleName, searchName);
+		return Boolean.TRUE.equals(searchDefinition.getIsStreamingEnabled())
+				&& !Boolean.TRUE.equals(searchDefinition.getIsCustomerRowMapEnabled())
+				&& null == searchDefinition.getDecryptionPathId();
+	}
+
+	/**
+	 * Writes the result of the search to the output stream as the rows are fetched, in the configured
+	 * output format. The rows and bytes written are limited, the result is cut at the limits.
+	 * 
+	 * @param searchRequest
+	 * @param moduleName
+	 * @param searchName
+	 * @param outputStream
+	 */
+	public void streamData(SearchRequest searchRequest, String moduleName, String searchName, OutputStream outputStream) {
+		searchReqValidator.validate(searchRequest, moduleName, searchName);
+		Definition searchDefinition = searchUtils.getSearchDefinition(runner.getSearchDefinitionMap(), moduleName, searchName);
+
+		String placeholder = UUID.randomUUID().toString();
+		String output = null;
+		try {
+			output = formatOutput(placeholder, searchDefinition, searchRequest);
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+			throw new CustomException("RESULT_FORMAT_ERROR",
+					"There was an error encountered while formatting the result, Verify output config from the yaml file.");
+		}
+		String quotedPlaceholder = "\"" + placeholder + "\"";
+		int index = output.indexOf(quotedPlaceholder);
+		String suffix = "]" + output.substring(index + quotedPlaceholder.length());
+		StreamingJsonWriter writer = new StreamingJsonWriter(outputStream, output.substring(0, index) + "[", suffix,
+				getTruncatedSuffix(suffix), streamingMaxElements, streamingMaxBytes);
+
+		try {
+			searchRepository.streamData(searchRequest, searchDefinition, writer);
+		} catch (StopReadingException e) {
+			// Limits reached, the rows read so far are written
+		} catch (Exception e) {
+			log.error("Exception: ", e);
+			throw new CustomException("DB_QUERY_EXECUTION_ERROR", "There was an error encountered at the Db");
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Suffix closing a result cut by the streaming limits, it sets truncated to true on the output
+	 */
+	private static String getTruncatedSuffix(String suffix) {
+		if (!suffix.endsWith("}"))
+			return suffix;
+		return suffix.substring(0, suffix.length() - 1) + ",\"" + TRUNCATED_KEY + "\":true}";
+	}
+
 	private Map<String, Object> enrichedOuputData(List<String> maps, Definition searchDefinition, SearchRequest searchRequest ){
 		try {
 			Type type = new TypeToken<ArrayList<Map<String, Object>>>() {}.getType();
@@ -130,6 +206,10 @@ public class SearchService {
 		Gson gson = new Gson();
 		List<Map<String, Object>> data = gson.fromJson(maps.toString(), type);
 		
+		return formatOutput(data, searchDefinition, searchRequest);
+	}
+
+	private String formatOutput(Object data, Definition searchDefinition, SearchRequest searchRequest){
     	DocumentContext documentContext = JsonPath.parse((null != searchDefinition.getOutput().getJsonFormat()) ? searchDefinition.getOutput().getJsonFormat() : "{}");
 		String[] expressionArray = (searchDefinition.getOutput().getOutJsonPath()).split("[.]");
 		StringBuilder expression = new StringBuilder();
@@ -0,0 +1,152 @@
+package org.egov.search.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the json built by postgres to the response as the rows are read, between the prefix and the suffix of
+ * the configured output format.
+ *
+ * A row holding a json array is written as its elements, as is done while converting the PG objects, so the
+ * limits count the elements of the result and not the rows of the query. The prefix is written with the first
+ * element so that errors of the query can still be sent as the error response. The limits stop the query once
+ * they are reached, the elements read till then are written and the result is closed with the truncated suffix
+ * so that the client can tell it is incomplete.
+ */
+@Slf4j
+public class StreamingJsonWriter implements RowCallbackHandler {
+
+	private static final byte[] SEPARATOR = { ',' };
+
+	private final OutputStream outputStream;
+	private final byte[] prefix;
+	private final byte[] suffix;
+	private final byte[] truncatedSuffix;
+	private final long maxElements;
+	private final long maxBytes;
+
+	@Getter
+	private long elements;
+
+	@Getter
+	private long bytes;
+
+	@Getter
+	private boolean truncated;
+
+	private boolean started;
+
+	public StreamingJsonWriter(OutputStream outputStream, String prefix, String suffix, String truncatedSuffix,
+			long maxElements, long maxBytes) {
+		this.outputStream = outputStream;
+		this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+		this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+		this.truncatedSuffix = truncatedSuffix.getBytes(StandardCharsets.UTF_8);
+		this.maxElements = maxElements;
+		this.maxBytes = maxBytes;
+	}
+
+	@Override
+	public void processRow(ResultSet rs) throws SQLException {
+		String value = rs.getString(1);
+		if (null == value)
+			return;
+
+		value = value.trim();
+		if (value.startsWith("[") && value.endsWith("]"))
+			writeElements(value);
+		else if (!value.isEmpty())
+			writeElement(value);
+	}
+
+	/**
+	 * Completes the json, to be called once the query is done or has been stopped by the limits
+	 */
+	public void finish() {
+		try {
+			start();
+			outputStream.write(truncated ? truncatedSuffix : suffix);
+			outputStream.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (truncated)
+			log.warn("Streamed search result truncated at " + elements + " elements and " + bytes + " bytes");
+	}
+
+	/*
+	 * Writes the top level elements of the array, the commas inside strings and nested values are skipped
+	 */
+	private void writeElements(String array) {
+		int depth = 0;
+		boolean inString = false;
+		int elementStart = 1;
+		for (int i = 1; i < array.length() - 1; i++) {
+			char c = array.charAt(i);
+			if (inString) {
+				if (c == '\\')
+					i++;
+				else if (c == '"')
+					inString = false;
+			} else if (c == '"') {
+				inString = true;
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			} else if (c == ',' && depth == 0) {
+				writeElement(array.substring(elementStart, i).trim());
+				elementStart = i + 1;
+			}
+		}
+		String last = array.substring(elementStart, array.length() - 1).trim();
+		if (!last.isEmpty())
+			writeElement(last);
+	}
+
+	private void writeElement(String element) {
+		byte[] data = element.getBytes(StandardCharsets.UTF_8);
+		if (elements >= maxElements || bytes + data.length > maxBytes) {
+			truncated = true;
+			throw new StopReadingException();
+		}
+		try {
+			start();
+			if (elements > 0)
+				outputStream.write(SEPARATOR);
+			outputStream.write(data);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		elements++;
+		bytes += data.length;
+	}
+
+	private void start() throws IOException {
+		if (!started) {
+			outputStream.write(prefix);
+			started = true;
+		}
+	}
+
+	/**
+	 * Stops the query, the rows after the current one are not read
+	 */
+	public static class StopReadingException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		public StopReadingException() {
+			super(null, null, false, false);
+		}
+	}
+}
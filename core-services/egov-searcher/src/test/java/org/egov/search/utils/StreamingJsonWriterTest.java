@@ -0,0 +1,175 @@
+package org.egov.search.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.egov.search.utils.StreamingJsonWriter.StopReadingException;
+import org.junit.Test;
+
+public class StreamingJsonWriterTest {
+
+	private static final String PREFIX = "{\"ResponseInfo\":{},\"Data\":[";
+	private static final String SUFFIX = "]}";
+	private static final String TRUNCATED_SUFFIX = "],\"truncated\":true}";
+
+	private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+	@Test
+	public void testRowsAreWrittenBetweenPrefixAndSuffix() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.processRow(row("{\"id\":1}"));
+		writer.processRow(row("{\"id\":2}"));
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1},{\"id\":2}" + SUFFIX, output());
+		assertEquals(2, writer.getElements());
+		assertFalse(writer.isTruncated());
+	}
+
+	@Test
+	public void testEmptyResultIsAnEmptyArray() {
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.finish();
+
+		assertEquals(PREFIX + SUFFIX, output());
+	}
+
+	@Test
+	public void testNullRowsAndEmptyArraysAreSkipped() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.processRow(row(null));
+		writer.processRow(row("[]"));
+		writer.processRow(row("{\"id\":1}"));
+		writer.processRow(row(null));
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1}" + SUFFIX, output());
+		assertEquals(1, writer.getElements());
+	}
+
+	@Test
+	public void testNullElementsOfAnArrayAreKept() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.processRow(row("[null, {\"id\":null}]"));
+		writer.finish();
+
+		assertEquals(PREFIX + "null,{\"id\":null}" + SUFFIX, output());
+		assertEquals(2, writer.getElements());
+	}
+
+	@Test
+	public void testArrayRowIsWrittenAsItsElements() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.processRow(row("[{\"id\":1}, \n {\"id\":2}]"));
+		writer.processRow(row("{\"id\":3}"));
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1},{\"id\":2},{\"id\":3}" + SUFFIX, output());
+		assertEquals(3, writer.getElements());
+	}
+
+	@Test
+	public void testNestedJsonIsNotSplit() throws SQLException {
+		String first = "{\"id\":1,\"owners\":[{\"name\":\"a,b\"},{\"name\":\"c]\"}],\"address\":{\"city\":\"x\"}}";
+		String second = "{\"id\":2,\"note\":\"quoted \\\" , [ {\",\"tags\":[[1,2],[3]]}";
+		StreamingJsonWriter writer = writer(10, 1000);
+		writer.processRow(row("[" + first + "," + second + "]"));
+		writer.finish();
+
+		assertEquals(PREFIX + first + "," + second + SUFFIX, output());
+		assertEquals(2, writer.getElements());
+	}
+
+	@Test
+	public void testElementLimitCountsTheElementsOfAnArrayRow() throws SQLException {
+		StreamingJsonWriter writer = writer(2, 1000);
+		try {
+			writer.processRow(row("[{\"id\":1},{\"id\":2},{\"id\":3}]"));
+			fail("The query should be stopped at the limit");
+		} catch (StopReadingException e) {
+			// Limit reached
+		}
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1},{\"id\":2}" + TRUNCATED_SUFFIX, output());
+		assertEquals(2, writer.getElements());
+		assertTrue(writer.isTruncated());
+	}
+
+	@Test
+	public void testElementLimitStopsTheRows() throws SQLException {
+		StreamingJsonWriter writer = writer(1, 1000);
+		writer.processRow(row("{\"id\":1}"));
+		try {
+			writer.processRow(row("{\"id\":2}"));
+			fail("The query should be stopped at the limit");
+		} catch (StopReadingException e) {
+			// Limit reached
+		}
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1}" + TRUNCATED_SUFFIX, output());
+		assertTrue(writer.isTruncated());
+	}
+
+	@Test
+	public void testByteLimitKeepsTheElementsWithinIt() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 16);
+		writer.processRow(row("{\"id\":1}"));
+		writer.processRow(row("{\"id\":2}"));
+		try {
+			writer.processRow(row("{\"id\":3}"));
+			fail("The query should be stopped at the limit");
+		} catch (StopReadingException e) {
+			// Limit reached
+		}
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1},{\"id\":2}" + TRUNCATED_SUFFIX, output());
+		assertEquals(16, writer.getBytes());
+		assertTrue(writer.isTruncated());
+	}
+
+	@Test
+	public void testResultExactlyAtTheLimitIsNotTruncated() throws SQLException {
+		StreamingJsonWriter writer = writer(2, 1000);
+		writer.processRow(row("[{\"id\":1},{\"id\":2}]"));
+		writer.finish();
+
+		assertEquals(PREFIX + "{\"id\":1},{\"id\":2}" + SUFFIX, output());
+		assertFalse(writer.isTruncated());
+	}
+
+	@Test
+	public void testMultiByteCharactersAreCountedInBytes() throws SQLException {
+		StreamingJsonWriter writer = writer(10, 14);
+		writer.processRow(row("{\"n\":\"अआ\"}"));
+		writer.finish();
+
+		assertEquals(14, writer.getBytes());
+		assertEquals(PREFIX + "{\"n\":\"अआ\"}" + SUFFIX, output());
+	}
+
+	private StreamingJsonWriter writer(long maxElements, long maxBytes) {
+		return new StreamingJsonWriter(outputStream, PREFIX, SUFFIX, TRUNCATED_SUFFIX, maxElements, maxBytes);
+	}
+
+	private String output() {
+		return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static ResultSet row(String value) throws SQLException {
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getString(1)).thenReturn(value);
+		return resultSet;
+	}
+}
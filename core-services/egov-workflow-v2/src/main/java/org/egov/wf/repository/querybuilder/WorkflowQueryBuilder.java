@@ -24,6 +24,9 @@ public class WorkflowQueryBuilder {
     @Value("${egov.wf.fuzzysearch.isFuzzyEnabled}")
     private boolean isFuzzyEnabled;
 
+    @Value("${egov.wf.current.state.projection.enabled:false}")
+    private boolean isCurrentStateProjectionEnabled;
+
     @Autowired
     public WorkflowQueryBuilder(WorkflowConfig config) {
         this.config = config;
@@ -71,6 +74,25 @@ public class WorkflowQueryBuilder {
 
     private static final String FINAL_ESCALATED_QUERY ="SELECT businessid from ( {RANKED_QUERY} ) final WHERE outer_rank = 2 ";
 
+    /*
+     * Queries on eg_wf_processinstance_current_v2, which has one row per businessId pointing to its latest
+     * process instance, so the latest record does not have to be found by a correlated max(lastmodifiedTime)
+     */
+    private static final String CURRENT_STATE_ID_QUERY = " SELECT cur.processinstanceid AS id FROM eg_wf_processinstance_current_v2 cur WHERE cur.tenantid = ? ";
+
+    private static final String CURRENT_STATE_COUNT_QUERY = " SELECT count(*) FROM eg_wf_processinstance_current_v2 cur WHERE cur.tenantid = ? ";
+
+    private static final String CURRENT_STATE_STATUS_COUNT_QUERY = " SELECT count(*) AS count, st.applicationstatus, cur.businessservice, cur.status AS statusid "
+            + " FROM eg_wf_processinstance_current_v2 cur INNER JOIN eg_wf_state_v2 st ON st.uuid = cur.status WHERE cur.tenantid = ? ";
+
+    private static final String CURRENT_STATE_STATUS_COUNT_GROUP_BY = " GROUP BY st.applicationstatus, cur.businessservice, cur.status ";
+
+    private static final String CURRENT_STATE_ASSIGNEE_CLAUSE = " cur.assignees @> ARRAY[?]::text[] ";
+
+    private static final String CURRENT_STATE_KEYSET_CLAUSE = " AND (cur.lastmodifiedtime, cur.businessid) < (?, ?) ";
+
+    private static final String CURRENT_STATE_ORDER_BY = " ORDER BY cur.lastmodifiedtime DESC, cur.businessid DESC ";
+
     private String getProcessInstanceSearchQueryWithoutPagination(ProcessInstanceSearchCriteria criteria, List<Object> preparedStmtList){
 
 
@@ -136,6 +158,19 @@ public class WorkflowQueryBuilder {
     
 
     public String getProcessInstanceIds(ProcessInstanceSearchCriteria criteria, List<Object> preparedStmtList){
+        if (isCurrentStateProjectionEnabled && !criteria.getHistory()) {
+            StringBuilder builder = new StringBuilder(CURRENT_STATE_ID_QUERY);
+            preparedStmtList.add(criteria.getTenantId());
+            addCurrentStateSearchClauses(builder, criteria, preparedStmtList, isFuzzyEnabled);
+            // moduleName filters the ids only, the count on eg_wf_processinstance_v2 never filtered on it
+            if (!StringUtils.isEmpty(criteria.getModuleName())) {
+                builder.append(" AND cur.modulename = ? ");
+                preparedStmtList.add(criteria.getModuleName());
+            }
+            addCurrentStatePagination(builder, preparedStmtList, criteria);
+            return builder.toString();
+        }
+
         StringBuilder with_query_builder = new StringBuilder(WITH_CLAUSE);
 
 
@@ -287,6 +322,13 @@ public class WorkflowQueryBuilder {
     }
 
     public String getInboxIdCount(ProcessInstanceSearchCriteria criteria, ArrayList<Object> preparedStmtList) {
+        if (isCurrentStateProjectionEnabled) {
+            StringBuilder builder = new StringBuilder(CURRENT_STATE_COUNT_QUERY);
+            preparedStmtList.add(criteria.getTenantId());
+            addCurrentStateInboxClauses(builder, criteria, preparedStmtList);
+            return builder.toString();
+        }
+
         String finalQuery = getInboxIdQuery(criteria,preparedStmtList,false);
         String countQuery = addCountWrapperForInboxIdQuery(finalQuery);
         return countQuery;
@@ -294,6 +336,15 @@ public class WorkflowQueryBuilder {
 
     public String getInboxIdQuery(ProcessInstanceSearchCriteria criteria, List<Object> preparedStmtList, Boolean isPaginationRequired){
 
+        if (isCurrentStateProjectionEnabled) {
+            StringBuilder builder = new StringBuilder(CURRENT_STATE_ID_QUERY);
+            preparedStmtList.add(criteria.getTenantId());
+            addCurrentStateInboxClauses(builder, criteria, preparedStmtList);
+            if (isPaginationRequired)
+                addCurrentStatePagination(builder, preparedStmtList, criteria);
+            return builder.toString();
+        }
+
         String with_query = WITH_CLAUSE + " pi_outer.lastmodifiedTime = (" +
                 "SELECT max(lastmodifiedTime) from eg_wf_processinstance_v2 as pi_inner where pi_inner.businessid = pi_outer.businessid and tenantid = ? " +
                 ") ";
@@ -402,23 +453,171 @@ public class WorkflowQueryBuilder {
      * @return Query with pagination
      */
     private void addPagination(StringBuilder query,List<Object> preparedStmtList,ProcessInstanceSearchCriteria criteria){
-        int limit = config.getDefaultLimit();
         int offset = config.getDefaultOffset();
         query.append(" OFFSET ? ");
         query.append(" LIMIT ? ");
 
+        if(criteria.getOffset()!=null)
+            offset = criteria.getOffset();
+
+        preparedStmtList.add(offset);
+        preparedStmtList.add(getLimit(criteria));
+
+    }
+
+    private int getLimit(ProcessInstanceSearchCriteria criteria){
+        int limit = config.getDefaultLimit();
+
         if(criteria.getLimit()!=null && criteria.getLimit()<=config.getMaxSearchLimit())
             limit = criteria.getLimit();
 
         if(criteria.getLimit()!=null && criteria.getLimit()>config.getMaxSearchLimit())
             limit = config.getMaxSearchLimit();
 
-        if(criteria.getOffset()!=null)
-            offset = criteria.getOffset();
+        return limit;
+    }
 
-        preparedStmtList.add(offset);
-        preparedStmtList.add(limit);
+    /**
+     * Orders the current state rows by lastModifiedTime and pages them. When the lastModifiedTime and businessId
+     * of the last record of the previous page are given, the page starts right after that record (keyset
+     * pagination), so deep pages do not have to skip over all the preceding rows. Otherwise offset is used.
+     * @param query The query for which pagination has to be done
+     * @param preparedStmtList The object list to send the params
+     * @param criteria The object containg the search params
+     */
+    private void addCurrentStatePagination(StringBuilder query, List<Object> preparedStmtList, ProcessInstanceSearchCriteria criteria){
+        boolean isKeyset = criteria.getSearchAfterLastModifiedTime() != null
+                && !StringUtils.isEmpty(criteria.getSearchAfterBusinessId());
+
+        if (isKeyset) {
+            query.append(CURRENT_STATE_KEYSET_CLAUSE);
+            preparedStmtList.add(criteria.getSearchAfterLastModifiedTime());
+            preparedStmtList.add(criteria.getSearchAfterBusinessId());
+        }
+
+        query.append(CURRENT_STATE_ORDER_BY);
 
+        if (isKeyset) {
+            query.append(" LIMIT ? ");
+            preparedStmtList.add(getLimit(criteria));
+        }
+        else
+            addPagination(query, preparedStmtList, criteria);
+    }
+
+    /**
+     * Adds the search params as clauses on the current state rows
+     * @param builder The query on eg_wf_processinstance_current_v2
+     * @param criteria The object containg the search params
+     * @param preparedStmtList The object list to send the params
+     * @param isFuzzy Whether businessIds are to be matched partially
+     */
+    private void addCurrentStateSearchClauses(StringBuilder builder, ProcessInstanceSearchCriteria criteria,
+                                              List<Object> preparedStmtList, boolean isFuzzy){
+
+        List<String> ids = criteria.getIds();
+        if (!CollectionUtils.isEmpty(ids)) {
+            builder.append(" AND cur.processinstanceid IN (").append(createQuery(ids)).append(")");
+            addToPreparedStatement(preparedStmtList, ids);
+        }
+
+        List<String> businessIds = criteria.getBusinessIds();
+        if (!CollectionUtils.isEmpty(businessIds)) {
+            if (isFuzzy) {
+                builder.append(" AND cur.businessid LIKE ANY(ARRAY[ ").append(createQuery(businessIds)).append("])");
+                addToPreparedStatementForFuzzySearch(preparedStmtList, businessIds);
+            }
+            else {
+                builder.append(" AND cur.businessid IN (").append(createQuery(businessIds)).append(")");
+                addToPreparedStatement(preparedStmtList, businessIds);
+            }
+        }
+
+        List<String> tenantSpecificStatuses = criteria.getTenantSpecifiStatus();
+        if (!CollectionUtils.isEmpty(tenantSpecificStatuses)) {
+            builder.append(" AND (cur.tenantid || ':' || cur.status) IN (").append(createQuery(tenantSpecificStatuses)).append(")");
+            addToPreparedStatement(preparedStmtList, tenantSpecificStatuses);
+        }
+
+        List<String> statuses = criteria.getStatus();
+        if (!CollectionUtils.isEmpty(statuses)) {
+            builder.append(" AND cur.status IN (").append(createQuery(statuses)).append(")");
+            addToPreparedStatement(preparedStmtList, statuses);
+        }
+
+        if (!StringUtils.isEmpty(criteria.getAssignee())) {
+            builder.append(" AND").append(CURRENT_STATE_ASSIGNEE_CLAUSE);
+            preparedStmtList.add(criteria.getAssignee());
+        }
+
+        if (!StringUtils.isEmpty(criteria.getBusinessService())) {
+            builder.append(" AND cur.businessservice = ? ");
+            preparedStmtList.add(criteria.getBusinessService());
+        }
+
+        addCurrentStateNearingSlaClause(builder, criteria, preparedStmtList);
+    }
+
+    /**
+     * Adds the inbox clauses, i.e records assigned to the user or in the statuses actionable by the user,
+     * on the current state rows
+     * @param builder The query on eg_wf_processinstance_current_v2
+     * @param criteria The object containg the search params
+     * @param preparedStmtList The object list to send the params
+     */
+    private void addCurrentStateInboxClauses(StringBuilder builder, ProcessInstanceSearchCriteria criteria,
+                                             List<Object> preparedStmtList){
+
+        List<String> statuses = criteria.getStatus();
+        List<String> tenantSpecificStatus = criteria.getTenantSpecifiStatus();
+
+        if (criteria.getIsAssignedToMeCount() != null && criteria.getIsAssignedToMeCount()) {
+            builder.append(" AND").append(CURRENT_STATE_ASSIGNEE_CLAUSE);
+            preparedStmtList.add(criteria.getAssignee());
+        }
+        else if (!config.getAssignedOnly() && !CollectionUtils.isEmpty(tenantSpecificStatus)) {
+            builder.append(" AND (").append(CURRENT_STATE_ASSIGNEE_CLAUSE);
+            preparedStmtList.add(criteria.getAssignee());
+
+            builder.append(" OR (cur.tenantid || ':' || cur.status) IN (").append(createQuery(tenantSpecificStatus)).append(")");
+            addToPreparedStatement(preparedStmtList, tenantSpecificStatus);
+
+            if (!CollectionUtils.isEmpty(statuses)) {
+                builder.append(" OR cur.status IN (").append(createQuery(statuses)).append(")");
+                addToPreparedStatement(preparedStmtList, statuses);
+            }
+            builder.append(")");
+        }
+        else if (!isNull(criteria.getModuleName()) && criteria.getModuleName().equals("BPAREG")) {
+            List<String> statusesIrrespectiveOfTenant = criteria.getStatusesIrrespectiveOfTenant();
+            if (CollectionUtils.isEmpty(tenantSpecificStatus) && !CollectionUtils.isEmpty(statusesIrrespectiveOfTenant)) {
+                builder.append(" AND (").append(CURRENT_STATE_ASSIGNEE_CLAUSE);
+                preparedStmtList.add(criteria.getAssignee());
+
+                builder.append(" OR cur.status IN (").append(createQuery(statusesIrrespectiveOfTenant)).append("))");
+                addToPreparedStatement(preparedStmtList, statusesIrrespectiveOfTenant);
+            }
+        }
+        else {
+            builder.append(" AND").append(CURRENT_STATE_ASSIGNEE_CLAUSE);
+            preparedStmtList.add(criteria.getAssignee());
+        }
+
+        if (!StringUtils.isEmpty(criteria.getBusinessService())) {
+            builder.append(" AND cur.businessservice = ? ");
+            preparedStmtList.add(criteria.getBusinessService());
+        }
+
+        addCurrentStateNearingSlaClause(builder, criteria, preparedStmtList);
+    }
+
+    private void addCurrentStateNearingSlaClause(StringBuilder builder, ProcessInstanceSearchCriteria criteria,
+                                                 List<Object> preparedStmtList){
+        if (!ObjectUtils.isEmpty(criteria.getIsNearingSlaCount()) && criteria.getIsNearingSlaCount()) {
+            builder.append(" AND ((select extract(epoch from current_timestamp)) * 1000 - cur.lastmodifiedtime) BETWEEN ? AND ? ");
+            preparedStmtList.add(0l);
+            preparedStmtList.add(criteria.getSlotPercentageSlaLimit());
+        }
     }
 
     /**
@@ -429,6 +628,15 @@ public class WorkflowQueryBuilder {
      */
     public String getInboxCount(ProcessInstanceSearchCriteria criteria, List<Object> preparedStmtList,Boolean statuCount){
 
+        if (isCurrentStateProjectionEnabled) {
+            StringBuilder builder = new StringBuilder(statuCount ? CURRENT_STATE_STATUS_COUNT_QUERY : CURRENT_STATE_COUNT_QUERY);
+            preparedStmtList.add(criteria.getTenantId());
+            addCurrentStateInboxClauses(builder, criteria, preparedStmtList);
+            if (statuCount)
+                builder.append(CURRENT_STATE_STATUS_COUNT_GROUP_BY);
+            return builder.toString();
+        }
+
         String query = getInboxIdQuery(criteria, preparedStmtList, false);
 
         String countQuery = null;
@@ -448,6 +656,15 @@ public class WorkflowQueryBuilder {
 
 
     public String getProcessInstanceCount(ProcessInstanceSearchCriteria criteria, List<Object> preparedStmtList, boolean statuCount) {
+        if (isCurrentStateProjectionEnabled && !criteria.getHistory()) {
+            StringBuilder builder = new StringBuilder(statuCount ? CURRENT_STATE_STATUS_COUNT_QUERY : CURRENT_STATE_COUNT_QUERY);
+            preparedStmtList.add(criteria.getTenantId());
+            addCurrentStateSearchClauses(builder, criteria, preparedStmtList, false);
+            if (statuCount)
+                builder.append(CURRENT_STATE_STATUS_COUNT_GROUP_BY);
+            return builder.toString();
+        }
+
         String finalQuery = getProcessInstanceSearchQueryWithoutPagination(criteria,preparedStmtList);
         String countQuery = null;
         if(statuCount) {
@@ -42,6 +42,13 @@ public class ProcessInstanceSearchCriteria {
     @JsonProperty("limit")
     private Integer limit;
 
+    // lastModifiedTime and businessId of the last record of the previous page, used instead of offset when sent
+    @JsonProperty("searchAfterLastModifiedTime")
+    private Long searchAfterLastModifiedTime;
+
+    @JsonProperty("searchAfterBusinessId")
+    private String searchAfterBusinessId;
+
     @JsonProperty("businessService")
     private String businessService;
 
@@ -0,0 +1,37 @@
+-- Latest process instance of every businessId, upserted by the persister along with the transition
+CREATE TABLE IF NOT EXISTS eg_wf_processinstance_current_v2(
+
+    tenantid character varying(128) NOT NULL,
+    businessid character varying(128) NOT NULL,
+    processinstanceid character varying(64) NOT NULL,
+    businessservice character varying(128),
+    modulename character varying(64),
+    action character varying(128),
+    status character varying(128),
+    assigner character varying(128),
+    assignees text[] NOT NULL DEFAULT '{}',
+    statesla bigint,
+    businessservicesla bigint,
+    createdBy character varying(64),
+    lastModifiedBy character varying(64),
+    createdTime bigint,
+    lastModifiedTime bigint,
+
+    CONSTRAINT pk_eg_wf_processinstance_current_v2 PRIMARY KEY (tenantid, businessid)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lastmodifiedtime_eg_wf_processinstance_current_v2 ON eg_wf_processinstance_current_v2 (tenantid, lastModifiedTime DESC, businessid DESC);
+CREATE INDEX IF NOT EXISTS idx_status_eg_wf_processinstance_current_v2 ON eg_wf_processinstance_current_v2 (tenantid, status);
+CREATE INDEX IF NOT EXISTS idx_tenant_status_eg_wf_processinstance_current_v2 ON eg_wf_processinstance_current_v2 USING btree ((tenantid || ':' || status));
+CREATE INDEX IF NOT EXISTS idx_assignees_eg_wf_processinstance_current_v2 ON eg_wf_processinstance_current_v2 USING gin (assignees);
+CREATE INDEX IF NOT EXISTS idx_processinstanceid_eg_wf_processinstance_current_v2 ON eg_wf_processinstance_current_v2 (processinstanceid);
+
+-- Backfill from the existing transitions
+INSERT INTO eg_wf_processinstance_current_v2(tenantid, businessid, processinstanceid, businessservice, modulename, action, status, assigner, assignees, statesla, businessservicesla, createdby, lastmodifiedby, createdtime, lastmodifiedtime)
+SELECT DISTINCT ON (pi.tenantid, pi.businessid) pi.tenantid, pi.businessid, pi.id, pi.businessservice, pi.modulename, pi.action, pi.status, pi.assigner,
+    ARRAY(SELECT asg.assignee FROM eg_wf_assignee_v2 asg WHERE asg.processinstanceid = pi.id AND asg.assignee IS NOT NULL),
+    pi.statesla, pi.businessservicesla, pi.createdby, pi.lastmodifiedby, pi.createdtime, pi.lastmodifiedtime
+FROM eg_wf_processinstance_v2 pi
+WHERE pi.tenantid IS NOT NULL AND pi.businessid IS NOT NULL
+ORDER BY pi.tenantid, pi.businessid, pi.lastmodifiedtime DESC
+ON CONFLICT (tenantid, businessid) DO NOTHING;
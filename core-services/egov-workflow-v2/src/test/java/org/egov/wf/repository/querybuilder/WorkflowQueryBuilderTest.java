@@ -1,6 +1,8 @@
 package org.egov.wf.repository.querybuilder;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doNothing;
@@ -9,6 +11,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.egov.common.contract.request.RequestInfo;
@@ -18,6 +22,7 @@ import org.egov.wf.config.WorkflowConfig;
 import org.egov.wf.web.models.ProcessInstanceSearchCriteria;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 class WorkflowQueryBuilderTest {
 
@@ -8198,5 +8203,101 @@ class WorkflowQueryBuilderTest {
         verify(processInstanceSearchCriteria).setToDate((Long) any());
         assertEquals(4, objectList.size());
     }
-}
 
+    private WorkflowQueryBuilder getCurrentStateQueryBuilder() {
+        WorkflowConfig workflowConfig = new WorkflowConfig("UTC", 1, 1, 3, "Save Transition Topic",
+                "Save Business Service Topic", "2020-03-01", "localhost", "https://config.us-east-2.amazonaws.com", "localhost",
+                "https://config.us-east-2.amazonaws.com", false, "MD", 3);
+        WorkflowQueryBuilder workflowQueryBuilder = new WorkflowQueryBuilder(workflowConfig);
+        ReflectionTestUtils.setField(workflowQueryBuilder, "isCurrentStateProjectionEnabled", true);
+        return workflowQueryBuilder;
+    }
+
+    @Test
+    void testGetProcessInstanceIdsFromCurrentStateWithKeyset() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setStatus(Collections.singletonList("S1"));
+        processInstanceSearchCriteria.setBusinessService("Business Service");
+        processInstanceSearchCriteria.setSearchAfterLastModifiedTime(100L);
+        processInstanceSearchCriteria.setSearchAfterBusinessId("BID-2");
+        processInstanceSearchCriteria.setLimit(1);
+        ArrayList<Object> objectList = new ArrayList<>();
+        assertEquals(
+                " SELECT cur.processinstanceid AS id FROM eg_wf_processinstance_current_v2 cur WHERE cur.tenantid = ? "
+                        + " AND cur.status IN ( ?) AND cur.businessservice = ?  AND (cur.lastmodifiedtime, cur.businessid) < (?, ?) "
+                        + " ORDER BY cur.lastmodifiedtime DESC, cur.businessid DESC  LIMIT ? ",
+                getCurrentStateQueryBuilder().getProcessInstanceIds(processInstanceSearchCriteria, objectList));
+        assertEquals(Arrays.asList("42", "S1", "Business Service", 100L, "BID-2", 1), objectList);
+    }
+
+    @Test
+    void testGetProcessInstanceIdsFromCurrentStateWithOffset() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setAssignee("Assignee");
+        processInstanceSearchCriteria.setOffset(2);
+        processInstanceSearchCriteria.setLimit(1);
+        ArrayList<Object> objectList = new ArrayList<>();
+        assertEquals(
+                " SELECT cur.processinstanceid AS id FROM eg_wf_processinstance_current_v2 cur WHERE cur.tenantid = ? "
+                        + " AND cur.assignees @> ARRAY[?]::text[]  ORDER BY cur.lastmodifiedtime DESC, cur.businessid DESC "
+                        + " OFFSET ?  LIMIT ? ",
+                getCurrentStateQueryBuilder().getProcessInstanceIds(processInstanceSearchCriteria, objectList));
+        assertEquals(Arrays.asList("42", "Assignee", 2, 1), objectList);
+    }
+
+    @Test
+    void testGetProcessInstanceIdsWithHistoryIgnoresCurrentState() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setHistory(true);
+        assertTrue(getCurrentStateQueryBuilder().getProcessInstanceIds(processInstanceSearchCriteria, new ArrayList<>())
+                .startsWith(" select id from eg_wf_processinstance_v2 pi_outer WHERE "));
+    }
+
+    @Test
+    void testGetInboxStatusCountFromCurrentState() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setAssignee("Assignee");
+        processInstanceSearchCriteria.setIsAssignedToMeCount(true);
+        processInstanceSearchCriteria.setBusinessService("BS");
+        ArrayList<Object> objectList = new ArrayList<>();
+        assertEquals(
+                " SELECT count(*) AS count, st.applicationstatus, cur.businessservice, cur.status AS statusid "
+                        + " FROM eg_wf_processinstance_current_v2 cur INNER JOIN eg_wf_state_v2 st ON st.uuid = cur.status"
+                        + " WHERE cur.tenantid = ?  AND cur.assignees @> ARRAY[?]::text[]  AND cur.businessservice = ? "
+                        + " GROUP BY st.applicationstatus, cur.businessservice, cur.status ",
+                getCurrentStateQueryBuilder().getInboxCount(processInstanceSearchCriteria, objectList, true));
+        assertEquals(Arrays.asList("42", "Assignee", "BS"), objectList);
+    }
+
+    @Test
+    void testGetInboxIdCountFromCurrentState() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setAssignee("A");
+        processInstanceSearchCriteria.setIsAssignedToMeCount(false);
+        processInstanceSearchCriteria.setTenantSpecifiStatus(Collections.singletonList("42:S1"));
+        processInstanceSearchCriteria.setStatus(Collections.singletonList("S2"));
+        ArrayList<Object> objectList = new ArrayList<>();
+        assertEquals(
+                " SELECT count(*) FROM eg_wf_processinstance_current_v2 cur WHERE cur.tenantid = ?  AND ( cur.assignees @>"
+                        + " ARRAY[?]::text[]  OR (cur.tenantid || ':' || cur.status) IN ( ?) OR cur.status IN ( ?))",
+                getCurrentStateQueryBuilder().getInboxIdCount(processInstanceSearchCriteria, objectList));
+        assertEquals(Arrays.asList("42", "A", "42:S1", "S2"), objectList);
+    }
+
+    @Test
+    void testGetProcessInstanceCountFromCurrentStateIgnoresModuleName() {
+        ProcessInstanceSearchCriteria processInstanceSearchCriteria = new ProcessInstanceSearchCriteria();
+        processInstanceSearchCriteria.setTenantId("42");
+        processInstanceSearchCriteria.setBusinessService("BS");
+        processInstanceSearchCriteria.setModuleName("Module Name");
+        ArrayList<Object> objectList = new ArrayList<>();
+        assertFalse(getCurrentStateQueryBuilder().getProcessInstanceCount(processInstanceSearchCriteria, objectList, false)
+                .contains("modulename"));
+        assertEquals(Arrays.asList("42", "BS"), objectList);
+    }
+}
@@ -8,8 +8,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.Collections;
 import java.util.List;
@@ -61,6 +65,27 @@ public class GatewayApplication {
 		return new RestTemplate();
 	}
 
+	/**
+	 * Non-blocking client for the calls made from within the filters, which run on the event loop
+	 * @return
+	 */
+	@Bean
+	public WebClient webClient(WebClient.Builder builder) {
+		return builder.build();
+	}
+
+	/**
+	 * Listener containers which never commit offsets, for consumers that only need the events published while they run
+	 * @return
+	 */
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<Object, Object> rbacCacheListenerContainerFactory(ConsumerFactory<Object, Object> consumerFactory) {
+		ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(consumerFactory);
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+		return factory;
+	}
+
 	@Bean
 	public MultiStateInstanceUtil centralInstanceUtil() {
 		return new MultiStateInstanceUtil();
@@ -0,0 +1,58 @@
+package com.example.gateway.consumer;
+
+import com.example.gateway.utils.AuthorizationCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clears the RBAC decision cache when MDMS data of the access-control schemas is created, bulk created or updated.
+ * Every gateway instance needs every event, so each instance listens with its own consumer group, named after the host.
+ * The group never commits offsets, so the broker drops it as soon as the instance leaves.
+ */
+@Slf4j
+@Component
+public class RoleActionChangeConsumer {
+
+    private ObjectMapper objectMapper;
+
+    private AuthorizationCache authorizationCache;
+
+    public RoleActionChangeConsumer(ObjectMapper objectMapper, AuthorizationCache authorizationCache) {
+        this.objectMapper = objectMapper;
+        this.authorizationCache = authorizationCache;
+    }
+
+    @KafkaListener(topics = "#{'${egov.rbac.cache.invalidation.topics}'.split(',')}",
+            groupId = "${egov.rbac.cache.consumer.group.id}",
+            containerFactory = "rbacCacheListenerContainerFactory",
+            autoStartup = "${egov.rbac.cache.enabled:true}",
+            properties = {"value.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void listen(String record) {
+        try {
+            JsonNode mdms = objectMapper.readTree(record).path("Mdms");
+            // bulk creation sends an array of records, a single create or update sends one record
+            List<JsonNode> mdmsRecords = new ArrayList<>();
+            if (mdms.isArray())
+                mdms.forEach(mdmsRecords::add);
+            else
+                mdmsRecords.add(mdms);
+            for (JsonNode mdmsRecord : mdmsRecords) {
+                if (mdmsRecord.path("schemaCode").asText("").startsWith("ACCESSCONTROL-")) {
+                    authorizationCache.invalidateAll();
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Unable to read MDMS change event, clearing RBAC decision cache", e);
+            authorizationCache.invalidateAll();
+        }
+    }
+
+}
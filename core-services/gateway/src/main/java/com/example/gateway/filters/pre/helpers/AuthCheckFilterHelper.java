@@ -29,17 +29,26 @@ public class AuthCheckFilterHelper implements RewriteFunction<Map, Map> {
 
     @Override
     public Publisher<Map> apply(ServerWebExchange serverWebExchange, Map body) {
+        RequestInfo requestInfo;
         try {
-            RequestInfo requestInfo = objectMapper.convertValue(body.get(REQUEST_INFO_FIELD_NAME_PASCAL_CASE), RequestInfo.class);
-            requestInfo.setUserInfo(userUtils.getUser(requestInfo.getAuthToken()));
-            body.put(REQUEST_INFO_FIELD_NAME_PASCAL_CASE, requestInfo);
-            return Mono.just(body);
+            requestInfo = objectMapper.convertValue(body.get(REQUEST_INFO_FIELD_NAME_PASCAL_CASE), RequestInfo.class);
         } catch (Exception ex) {
             log.error("An error occured while transforming the request body in class RequestBodyRewrite. {}", ex);
 
             // Throw a custom exception
             throw new CustomException("AUTHENTICATION_ERROR", ex.getMessage());
         }
+
+        return userUtils.getUser(requestInfo.getAuthToken())
+                .map(user -> {
+                    requestInfo.setUserInfo(user);
+                    body.put(REQUEST_INFO_FIELD_NAME_PASCAL_CASE, requestInfo);
+                    return body;
+                })
+                .onErrorMap(ex -> {
+                    log.error("An error occured while transforming the request body in class RequestBodyRewrite. {}", ex);
+                    return new CustomException("AUTHENTICATION_ERROR", ex.getMessage());
+                });
     }
 
 }
@@ -3,6 +3,7 @@ package com.example.gateway.filters.pre.helpers;
 import com.example.gateway.config.ApplicationProperties;
 import com.example.gateway.model.AuthorizationRequest;
 import com.example.gateway.model.AuthorizationRequestWrapper;
+import com.example.gateway.utils.AuthorizationCache;
 import com.example.gateway.utils.CommonUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -13,14 +14,11 @@ import org.egov.tracer.model.CustomException;
 import org.reactivestreams.Publisher;
 import org.slf4j.MDC;
 import org.springframework.cloud.gateway.filter.factory.rewrite.RewriteFunction;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -42,24 +40,31 @@ public class RbacFilterHelper implements RewriteFunction<Map, Map> {
 
     private ApplicationProperties applicationProperties;
 
-    private RestTemplate restTemplate;
+    private WebClient webClient;
 
-    public RbacFilterHelper(ObjectMapper objectMapper, MultiStateInstanceUtil centralInstanceUtil, CommonUtils commonUtils, ApplicationProperties applicationProperties, RestTemplate restTemplate) {
+    private AuthorizationCache authorizationCache;
+
+    public RbacFilterHelper(ObjectMapper objectMapper, MultiStateInstanceUtil centralInstanceUtil, CommonUtils commonUtils, ApplicationProperties applicationProperties, WebClient webClient, AuthorizationCache authorizationCache) {
         this.objectMapper = objectMapper;
         this.centralInstanceUtil = centralInstanceUtil;
         this.commonUtils = commonUtils;
         this.applicationProperties = applicationProperties;
-        this.restTemplate = restTemplate;
+        this.webClient = webClient;
+        this.authorizationCache = authorizationCache;
     }
 
     @Override
     public Publisher<Map> apply(ServerWebExchange serverWebExchange, Map map) {
 
-        isIncomingURIInAuthorizedActionList(serverWebExchange,map);
-        return Mono.just(map);
+        return isIncomingURIInAuthorizedActionList(serverWebExchange, map)
+                .flatMap(isUriAuthorised -> {
+                    if (!isUriAuthorised)
+                        return Mono.error(new CustomException(HttpStatus.UNAUTHORIZED.toString(), "You are not authorized to access this resource"));
+                    return Mono.just(map);
+                });
     }
 
-    private void isIncomingURIInAuthorizedActionList(ServerWebExchange exchange, Map map) {
+    private Mono<Boolean> isIncomingURIInAuthorizedActionList(ServerWebExchange exchange, Map map) {
 
         String requestUri = exchange.getRequest().getURI().getPath();
         RequestInfo requestInfo = objectMapper.convertValue(map.get(REQUEST_INFO_FIELD_NAME_PASCAL_CASE), RequestInfo.class);
@@ -88,40 +93,42 @@ public class RbacFilterHelper implements RewriteFunction<Map, Map> {
                 .tenantIds(tenantIds)
                 .build();
 
-        boolean isUriAuthorised = isUriAuthorized(request , exchange);
-
-        if(!isUriAuthorised) {
-            throw new CustomException(HttpStatus.UNAUTHORIZED.toString(), "You are not authorized to access this resource");
-        }
+        return authorizationCache.get(request, () -> isUriAuthorized(request, exchange))
+                .onErrorResume(e -> {
+                    log.error("Unknown exception occurred while attempting to authorize via access control", e);
+                    return Mono.just(false);
+                });
 
     }
 
-    private boolean isUriAuthorized(AuthorizationRequest authorizationRequest , ServerWebExchange exchange) {
+    /*
+     * Definite decisions of access control complete the Mono with a value and are cached,
+     * any other failure is propagated so that it is not cached.
+     */
+    private Mono<Boolean> isUriAuthorized(AuthorizationRequest authorizationRequest , ServerWebExchange exchange) {
 
         AuthorizationRequestWrapper authorizationRequestWrapper = new AuthorizationRequestWrapper(new RequestInfo(), authorizationRequest);
 
-        final HttpHeaders headers = new HttpHeaders();
-
-        headers.add(CORRELATION_ID_HEADER_NAME, (String) exchange.getAttributes().get(CORRELATION_ID_KEY));
-
-        if (centralInstanceUtil.getIsEnvironmentCentralInstance())
-            headers.add(REQUEST_TENANT_ID_KEY, (String) exchange.getAttributes().get(TENANTID_MDC));
-
-        final HttpEntity<Object> httpEntity = new HttpEntity<>(authorizationRequestWrapper, headers);
-
-        try {
-
-            ResponseEntity<Void> responseEntity = restTemplate.postForEntity(applicationProperties.getAuthorizationUrl(), httpEntity, Void
-                    .class);
-
-            return responseEntity.getStatusCode().equals(HttpStatus.OK);
-        } catch (HttpClientErrorException e) {
-            log.warn("Exception while attempting to authorize via access control", e);
-            return false;
-        } catch (Exception e) {
-            log.error("Unknown exception occurred while attempting to authorize via access control", e);
-            return false;
-        }
+        String correlationId = (String) exchange.getAttributes().get(CORRELATION_ID_KEY);
+        String tenantId = (String) exchange.getAttributes().get(TENANTID_MDC);
+
+        return webClient.post()
+                .uri(applicationProperties.getAuthorizationUrl())
+                .headers(headers -> {
+                    headers.add(CORRELATION_ID_HEADER_NAME, correlationId);
+                    if (centralInstanceUtil.getIsEnvironmentCentralInstance())
+                        headers.add(REQUEST_TENANT_ID_KEY, tenantId);
+                })
+                .bodyValue(authorizationRequestWrapper)
+                .retrieve()
+                .toBodilessEntity()
+                .map(responseEntity -> responseEntity.getStatusCode().equals(HttpStatus.OK))
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (!e.getStatusCode().is4xxClientError())
+                        return Mono.error(e);
+                    log.warn("Exception while attempting to authorize via access control", e);
+                    return Mono.just(false);
+                });
 
     }
 }
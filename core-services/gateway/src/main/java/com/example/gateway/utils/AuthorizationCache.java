@@ -0,0 +1,60 @@
+package com.example.gateway.utils;
+
+import com.example.gateway.model.AuthorizationRequest;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.egov.common.contract.request.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Short lived cache of access-control decisions keyed by (role set, tenant set, uri).
+ * Concurrent misses for the same key share the call in flight. Only definite decisions
+ * are cached, calls that fail are not, so the next request asks access-control again.
+ * Cleared as a whole when role-actions change in MDMS.
+ */
+@Slf4j
+@Component
+public class AuthorizationCache {
+
+    private final boolean enabled;
+
+    private final AsyncCache<String, Boolean> decisions;
+
+    public AuthorizationCache(@Value("${egov.rbac.cache.enabled:true}") boolean enabled,
+                              @Value("${egov.rbac.cache.ttl.seconds:60}") long ttlSeconds,
+                              @Value("${egov.rbac.cache.max.entries:50000}") long maxEntries) {
+        this.enabled = enabled;
+        this.decisions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .buildAsync();
+    }
+
+    public Mono<Boolean> get(AuthorizationRequest request, Supplier<Mono<Boolean>> loader) {
+        if (!enabled)
+            return loader.get();
+
+        // cancellation of one subscriber must not cancel the call shared with the others
+        return Mono.fromFuture(() -> decisions.get(buildKey(request), (key, executor) -> loader.get().toFuture()), true);
+    }
+
+    public void invalidateAll() {
+        decisions.synchronous().invalidateAll();
+        log.info("Cleared RBAC decision cache");
+    }
+
+    private String buildKey(AuthorizationRequest request) {
+        TreeSet<String> roles = new TreeSet<>();
+        for (Role role : request.getRoles())
+            roles.add(role.getCode() + ":" + role.getTenantId());
+        return String.join(",", roles) + "|" + String.join(",", new TreeSet<>(request.getTenantIds())) + "|" + request.getUri();
+    }
+
+}
@@ -13,6 +13,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.Collections;
 
@@ -27,26 +29,26 @@ public class UserUtils {
 
     private ApplicationProperties applicationProperties;
 
+    private WebClient webClient;
+
     private MultiStateInstanceUtil multiStateInstanceUtil;
 
-    public UserUtils (RestTemplate restTemplate, ApplicationProperties applicationProperties) {
+    public UserUtils (RestTemplate restTemplate, ApplicationProperties applicationProperties, WebClient webClient) {
         this.restTemplate = restTemplate;
         this.applicationProperties = applicationProperties;
+        this.webClient = webClient;
     }
 
-    public User getUser(String authToken) {
+    public Mono<User> getUser(String authToken) {
         String authURL = String.format("%s%s%s", applicationProperties.getAuthServiceHost(), applicationProperties.getAuthUri(), authToken);
 
-        User user;
-
-        try {
-            user = restTemplate.postForObject(authURL, null, User.class);
-        } catch (Exception e) {
-            throw new CustomException("Exception occurred while fetching user: ", e.getMessage());
-//          throw new CustomException("Exception occurred while fetching user: ", "Error while authenticating the auth token");
-        }
-
-        return user;
+        return webClient.post()
+                .uri(authURL)
+                .retrieve()
+                .bodyToMono(User.class)
+                .onErrorMap(e -> new CustomException("Exception occurred while fetching user: ", e.getMessage()))
+                // an empty body would otherwise complete without a user and drop the request body
+                .switchIfEmpty(Mono.error(new CustomException("AUTHENTICATION_ERROR", "Error while authenticating the auth token")));
     }
 
     @Cacheable(value = "systemUser" , sync = true)
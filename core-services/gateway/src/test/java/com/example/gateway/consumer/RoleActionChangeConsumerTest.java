@@ -0,0 +1,56 @@
+package com.example.gateway.consumer;
+
+import com.example.gateway.utils.AuthorizationCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RoleActionChangeConsumerTest {
+
+    private AuthorizationCache authorizationCache;
+
+    private RoleActionChangeConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        authorizationCache = mock(AuthorizationCache.class);
+        consumer = new RoleActionChangeConsumer(new ObjectMapper(), authorizationCache);
+    }
+
+    @Test
+    void testAccessControlChangeClearsTheCache() {
+        consumer.listen("{\"Mdms\":{\"schemaCode\":\"ACCESSCONTROL-ROLEACTIONS.roleactions\"}}");
+
+        verify(authorizationCache).invalidateAll();
+    }
+
+    @Test
+    void testBulkCreationWithAnAccessControlRecordClearsTheCacheOnce() {
+        consumer.listen("{\"Mdms\":[{\"schemaCode\":\"common-masters.Department\"},"
+                + "{\"schemaCode\":\"ACCESSCONTROL-ACTIONS-TEST.actions-test\"},"
+                + "{\"schemaCode\":\"ACCESSCONTROL-ROLEACTIONS.roleactions\"}]}");
+
+        verify(authorizationCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void testOtherSchemasKeepTheCache() {
+        consumer.listen("{\"Mdms\":{\"schemaCode\":\"common-masters.Department\"}}");
+        consumer.listen("{\"Mdms\":[{\"schemaCode\":\"common-masters.Designation\"}]}");
+
+        verify(authorizationCache, never()).invalidateAll();
+    }
+
+    @Test
+    void testUnreadableEventClearsTheCache() {
+        consumer.listen("not json");
+
+        verify(authorizationCache).invalidateAll();
+    }
+
+}
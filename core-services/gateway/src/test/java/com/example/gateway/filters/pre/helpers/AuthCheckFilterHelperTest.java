@@ -0,0 +1,81 @@
+package com.example.gateway.filters.pre.helpers;
+
+import com.example.gateway.utils.UserUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.common.contract.request.User;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.gateway.constants.GatewayConstants.REQUEST_INFO_FIELD_NAME_PASCAL_CASE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthCheckFilterHelperTest {
+
+    private UserUtils userUtils;
+
+    private AuthCheckFilterHelper authCheckFilterHelper;
+
+    @BeforeEach
+    void setUp() {
+        userUtils = mock(UserUtils.class);
+        authCheckFilterHelper = new AuthCheckFilterHelper(new ObjectMapper(), userUtils);
+    }
+
+    @Test
+    void testUserInfoIsSetFromTheAuthToken() {
+        User user = User.builder().uuid("user-1").tenantId("pb").build();
+        when(userUtils.getUser("token")).thenReturn(Mono.just(user));
+        Map body = body();
+
+        StepVerifier.create(authCheckFilterHelper.apply(mock(ServerWebExchange.class), body))
+                .assertNext(rewritten -> {
+                    assertSame(body, rewritten);
+                    assertEquals(user, ((RequestInfo) rewritten.get(REQUEST_INFO_FIELD_NAME_PASCAL_CASE)).getUserInfo());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testEmptyUserFailsAuthentication() {
+        when(userUtils.getUser("token")).thenReturn(Mono.error(new CustomException("AUTHENTICATION_ERROR", "Error while authenticating the auth token")));
+
+        StepVerifier.create(authCheckFilterHelper.apply(mock(ServerWebExchange.class), body()))
+                .expectErrorSatisfies(e -> assertAuthenticationError(e))
+                .verify();
+    }
+
+    @Test
+    void testAuthServiceFailureFailsAuthentication() {
+        when(userUtils.getUser("token")).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        StepVerifier.create(authCheckFilterHelper.apply(mock(ServerWebExchange.class), body()))
+                .expectErrorSatisfies(e -> assertAuthenticationError(e))
+                .verify();
+    }
+
+    private void assertAuthenticationError(Throwable e) {
+        assertTrue(e instanceof CustomException);
+        assertEquals("AUTHENTICATION_ERROR", ((CustomException) e).getCode());
+    }
+
+    private Map body() {
+        Map<String, Object> requestInfo = new HashMap<>();
+        requestInfo.put("authToken", "token");
+        Map<String, Object> body = new HashMap<>();
+        body.put(REQUEST_INFO_FIELD_NAME_PASCAL_CASE, requestInfo);
+        return body;
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.example.gateway.utils;
+
+import com.example.gateway.model.AuthorizationRequest;
+import org.egov.common.contract.request.Role;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthorizationCacheTest {
+
+    private final AuthorizationCache authorizationCache = new AuthorizationCache(true, 60, 100);
+
+    @Test
+    void testDecisionIsCachedPerRolesTenantsAndUri() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertDecision(request("CITIZEN", "/pt-services/_create"), true, calls);
+        assertDecision(request("CITIZEN", "/pt-services/_create"), true, calls);
+        assertEquals(1, calls.get());
+
+        assertDecision(request("EMPLOYEE", "/pt-services/_create"), true, calls);
+        assertDecision(request("CITIZEN", "/pt-services/_update"), true, calls);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testRoleOrderDoesNotChangeTheKey() {
+        AtomicInteger calls = new AtomicInteger();
+        AuthorizationRequest request = request("CITIZEN", "/pt-services/_create");
+        request.setRoles(new HashSet<>(Arrays.asList(role("CITIZEN"), role("EMPLOYEE"))));
+        AuthorizationRequest reordered = request("EMPLOYEE", "/pt-services/_create");
+        reordered.setRoles(new HashSet<>(Arrays.asList(role("EMPLOYEE"), role("CITIZEN"))));
+
+        assertDecision(request, false, calls);
+        assertDecision(reordered, false, calls);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<Boolean> decision = Sinks.one();
+        AuthorizationRequest request = request("CITIZEN", "/pt-services/_create");
+
+        Mono<Boolean> first = authorizationCache.get(request, () -> {
+            calls.incrementAndGet();
+            return decision.asMono();
+        });
+        Mono<Boolean> second = authorizationCache.get(request, () -> {
+            calls.incrementAndGet();
+            return decision.asMono();
+        });
+        StepVerifier.create(first.zipWith(second))
+                .then(() -> decision.tryEmitValue(true))
+                .assertNext(decisions -> {
+                    assertEquals(true, decisions.getT1());
+                    assertEquals(true, decisions.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        AuthorizationRequest request = request("CITIZEN", "/pt-services/_create");
+
+        StepVerifier.create(authorizationCache.get(request, () -> {
+                    calls.incrementAndGet();
+                    return Mono.error(new IllegalStateException("access control unavailable"));
+                }))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertDecision(request, true, calls);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testInvalidateAllReloadsTheDecisions() {
+        AtomicInteger calls = new AtomicInteger();
+        AuthorizationRequest request = request("CITIZEN", "/pt-services/_create");
+
+        assertDecision(request, true, calls);
+        authorizationCache.invalidateAll();
+        assertDecision(request, false, calls);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testDisabledCacheAlwaysCallsAccessControl() {
+        AuthorizationCache disabled = new AuthorizationCache(false, 60, 100);
+        AtomicInteger calls = new AtomicInteger();
+        AuthorizationRequest request = request("CITIZEN", "/pt-services/_create");
+
+        for (int i = 0; i < 2; i++)
+            StepVerifier.create(disabled.get(request, () -> Mono.fromSupplier(() -> calls.incrementAndGet() > 0)))
+                    .expectNext(true)
+                    .verifyComplete();
+        assertEquals(2, calls.get());
+    }
+
+    private void assertDecision(AuthorizationRequest request, boolean decision, AtomicInteger calls) {
+        StepVerifier.create(authorizationCache.get(request, () -> {
+                    calls.incrementAndGet();
+                    return Mono.just(decision);
+                }))
+                .expectNext(decision)
+                .verifyComplete();
+    }
+
+    private AuthorizationRequest request(String roleCode, String uri) {
+        return AuthorizationRequest.builder()
+                .roles(new HashSet<>(Collections.singletonList(role(roleCode))))
+                .tenantIds(new HashSet<>(Collections.singletonList("pb.amritsar")))
+                .uri(uri)
+                .build();
+    }
+
+    private Role role(String code) {
+        return Role.builder().code(code).tenantId("pb").build();
+    }
+
+}
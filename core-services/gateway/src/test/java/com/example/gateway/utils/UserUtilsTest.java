@@ -0,0 +1,60 @@
+package com.example.gateway.utils;
+
+import com.example.gateway.config.ApplicationProperties;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserUtilsTest {
+
+    @Test
+    void testUserIsReadFromTheAuthService() {
+        UserUtils userUtils = userUtils(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"uuid\":\"user-1\",\"tenantId\":\"pb\"}").build());
+
+        StepVerifier.create(userUtils.getUser("token"))
+                .assertNext(user -> assertEquals("user-1", user.getUuid()))
+                .verifyComplete();
+    }
+
+    @Test
+    void testEmptyAuthResponseFailsAuthentication() {
+        UserUtils userUtils = userUtils(ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(userUtils.getUser("token"))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof CustomException);
+                    assertEquals("AUTHENTICATION_ERROR", ((CustomException) e).getCode());
+                })
+                .verify();
+    }
+
+    @Test
+    void testAuthFailureIsMappedToCustomException() {
+        UserUtils userUtils = userUtils(ClientResponse.create(HttpStatus.UNAUTHORIZED).build());
+
+        StepVerifier.create(userUtils.getUser("token"))
+                .expectError(CustomException.class)
+                .verify();
+    }
+
+    private UserUtils userUtils(ClientResponse response) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setAuthServiceHost("http://egov-user");
+        applicationProperties.setAuthUri("/user/_details?access_token=");
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> Mono.just(response)).build();
+        return new UserUtils(new RestTemplate(), applicationProperties, webClient);
+    }
+
+}
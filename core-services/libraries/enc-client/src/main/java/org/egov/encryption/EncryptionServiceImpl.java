@@ -32,6 +32,8 @@ public class EncryptionServiceImpl implements EncryptionService {
     @Autowired
     private EncryptionServiceRestConnection encryptionServiceRestConnection;
     @Autowired
+    private EncryptionServiceLocalConnection encryptionServiceLocalConnection;
+    @Autowired
     private EncryptionPolicyConfiguration encryptionPolicyConfiguration;
     @Autowired
     private AbacConfiguration abacConfiguration;
@@ -54,6 +56,13 @@ public class EncryptionServiceImpl implements EncryptionService {
             List<Attribute> attributes = typeAttributeMap.get(type);
             List<String> paths = attributes.stream().map(Attribute::getJsonPath).collect(Collectors.toList());
 
+            if(encryptionServiceLocalConnection.canEncrypt(tenantId, type)) {
+                for(String path : paths)
+                    encryptNode = JSONBrowseUtil.mapValuesAtPath(encryptNode, path,
+                            value -> encryptionServiceLocalConnection.encrypt(tenantId, (String) value));
+                continue;
+            }
+
             JsonNode jsonNode = JacksonUtils.filterJsonNodeForPaths(plaintextNode, paths);
 
             if(! jsonNode.isEmpty(objectMapper.getSerializerProvider())) {
@@ -74,6 +83,46 @@ public class EncryptionServiceImpl implements EncryptionService {
     public JsonNode decryptJson(Object ciphertextJson, Map<Attribute, AccessType> attributeAccessTypeMap, User user)
             throws IOException {
         JsonNode ciphertextNode = createJsonNode(ciphertextJson);
+
+        List<Attribute> attributesToBeDecrypted = attributeAccessTypeMap.keySet().stream()
+                .filter(attribute -> attributeAccessTypeMap.get(attribute) != AccessType.NONE).collect(Collectors.toList());
+
+        List<String> pathsToBeDecrypted = attributesToBeDecrypted.stream().map(Attribute::getJsonPath).collect(Collectors.toList());
+
+        JsonNode decryptNode;
+        if(encryptionServiceLocalConnection.canDecrypt(ciphertextNode, pathsToBeDecrypted))
+            decryptNode = decryptJsonInProcess(ciphertextNode, attributeAccessTypeMap, pathsToBeDecrypted);
+        else
+            decryptNode = decryptJsonRemotely(ciphertextNode, attributeAccessTypeMap, pathsToBeDecrypted);
+
+        if(attributeAccessTypeMap.containsValue(AccessType.MASK)) {
+            List<Attribute> attributesToBeMasked = attributeAccessTypeMap.keySet().stream()
+                    .filter(attribute -> attributeAccessTypeMap.get(attribute) == AccessType.MASK).collect(Collectors.toList());
+            decryptNode = maskingService.maskData(decryptNode, attributesToBeMasked);
+        }
+
+        return decryptNode;
+    }
+
+    //Single copy of the input, values are replaced in place
+    private JsonNode decryptJsonInProcess(JsonNode ciphertextNode, Map<Attribute, AccessType> attributeAccessTypeMap,
+                                          List<String> pathsToBeDecrypted) {
+        JsonNode decryptNode = ciphertextNode.deepCopy();
+
+        for(Attribute attribute : attributeAccessTypeMap.keySet()) {
+            if(attributeAccessTypeMap.get(attribute) == AccessType.NONE)
+                decryptNode = JSONBrowseUtil.mapValuesAtPath(decryptNode, attribute.getJsonPath(),
+                        __ -> EncClientConstants.STRING_FOR_NONE_ACCESS);
+        }
+        for(String path : pathsToBeDecrypted)
+            decryptNode = JSONBrowseUtil.mapValuesAtPath(decryptNode, path,
+                    value -> encryptionServiceLocalConnection.decrypt((String) value));
+
+        return decryptNode;
+    }
+
+    private JsonNode decryptJsonRemotely(JsonNode ciphertextNode, Map<Attribute, AccessType> attributeAccessTypeMap,
+                                         List<String> pathsToBeDecrypted) throws IOException {
         JsonNode decryptNode = ciphertextNode.deepCopy();
 
         if(attributeAccessTypeMap.containsValue(AccessType.NONE)) {
@@ -85,11 +134,6 @@ public class EncryptionServiceImpl implements EncryptionService {
             decryptNode = JacksonUtils.merge(emptyNode, decryptNode);
         }
 
-        List<Attribute> attributesToBeDecrypted = attributeAccessTypeMap.keySet().stream()
-                .filter(attribute -> attributeAccessTypeMap.get(attribute) != AccessType.NONE).collect(Collectors.toList());
-
-        List<String> pathsToBeDecrypted = attributesToBeDecrypted.stream().map(Attribute::getJsonPath).collect(Collectors.toList());
-
         JsonNode jsonNode = JacksonUtils.filterJsonNodeForPaths(ciphertextNode, pathsToBeDecrypted);
 
         if(! jsonNode.isEmpty(objectMapper.getSerializerProvider())) {
@@ -97,12 +141,6 @@ public class EncryptionServiceImpl implements EncryptionService {
             decryptNode = JacksonUtils.merge(returnedDecryptedNode, decryptNode);
         }
 
-        if(attributeAccessTypeMap.containsValue(AccessType.MASK)) {
-            List<Attribute> attributesToBeMasked = attributeAccessTypeMap.keySet().stream()
-                    .filter(attribute -> attributeAccessTypeMap.get(attribute) == AccessType.MASK).collect(Collectors.toList());
-            decryptNode = maskingService.maskData(decryptNode, attributesToBeMasked);
-        }
-
         return decryptNode;
     }
 
@@ -140,6 +178,12 @@ public class EncryptionServiceImpl implements EncryptionService {
     }
 
     public List<String> encryptValue(List<Object> plaintext, String tenantId, String type) throws IOException {
+        if(encryptionServiceLocalConnection.canEncrypt(tenantId, type)) {
+            List<String> ciphertext = new ArrayList<>(plaintext.size());
+            for(Object value : plaintext)
+                ciphertext.add(value == null ? null : encryptionServiceLocalConnection.encrypt(tenantId, String.valueOf(value)));
+            return ciphertext;
+        }
         Object encryptionResponse = encryptionServiceRestConnection.callEncrypt(tenantId, type, plaintext);
         return ConvertClass.convertTo(objectMapper.valueToTree(encryptionResponse), List.class);
     }
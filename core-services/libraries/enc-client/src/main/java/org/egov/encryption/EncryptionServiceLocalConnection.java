@@ -0,0 +1,228 @@
+package org.egov.encryption;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.egov.encryption.config.EncProperties;
+import org.egov.encryption.models.DataKey;
+import org.egov.encryption.util.JSONBrowseUtil;
+import org.egov.encryption.web.contract.DataKeyRequest;
+import org.egov.encryption.web.contract.DataKeyResponse;
+import org.egov.tracer.model.CustomException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Does the AES-GCM work of egov-enc-service in process, with the symmetric data keys fetched from egov-enc-service.
+    Ciphertexts have the same "keyId|base64" format, so values encrypted here can be decrypted by the service and
+    vice versa. Key rotation is picked up through key ids: an unknown key id in a ciphertext triggers a fetch of that
+    key, and the active key of a tenant is re-fetched every refresh interval.
+    Asymmetric types and keys that cannot be fetched are left to EncryptionServiceRestConnection.
+*/
+
+@Slf4j
+@Component
+class EncryptionServiceLocalConnection {
+
+    private static final String SYMMETRIC_METHOD = "SYM";
+    private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int TAG_LENGTH = 128;
+
+    @Autowired
+    private EncProperties encProperties;
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private volatile Map<String, String> typeToMethodMap;
+
+    //Active key per tenant along with the time it was fetched, no key if the tenant has no symmetric active key
+    private final Map<String, ActiveKey> activeKeys = new ConcurrentHashMap<>();
+    private final Map<Integer, LocalKey> keysById = new ConcurrentHashMap<>();
+    //Key ids which egov-enc-service did not return (asymmetric or unknown), not asked again until the refresh interval
+    private final Map<Integer, Long> unavailableKeyIds = new ConcurrentHashMap<>();
+    //Time the last fetch failure was logged, failures are logged once per refresh interval
+    private volatile long fetchFailureLoggedAt;
+
+    //GCM ciphers can be re-initialised with the same key and iv for decryption, so they are reused per thread
+    private static final ThreadLocal<Cipher> decryptionCipher = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(CIPHER_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    boolean isEnabled() {
+        return encProperties.isEmbeddedEncryptionEnabled();
+    }
+
+    //True if values of the given type for the tenant can be encrypted in process
+    boolean canEncrypt(String tenantId, String type) {
+        if(!isEnabled())
+            return false;
+        if(getActiveKey(tenantId) == null)
+            return false;
+        Map<String, String> methods = typeToMethodMap;
+        return methods != null && SYMMETRIC_METHOD.equals(methods.get(type));
+    }
+
+    //True if all the ciphertexts at the given paths can be decrypted in process, missing keys are fetched
+    boolean canDecrypt(JsonNode ciphertextNode, List<String> paths) {
+        if(!isEnabled())
+            return false;
+
+        Set<Integer> keyIds = new HashSet<>();
+        boolean[] parsable = { true };
+        for(String path : paths) {
+            JSONBrowseUtil.forEachValueAtPath(ciphertextNode, path, value -> {
+                Integer keyId = parseKeyId(value);
+                if(keyId == null)
+                    parsable[0] = false;
+                else
+                    keyIds.add(keyId);
+            });
+        }
+        if(!parsable[0])
+            return false;
+
+        List<Integer> missingKeyIds = new ArrayList<>();
+        for(Integer keyId : keyIds) {
+            if(keysById.containsKey(keyId))
+                continue;
+            Long unavailableSince = unavailableKeyIds.get(keyId);
+            if(unavailableSince != null && !isExpired(unavailableSince))
+                return false;
+            missingKeyIds.add(keyId);
+        }
+        if(!missingKeyIds.isEmpty()) {
+            fetchKeys(DataKeyRequest.builder().keyIds(missingKeyIds).build());
+            for(Integer keyId : missingKeyIds) {
+                if(!keysById.containsKey(keyId)) {
+                    unavailableKeyIds.put(keyId, System.currentTimeMillis());
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    String encrypt(String tenantId, String plaintext) {
+        LocalKey key = getActiveKey(tenantId);
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(Cipher.ENCRYPT_MODE, key.secretKey, new GCMParameterSpec(TAG_LENGTH, key.initialVector));
+            byte[] cipherBytes = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            return key.keyId + "|" + Base64.getEncoder().encodeToString(cipherBytes);
+        } catch (GeneralSecurityException e) {
+            throw new CustomException("ENCRYPTION_ERROR", "Error while encrypting value in process for " + tenantId);
+        }
+    }
+
+    String decrypt(String ciphertext) {
+        String[] cipherArray = ciphertext.split("\\|");
+        LocalKey key = keysById.get(Integer.parseInt(cipherArray[0]));
+        try {
+            Cipher cipher = decryptionCipher.get();
+            cipher.init(Cipher.DECRYPT_MODE, key.secretKey, new GCMParameterSpec(TAG_LENGTH, key.initialVector));
+            byte[] plainBytes = cipher.doFinal(Base64.getDecoder().decode(cipherArray[1]));
+            return new String(plainBytes, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new CustomException("DECRYPTION_ERROR", ciphertext + ": Invalid Ciphertext");
+        }
+    }
+
+    //A tenant with no key fetched is not asked again until the refresh interval, the previous key is kept meanwhile
+    private LocalKey getActiveKey(String tenantId) {
+        ActiveKey activeKey = activeKeys.get(tenantId);
+        if(activeKey == null || isExpired(activeKey.fetchedAt)) {
+            fetchKeys(DataKeyRequest.builder().tenantIds(Collections.singletonList(tenantId)).build());
+            ActiveKey fetched = activeKeys.get(tenantId);
+            if(fetched == null || fetched == activeKey) {
+                fetched = new ActiveKey(activeKey == null ? null : activeKey.key, System.currentTimeMillis());
+                activeKeys.put(tenantId, fetched);
+            }
+            activeKey = fetched;
+        }
+        return activeKey.key;
+    }
+
+    //Failures are logged and not thrown, callers fall back to egov-enc-service
+    private void fetchKeys(DataKeyRequest dataKeyRequest) {
+        DataKeyResponse response;
+        try {
+            response = restTemplate.postForObject(encProperties.getEgovEncHost() + encProperties.getEgovEncDataKeysPath(),
+                    dataKeyRequest, DataKeyResponse.class);
+        } catch (Exception e) {
+            if(isExpired(fetchFailureLoggedAt)) {
+                fetchFailureLoggedAt = System.currentTimeMillis();
+                log.error("Unable to fetch data keys from egov-enc-service, falling back to remote encryption", e);
+            } else
+                log.debug("Unable to fetch data keys from egov-enc-service: " + e.getMessage());
+            return;
+        }
+        if(response == null || response.getSymmetricKeys() == null)
+            return;
+
+        if(response.getTypeToMethodMap() != null)
+            typeToMethodMap = response.getTypeToMethodMap();
+
+        long now = System.currentTimeMillis();
+        for(DataKey dataKey : response.getSymmetricKeys()) {
+            LocalKey key = new LocalKey(dataKey.getKeyId(),
+                    new SecretKeySpec(Base64.getDecoder().decode(dataKey.getSecretKey()), "AES"),
+                    Base64.getDecoder().decode(dataKey.getInitialVector()));
+            keysById.put(key.keyId, key);
+            unavailableKeyIds.remove(key.keyId);
+            if(dataKey.isActive())
+                activeKeys.put(dataKey.getTenantId(), new ActiveKey(key, now));
+        }
+        log.info("Fetched data keys: " + response.getSymmetricKeys());
+    }
+
+    private boolean isExpired(long since) {
+        return System.currentTimeMillis() - since >= encProperties.getEmbeddedKeyRefreshIntervalMs();
+    }
+
+    private Integer parseKeyId(String ciphertext) {
+        int index = ciphertext.indexOf('|');
+        if(index <= 0)
+            return null;
+        try {
+            return Integer.parseInt(ciphertext.substring(0, index));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class LocalKey {
+        private final int keyId;
+        private final SecretKey secretKey;
+        private final byte[] initialVector;
+
+        private LocalKey(int keyId, SecretKey secretKey, byte[] initialVector) {
+            this.keyId = keyId;
+            this.secretKey = secretKey;
+            this.initialVector = initialVector;
+        }
+    }
+
+    private static class ActiveKey {
+        private final LocalKey key;
+        private final long fetchedAt;
+
+        private ActiveKey(LocalKey key, long fetchedAt) {
+            this.key = key;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+}
@@ -28,5 +28,13 @@ public class EncProperties {
     private String egovEncEncryptPath;
     @Value("${egov.enc.decrypt.endpoint}")
     private String egovEncDecryptPath;
+    @Value("${egov.enc.datakeys.endpoint}")
+    private String egovEncDataKeysPath;
+
+    //When enabled, values of symmetric types are encrypted / decrypted in process with data keys fetched from egov-enc-service
+    @Value("${egov.enc.embedded.enabled:false}")
+    private boolean embeddedEncryptionEnabled;
+    @Value("${egov.enc.embedded.key.refresh.interval.ms:300000}")
+    private long embeddedKeyRefreshIntervalMs;
 
 }
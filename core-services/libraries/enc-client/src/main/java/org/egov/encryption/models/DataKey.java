@@ -0,0 +1,18 @@
+package org.egov.encryption.models;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString(of = {"keyId", "tenantId", "active"})
+public class DataKey {
+
+    private Integer keyId;
+    private String tenantId;
+    private String secretKey;
+    private String initialVector;
+    private boolean active;
+
+}
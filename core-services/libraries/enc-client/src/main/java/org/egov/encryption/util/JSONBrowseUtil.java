@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.*;
 
 import java.util.Iterator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class JSONBrowseUtil {
@@ -19,6 +20,56 @@ public class JSONBrowseUtil {
         return jsonNode;
     }
 
+    /*
+        Maps the values found at the given path in place, path format is the same as of the encryption policy
+        ex: "User/*/mobileNumber". Whole sub-tree is mapped when the path ends at an object or array.
+    */
+    public static <T, R> JsonNode mapValuesAtPath(JsonNode jsonNode, String path, Function<T, R> valueMapper) {
+        if(jsonNode == null || jsonNode.isNull())
+            return jsonNode;
+        if(path == null)
+            return mapValues(jsonNode, valueMapper);
+
+        String keys[] = path.split("/", 2);
+        String remainingPath = keys.length == 1 ? null : keys[1];
+        if(keys[0].contains("*")) {
+            if(jsonNode.isArray()) {
+                ArrayNode arrayNode = (ArrayNode) jsonNode;
+                for(int i = 0; i < arrayNode.size(); i++) {
+                    arrayNode.set(i, mapValuesAtPath(arrayNode.get(i), remainingPath, valueMapper));
+                }
+            }
+        } else if(jsonNode.isObject()) {
+            ObjectNode objectNode = (ObjectNode) jsonNode;
+            JsonNode value = objectNode.get(keys[0]);
+            if(value != null)
+                objectNode.set(keys[0], mapValuesAtPath(value, remainingPath, valueMapper));
+        }
+        return jsonNode;
+    }
+
+    //Visits the non null values found at the given path, without modifying the node
+    public static void forEachValueAtPath(JsonNode jsonNode, String path, Consumer<String> valueConsumer) {
+        if(jsonNode == null || jsonNode.isNull())
+            return;
+        if(path == null) {
+            if(jsonNode.isValueNode())
+                valueConsumer.accept(jsonNode.asText());
+            else
+                jsonNode.elements().forEachRemaining(element -> forEachValueAtPath(element, null, valueConsumer));
+            return;
+        }
+
+        String keys[] = path.split("/", 2);
+        String remainingPath = keys.length == 1 ? null : keys[1];
+        if(keys[0].contains("*")) {
+            if(jsonNode.isArray())
+                jsonNode.elements().forEachRemaining(element -> forEachValueAtPath(element, remainingPath, valueConsumer));
+        } else if(jsonNode.isObject()) {
+            forEachValueAtPath(jsonNode.get(keys[0]), remainingPath, valueConsumer);
+        }
+    }
+
     private static  <T, R> ArrayNode mapValuesForArrayNode(ArrayNode arrayNode, Function<T, R> valueMapper) {
         for(int i = 0; i < arrayNode.size(); i++) {
             arrayNode.set(i, mapValues(arrayNode.get(i), valueMapper));
@@ -0,0 +1,21 @@
+package org.egov.encryption.web.contract;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DataKeyRequest {
+
+    @JsonProperty("tenantIds")
+    private List<String> tenantIds;
+
+    @JsonProperty("keyIds")
+    private List<Integer> keyIds;
+
+}
@@ -0,0 +1,25 @@
+package org.egov.encryption.web.contract;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+import org.egov.encryption.models.DataKey;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DataKeyResponse {
+
+    @JsonProperty("typeToMethodMap")
+    private Map<String, String> typeToMethodMap;
+
+    @JsonProperty("symmetricKeys")
+    private List<DataKey> symmetricKeys;
+
+}
@@ -0,0 +1,164 @@
+package org.egov.encryption;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.egov.encryption.config.EncProperties;
+import org.egov.encryption.models.DataKey;
+import org.egov.encryption.web.contract.DataKeyRequest;
+import org.egov.encryption.web.contract.DataKeyResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class EncryptionServiceLocalConnectionTest {
+
+    private EncryptionServiceLocalConnection encryptionServiceLocalConnection;
+    private RestTemplate restTemplate;
+    private ObjectMapper mapper;
+
+    @Before
+    public void initialize() {
+        EncProperties encProperties = mock(EncProperties.class);
+        when(encProperties.isEmbeddedEncryptionEnabled()).thenReturn(true);
+        when(encProperties.getEmbeddedKeyRefreshIntervalMs()).thenReturn(300000L);
+        when(encProperties.getEgovEncHost()).thenReturn("http://localhost:1234");
+        when(encProperties.getEgovEncDataKeysPath()).thenReturn("/egov-enc-service/crypto/v1/_datakeys");
+
+        restTemplate = mock(RestTemplate.class);
+        encryptionServiceLocalConnection = new EncryptionServiceLocalConnection();
+        ReflectionTestUtils.setField(encryptionServiceLocalConnection, "encProperties", encProperties);
+        ReflectionTestUtils.setField(encryptionServiceLocalConnection, "restTemplate", restTemplate);
+        mapper = new ObjectMapper(new JsonFactory());
+    }
+
+    @Test
+    public void testEncryptDecryptWithRotatedKey() throws IOException {
+        DataKey oldKey = dataKey(100001, false);
+        DataKey activeKey = dataKey(100002, true);
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(response(activeKey))
+                .thenReturn(response(oldKey));
+
+        assertTrue(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Imp"));
+
+        String ciphertext = encryptionServiceLocalConnection.encrypt("pb", "9999999999");
+        assertTrue(ciphertext.startsWith("100002|"));
+
+        //Value encrypted with the key active before rotation, its key is fetched by key id
+        DataKeyResponse oldResponse = response(oldKey);
+        String oldCiphertext = encryptWith(oldResponse, "ajay");
+        JsonNode ciphertextNode = mapper.readTree("{\"User\":{\"mobileNumber\":\"" + ciphertext + "\",\"name\":\""
+                + oldCiphertext + "\"}}");
+
+        assertTrue(encryptionServiceLocalConnection.canDecrypt(ciphertextNode,
+                Arrays.asList("User/mobileNumber", "User/name")));
+        assertEquals("9999999999", encryptionServiceLocalConnection.decrypt(ciphertext));
+        assertEquals("ajay", encryptionServiceLocalConnection.decrypt(oldCiphertext));
+        verify(restTemplate, times(2)).postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class));
+    }
+
+    @Test
+    public void testUnavailableKeyFallsBack() throws IOException {
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(new DataKeyResponse(typeToMethodMap(), Collections.emptyList()));
+
+        JsonNode ciphertextNode = mapper.readTree("{\"name\":\"200001|Ca5NbGHu3aB2ufjrNfZarW1VGBA=\"}");
+
+        assertFalse(encryptionServiceLocalConnection.canDecrypt(ciphertextNode, Collections.singletonList("name")));
+        assertFalse(encryptionServiceLocalConnection.canDecrypt(ciphertextNode, Collections.singletonList("name")));
+        verify(restTemplate, times(1)).postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class));
+    }
+
+    @Test
+    public void testTenantWithoutActiveKeyIsNotFetchedAgain() {
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(new DataKeyResponse(typeToMethodMap(), Collections.emptyList()));
+
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        verify(restTemplate, times(1)).postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class));
+    }
+
+    @Test
+    public void testFailedFetchIsNotRetriedUntilRefresh() {
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        verify(restTemplate, times(1)).postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class));
+    }
+
+    @Test
+    public void testActiveKeyIsKeptWhenRefreshFails() {
+        EncProperties encProperties = (EncProperties) ReflectionTestUtils.getField(encryptionServiceLocalConnection, "encProperties");
+        when(encProperties.getEmbeddedKeyRefreshIntervalMs()).thenReturn(0L);
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(response(dataKey(100002, true)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        assertTrue(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        assertTrue(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+        assertTrue(encryptionServiceLocalConnection.encrypt("pb", "9999999999").startsWith("100002|"));
+    }
+
+    @Test
+    public void testMissingTypeToMethodMapFallsBack() {
+        when(restTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(new DataKeyResponse(null, Collections.singletonList(dataKey(100002, true))));
+
+        assertFalse(encryptionServiceLocalConnection.canEncrypt("pb", "Normal"));
+    }
+
+    private String encryptWith(DataKeyResponse response, String plaintext) {
+        EncryptionServiceLocalConnection other = new EncryptionServiceLocalConnection();
+        RestTemplate otherRestTemplate = mock(RestTemplate.class);
+        DataKey key = response.getSymmetricKeys().get(0);
+        DataKey activeCopy = new DataKey(key.getKeyId(), key.getTenantId(), key.getSecretKey(), key.getInitialVector(), true);
+        when(otherRestTemplate.postForObject(anyString(), any(DataKeyRequest.class), eq(DataKeyResponse.class)))
+                .thenReturn(response(activeCopy));
+        ReflectionTestUtils.setField(other, "encProperties", ReflectionTestUtils.getField(encryptionServiceLocalConnection, "encProperties"));
+        ReflectionTestUtils.setField(other, "restTemplate", otherRestTemplate);
+        return other.encrypt("pb", plaintext);
+    }
+
+    private DataKeyResponse response(DataKey dataKey) {
+        return new DataKeyResponse(typeToMethodMap(), Collections.singletonList(dataKey));
+    }
+
+    private Map<String, String> typeToMethodMap() {
+        Map<String, String> typeToMethodMap = new HashMap<>();
+        typeToMethodMap.put("Normal", "SYM");
+        typeToMethodMap.put("Imp", "ASY");
+        return typeToMethodMap;
+    }
+
+    private DataKey dataKey(int keyId, boolean active) {
+        SecureRandom random = new SecureRandom();
+        byte[] secret = new byte[32];
+        byte[] initialVector = new byte[12];
+        random.nextBytes(secret);
+        random.nextBytes(initialVector);
+        return new DataKey(keyId, "pb", Base64.getEncoder().encodeToString(secret),
+                Base64.getEncoder().encodeToString(initialVector), active);
+    }
+
+}
@@ -32,4 +32,17 @@ public class JSONBrowseUtilTest {
         assertEquals(expectedNode, jsonNode);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMapValuesAtPath() throws IOException {
+        JsonNode jsonNode = mapper.readTree("{\"User\":[{\"name\":\"ajay\",\"gender\":\"male\"}," +
+                "{\"name\":\"ram\",\"gender\":null}]}");
+        jsonNode = JSONBrowseUtil.mapValuesAtPath(jsonNode, "User/*/name", v -> ((String) v).toUpperCase());
+        jsonNode = JSONBrowseUtil.mapValuesAtPath(jsonNode, "User/*/gender", v -> "x");
+
+        JsonNode expectedNode = mapper.readTree("{\"User\":[{\"name\":\"AJAY\",\"gender\":\"x\"}," +
+                "{\"name\":\"RAM\",\"gender\":null}]}");
+
+        assertEquals(expectedNode, jsonNode);
+    }
+
+}
@@ -1,8 +1,23 @@
 package org.egov.mdms.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.mdms.model.MasterDetail;
@@ -15,11 +30,37 @@ import org.egov.tracer.model.ServiceCallException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import net.minidev.json.JSONArray;
 
+/**
+ * Client of the MDMS search.
+ *
+ * When mdms.cache.enabled is set the masters are kept in a near cache, per tenant, module, master and filter:
+ *  - entries are served for the configured ttl, and for the stale period after it while they are refreshed
+ *    in the background
+ *  - the masters missing in the cache are fetched in a single search, concurrent searches for the same master
+ *    wait for the search already in flight instead of making their own
+ *  - the cache is bounded, the least recently used entries are dropped first, and entries can be evicted early
+ *    on a change notification through {@link #evict(String, String, String)}
+ *
+ * The client does not listen for changes itself: the MDMS search it calls serves masters from files, which
+ * publish no change event, and the library has no Kafka dependency. A change is therefore seen only once the
+ * cached master is past its ttl, and up to the stale period later while the refresh runs. Services that do
+ * receive a change notification, like the save-mdms-data and update-mdms-data topics of MDMS v2, can call
+ * {@link #evict(String, String, String)} from their own listener. Masters that must be read right after a change
+ * are to be read with the cache off.
+ *
+ * The arrays in the responses are copies, the master data in them is shared and is not to be modified.
+ */
 @Service
 @Slf4j
 public class MdmsClientService {
@@ -29,31 +70,141 @@ public class MdmsClientService {
 
 	@Value("${mdms.service.host:http://localhost:8080/}")
 	private String mdmsHost;
-	
+
 	@Value("${mdms.service.search.uri:egov-mdms-service/v1/_search}")
 	private String mdmsSearchUri;
 
+	@Value("${mdms.cache.enabled:false}")
+	private Boolean cacheEnabled;
+
+	@Value("${mdms.cache.ttl.seconds:300}")
+	private Long cacheTtlSeconds;
+
+	@Value("${mdms.cache.stale.seconds:60}")
+	private Long cacheStaleSeconds;
+
+	@Value("${mdms.cache.max.entries:5000}")
+	private Integer cacheMaxEntries;
+
+	@Value("${mdms.cache.refresh.threads:2}")
+	private Integer cacheRefreshThreads;
+
+	private Map<MasterKey, CacheEntry> cache;
+
+	private final Map<MasterKey, CompletableFuture<CacheEntry>> inFlight = new ConcurrentHashMap<>();
+
+	//Incremented on eviction, searches started before an eviction do not cache their masters
+	private final AtomicLong generation = new AtomicLong();
+
+	private ExecutorService refreshExecutor;
+
+	@PostConstruct
+	public void init() {
+		cache = Collections.synchronizedMap(new LinkedHashMap<MasterKey, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MasterKey, CacheEntry> eldest) {
+				return size() > cacheMaxEntries;
+			}
+		});
+		if (cacheEnabled) {
+			refreshExecutor = Executors.newFixedThreadPool(cacheRefreshThreads, runnable -> {
+				Thread thread = new Thread(runnable, "mdms-cache-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (refreshExecutor != null)
+			refreshExecutor.shutdown();
+	}
+
 	public MdmsResponse getMaster(RequestInfo requestInfo, String tenantId,
 			Map<String, List<MasterDetail>> masterDetails) {
-		log.info("MdmsClientService masterDetails:" + masterDetails);
-		MdmsCriteriaReq mdmsCriteriaReq = new MdmsCriteriaReq();
-		mdmsCriteriaReq.setRequestInfo(requestInfo);
+		log.debug("MdmsClientService masterDetails:" + masterDetails);
 		List<ModuleDetail> moduleDetails = new ArrayList<>();
 		for (Map.Entry<String, List<MasterDetail>> entry : masterDetails.entrySet()) {
-			ModuleDetail moduleDetail = ModuleDetail.builder().moduleName(entry.getKey())
-					.masterDetails(entry.getValue()).build();
+			moduleDetails.add(ModuleDetail.builder().moduleName(entry.getKey()).masterDetails(entry.getValue()).build());
+		}
+		MdmsCriteria mdmsCriteria = MdmsCriteria.builder().tenantId(tenantId).moduleDetails(moduleDetails).build();
+		return getMaster(MdmsCriteriaReq.builder().requestInfo(requestInfo).mdmsCriteria(mdmsCriteria).build());
+	}
+
+	public MdmsResponse getMaster(MdmsCriteriaReq mdmsCriteriaReq) {
+		log.debug("mdmsCriteriaReq:" + mdmsCriteriaReq);
+		if (!cacheEnabled || mdmsCriteriaReq.getMdmsCriteria() == null)
+			return search(mdmsCriteriaReq);
+
+		RequestInfo requestInfo = mdmsCriteriaReq.getRequestInfo();
+		MdmsCriteria mdmsCriteria = mdmsCriteriaReq.getMdmsCriteria();
+		long now = System.currentTimeMillis();
 
-			moduleDetails.add(moduleDetail);
+		Map<MasterKey, CacheEntry> entries = new LinkedHashMap<>();
+		Map<MasterKey, CompletableFuture<CacheEntry>> pending = new LinkedHashMap<>();
+		List<MasterKey> toLoad = new ArrayList<>();
+		for (MasterKey key : getMasterKeys(mdmsCriteria)) {
+			CacheEntry entry = cache.get(key);
+			if (entry != null && now - entry.loadedAt < cacheTtlSeconds * 1000) {
+				entries.put(key, entry);
+			} else if (entry != null && now - entry.loadedAt < (cacheTtlSeconds + cacheStaleSeconds) * 1000) {
+				entries.put(key, entry);
+				refreshInBackground(requestInfo, key);
+			} else {
+				CompletableFuture<CacheEntry> future = new CompletableFuture<>();
+				CompletableFuture<CacheEntry> existing = inFlight.putIfAbsent(key, future);
+				if (existing == null) {
+					toLoad.add(key);
+					pending.put(key, future);
+				} else {
+					pending.put(key, existing);
+				}
+			}
+		}
 
-			MdmsCriteria mdmsCriteria = MdmsCriteria.builder().tenantId(tenantId).moduleDetails(moduleDetails).build();
-			mdmsCriteriaReq.setMdmsCriteria(mdmsCriteria);
+		if (!toLoad.isEmpty())
+			load(requestInfo, toLoad);
 
+		try {
+			for (Map.Entry<MasterKey, CompletableFuture<CacheEntry>> entry : pending.entrySet())
+				entries.put(entry.getKey(), entry.getValue().join());
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
 		}
-		return getMaster(mdmsCriteriaReq);
+		return buildResponse(entries);
 	}
 
-	public MdmsResponse getMaster(MdmsCriteriaReq mdmsCriteriaReq) {
-		log.info("mdmsCriteriaReq:" + mdmsCriteriaReq);
+	/**
+	 * Evicts the cached masters of the tenant and of its sub tenants, to be called when the masters are changed
+	 *
+	 * @param tenantId tenant whose masters have changed
+	 * @param moduleName module of the masters, null for all the modules
+	 * @param masterName name of the master, null for all the masters of the module
+	 */
+	public void evict(String tenantId, String moduleName, String masterName) {
+		generation.incrementAndGet();
+		synchronized (cache) {
+			Iterator<MasterKey> keys = cache.keySet().iterator();
+			while (keys.hasNext()) {
+				MasterKey key = keys.next();
+				boolean tenantMatches = key.getTenantId() != null
+						&& (key.getTenantId().equals(tenantId) || key.getTenantId().startsWith(tenantId + "."));
+				if (tenantMatches && (moduleName == null || moduleName.equals(key.getModuleName()))
+						&& (masterName == null || masterName.equals(key.getMasterName())))
+					keys.remove();
+			}
+		}
+	}
+
+	public void evictAll() {
+		generation.incrementAndGet();
+		cache.clear();
+	}
+
+	private MdmsResponse search(MdmsCriteriaReq mdmsCriteriaReq) {
 		MdmsResponse mdmsResponse = null;
 		try {
 			  mdmsResponse = restTemplate.postForObject(mdmsHost.concat(mdmsSearchUri), mdmsCriteriaReq, MdmsResponse.class);
@@ -69,4 +220,140 @@ public class MdmsClientService {
 		}
 		return mdmsResponse;
 	}
-}
\ No newline at end of file
+
+	/*
+	 * Fetches the masters in as few searches as possible, a search can hold a master only once as the
+	 * response is keyed on the master name, so the same master with different filters goes in separate searches.
+	 * The futures of the keys in flight are completed and removed once the search is done.
+	 */
+	private void load(RequestInfo requestInfo, List<MasterKey> keys) {
+		List<MasterKey> remaining = keys;
+		try {
+			while (!remaining.isEmpty()) {
+				List<MasterKey> batch = new ArrayList<>();
+				List<MasterKey> next = new ArrayList<>();
+				Set<String> masters = new HashSet<>();
+				for (MasterKey key : remaining) {
+					if (masters.add(key.getModuleName() + "." + key.getMasterName()))
+						batch.add(key);
+					else
+						next.add(key);
+				}
+				loadBatch(requestInfo, batch);
+				remaining = next;
+			}
+		} catch (RuntimeException e) {
+			for (MasterKey key : remaining)
+				complete(key, null, e);
+			throw e;
+		}
+	}
+
+	private void loadBatch(RequestInfo requestInfo, List<MasterKey> keys) {
+		try {
+			Map<String, List<MasterDetail>> moduleMasters = new LinkedHashMap<>();
+			for (MasterKey key : keys)
+				moduleMasters.computeIfAbsent(key.getModuleName(), module -> new ArrayList<>())
+						.add(MasterDetail.builder().name(key.getMasterName()).filter(key.getFilter()).build());
+			List<ModuleDetail> moduleDetails = new ArrayList<>();
+			moduleMasters.forEach((module, masterDetails) -> moduleDetails
+					.add(ModuleDetail.builder().moduleName(module).masterDetails(masterDetails).build()));
+			MdmsCriteria mdmsCriteria = MdmsCriteria.builder().tenantId(keys.get(0).getTenantId())
+					.moduleDetails(moduleDetails).build();
+
+			long searchGeneration = generation.get();
+			MdmsResponse mdmsResponse = search(
+					MdmsCriteriaReq.builder().requestInfo(requestInfo).mdmsCriteria(mdmsCriteria).build());
+
+			Map<String, Map<String, JSONArray>> mdmsRes = mdmsResponse == null ? null : mdmsResponse.getMdmsRes();
+			long loadedAt = System.currentTimeMillis();
+			for (MasterKey key : keys) {
+				Map<String, JSONArray> module = mdmsRes == null ? null : mdmsRes.get(key.getModuleName());
+				CacheEntry entry = new CacheEntry(module == null ? null : module.get(key.getMasterName()), loadedAt);
+				if (generation.get() == searchGeneration)
+					cache.put(key, entry);
+				complete(key, entry, null);
+			}
+		} catch (RuntimeException e) {
+			for (MasterKey key : keys)
+				complete(key, null, e);
+			throw e;
+		}
+	}
+
+	private void complete(MasterKey key, CacheEntry entry, RuntimeException exception) {
+		CompletableFuture<CacheEntry> future = inFlight.remove(key);
+		if (future == null)
+			return;
+		if (exception == null)
+			future.complete(entry);
+		else
+			future.completeExceptionally(exception);
+	}
+
+	private void refreshInBackground(RequestInfo requestInfo, MasterKey key) {
+		if (inFlight.putIfAbsent(key, new CompletableFuture<>()) != null)
+			return;
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					loadBatch(requestInfo, Collections.singletonList(key));
+				} catch (Exception e) {
+					log.error("Unable to refresh the master " + key + ", the cached master is served till it expires", e);
+				}
+			});
+		} catch (RuntimeException e) {
+			complete(key, null, e);
+		}
+	}
+
+	private List<MasterKey> getMasterKeys(MdmsCriteria mdmsCriteria) {
+		List<MasterKey> keys = new ArrayList<>();
+		if (CollectionUtils.isEmpty(mdmsCriteria.getModuleDetails()))
+			return keys;
+		for (ModuleDetail moduleDetail : mdmsCriteria.getModuleDetails()) {
+			if (CollectionUtils.isEmpty(moduleDetail.getMasterDetails()))
+				continue;
+			for (MasterDetail masterDetail : moduleDetail.getMasterDetails())
+				keys.add(new MasterKey(mdmsCriteria.getTenantId(), moduleDetail.getModuleName(), masterDetail.getName(),
+						masterDetail.getFilter()));
+		}
+		return keys;
+	}
+
+	private MdmsResponse buildResponse(Map<MasterKey, CacheEntry> entries) {
+		Map<String, Map<String, JSONArray>> mdmsRes = new HashMap<>();
+		for (Map.Entry<MasterKey, CacheEntry> entry : entries.entrySet()) {
+			JSONArray data = entry.getValue().data;
+			if (data == null)
+				continue;
+			JSONArray copy = new JSONArray();
+			copy.addAll(data);
+			mdmsRes.computeIfAbsent(entry.getKey().getModuleName(), module -> new HashMap<>())
+					.put(entry.getKey().getMasterName(), copy);
+		}
+		return MdmsResponse.builder().mdmsRes(mdmsRes).build();
+	}
+
+	@Getter
+	@ToString
+	@EqualsAndHashCode
+	@AllArgsConstructor
+	private static class MasterKey {
+		private final String tenantId;
+		private final String moduleName;
+		private final String masterName;
+		private final String filter;
+	}
+
+	private static class CacheEntry {
+		//null when the master is not in the response
+		private final JSONArray data;
+		private final long loadedAt;
+
+		private CacheEntry(JSONArray data, long loadedAt) {
+			this.data = data;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package org.egov.mdms.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.mdms.model.MasterDetail;
+import org.egov.mdms.model.MdmsCriteriaReq;
+import org.egov.mdms.model.MdmsResponse;
+import org.egov.mdms.model.ModuleDetail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import net.minidev.json.JSONArray;
+
+public class MdmsClientServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private RestTemplate restTemplate;
+
+	private MdmsClientService mdmsClientService;
+
+	@Before
+	public void setUp() {
+		restTemplate = mock(RestTemplate.class);
+		when(restTemplate.postForObject(anyString(), any(), eq(MdmsResponse.class))).thenAnswer(new MdmsAnswer());
+		mdmsClientService = newService(300L, 60L);
+	}
+
+	@After
+	public void tearDown() {
+		mdmsClientService.destroy();
+	}
+
+	@Test
+	public void testCachedMasterIsNotFetchedAgain() {
+		MdmsResponse first = mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+		MdmsResponse second = mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+
+		verify(restTemplate, times(1)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+		assertEquals(first.getMdmsRes(), second.getMdmsRes());
+		assertNotSame(first.getMdmsRes().get("tenant").get("tenants"), second.getMdmsRes().get("tenant").get("tenants"));
+	}
+
+	@Test
+	public void testMissingMastersAreFetchedInOneSearch() {
+		Map<String, List<MasterDetail>> masterDetails = new LinkedHashMap<>();
+		masterDetails.put("PropertyTax", Arrays.asList(master("UsageCategory", null), master("Floor", null)));
+		masterDetails.put("tenant", Collections.singletonList(master("tenants", null)));
+		MdmsResponse response = mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masterDetails);
+
+		ArgumentCaptor<Object> request = ArgumentCaptor.forClass(Object.class);
+		verify(restTemplate, times(1)).postForObject(anyString(), request.capture(), eq(MdmsResponse.class));
+		assertEquals(2, ((MdmsCriteriaReq) request.getValue()).getMdmsCriteria().getModuleDetails().size());
+		assertEquals(data("PropertyTax", "Floor", null), response.getMdmsRes().get("PropertyTax").get("Floor"));
+		assertEquals(data("tenant", "tenants", null), response.getMdmsRes().get("tenant").get("tenants"));
+
+		// Only the master not cached yet is searched
+		masterDetails.put("tenant", Arrays.asList(master("tenants", null), master("citymodule", null)));
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masterDetails);
+		verify(restTemplate, times(2)).postForObject(anyString(), request.capture(), eq(MdmsResponse.class));
+		List<ModuleDetail> moduleDetails = ((MdmsCriteriaReq) request.getValue()).getMdmsCriteria().getModuleDetails();
+		assertEquals(1, moduleDetails.size());
+		assertEquals("citymodule", moduleDetails.get(0).getMasterDetails().get(0).getName());
+	}
+
+	@Test
+	public void testSameMasterWithDifferentFiltersIsFetchedInSeparateSearches() {
+		Map<String, List<MasterDetail>> masterDetails = new HashMap<>();
+		masterDetails.put("PropertyTax",
+				Arrays.asList(master("UsageCategory", "[?(@.code=='A')]"), master("UsageCategory", "[?(@.code=='B')]")));
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masterDetails);
+
+		verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+	}
+
+	@Test
+	public void testConcurrentSearchesForAMasterAreCoalesced() throws Exception {
+		CountDownLatch searchStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(restTemplate.postForObject(anyString(), any(), eq(MdmsResponse.class))).thenAnswer(invocation -> {
+			searchStarted.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return new MdmsAnswer().answer(invocation);
+		});
+
+		AtomicReference<MdmsResponse> firstResponse = new AtomicReference<>();
+		AtomicReference<MdmsResponse> secondResponse = new AtomicReference<>();
+		Thread first = new Thread(() -> firstResponse
+				.set(mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"))));
+		Thread second = new Thread(() -> secondResponse
+				.set(mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"))));
+		first.start();
+		searchStarted.await(5, TimeUnit.SECONDS);
+		second.start();
+		// The second search waits on the one in flight
+		while (second.getState() != Thread.State.WAITING && second.isAlive())
+			Thread.sleep(5);
+		release.countDown();
+		first.join(5000);
+		second.join(5000);
+
+		verify(restTemplate, times(1)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+		assertEquals(data("tenant", "tenants", null), firstResponse.get().getMdmsRes().get("tenant").get("tenants"));
+		assertEquals(data("tenant", "tenants", null), secondResponse.get().getMdmsRes().get("tenant").get("tenants"));
+	}
+
+	@Test
+	public void testExpiredMasterIsFetchedAgain() {
+		mdmsClientService = newService(0L, 0L);
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+
+		verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+	}
+
+	@Test
+	public void testStaleMasterIsServedAndRefreshedInTheBackground() {
+		mdmsClientService = newService(0L, 60L);
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+		MdmsResponse stale = mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+
+		assertEquals(data("tenant", "tenants", null), stale.getMdmsRes().get("tenant").get("tenants"));
+		verify(restTemplate, timeout(5000).times(2)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+	}
+
+	@Test
+	public void testEvictedMasterIsFetchedAgain() {
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+		mdmsClientService.evict("pb", "tenant", null);
+		mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+
+		verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(MdmsResponse.class));
+	}
+
+	@Test
+	public void testMasterMissingInTheResponseIsLeftOut() {
+		when(restTemplate.postForObject(anyString(), any(), eq(MdmsResponse.class)))
+				.thenReturn(MdmsResponse.builder().mdmsRes(new HashMap<>()).build());
+		MdmsResponse response = mdmsClientService.getMaster(new RequestInfo(), TENANT_ID, masters("tenant", "tenants"));
+
+		assertNull(response.getMdmsRes().get("tenant"));
+	}
+
+	private MdmsClientService newService(Long ttlSeconds, Long staleSeconds) {
+		MdmsClientService service = new MdmsClientService();
+		ReflectionTestUtils.setField(service, "restTemplate", restTemplate);
+		ReflectionTestUtils.setField(service, "mdmsHost", "http://localhost:8080/");
+		ReflectionTestUtils.setField(service, "mdmsSearchUri", "egov-mdms-service/v1/_search");
+		ReflectionTestUtils.setField(service, "cacheEnabled", true);
+		ReflectionTestUtils.setField(service, "cacheTtlSeconds", ttlSeconds);
+		ReflectionTestUtils.setField(service, "cacheStaleSeconds", staleSeconds);
+		ReflectionTestUtils.setField(service, "cacheMaxEntries", 100);
+		ReflectionTestUtils.setField(service, "cacheRefreshThreads", 1);
+		service.init();
+		return service;
+	}
+
+	private static Map<String, List<MasterDetail>> masters(String moduleName, String masterName) {
+		Map<String, List<MasterDetail>> masterDetails = new HashMap<>();
+		masterDetails.put(moduleName, new ArrayList<>(Collections.singletonList(master(masterName, null))));
+		return masterDetails;
+	}
+
+	private static MasterDetail master(String name, String filter) {
+		return MasterDetail.builder().name(name).filter(filter).build();
+	}
+
+	private static JSONArray data(String moduleName, String masterName, String filter) {
+		Map<String, Object> record = new HashMap<>();
+		record.put("master", moduleName + "." + masterName);
+		record.put("filter", filter);
+		JSONArray array = new JSONArray();
+		array.add(record);
+		return array;
+	}
+
+	/*
+	 * Answers every master of the search with a record naming the master and its filter
+	 */
+	private static class MdmsAnswer implements Answer<MdmsResponse> {
+
+		@Override
+		public MdmsResponse answer(InvocationOnMock invocation) {
+			MdmsCriteriaReq request = (MdmsCriteriaReq) invocation.getArguments()[1];
+			Map<String, Map<String, JSONArray>> mdmsRes = new HashMap<>();
+			for (ModuleDetail moduleDetail : request.getMdmsCriteria().getModuleDetails()) {
+				for (MasterDetail masterDetail : moduleDetail.getMasterDetails())
+					mdmsRes.computeIfAbsent(moduleDetail.getModuleName(), module -> new HashMap<>()).put(
+							masterDetail.getName(),
+							data(moduleDetail.getModuleName(), masterDetail.getName(), masterDetail.getFilter()));
+			}
+			return MdmsResponse.builder().mdmsRes(mdmsRes).build();
+		}
+	}
+}
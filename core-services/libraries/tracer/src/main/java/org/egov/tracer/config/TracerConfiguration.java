@@ -1,8 +1,11 @@
 package org.egov.tracer.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentracing.noop.NoopTracerFactory;
 import org.egov.tracer.http.RestTemplateLoggingInterceptor;
 import org.egov.tracer.http.filters.TracerFilter;
+import org.egov.tracer.metrics.TracerMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -27,13 +30,26 @@ public class TracerConfiguration {
         return new ObjectMapperFactory(tracerProperties, environment);
     }
 
+    /**
+     * Latency timers of the tracer, recorded in the registry of the application when there is one
+     *
+     * @param tracerProperties configuration for the timers
+     * @param meterRegistry registry of the application
+     * @return Tracer metrics
+     */
+    @Bean
+    public TracerMetrics tracerMetrics(TracerProperties tracerProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TracerMetrics(meterRegistry.getIfAvailable(), tracerProperties);
+    }
+
     @Bean(name = "logAwareRestTemplate")
-    public RestTemplate logAwareRestTemplate(TracerProperties tracerProperties) {
+    public RestTemplate logAwareRestTemplate(TracerProperties tracerProperties, TracerMetrics tracerMetrics) {
         SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setOutputStreaming(false);
         RestTemplate restTemplate =
             new RestTemplate(new BufferingClientHttpRequestFactory(requestFactory));
-        restTemplate.setInterceptors(Collections.singletonList(new RestTemplateLoggingInterceptor(tracerProperties)));
+        restTemplate.setInterceptors(Collections.singletonList(
+            new RestTemplateLoggingInterceptor(tracerProperties, tracerMetrics)));
         return restTemplate;
     }
 
@@ -42,14 +58,16 @@ public class TracerConfiguration {
      *
      * @param objectMapperFactory Object mapper
      * @param tracerProperties configuration for the filter
+     * @param tracerMetrics timers of the requests
      * @return Filter
      */
     @Bean
     @ConditionalOnProperty(name = "tracer.filter.enabled",
         havingValue = "true", matchIfMissing = true)
     public FilterRegistrationBean tracerFilter(ObjectMapperFactory objectMapperFactory,
-                                                      TracerProperties tracerProperties) {
-        final TracerFilter tracerFilter = new TracerFilter(tracerProperties, objectMapperFactory);
+                                                      TracerProperties tracerProperties,
+                                                      TracerMetrics tracerMetrics) {
+        final TracerFilter tracerFilter = new TracerFilter(tracerProperties, objectMapperFactory, tracerMetrics);
         FilterRegistrationBean registration = new FilterRegistrationBean(tracerFilter);
         registration.addUrlPatterns("/*");
         registration.setName("TracerFilter");
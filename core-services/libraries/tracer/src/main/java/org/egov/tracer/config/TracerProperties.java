@@ -27,5 +27,17 @@ public class TracerProperties {
     // Exclusion list for tracer filter
     private String filterSkipPattern;
 
+    // Fraction of the requests whose body is logged when request logging is enabled
+    private double requestBodySampleRate = 1.0;
+
+    // Length beyond which logged request, response and message bodies are truncated, 0 disables truncation
+    private int maxLoggedBodyLength = 4096;
+
+    // Enable latency timers per endpoint, per outbound host and per kafka topic
+    private boolean metricsEnabled = true;
+
+    // Publish the histogram buckets of the latency timers
+    private boolean metricsHistogramEnabled = true;
+
 }
 
@@ -9,6 +9,10 @@ public class TracerConstants {
     public static final String TIME_ZONE_PROPERTY = "app.timezone";
     public static final String REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE = "RequestInfo";
     public static final String REQUEST_INFO_IN_CAMEL_CASE = "requestInfo";
+    public static final String KAFKA_MAX_LOGGED_BODY_LENGTH_CONFIG = "tracer.maxLoggedBodyLength";
+    public static final String KAFKA_METRICS_ENABLED_CONFIG = "tracer.metricsEnabled";
+    public static final String KAFKA_METRICS_HISTOGRAM_ENABLED_CONFIG = "tracer.metricsHistogramEnabled";
+    public static final int DEFAULT_MAX_LOGGED_BODY_LENGTH = 4096;
 
     private TracerConstants(){}
 }
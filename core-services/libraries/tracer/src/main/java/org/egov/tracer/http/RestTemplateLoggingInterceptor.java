@@ -3,6 +3,8 @@ package org.egov.tracer.http;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.egov.tracer.config.TracerProperties;
+import org.egov.tracer.logging.BodyLogUtils;
+import org.egov.tracer.metrics.TracerMetrics;
 import org.slf4j.MDC;
 import org.springframework.http.HttpMessage;
 import org.springframework.http.HttpRequest;
@@ -29,19 +31,27 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
     private static final String UTF_8 = "UTF-8";
     private static final String RESPONSE_BODY_ERROR_MESSAGE = "Error reading response body";
     private static final String EMPTY_BODY = "<NOT-AVAILABLE>";
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
     private static final List<String> JSON_MEDIA_TYPES =
         Arrays.asList(MediaType.APPLICATION_JSON_UTF8_VALUE, MediaType.APPLICATION_JSON_VALUE);
 
     private TracerProperties tracerProperties;
+    private TracerMetrics tracerMetrics;
 
     public RestTemplateLoggingInterceptor(TracerProperties tracerProperties) {
+        this(tracerProperties, new TracerMetrics(null, tracerProperties));
+    }
+
+    public RestTemplateLoggingInterceptor(TracerProperties tracerProperties, TracerMetrics tracerMetrics) {
         this.tracerProperties = tracerProperties;
+        this.tracerMetrics = tracerMetrics;
     }
 
     /**
      * Intercept all rest template calls
      *  - Add correlation id header from MDC
-     *  - Log request and responses based on config
+     *  - Log request and responses based on config, bodies are truncated
+     *  - Time the call against the host being called
      *
      * @param request being made
      * @param body of the request
@@ -51,11 +61,19 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
      */
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        final long startTime = System.nanoTime();
         try {
             request.getHeaders().add(CORRELATION_ID_HEADER, MDC.get(CORRELATION_ID_MDC));
             logRequest(request, body);
 
-            final ClientHttpResponse rawResponse = execution.execute(request, body);
+            final ClientHttpResponse rawResponse;
+            try {
+                rawResponse = execution.execute(request, body);
+            } catch (IOException e) {
+                recordCall(request, IO_ERROR_STATUS, startTime);
+                throw e;
+            }
+            recordCall(request, String.valueOf(rawResponse.getRawStatusCode()), startTime);
 
             if(tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(request)){
                 logResponse(rawResponse, request);
@@ -69,10 +87,16 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
         }
     }
 
+    private void recordCall(HttpRequest httpRequest, String status, long startTime) {
+        if (tracerMetrics.isEnabled())
+            tracerMetrics.recordClientRequest(httpRequest.getURI().getHost(), httpRequest.getMethod().name(), status,
+                System.nanoTime() - startTime);
+    }
+
     private void logResponse(ClientHttpResponse response, HttpRequest httpRequest) throws IOException {
 
         if(tracerProperties.isRestTemplateDetailedLoggingEnabled() && isBodyCompatibleForParsing(httpRequest)){
-            String body = getBodyString(response);
+            String body = BodyLogUtils.truncate(getBodyString(response), tracerProperties.getMaxLoggedBodyLength());
             log.info(RESPONSE_MESSAGE_WITH_BODY, httpRequest.getURI(), response.getStatusCode(), body);
         } else{
             log.info(RESPONSE_MESSAGE, httpRequest.getURI());
@@ -91,7 +115,7 @@ public class RestTemplateLoggingInterceptor implements ClientHttpRequestIntercep
 
 
     private String getBody(byte[] body) {
-        return body == null ? EMPTY_BODY : new String(body);
+        return body == null ? EMPTY_BODY : BodyLogUtils.truncate(body, tracerProperties.getMaxLoggedBodyLength());
     }
 
     private boolean isBodyCompatibleForParsing(HttpMessage httpMessage) {
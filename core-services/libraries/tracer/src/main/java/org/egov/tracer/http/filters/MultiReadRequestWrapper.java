@@ -12,7 +12,7 @@ import java.io.*;
 @Slf4j
 public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
 
-    private ByteArrayOutputStream cachedBytes;
+    private byte[] cachedBytes;
 
     MultiReadRequestWrapper(HttpServletRequest request) {
         super(request);
@@ -20,14 +20,24 @@ public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        if (cachedBytes == null)
-            cacheInputStream();
-
-        return new CachedServletInputStream();
+        return new CachedServletInputStream(getCachedBody());
     }
 
     public void update(ByteArrayOutputStream newBytes) {
-        this.cachedBytes = newBytes;
+        this.cachedBytes = newBytes.toByteArray();
+    }
+
+    /**
+     * Body of the request, read once and shared by all the reads of the request
+     *
+     * @return cached body, not to be modified
+     * @throws IOException
+     */
+    byte[] getCachedBody() throws IOException {
+        if (cachedBytes == null)
+            cachedBytes = IOUtils.toByteArray(super.getInputStream());
+
+        return cachedBytes;
     }
 
 //    @Override
@@ -45,21 +55,16 @@ public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
         return new BufferedReader(new InputStreamReader(getInputStream()));
     }
 
-    private void cacheInputStream() throws IOException {
-        cachedBytes = new ByteArrayOutputStream();
-        IOUtils.copy(super.getInputStream(), cachedBytes);
-    }
-
     public class CachedServletInputStream extends ServletInputStream {
         private ByteArrayInputStream input;
 
-        CachedServletInputStream() {
-            input = new ByteArrayInputStream(cachedBytes.toByteArray());
+        CachedServletInputStream(byte[] body) {
+            input = new ByteArrayInputStream(body);
         }
 
         @Override
         public boolean isFinished() {
-            return input.available() != 0;
+            return input.available() == 0;
         }
 
         @Override
@@ -76,6 +81,15 @@ public class MultiReadRequestWrapper extends HttpServletRequestWrapper {
         public int read() throws IOException {
             return input.read();
         }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return input.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return input.available();
+        }
     }
 }
-
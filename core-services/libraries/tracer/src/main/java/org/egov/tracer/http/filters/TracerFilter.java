@@ -1,16 +1,19 @@
 package org.egov.tracer.http.filters;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.egov.tracer.config.ObjectMapperFactory;
 import org.egov.tracer.config.TracerProperties;
+import org.egov.tracer.logging.BodyLogUtils;
+import org.egov.tracer.logging.CorrelationIdScanner;
+import org.egov.tracer.metrics.TracerMetrics;
 import org.slf4j.MDC;
 import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.*;
 import java.util.regex.Pattern;
@@ -27,18 +30,25 @@ public class TracerFilter implements Filter {
     private static final String POST = "POST";
     private static final String REQUEST_BODY_LOG_MESSAGE = "Request body - {}";
     private static final String FAILED_TO_LOG_REQUEST_MESSAGE = "Failed to log request body";
-    private static final String UTF_8 = "UTF-8";
+    private static final String UNMAPPED_URI = "UNMAPPED";
     private static final String REQUEST_URI_LOG_MESSAGE = "Received request URI: {} ";
     private static final String REQUEST_PARAMS_LOG_MESSAGE = "Request Query params: {} ";
     private static final String LOG_RESPONSE_CODE_MESSAGE = "Response code sent: {}";
 
-    private final ObjectMapper objectMapper;
+    private final CorrelationIdScanner correlationIdScanner;
     private TracerProperties tracerProperties;
+    private TracerMetrics tracerMetrics;
     private Pattern skipPattern;
 
     public TracerFilter(TracerProperties tracerProperties, ObjectMapperFactory objectMapperFactory) {
+        this(tracerProperties, objectMapperFactory, new TracerMetrics(null, tracerProperties));
+    }
+
+    public TracerFilter(TracerProperties tracerProperties, ObjectMapperFactory objectMapperFactory,
+                        TracerMetrics tracerMetrics) {
         this.tracerProperties = tracerProperties;
-        this.objectMapper = objectMapperFactory.getObjectMapper();
+        this.tracerMetrics = tracerMetrics;
+        this.correlationIdScanner = new CorrelationIdScanner(objectMapperFactory.getObjectMapper().getFactory());
         this.skipPattern = isNull(tracerProperties.getFilterSkipPattern()) ? null :
             Pattern.compile(tracerProperties.getFilterSkipPattern());
     }
@@ -57,7 +67,8 @@ public class TracerFilter implements Filter {
      *  - if not exists, generate a uuid
      *
      * Set correlation id in MDC for future use, like logging etc
-     * Log Request and Response depending on configuration
+     * Log Request and Response depending on configuration, request bodies are sampled and truncated
+     * Time the request against the matched request mapping
      *
      * @param servletRequest HTTP request
      * @param servletResponse HTTP response
@@ -75,27 +86,35 @@ public class TracerFilter implements Filter {
             filterChain.doFilter(httpRequest, servletResponse);
         }
         else {
-
-            if (isBodyCompatibleForParsing(httpRequest)) {
-                final MultiReadRequestWrapper wrappedRequest = new MultiReadRequestWrapper(httpRequest);
-                correlationId = getCorrelationId(wrappedRequest);
-                MDC.put(CORRELATION_ID_MDC, correlationId);
-                logRequestURI(httpRequest);
-
-                if (tracerProperties.isRequestLoggingEnabled()) {
-                    logRequestBodyAndParams(wrappedRequest);
+            final long startTime = System.nanoTime();
+            int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+
+            try {
+                if (isBodyCompatibleForParsing(httpRequest)) {
+                    final MultiReadRequestWrapper wrappedRequest = new MultiReadRequestWrapper(httpRequest);
+                    correlationId = getCorrelationId(wrappedRequest);
+                    MDC.put(CORRELATION_ID_MDC, correlationId);
+                    logRequestURI(httpRequest);
+
+                    if (tracerProperties.isRequestLoggingEnabled()
+                        && BodyLogUtils.isSampled(tracerProperties.getRequestBodySampleRate())) {
+                        logRequestBodyAndParams(wrappedRequest);
+                    }
+
+                    filterChain.doFilter(wrappedRequest, servletResponse);
+
+                } else {
+                    correlationId = getCorrelationId(httpRequest);
+                    MDC.put(CORRELATION_ID_MDC, correlationId);
+                    logRequestURI(httpRequest);
+                    filterChain.doFilter(httpRequest, servletResponse);
                 }
 
-                filterChain.doFilter(wrappedRequest, servletResponse);
-
-            } else {
-                correlationId = getCorrelationId(httpRequest);
-                MDC.put(CORRELATION_ID_MDC, correlationId);
-                logRequestURI(httpRequest);
-                filterChain.doFilter(httpRequest, servletResponse);
+                status = ((HttpServletResponse) servletResponse).getStatus();
+                logResponse(servletResponse);
+            } finally {
+                recordRequest(httpRequest, status, startTime);
             }
-
-            logResponse(servletResponse);
         }
     }
 
@@ -113,6 +132,15 @@ public class TracerFilter implements Filter {
         }
     }
 
+    private void recordRequest(HttpServletRequest httpRequest, int status, long startTime) {
+        if (!tracerMetrics.isEnabled())
+            return;
+
+        final Object pattern = httpRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final String uri = pattern == null ? UNMAPPED_URI : pattern.toString();
+        tracerMetrics.recordServerRequest(httpRequest.getMethod(), uri, status, System.nanoTime() - startTime);
+    }
+
     private void logResponse(ServletResponse servletResponse) {
         HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
         log.info(LOG_RESPONSE_CODE_MESSAGE, httpServletResponse.getStatus());
@@ -127,7 +155,7 @@ public class TracerFilter implements Filter {
         String correlationId = getCorrelationIdFromHeader(httpRequest);
 
         if (isNull(correlationId) && httpRequest instanceof MultiReadRequestWrapper) {
-            correlationId = getCorrelationIdFromBody(httpRequest);
+            correlationId = getCorrelationIdFromBody((MultiReadRequestWrapper) httpRequest);
         }
 
         if(isNull(correlationId))
@@ -143,9 +171,10 @@ public class TracerFilter implements Filter {
     }
 
 
-    private void logRequestBodyAndParams(HttpServletRequest requestWrapper) {
+    private void logRequestBodyAndParams(MultiReadRequestWrapper requestWrapper) {
         try {
-            final String requestBody = IOUtils.toString(requestWrapper.getInputStream(), UTF_8);
+            final String requestBody = BodyLogUtils.truncate(requestWrapper.getCachedBody(),
+                tracerProperties.getMaxLoggedBodyLength());
             String requestParams = requestWrapper.getQueryString();
 
             if(!isEmpty(requestParams))
@@ -164,25 +193,12 @@ public class TracerFilter implements Filter {
     }
 
 
-    @SuppressWarnings("unchecked")
-    private String getCorrelationIdFromBody(HttpServletRequest httpServletRequest) {
-        String correlationId = null;
+    private String getCorrelationIdFromBody(MultiReadRequestWrapper requestWrapper) {
         try {
-            final HashMap<String, Object> requestMap = (HashMap<String, Object>)
-                objectMapper.readValue(httpServletRequest.getInputStream(), HashMap.class);
-            Object requestInfo = requestMap.containsKey(REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) ? requestMap.get
-                (REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) : requestMap.get(REQUEST_INFO_IN_CAMEL_CASE);
-
-            if (isNull(requestInfo))
-                return null;
-            else {
-                if (requestInfo instanceof Map) {
-                    correlationId = (String) ((Map) requestInfo).get(CORRELATION_ID_FIELD_NAME);
-                }
-            }
-        } catch (IOException ignored){}
-
-        return correlationId;
+            return correlationIdScanner.scan(new ByteArrayInputStream(requestWrapper.getCachedBody()));
+        } catch (IOException ignored) {
+            return null;
+        }
     }
 
     private String getRandomCorrelationId() {
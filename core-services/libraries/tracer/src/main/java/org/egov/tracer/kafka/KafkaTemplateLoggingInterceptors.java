@@ -11,10 +11,13 @@ import org.apache.kafka.clients.producer.ProducerInterceptor;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
+import org.egov.tracer.logging.BodyLogUtils;
+import org.egov.tracer.metrics.TracerMetrics;
 import org.slf4j.MDC;
 import org.springframework.util.ObjectUtils;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.isNull;
 import static org.egov.tracer.constants.TracerConstants.*;
@@ -34,9 +37,15 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
 
     private static final String RECEIVED_MESSAGE_WITH_BODY = "Received message from topic: {}, partition: {}, body: {} with key: {}";
     private static final String RECEIVED_MESSAGE = "Received message from topic: {}, partition: {}, with key: {}";
+    private static final String SEND_SUCCESS_RESULT = "success";
+    private static final String SEND_FAILURE_RESULT = "failure";
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private TracerMetrics tracerMetrics = TracerMetrics.global();
+
+    private int maxLoggedBodyLength = DEFAULT_MAX_LOGGED_BODY_LENGTH;
+
     public KafkaTemplateLoggingInterceptors() {
     }
 
@@ -54,8 +63,12 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
                 log.debug(RECEIVED_MESSAGE_WITH_BODY, consumerRecord.topic(), consumerRecord.partition(), bodyAsJsonString,
                     keyAsString);
             } else {
-                log.info(RECEIVED_MESSAGE, consumerRecord.topic(), consumerRecord.topic(), consumerRecord.key());
+                log.info(RECEIVED_MESSAGE, consumerRecord.topic(), consumerRecord.partition(), keyAsString);
             }
+
+            if (consumerRecord.timestamp() > 0)
+                tracerMetrics.recordKafkaConsumerLag(consumerRecord.topic(),
+                    System.currentTimeMillis() - consumerRecord.timestamp());
         }
         return consumerRecords;
     }
@@ -79,11 +92,25 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
         return producerRecord;
     }
 
+    /*
+     * Failed sends are acknowledged with no timestamp, they are counted with no latency so that the failures are
+     * still recorded
+     */
     @Override
     public void onAcknowledgement(RecordMetadata recordMetadata, Exception e) {
+        final String topic = isNull(recordMetadata) ? null : recordMetadata.topic();
+        final boolean hasTimestamp = !isNull(recordMetadata) && recordMetadata.timestamp() > 0;
+
+        if (!isNull(e))
+            tracerMetrics.recordKafkaSend(topic, SEND_FAILURE_RESULT, hasTimestamp ?
+                TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - recordMetadata.timestamp()) : 0);
+        else if (hasTimestamp)
+            tracerMetrics.recordKafkaSend(topic, SEND_SUCCESS_RESULT,
+                TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - recordMetadata.timestamp()));
+
         if (!isNull(e)) {
-            final String message =
-                String.format(SEND_FAILURE_MESSAGE, recordMetadata.topic(), recordMetadata.partition());
+            final String message = String.format(SEND_FAILURE_MESSAGE, topic,
+                isNull(recordMetadata) ? null : recordMetadata.partition());
             log.error(message, e);
         }
     }
@@ -95,23 +122,38 @@ public class KafkaTemplateLoggingInterceptors<K,V> implements ConsumerIntercepto
 
     @Override
     public void configure(Map<String, ?> map) {
+        final Object maxLength = map.get(KAFKA_MAX_LOGGED_BODY_LENGTH_CONFIG);
+        if (!isNull(maxLength)) {
+            try {
+                maxLoggedBodyLength = Integer.parseInt(maxLength.toString());
+            } catch (NumberFormatException ignored) {}
+        }
 
+        final Object metricsEnabled = map.get(KAFKA_METRICS_ENABLED_CONFIG);
+        final Object histogramEnabled = map.get(KAFKA_METRICS_HISTOGRAM_ENABLED_CONFIG);
+        tracerMetrics = new TracerMetrics(null,
+            isNull(metricsEnabled) || Boolean.parseBoolean(metricsEnabled.toString()),
+            isNull(histogramEnabled) || Boolean.parseBoolean(histogramEnabled.toString()));
     }
 
     private String getMessageBodyAsJsonString(Object value) {
         try {
-            return objectMapper.writeValueAsString(value);
+            return BodyLogUtils.truncate(objectMapper.writeValueAsString(value), maxLoggedBodyLength);
         } catch (JsonProcessingException e) {
             log.warn(BODY_JSON_SERIALIZATION_ERROR);
             return EMPTY_BODY;
         }
     }
 
+    /*
+     * Messages consumed as maps are read as they are, other messages are converted to a map
+     */
     @SuppressWarnings("unchecked")
     private String getCorrelationIdFromBody(Object value) {
         String correlationId = null;
         try {
-            Map<String, Object> requestMap = objectMapper.convertValue(value, Map.class);
+            Map<String, Object> requestMap = value instanceof Map ? (Map<String, Object>) value
+                : objectMapper.convertValue(value, Map.class);
 
             Object requestInfo = requestMap.containsKey(REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) ? requestMap.get
                 (REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE) : requestMap.get(REQUEST_INFO_IN_CAMEL_CASE);
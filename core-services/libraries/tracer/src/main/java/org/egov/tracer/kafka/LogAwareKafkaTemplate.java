@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.egov.tracer.config.ObjectMapperFactory;
 import org.egov.tracer.config.TracerProperties;
+import org.egov.tracer.logging.BodyLogUtils;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
@@ -87,7 +88,7 @@ public class LogAwareKafkaTemplate<K, V> {
 
     private String getMessageBodyAsJsonString(Object value) {
         try {
-            return objectMapper.writeValueAsString(value);
+            return BodyLogUtils.truncate(objectMapper.writeValueAsString(value), tracerProperties.getMaxLoggedBodyLength());
         } catch (JsonProcessingException e) {
             log.error(BODY_JSON_SERIALIZATION_ERROR);
             return EMPTY_BODY;
@@ -0,0 +1,52 @@
+package org.egov.tracer.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class BodyLogUtils {
+
+    private static final String TRUNCATED_SUFFIX = "...<TRUNCATED %d of %d chars>";
+    private static final String TRUNCATED_BYTES_SUFFIX = "...<TRUNCATED %d of %d bytes>";
+
+    private BodyLogUtils(){}
+
+    /**
+     * Decide whether the body of the current request or message is to be logged
+     *
+     * @param sampleRate fraction of the bodies to be logged, 1 or more logs all of them
+     * @return true when the body is to be logged
+     */
+    public static boolean isSampled(double sampleRate) {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Truncate the body to be logged
+     *
+     * @param body to be logged
+     * @param maxLength characters to be kept, 0 or less keeps the whole body
+     * @return body, truncated when longer than max length
+     */
+    public static String truncate(String body, int maxLength) {
+        if (body == null || maxLength <= 0 || body.length() <= maxLength)
+            return body;
+        return body.substring(0, maxLength) + String.format(TRUNCATED_SUFFIX, maxLength, body.length());
+    }
+
+    /**
+     * Decode the part of the body to be logged, the rest of the body is not decoded
+     *
+     * @param body UTF-8 encoded body to be logged
+     * @param maxLength bytes to be kept, 0 or less keeps the whole body
+     * @return decoded body, truncated when longer than max length
+     */
+    public static String truncate(byte[] body, int maxLength) {
+        if (body == null)
+            return null;
+        if (maxLength <= 0 || body.length <= maxLength)
+            return new String(body, StandardCharsets.UTF_8);
+        return new String(body, 0, maxLength, StandardCharsets.UTF_8)
+            + String.format(TRUNCATED_BYTES_SUFFIX, maxLength, body.length);
+    }
+
+}
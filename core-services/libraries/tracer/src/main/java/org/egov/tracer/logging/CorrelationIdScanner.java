@@ -0,0 +1,78 @@
+package org.egov.tracer.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.egov.tracer.constants.TracerConstants.*;
+
+/**
+ * Finds the correlation id of the RequestInfo of a json body by scanning its tokens.
+ *
+ * Only the top level fields and the fields of the RequestInfo are visited, the values of the other fields are
+ * skipped without being built, and the scan stops once the RequestInfo has been read. As with the body being
+ * read into a map, RequestInfo is preferred to requestInfo when both are present.
+ */
+public class CorrelationIdScanner {
+
+    private final JsonFactory jsonFactory;
+
+    public CorrelationIdScanner(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Scan the body for the correlation id
+     *
+     * @param inputStream json body
+     * @return correlation id, null when the body has none or is not a json object
+     */
+    public String scan(InputStream inputStream) {
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            String camelCaseCorrelationId = null;
+            boolean camelCaseFound = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                parser.nextToken();
+
+                if (REQUEST_INFO_FIELD_NAME_IN_JAVA_CLASS_CASE.equals(fieldName))
+                    return readCorrelationId(parser);
+                else if (REQUEST_INFO_IN_CAMEL_CASE.equals(fieldName) && !camelCaseFound) {
+                    camelCaseCorrelationId = readCorrelationId(parser);
+                    camelCaseFound = true;
+                } else
+                    parser.skipChildren();
+            }
+            return camelCaseCorrelationId;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String readCorrelationId(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        String correlationId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken valueToken = parser.nextToken();
+
+            if (CORRELATION_ID_FIELD_NAME.equals(fieldName) && valueToken == JsonToken.VALUE_STRING)
+                correlationId = parser.getText();
+            else
+                parser.skipChildren();
+        }
+        return correlationId;
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.egov.tracer.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.egov.tracer.config.TracerProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers recorded by the tracer, per endpoint served, per host called and per kafka topic.
+ *
+ * The timers are tagged with low cardinality values only, the endpoint is the matched request mapping and not the
+ * requested URI, so that they can be kept for every request without logging the payloads.
+ */
+public class TracerMetrics {
+
+    public static final String HTTP_SERVER_REQUESTS = "egov.http.server.requests";
+    public static final String HTTP_CLIENT_REQUESTS = "egov.http.client.requests";
+    public static final String KAFKA_PRODUCER_SEND = "egov.kafka.producer.send";
+    public static final String KAFKA_CONSUMER_LAG = "egov.kafka.consumer.lag";
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean histogramEnabled;
+
+    public TracerMetrics(MeterRegistry meterRegistry, TracerProperties tracerProperties) {
+        this(meterRegistry, tracerProperties.isMetricsEnabled(), tracerProperties.isMetricsHistogramEnabled());
+    }
+
+    public TracerMetrics(MeterRegistry meterRegistry, boolean enabled, boolean histogramEnabled) {
+        this.meterRegistry = meterRegistry == null ? Metrics.globalRegistry : meterRegistry;
+        this.enabled = enabled;
+        this.histogramEnabled = histogramEnabled;
+    }
+
+    /**
+     * Timers recorded in the global registry, for the classes created outside the application context
+     *
+     * @return metrics backed by the global registry
+     */
+    public static TracerMetrics global() {
+        return new TracerMetrics(Metrics.globalRegistry, true, true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordServerRequest(String method, String uri, int status, long durationNanos) {
+        record(durationNanos, HTTP_SERVER_REQUESTS,
+            "method", method, "uri", uri, "status", String.valueOf(status));
+    }
+
+    public void recordClientRequest(String host, String method, String status, long durationNanos) {
+        record(durationNanos, HTTP_CLIENT_REQUESTS,
+            "host", host, "method", method, "status", status);
+    }
+
+    public void recordKafkaSend(String topic, String result, long durationNanos) {
+        record(durationNanos, KAFKA_PRODUCER_SEND,
+            "topic", topic, "result", result);
+    }
+
+    public void recordKafkaConsumerLag(String topic, long lagMillis) {
+        if (lagMillis >= 0)
+            record(TimeUnit.MILLISECONDS.toNanos(lagMillis), KAFKA_CONSUMER_LAG, "topic", topic);
+    }
+
+    private void record(long durationNanos, String name, String... tags) {
+        if (!enabled)
+            return;
+        for (int i = 1; i < tags.length; i += 2) {
+            if (tags[i] == null)
+                tags[i] = UNKNOWN;
+        }
+        Timer.builder(name)
+            .tags(tags)
+            .publishPercentileHistogram(histogramEnabled)
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.egov.tracer.http.filters;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class MultiReadRequestWrapperTest {
+
+    private static final String BODY = "{\"RequestInfo\":{\"correlationId\":\"abc\"}}";
+
+    @Test
+    public void test_should_not_be_finished_until_the_body_is_read() throws IOException {
+        final ServletInputStream inputStream = wrap(BODY).getInputStream();
+
+        assertFalse(inputStream.isFinished());
+
+        IOUtils.toByteArray(inputStream);
+
+        assertTrue(inputStream.isFinished());
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void test_should_be_finished_for_empty_body() throws IOException {
+        assertTrue(wrap("").getInputStream().isFinished());
+    }
+
+    @Test
+    public void test_should_read_the_body_more_than_once() throws IOException {
+        final MultiReadRequestWrapper wrapper = wrap(BODY);
+
+        assertEquals(BODY, new String(wrapper.getCachedBody(), StandardCharsets.UTF_8));
+        assertEquals(BODY, IOUtils.toString(wrapper.getInputStream(), StandardCharsets.UTF_8));
+        assertEquals(BODY, IOUtils.toString(wrapper.getReader()));
+    }
+
+    @Test
+    public void test_should_read_the_updated_body() throws IOException {
+        final MultiReadRequestWrapper wrapper = wrap(BODY);
+        final ByteArrayOutputStream updated = new ByteArrayOutputStream();
+        updated.write("{}".getBytes(StandardCharsets.UTF_8));
+
+        wrapper.update(updated);
+
+        assertEquals("{}", IOUtils.toString(wrapper.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private MultiReadRequestWrapper wrap(String body) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/property/_create");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new MultiReadRequestWrapper(request);
+    }
+
+}
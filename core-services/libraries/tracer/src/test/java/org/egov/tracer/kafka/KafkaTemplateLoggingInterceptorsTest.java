@@ -0,0 +1,70 @@
+package org.egov.tracer.kafka;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.egov.tracer.metrics.TracerMetrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.egov.tracer.metrics.TracerMetrics.KAFKA_PRODUCER_SEND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class KafkaTemplateLoggingInterceptorsTest {
+
+    private static final String TOPIC = "save-property";
+
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaTemplateLoggingInterceptors<String, Object> interceptors;
+
+    @Before
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptors = new KafkaTemplateLoggingInterceptors<>();
+        ReflectionTestUtils.setField(interceptors, "tracerMetrics", new TracerMetrics(meterRegistry, true, false));
+    }
+
+    @Test
+    public void test_should_record_successful_send() {
+        interceptors.onAcknowledgement(metadata(System.currentTimeMillis()), null);
+
+        assertEquals(1, sends("success").count());
+        assertNull(meterRegistry.find(KAFKA_PRODUCER_SEND).tags("result", "failure").timer());
+    }
+
+    @Test
+    public void test_should_record_failed_send_without_timestamp() {
+        interceptors.onAcknowledgement(metadata(-1), new TimeoutException("Expiring 1 record(s)"));
+
+        assertEquals(1, sends("failure").count());
+        assertNull(meterRegistry.find(KAFKA_PRODUCER_SEND).tags("result", "success").timer());
+    }
+
+    @Test
+    public void test_should_record_failed_send_without_metadata() {
+        interceptors.onAcknowledgement(null, new TimeoutException("Expiring 1 record(s)"));
+
+        assertEquals(1, meterRegistry.find(KAFKA_PRODUCER_SEND)
+            .tags("topic", "UNKNOWN", "result", "failure").timer().count());
+    }
+
+    @Test
+    public void test_should_not_record_successful_send_without_timestamp() {
+        interceptors.onAcknowledgement(metadata(-1), null);
+
+        assertNull(meterRegistry.find(KAFKA_PRODUCER_SEND).timer());
+    }
+
+    private Timer sends(String result) {
+        return meterRegistry.find(KAFKA_PRODUCER_SEND).tags("topic", TOPIC, "result", result).timer();
+    }
+
+    private RecordMetadata metadata(long timestamp) {
+        return new RecordMetadata(new TopicPartition(TOPIC, 0), -1, -1, timestamp, null, -1, -1);
+    }
+
+}
@@ -0,0 +1,68 @@
+package org.egov.tracer.logging;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class BodyLogUtilsTest {
+
+    @Test
+    public void test_should_sample_all_bodies_when_rate_is_one_or_more() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(BodyLogUtils.isSampled(1));
+            assertTrue(BodyLogUtils.isSampled(2.5));
+        }
+    }
+
+    @Test
+    public void test_should_sample_no_bodies_when_rate_is_zero_or_less() {
+        for (int i = 0; i < 100; i++) {
+            assertFalse(BodyLogUtils.isSampled(0));
+            assertFalse(BodyLogUtils.isSampled(-1));
+        }
+    }
+
+    @Test
+    public void test_should_sample_a_fraction_of_bodies() {
+        int sampled = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (BodyLogUtils.isSampled(0.1))
+                sampled++;
+        }
+
+        assertTrue(sampled > 500);
+        assertTrue(sampled < 1500);
+    }
+
+    @Test
+    public void test_should_keep_body_within_max_length() {
+        assertEquals("{\"a\":1}", BodyLogUtils.truncate("{\"a\":1}", 7));
+        assertEquals("{\"a\":1}", BodyLogUtils.truncate("{\"a\":1}", 0));
+        assertEquals("{\"a\":1}", BodyLogUtils.truncate("{\"a\":1}", -1));
+        assertNull(BodyLogUtils.truncate((String) null, 5));
+    }
+
+    @Test
+    public void test_should_truncate_body_longer_than_max_length() {
+        assertEquals("{\"a\"...<TRUNCATED 4 of 7 chars>", BodyLogUtils.truncate("{\"a\":1}", 4));
+    }
+
+    @Test
+    public void test_should_decode_bytes_within_max_length() {
+        final byte[] body = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("{\"a\":1}", BodyLogUtils.truncate(body, 7));
+        assertEquals("{\"a\":1}", BodyLogUtils.truncate(body, 0));
+        assertNull(BodyLogUtils.truncate((byte[]) null, 5));
+    }
+
+    @Test
+    public void test_should_decode_only_the_kept_bytes_of_a_longer_body() {
+        final byte[] body = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("{\"a\"...<TRUNCATED 4 of 7 bytes>", BodyLogUtils.truncate(body, 4));
+    }
+
+}
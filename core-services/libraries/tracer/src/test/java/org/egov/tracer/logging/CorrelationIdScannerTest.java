@@ -0,0 +1,52 @@
+package org.egov.tracer.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CorrelationIdScannerTest {
+
+    private final CorrelationIdScanner scanner = new CorrelationIdScanner(new JsonFactory());
+
+    @Test
+    public void test_should_find_correlation_id_in_request_info_after_other_fields() {
+        final String body = "{\"Property\":{\"owners\":[{\"name\":\"a\"}],\"correlationId\":\"wrong\"}," +
+            "\"RequestInfo\":{\"apiId\":\"Rainmaker\",\"correlationId\":\"abc\"}}";
+
+        assertEquals("abc", scan(body));
+    }
+
+    @Test
+    public void test_should_find_correlation_id_in_camel_case_request_info() {
+        assertEquals("abc", scan("{\"requestInfo\":{\"correlationId\":\"abc\"}}"));
+    }
+
+    @Test
+    public void test_should_prefer_request_info_over_camel_case_request_info() {
+        assertEquals("abc", scan("{\"requestInfo\":{\"correlationId\":\"xyz\"},\"RequestInfo\":{\"correlationId\":\"abc\"}}"));
+    }
+
+    @Test
+    public void test_should_return_null_when_correlation_id_is_absent_or_not_a_string() {
+        assertNull(scan("{\"RequestInfo\":{\"apiId\":\"Rainmaker\"}}"));
+        assertNull(scan("{\"RequestInfo\":{\"correlationId\":{\"id\":\"abc\"}}}"));
+        assertNull(scan("{\"RequestInfo\":null,\"requestInfo\":{\"correlationId\":\"abc\"}}"));
+    }
+
+    @Test
+    public void test_should_return_null_for_body_which_is_not_a_json_object() {
+        assertNull(scan("[{\"RequestInfo\":{\"correlationId\":\"abc\"}}]"));
+        assertNull(scan("{\"RequestInfo\":{\"correlationId\":"));
+        assertNull(scan(""));
+    }
+
+    private String scan(String body) {
+        return scanner.scan(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.egov.tracer.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TracerMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Before
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void test_should_tag_server_requests_with_method_uri_and_status() {
+        new TracerMetrics(meterRegistry, true, false)
+            .recordServerRequest("POST", "/property/_search", 200, TimeUnit.MILLISECONDS.toNanos(15));
+
+        final Timer timer = meterRegistry.find(TracerMetrics.HTTP_SERVER_REQUESTS)
+            .tags("method", "POST", "uri", "/property/_search", "status", "200").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals(15, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    public void test_should_tag_client_requests_with_host_method_and_status() {
+        new TracerMetrics(meterRegistry, true, false).recordClientRequest("egov-mdms-service", "POST", "5xx", 1);
+
+        assertNotNull(meterRegistry.find(TracerMetrics.HTTP_CLIENT_REQUESTS)
+            .tags("host", "egov-mdms-service", "method", "POST", "status", "5xx").timer());
+    }
+
+    @Test
+    public void test_should_tag_kafka_sends_with_topic_and_result() {
+        final TracerMetrics tracerMetrics = new TracerMetrics(meterRegistry, true, false);
+        tracerMetrics.recordKafkaSend("save-property", "success", 1);
+        tracerMetrics.recordKafkaSend("save-property", "success", 1);
+        tracerMetrics.recordKafkaSend("save-property", "failure", 0);
+
+        assertEquals(2, meterRegistry.find(TracerMetrics.KAFKA_PRODUCER_SEND)
+            .tags("topic", "save-property", "result", "success").timer().count());
+        assertEquals(1, meterRegistry.find(TracerMetrics.KAFKA_PRODUCER_SEND)
+            .tags("topic", "save-property", "result", "failure").timer().count());
+    }
+
+    @Test
+    public void test_should_tag_missing_values_as_unknown() {
+        new TracerMetrics(meterRegistry, true, false).recordKafkaSend(null, "failure", 0);
+
+        assertNotNull(meterRegistry.find(TracerMetrics.KAFKA_PRODUCER_SEND)
+            .tags("topic", "UNKNOWN", "result", "failure").timer());
+    }
+
+    @Test
+    public void test_should_not_record_negative_consumer_lag() {
+        final TracerMetrics tracerMetrics = new TracerMetrics(meterRegistry, true, false);
+        tracerMetrics.recordKafkaConsumerLag("save-property", -5);
+
+        assertNull(meterRegistry.find(TracerMetrics.KAFKA_CONSUMER_LAG).timer());
+
+        tracerMetrics.recordKafkaConsumerLag("save-property", 5);
+
+        assertEquals(1, meterRegistry.find(TracerMetrics.KAFKA_CONSUMER_LAG)
+            .tags("topic", "save-property").timer().count());
+    }
+
+    @Test
+    public void test_should_not_record_when_disabled() {
+        final TracerMetrics tracerMetrics = new TracerMetrics(meterRegistry, false, false);
+        tracerMetrics.recordServerRequest("GET", "/health", 200, 1);
+        tracerMetrics.recordKafkaSend("save-property", "success", 1);
+
+        assertFalse(tracerMetrics.isEnabled());
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+}
@@ -21,6 +21,9 @@ public class ApplicationConfig {
     @Value("${egov.mdms.data.save.topic}")
     private String saveMdmsDataTopicName;
 
+    @Value("${egov.mdms.data.bulk.save.topic}")
+    private String bulkSaveMdmsDataTopicName;
+
     @Value("${egov.mdms.data.update.topic}")
     private String updateMdmsDataTopicName;
 
@@ -30,4 +33,7 @@ public class ApplicationConfig {
     @Value("${mdms.default.limit}")
     private Integer defaultLimit;
 
+    @Value("${mdms.schema.cache.ttl.seconds}")
+    private Long schemaCacheTtlSeconds;
+
 }
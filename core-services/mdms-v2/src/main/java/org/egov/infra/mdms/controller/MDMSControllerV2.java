@@ -36,6 +36,18 @@ public class MDMSControllerV2 {
         return new ResponseEntity<>(ResponseUtil.getMasterDataV2Response(mdmsRequest.getRequestInfo(), masterDataList), HttpStatus.ACCEPTED);
     }
 
+    /**
+     * Request handler for serving bulk create requests
+     * @param mdmsBulkRequest
+     * @param schemaCode
+     * @return
+     */
+    @RequestMapping(value="_create/_bulk/{schemaCode}", method = RequestMethod.POST)
+    public ResponseEntity<MdmsResponseV2> bulkCreate(@Valid @RequestBody MdmsBulkRequest mdmsBulkRequest, @PathVariable("schemaCode") String schemaCode) {
+        List<Mdms> masterDataList = mdmsServiceV2.bulkCreate(mdmsBulkRequest);
+        return new ResponseEntity<>(ResponseUtil.getMasterDataV2Response(mdmsBulkRequest.getRequestInfo(), masterDataList), HttpStatus.ACCEPTED);
+    }
+
     /**
      * Request handler for serving search requests
      * @param masterDataSearchCriteria
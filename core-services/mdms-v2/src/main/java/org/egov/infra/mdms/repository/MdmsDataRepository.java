@@ -11,9 +11,13 @@ import java.util.Map;
 public interface MdmsDataRepository {
     public void create(MdmsRequest mdmsRequest);
 
+    public void bulkCreate(MdmsBulkRequest mdmsBulkRequest);
+
     public void update(MdmsRequest mdmsRequest);
 
     public  List<Mdms> searchV2(MdmsCriteriaV2 mdmsCriteriaV2);
 
+    public List<Mdms> searchV2WithFallback(MdmsCriteriaV2 mdmsCriteriaV2, List<String> tenantIds);
+
     public Map<String, Map<String, JSONArray>> search(MdmsCriteria mdmsCriteria);
 }
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONArray;
 import org.egov.infra.mdms.config.ApplicationConfig;
 import org.egov.infra.mdms.model.Mdms;
+import org.egov.infra.mdms.model.MdmsBulkRequest;
 import org.egov.infra.mdms.model.MdmsCriteria;
 import org.egov.infra.mdms.model.MdmsCriteriaV2;
 import org.egov.infra.mdms.model.MdmsRequest;
@@ -56,6 +57,14 @@ public class MdmsDataRepositoryImpl implements MdmsDataRepository {
         producer.push(applicationConfig.getSaveMdmsDataTopicName(), mdmsRequest);
     }
 
+    /**
+     * @param mdmsBulkRequest
+     */
+    @Override
+    public void bulkCreate(MdmsBulkRequest mdmsBulkRequest) {
+        producer.push(applicationConfig.getBulkSaveMdmsDataTopicName(), mdmsBulkRequest);
+    }
+
     /**
      * @param mdmsRequest
      */
@@ -76,6 +85,19 @@ public class MdmsDataRepositoryImpl implements MdmsDataRepository {
         return jdbcTemplate.query(query, preparedStmtList.toArray(), mdmsDataRowMapperV2);
     }
 
+    /**
+     * @param mdmsCriteriaV2
+     * @param tenantIds
+     * @return
+     */
+    @Override
+    public List<Mdms> searchV2WithFallback(MdmsCriteriaV2 mdmsCriteriaV2, List<String> tenantIds) {
+        List<Object> preparedStmtList = new ArrayList<>();
+        String query = mdmsDataQueryBuilderV2.getMdmsDataFallbackSearchQuery(mdmsCriteriaV2, tenantIds, preparedStmtList);
+        log.info(query);
+        return jdbcTemplate.query(query, preparedStmtList.toArray(), mdmsDataRowMapperV2);
+    }
+
     /**
      * @param mdmsCriteria
      * @return
@@ -19,6 +19,16 @@ public class MdmsDataQueryBuilderV2 {
     private static final String SEARCH_MDMS_DATA_QUERY = "SELECT data.id, data.tenantid, data.uniqueidentifier, data.schemacode, data.data, data.isactive, data.createdby, data.lastmodifiedby, data.createdtime, data.lastmodifiedtime" +
             " FROM eg_mdms_data data ";
 
+    /*
+     * Rows of the matching tenants are ranked by the length of their tenantId, the tenants being the requested tenant
+     * and its parents the deepest tenant has the longest tenantId
+     */
+    private static final String FALLBACK_SEARCH_MDMS_DATA_QUERY = "SELECT data.id, data.tenantid, data.uniqueidentifier, data.schemacode, data.data, data.isactive, data.createdby, data.lastmodifiedby, data.createdtime, data.lastmodifiedtime" +
+            " FROM ( SELECT data.*, length(data.tenantid) AS tenantdepth, MAX(length(data.tenantid)) OVER () AS maxtenantdepth" +
+            " FROM eg_mdms_data data ";
+
+    private static final String FALLBACK_DEEPEST_TENANT_CLAUSE = " ) data WHERE data.tenantdepth = data.maxtenantdepth ";
+
     private static final String MDMS_DATA_QUERY_ORDER_BY_CLAUSE = " order by data.createdtime desc ";
 
     /**
@@ -34,6 +44,27 @@ public class MdmsDataQueryBuilderV2 {
         return query;
     }
 
+    /**
+     * Method to handle request for fetching MDMS data search query which falls back on the parent tenants in a single
+     * query, only the data of the deepest tenant having matching data is returned
+     * @param mdmsCriteriaV2
+     * @param tenantIds requested tenant followed by its parent tenants
+     * @param preparedStmtList
+     * @return
+     */
+    public String getMdmsDataFallbackSearchQuery(MdmsCriteriaV2 mdmsCriteriaV2, List<String> tenantIds, List<Object> preparedStmtList) {
+        StringBuilder builder = new StringBuilder(FALLBACK_SEARCH_MDMS_DATA_QUERY);
+        QueryUtil.addClauseIfRequired(builder, preparedStmtList);
+        builder.append(" data.tenantid IN ( ").append(QueryUtil.createQuery(tenantIds.size())).append(" )");
+        preparedStmtList.addAll(tenantIds);
+        addCriteria(builder, mdmsCriteriaV2, preparedStmtList);
+        builder.append(FALLBACK_DEEPEST_TENANT_CLAUSE);
+
+        String query = QueryUtil.addOrderByClause(builder.toString(), MDMS_DATA_QUERY_ORDER_BY_CLAUSE);
+        query = getPaginatedQuery(query, mdmsCriteriaV2, preparedStmtList);
+        return query;
+    }
+
     /**
      * Method to build query dynamically based on the criteria passed to the method
      * @param mdmsCriteriaV2
@@ -42,12 +73,23 @@ public class MdmsDataQueryBuilderV2 {
      */
     private String buildQuery(MdmsCriteriaV2 mdmsCriteriaV2, List<Object> preparedStmtList) {
         StringBuilder builder = new StringBuilder(SEARCH_MDMS_DATA_QUERY);
-        Map<String, String> schemaCodeFilterMap = mdmsCriteriaV2.getSchemaCodeFilterMap();
         if (!Objects.isNull(mdmsCriteriaV2.getTenantId())) {
             QueryUtil.addClauseIfRequired(builder, preparedStmtList);
             builder.append(" data.tenantid = ? ");
             preparedStmtList.add(mdmsCriteriaV2.getTenantId());
         }
+        addCriteria(builder, mdmsCriteriaV2, preparedStmtList);
+        return builder.toString();
+    }
+
+    /**
+     * Method to add the clauses of the criteria other than the tenantId
+     * @param builder
+     * @param mdmsCriteriaV2
+     * @param preparedStmtList
+     */
+    private void addCriteria(StringBuilder builder, MdmsCriteriaV2 mdmsCriteriaV2, List<Object> preparedStmtList) {
+        Map<String, String> schemaCodeFilterMap = mdmsCriteriaV2.getSchemaCodeFilterMap();
         if (!Objects.isNull(mdmsCriteriaV2.getIds())) {
             QueryUtil.addClauseIfRequired(builder, preparedStmtList);
             builder.append(" data.id IN ( ").append(QueryUtil.createQuery(mdmsCriteriaV2.getIds().size())).append(" )");
@@ -84,7 +126,6 @@ public class MdmsDataQueryBuilderV2 {
             builder.append(" data.isactive = ? ");
             preparedStmtList.add(mdmsCriteriaV2.getIsActive());
         }
-        return builder.toString();
     }
 
     private String getPaginatedQuery(String query, MdmsCriteriaV2 mdmsCriteriaV2, List<Object> preparedStmtList) {
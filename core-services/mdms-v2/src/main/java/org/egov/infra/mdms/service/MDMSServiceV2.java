@@ -11,11 +11,10 @@ import org.egov.infra.mdms.utils.SchemaUtil;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -63,6 +62,30 @@ public class MDMSServiceV2 {
         return Arrays.asList(mdmsRequest.getMdms());
     }
 
+    /**
+     * This method processes the requests that come for creation of master data in bulk. The records are
+     * validated together and emitted as a single event, none of them is created if any of them is invalid.
+     * @param mdmsBulkRequest
+     * @return
+     */
+    public List<Mdms> bulkCreate(MdmsBulkRequest mdmsBulkRequest) {
+
+        List<MdmsRequest> mdmsRequests = mdmsBulkRequest.getMdms().stream()
+                .map(mdms -> MdmsRequest.builder().requestInfo(mdmsBulkRequest.getRequestInfo()).mdms(mdms).build())
+                .collect(Collectors.toList());
+
+        // Perform validations on all the incoming records
+        mdmsDataValidator.validateBulkCreateRequest(mdmsRequests);
+
+        // Enrich incoming master data, schemas are served from the cache once fetched for validation
+        mdmsRequests.forEach(mdmsRequest -> mdmsDataEnricher.enrichCreateRequest(mdmsRequest, schemaUtil.getSchema(mdmsRequest)));
+
+        // Emit MDMS bulk create event to be listened by persister
+        mdmsDataRepository.bulkCreate(mdmsBulkRequest);
+
+        return mdmsBulkRequest.getMdms();
+    }
+
     /**
      * This method processes the requests that come for master data search.
      * @param mdmsCriteriaReqV2
@@ -76,19 +99,13 @@ public class MDMSServiceV2 {
          */
         String tenantId = mdmsCriteriaReqV2.getMdmsCriteria().getTenantId();
 
-        List<Mdms> masterDataList = new ArrayList<>();
         List<String> subTenantListForFallback = FallbackUtil.getSubTenantListForFallBack(tenantId);
 
-        // Make a call to repository and get list of master data
-        for(String subTenantId : subTenantListForFallback) {
-            mdmsCriteriaReqV2.getMdmsCriteria().setTenantId(subTenantId);
-            masterDataList = mdmsDataRepository.searchV2(mdmsCriteriaReqV2.getMdmsCriteria());
-
-            if(!CollectionUtils.isEmpty(masterDataList))
-                break;
-        }
+        if (subTenantListForFallback.size() == 1)
+            return mdmsDataRepository.searchV2(mdmsCriteriaReqV2.getMdmsCriteria());
 
-        return masterDataList;
+        // Make a single call to repository which returns the master data of the deepest tenant having it
+        return mdmsDataRepository.searchV2WithFallback(mdmsCriteriaReqV2.getMdmsCriteria(), subTenantListForFallback);
     }
 
     /**
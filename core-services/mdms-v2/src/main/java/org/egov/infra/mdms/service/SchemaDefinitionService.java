@@ -8,6 +8,7 @@ import org.egov.infra.mdms.model.*;
 import org.egov.infra.mdms.repository.SchemaDefinitionRepository;
 import org.egov.infra.mdms.service.enrichment.SchemaDefinitionEnricher;
 import org.egov.infra.mdms.service.validator.SchemaDefinitionValidator;
+import org.egov.infra.mdms.utils.SchemaUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -24,15 +25,18 @@ public class SchemaDefinitionService {
     private SchemaDefinitionEnricher schemaDefinitionEnricher;
     private SchemaDefinitionValidator schemaDefinitionValidator;
     private MultiStateInstanceUtil multiStateInstanceUtil;
+    private SchemaUtil schemaUtil;
 
     @Autowired
     public SchemaDefinitionService(SchemaDefinitionRepository schemaDefinitionRepository, ApplicationConfig applicationConfig,
-                                   SchemaDefinitionEnricher schemaDefinitionEnricher, SchemaDefinitionValidator schemaDefinitionValidator, MultiStateInstanceUtil multiStateInstanceUtil){
+                                   SchemaDefinitionEnricher schemaDefinitionEnricher, SchemaDefinitionValidator schemaDefinitionValidator, MultiStateInstanceUtil multiStateInstanceUtil,
+                                   SchemaUtil schemaUtil){
         this.schemaDefinitionRepository = schemaDefinitionRepository;
         this.applicationConfig = applicationConfig;
         this.schemaDefinitionEnricher = schemaDefinitionEnricher;
         this.schemaDefinitionValidator = schemaDefinitionValidator;
         this.multiStateInstanceUtil = multiStateInstanceUtil;
+        this.schemaUtil = schemaUtil;
     }
 
     /**
@@ -55,6 +59,9 @@ public class SchemaDefinitionService {
         // Invoke repository method to emit schema creation event
         schemaDefinitionRepository.create(schemaDefinitionRequest);
 
+        // Evict the cached schema so that master data is validated against the schema being created
+        schemaUtil.evict(schemaDefinitionRequest.getSchemaDefinition().getTenantId(), schemaDefinitionRequest.getSchemaDefinition().getCode());
+
         return Arrays.asList(schemaDefinitionRequest.getSchemaDefinition());
     }
 
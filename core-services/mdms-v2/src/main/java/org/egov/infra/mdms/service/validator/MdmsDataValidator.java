@@ -11,10 +11,10 @@ import org.egov.infra.mdms.service.SchemaDefinitionService;
 import org.egov.infra.mdms.utils.CompositeUniqueIdentifierGenerationUtil;
 import org.egov.infra.mdms.utils.ErrorUtil;
 import org.egov.infra.mdms.utils.FallbackUtil;
+import org.egov.infra.mdms.utils.SchemaUtil;
 import org.egov.tracer.model.CustomException;
 import org.everit.json.schema.Schema;
 import org.everit.json.schema.ValidationException;
-import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -34,10 +34,14 @@ public class MdmsDataValidator {
 
     private final MdmsDataRepository mdmsDataRepository;
 
+    private final SchemaUtil schemaUtil;
+
     @Autowired
-    public MdmsDataValidator(SchemaDefinitionService schemaDefinitionService, MdmsDataRepository mdmsDataRepository) {
+    public MdmsDataValidator(SchemaDefinitionService schemaDefinitionService, MdmsDataRepository mdmsDataRepository,
+                             SchemaUtil schemaUtil) {
         this.schemaDefinitionService = schemaDefinitionService;
         this.mdmsDataRepository = mdmsDataRepository;
+        this.schemaUtil = schemaUtil;
     }
 
     /**
@@ -58,6 +62,73 @@ public class MdmsDataValidator {
         ErrorUtil.throwCustomExceptions(errors);
     }
 
+    /**
+     * This method performs business validations on bulk create master data request. Schema violations
+     * are reported against the position of the record in the request and the duplicates are checked with
+     * a single search per tenant and schema.
+     * @param mdmsRequests
+     */
+    public void validateBulkCreateRequest(List<MdmsRequest> mdmsRequests) {
+        // Initialize error map
+        Map<String, String> errors = new HashMap<>();
+        Map<String, Set<String>> uniqueIdentifiersByTenantAndSchema = new LinkedHashMap<>();
+
+        for (int i = 0; i < mdmsRequests.size(); i++) {
+            MdmsRequest mdmsRequest = mdmsRequests.get(i);
+            JSONObject schemaObject = schemaUtil.getSchema(mdmsRequest);
+
+            // Validations are performed here on the incoming data
+            Map<String, String> recordErrors = new HashMap<>();
+            validateDataWithSchemaDefinition(mdmsRequest, schemaObject, recordErrors);
+            String recordPrefix = "MDMS_" + i + "_";
+            recordErrors.forEach((code, message) -> errors.put(recordPrefix.concat(code), message));
+
+            // Records of the same schema and tenant having the same unique identifier are duplicates of each other
+            String uniqueIdentifier = CompositeUniqueIdentifierGenerationUtil.getUniqueIdentifier(schemaObject, mdmsRequest);
+            String tenantAndSchema = mdmsRequest.getMdms().getTenantId() + DOT_SEPARATOR + mdmsRequest.getMdms().getSchemaCode();
+            if (!uniqueIdentifiersByTenantAndSchema.computeIfAbsent(tenantAndSchema, key -> new LinkedHashSet<>()).add(uniqueIdentifier)) {
+                throw new CustomException("DUPLICATE_RECORD", "Duplicate record");
+            }
+
+            validateReference(schemaObject, mdmsRequest.getMdms());
+        }
+
+        checkDuplicates(mdmsRequests, uniqueIdentifiersByTenantAndSchema);
+
+        // Throw validation errors
+        ErrorUtil.throwCustomExceptions(errors);
+    }
+
+    /**
+     * This method checks whether any of the master data being created in bulk already exists
+     * in the database.
+     * @param mdmsRequests
+     * @param uniqueIdentifiersByTenantAndSchema
+     */
+    private void checkDuplicates(List<MdmsRequest> mdmsRequests, Map<String, Set<String>> uniqueIdentifiersByTenantAndSchema) {
+        Set<String> searchedTenantsAndSchemas = new HashSet<>();
+
+        for (MdmsRequest mdmsRequest : mdmsRequests) {
+            Mdms mdms = mdmsRequest.getMdms();
+            String tenantAndSchema = mdms.getTenantId() + DOT_SEPARATOR + mdms.getSchemaCode();
+            if (!searchedTenantsAndSchemas.add(tenantAndSchema))
+                continue;
+
+            // Fetch master data
+            List<Mdms> masterData = fetchMasterData(MdmsCriteriaV2.builder()
+                    .tenantId(mdms.getTenantId())
+                    .uniqueIdentifiers(uniqueIdentifiersByTenantAndSchema.get(tenantAndSchema))
+                    .schemaCode(mdms.getSchemaCode())
+                    .isActive(Boolean.TRUE)
+                    .build());
+
+            // Throw error if any of the provided master data already exists
+            if (masterData != null && masterData.size() != 0) {
+                throw new CustomException("DUPLICATE_RECORD", "Duplicate record");
+            }
+        }
+    }
+
     /**
      * This method validates the incoming master data against the schema for which the master
      * data is being created and populates violations(if any) in errors map.
@@ -66,13 +137,13 @@ public class MdmsDataValidator {
      * @param errors
      */
     private void validateDataWithSchemaDefinition(MdmsRequest mdmsRequest, JSONObject schemaObject,Map<String, String> errors) {
+        // Fetch the compiled schema, it is compiled once and cached along with the schema object
+        Schema schema = schemaUtil.getCompiledSchema(mdmsRequest);
+
         try {
             // Load incoming master data as a json object
             JSONObject dataObject = new JSONObject(mdmsRequest.getMdms().getData().toString());
 
-            // Load schema
-            Schema schema = SchemaLoader.load(schemaObject);
-
             // Validate data against the schema
             schema.validate(dataObject);
         } catch (ValidationException e) {
@@ -1,9 +1,14 @@
 package org.egov.infra.mdms.utils;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.egov.common.utils.MultiStateInstanceUtil;
+import org.egov.infra.mdms.config.ApplicationConfig;
 import org.egov.infra.mdms.model.*;
-import org.egov.infra.mdms.service.SchemaDefinitionService;
+import org.egov.infra.mdms.repository.SchemaDefinitionRepository;
 import org.egov.tracer.model.CustomException;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.loader.SchemaLoader;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -11,16 +16,29 @@ import org.springframework.util.CollectionUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.egov.infra.mdms.utils.MDMSConstants.DOT_SEPARATOR;
 
 @Component
 @Slf4j
 public class SchemaUtil {
 
-    private SchemaDefinitionService schemaDefinitionService;
+    private SchemaDefinitionRepository schemaDefinitionRepository;
+
+    private MultiStateInstanceUtil multiStateInstanceUtil;
+
+    private ApplicationConfig applicationConfig;
+
+    private final Map<String, CachedSchema> schemaCache = new ConcurrentHashMap<>();
 
     @Autowired
-    public SchemaUtil(SchemaDefinitionService schemaDefinitionService){
-        this.schemaDefinitionService = schemaDefinitionService;
+    public SchemaUtil(SchemaDefinitionRepository schemaDefinitionRepository, MultiStateInstanceUtil multiStateInstanceUtil,
+                      ApplicationConfig applicationConfig){
+        this.schemaDefinitionRepository = schemaDefinitionRepository;
+        this.multiStateInstanceUtil = multiStateInstanceUtil;
+        this.applicationConfig = applicationConfig;
     }
 
     /**
@@ -29,24 +47,88 @@ public class SchemaUtil {
      * @return
      */
     public JSONObject getSchema(MdmsRequest mdmsRequest) {
+        return getCachedSchema(mdmsRequest.getMdms()).getSchemaObject();
+    }
+
+    /**
+     * This method fetches the compiled schema against which the master data is validated.
+     * @param mdmsRequest
+     * @return
+     */
+    public Schema getCompiledSchema(MdmsRequest mdmsRequest) {
+        return getCachedSchema(mdmsRequest.getMdms()).getCompiledSchema();
+    }
+
+    /**
+     * This method removes the cached schema so that it is fetched again on its next use, schemas are otherwise
+     * fetched again once the configured time to live has passed.
+     * @param tenantId
+     * @param schemaCode
+     */
+    public void evict(String tenantId, String schemaCode) {
+        schemaCache.remove(getKey(tenantId, schemaCode));
+    }
+
+    /**
+     * This method returns the schema from the cache, the schema is fetched and compiled if it is absent or expired.
+     * Schemas are created at state level hence they are cached against the state level tenant.
+     * @param mdms
+     * @return
+     */
+    private CachedSchema getCachedSchema(Mdms mdms) {
+        String key = getKey(mdms.getTenantId(), mdms.getSchemaCode());
+        CachedSchema cachedSchema = schemaCache.get(key);
+
+        if (cachedSchema == null || cachedSchema.isExpired(applicationConfig.getSchemaCacheTtlSeconds() * 1000)) {
+            cachedSchema = loadSchema(mdms);
+            schemaCache.put(key, cachedSchema);
+        }
 
-        Mdms mdms = mdmsRequest.getMdms();
+        return cachedSchema;
+    }
 
+    private CachedSchema loadSchema(Mdms mdms) {
         SchemaDefCriteria schemaDefCriteria = SchemaDefCriteria.builder()
-                .tenantId(mdms.getTenantId())
+                .tenantId(multiStateInstanceUtil.getStateLevelTenant(mdms.getTenantId()))
                 .codes(Arrays.asList(mdms.getSchemaCode()))
                 .build();
 
-        List<SchemaDefinition> schemaDefinitions = schemaDefinitionService.search(SchemaDefSearchRequest.builder()
-                .requestInfo(mdmsRequest.getRequestInfo())
-                .schemaDefCriteria(schemaDefCriteria).build());
+        List<SchemaDefinition> schemaDefinitions = schemaDefinitionRepository.search(schemaDefCriteria);
 
         if(CollectionUtils.isEmpty(schemaDefinitions))
             throw new CustomException("SCHEMA_DEFINITION_NOT_FOUND_ERR", "Schema definition against which data is being created is not found");
 
         JSONObject schemaObject = new JSONObject(schemaDefinitions.get(0).getDefinition().toString());
 
-        return schemaObject;
+        return new CachedSchema(schemaObject, SchemaLoader.load(schemaObject), System.currentTimeMillis());
+    }
+
+    private String getKey(String tenantId, String schemaCode) {
+        return multiStateInstanceUtil.getStateLevelTenant(tenantId) + DOT_SEPARATOR + schemaCode;
+    }
+
+    /**
+     * Schema definition along with its compiled form, neither is modified once loaded so that both can be shared
+     * by the requests
+     */
+    @Getter
+    private static class CachedSchema {
+
+        private final JSONObject schemaObject;
+
+        private final Schema compiledSchema;
+
+        private final long loadedAt;
+
+        CachedSchema(JSONObject schemaObject, Schema compiledSchema, long loadedAt) {
+            this.schemaObject = schemaObject;
+            this.compiledSchema = compiledSchema;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
     }
 
 }
@@ -0,0 +1,74 @@
+package org.egov.infra.mdms.repository.querybuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.egov.infra.mdms.config.ApplicationConfig;
+import org.egov.infra.mdms.model.MdmsCriteriaV2;
+import org.egov.infra.mdms.utils.FallbackUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MdmsDataQueryBuilderV2Test {
+
+    private MdmsDataQueryBuilderV2 queryBuilder;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationConfig config = new ApplicationConfig();
+        config.setDefaultOffset(0);
+        config.setDefaultLimit(10);
+        queryBuilder = new MdmsDataQueryBuilderV2();
+        ReflectionTestUtils.setField(queryBuilder, "config", config);
+    }
+
+    @Test
+    void testFallbackTenantsAreRankedFromTheCityToTheState() {
+        // The query keeps the rows of the longest tenantId, which has to be the deepest tenant of the fallback
+        List<String> tenantIds = FallbackUtil.getSubTenantListForFallBack("pb.amritsar.zone1");
+
+        assertEquals(Arrays.asList("pb.amritsar.zone1", "pb.amritsar", "pb"), tenantIds);
+        for (int i = 1; i < tenantIds.size(); i++)
+            assertTrue(tenantIds.get(i - 1).length() > tenantIds.get(i).length());
+    }
+
+    @Test
+    void testFallbackQueryKeepsOnlyTheDeepestTenantBeforePaginating() {
+        MdmsCriteriaV2 criteria = MdmsCriteriaV2.builder().tenantId("pb.amritsar").schemaCode("common-masters.Department")
+                .isActive(true).offset(20).limit(5).build();
+        List<Object> preparedStmtList = new ArrayList<>();
+
+        String query = queryBuilder.getMdmsDataFallbackSearchQuery(criteria, Arrays.asList("pb.amritsar", "pb"), preparedStmtList);
+
+        assertEquals(Arrays.asList("pb.amritsar", "pb", "common-masters.Department", true, 20, 5), preparedStmtList);
+        assertTrue(query.contains("MAX(length(data.tenantid)) OVER ()"));
+        assertTrue(query.contains(" data.tenantid IN (  ?, ? )"));
+
+        // Criteria are applied before ranking so that a tenant without matching rows falls back to its parent
+        int criteriaIndex = query.indexOf("data.isactive = ?");
+        int deepestTenantIndex = query.indexOf("WHERE data.tenantdepth = data.maxtenantdepth");
+        int orderByIndex = query.indexOf("order by data.createdtime desc");
+        int offsetIndex = query.indexOf("OFFSET ?");
+        assertTrue(criteriaIndex > 0 && criteriaIndex < deepestTenantIndex);
+        assertTrue(deepestTenantIndex < orderByIndex);
+        assertTrue(orderByIndex < offsetIndex);
+    }
+
+    @Test
+    void testSearchQueryWithoutFallback() {
+        MdmsCriteriaV2 criteria = MdmsCriteriaV2.builder().tenantId("pb").schemaCode("common-masters.Department").build();
+        List<Object> preparedStmtList = new ArrayList<>();
+
+        String query = queryBuilder.getMdmsDataSearchQuery(criteria, preparedStmtList);
+
+        assertEquals(Arrays.asList("pb", "common-masters.Department", 0, 10), preparedStmtList);
+        assertTrue(query.contains(" data.tenantid = ? "));
+        assertFalse(query.contains("maxtenantdepth"));
+    }
+}
@@ -0,0 +1,90 @@
+package org.egov.infra.mdms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.egov.common.utils.MultiStateInstanceUtil;
+import org.egov.infra.mdms.model.Mdms;
+import org.egov.infra.mdms.model.MdmsCriteriaReqV2;
+import org.egov.infra.mdms.model.MdmsCriteriaV2;
+import org.egov.infra.mdms.repository.MdmsDataRepository;
+import org.egov.infra.mdms.service.enrichment.MdmsDataEnricher;
+import org.egov.infra.mdms.service.validator.MdmsDataValidator;
+import org.egov.infra.mdms.utils.SchemaUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MDMSServiceV2Test {
+
+    @Mock
+    private MdmsDataValidator mdmsDataValidator;
+
+    @Mock
+    private MdmsDataEnricher mdmsDataEnricher;
+
+    @Mock
+    private MdmsDataRepository mdmsDataRepository;
+
+    @Mock
+    private SchemaUtil schemaUtil;
+
+    @Mock
+    private MultiStateInstanceUtil multiStateInstanceUtil;
+
+    private MDMSServiceV2 mdmsServiceV2;
+
+    @BeforeEach
+    void setUp() {
+        mdmsServiceV2 = new MDMSServiceV2(mdmsDataValidator, mdmsDataEnricher, mdmsDataRepository, schemaUtil,
+                multiStateInstanceUtil);
+    }
+
+    @Test
+    void testCitySearchFallsBackFromTheCityToTheState() {
+        MdmsCriteriaV2 criteria = MdmsCriteriaV2.builder().tenantId("pb.amritsar").schemaCode("common-masters.Department").build();
+        List<Mdms> masterData = Collections.singletonList(Mdms.builder().tenantId("pb").build());
+        when(mdmsDataRepository.searchV2WithFallback(criteria, Arrays.asList("pb.amritsar", "pb"))).thenReturn(masterData);
+
+        assertSame(masterData, mdmsServiceV2.search(MdmsCriteriaReqV2.builder().mdmsCriteria(criteria).build()));
+
+        verify(mdmsDataRepository, never()).searchV2(any(MdmsCriteriaV2.class));
+        // The requested tenant is not overwritten by the parent tenants as the old loop did
+        assertEquals("pb.amritsar", criteria.getTenantId());
+    }
+
+    @Test
+    void testNestedTenantFallsBackThroughEachParent() {
+        MdmsCriteriaV2 criteria = MdmsCriteriaV2.builder().tenantId("pb.amritsar.zone1").build();
+
+        mdmsServiceV2.search(MdmsCriteriaReqV2.builder().mdmsCriteria(criteria).build());
+
+        verify(mdmsDataRepository).searchV2WithFallback(criteria, Arrays.asList("pb.amritsar.zone1", "pb.amritsar", "pb"));
+    }
+
+    @Test
+    void testStateSearchDoesNotFallBack() {
+        MdmsCriteriaV2 criteria = MdmsCriteriaV2.builder().tenantId("pb").build();
+        List<Mdms> masterData = Collections.singletonList(Mdms.builder().tenantId("pb").build());
+        when(mdmsDataRepository.searchV2(criteria)).thenReturn(masterData);
+
+        assertSame(masterData, mdmsServiceV2.search(MdmsCriteriaReqV2.builder().mdmsCriteria(criteria).build()));
+
+        verify(mdmsDataRepository, never()).searchV2WithFallback(any(MdmsCriteriaV2.class), anyList());
+    }
+}
@@ -0,0 +1,89 @@
+package org.egov.infra.mdms.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.egov.common.utils.MultiStateInstanceUtil;
+import org.egov.infra.mdms.config.ApplicationConfig;
+import org.egov.infra.mdms.model.SchemaDefinition;
+import org.egov.infra.mdms.model.SchemaDefinitionRequest;
+import org.egov.infra.mdms.repository.SchemaDefinitionRepository;
+import org.egov.infra.mdms.service.enrichment.SchemaDefinitionEnricher;
+import org.egov.infra.mdms.service.validator.SchemaDefinitionValidator;
+import org.egov.infra.mdms.utils.SchemaUtil;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SchemaDefinitionServiceTest {
+
+    @Mock
+    private SchemaDefinitionRepository schemaDefinitionRepository;
+
+    @Mock
+    private ApplicationConfig applicationConfig;
+
+    @Mock
+    private SchemaDefinitionEnricher schemaDefinitionEnricher;
+
+    @Mock
+    private SchemaDefinitionValidator schemaDefinitionValidator;
+
+    @Mock
+    private MultiStateInstanceUtil multiStateInstanceUtil;
+
+    @Mock
+    private SchemaUtil schemaUtil;
+
+    private SchemaDefinitionService schemaDefinitionService;
+
+    @BeforeEach
+    void setUp() {
+        when(multiStateInstanceUtil.getStateLevelTenant("pb.amritsar")).thenReturn("pb");
+        schemaDefinitionService = new SchemaDefinitionService(schemaDefinitionRepository, applicationConfig,
+                schemaDefinitionEnricher, schemaDefinitionValidator, multiStateInstanceUtil, schemaUtil);
+    }
+
+    @Test
+    void testCreateEvictsTheCachedSchemaOfTheState() {
+        SchemaDefinitionRequest request = schemaDefinitionRequest("pb.amritsar", "common-masters.Department");
+
+        schemaDefinitionService.create(request);
+
+        // The schema is evicted once the creation event has been emitted
+        InOrder inOrder = inOrder(schemaDefinitionRepository, schemaUtil);
+        inOrder.verify(schemaDefinitionRepository).create(request);
+        inOrder.verify(schemaUtil).evict("pb", "common-masters.Department");
+    }
+
+    @Test
+    void testInvalidCreateDoesNotEvict() {
+        SchemaDefinitionRequest request = schemaDefinitionRequest("pb.amritsar", "common-masters.Department");
+        doThrow(new CustomException("DUPLICATE_RECORD", "Duplicate record")).when(schemaDefinitionValidator)
+                .validateCreateRequest(request);
+
+        assertThrows(CustomException.class, () -> schemaDefinitionService.create(request));
+
+        verify(schemaDefinitionRepository, never()).create(any(SchemaDefinitionRequest.class));
+        verify(schemaUtil, never()).evict(anyString(), anyString());
+    }
+
+    private SchemaDefinitionRequest schemaDefinitionRequest(String tenantId, String code) {
+        return SchemaDefinitionRequest.builder()
+                .schemaDefinition(SchemaDefinition.builder().tenantId(tenantId).code(code).build()).build();
+    }
+}
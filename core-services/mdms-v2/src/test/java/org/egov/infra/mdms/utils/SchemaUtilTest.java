@@ -0,0 +1,121 @@
+package org.egov.infra.mdms.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.egov.common.utils.MultiStateInstanceUtil;
+import org.egov.infra.mdms.config.ApplicationConfig;
+import org.egov.infra.mdms.model.Mdms;
+import org.egov.infra.mdms.model.MdmsRequest;
+import org.egov.infra.mdms.model.SchemaDefCriteria;
+import org.egov.infra.mdms.model.SchemaDefinition;
+import org.egov.infra.mdms.repository.SchemaDefinitionRepository;
+import org.egov.tracer.model.CustomException;
+import org.everit.json.schema.Schema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SchemaUtilTest {
+
+    private static final String DEFINITION = "{\"type\":\"object\",\"properties\":{\"code\":{\"type\":\"string\"}},\"required\":[\"code\"]}";
+
+    @Mock
+    private SchemaDefinitionRepository schemaDefinitionRepository;
+
+    @Mock
+    private MultiStateInstanceUtil multiStateInstanceUtil;
+
+    @Mock
+    private ApplicationConfig applicationConfig;
+
+    private SchemaUtil schemaUtil;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(multiStateInstanceUtil.getStateLevelTenant("pb.amritsar")).thenReturn("pb");
+        when(multiStateInstanceUtil.getStateLevelTenant("pb.jalandhar")).thenReturn("pb");
+        when(multiStateInstanceUtil.getStateLevelTenant("pb")).thenReturn("pb");
+        when(applicationConfig.getSchemaCacheTtlSeconds()).thenReturn(300L);
+        when(schemaDefinitionRepository.search(any(SchemaDefCriteria.class))).thenReturn(Collections.singletonList(
+                SchemaDefinition.builder().tenantId("pb").code("common-masters.Department")
+                        .definition(new ObjectMapper().readTree(DEFINITION)).build()));
+        schemaUtil = new SchemaUtil(schemaDefinitionRepository, multiStateInstanceUtil, applicationConfig);
+    }
+
+    @Test
+    void testCompiledSchemaIsReusedAcrossTheTenantsOfTheState() {
+        Schema schema = schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department"));
+
+        assertSame(schema, schemaUtil.getCompiledSchema(mdmsRequest("pb.jalandhar", "common-masters.Department")));
+        assertSame(schema, schemaUtil.getCompiledSchema(mdmsRequest("pb", "common-masters.Department")));
+        assertSame(schemaUtil.getSchema(mdmsRequest("pb.amritsar", "common-masters.Department")),
+                schemaUtil.getSchema(mdmsRequest("pb", "common-masters.Department")));
+
+        ArgumentCaptor<SchemaDefCriteria> criteria = ArgumentCaptor.forClass(SchemaDefCriteria.class);
+        verify(schemaDefinitionRepository, times(1)).search(criteria.capture());
+        assertEquals("pb", criteria.getValue().getTenantId());
+        assertEquals(Collections.singletonList("common-masters.Department"), criteria.getValue().getCodes());
+    }
+
+    @Test
+    void testSchemasAreCachedPerSchemaCode() {
+        Schema schema = schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department"));
+
+        assertNotSame(schema, schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Designation")));
+        verify(schemaDefinitionRepository, times(2)).search(any(SchemaDefCriteria.class));
+    }
+
+    @Test
+    void testEvictedSchemaIsFetchedAgain() {
+        Schema schema = schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department"));
+        Schema otherSchema = schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Designation"));
+
+        // Schemas are created with the state level tenant, which evicts the schema for all its cities
+        schemaUtil.evict("pb", "common-masters.Department");
+
+        assertNotSame(schema, schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department")));
+        assertSame(otherSchema, schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Designation")));
+        verify(schemaDefinitionRepository, times(3)).search(any(SchemaDefCriteria.class));
+    }
+
+    @Test
+    void testExpiredSchemaIsFetchedAgain() throws InterruptedException {
+        when(applicationConfig.getSchemaCacheTtlSeconds()).thenReturn(0L);
+        Schema schema = schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department"));
+        Thread.sleep(5);
+
+        assertNotSame(schema, schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department")));
+        verify(schemaDefinitionRepository, times(2)).search(any(SchemaDefCriteria.class));
+    }
+
+    @Test
+    void testMissingSchemaIsNotCached() {
+        when(schemaDefinitionRepository.search(any(SchemaDefCriteria.class))).thenReturn(Collections.emptyList());
+
+        assertThrows(CustomException.class, () -> schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department")));
+        assertThrows(CustomException.class, () -> schemaUtil.getCompiledSchema(mdmsRequest("pb.amritsar", "common-masters.Department")));
+        verify(schemaDefinitionRepository, times(2)).search(any(SchemaDefCriteria.class));
+    }
+
+    private MdmsRequest mdmsRequest(String tenantId, String schemaCode) {
+        return MdmsRequest.builder().mdms(Mdms.builder().tenantId(tenantId).schemaCode(schemaCode).build()).build();
+    }
+}
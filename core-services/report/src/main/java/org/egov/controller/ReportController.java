@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.egov.ReportApp;
 import org.egov.domain.model.MetaDataRequest;
 import org.egov.domain.model.ReportDefinitions;
+import org.egov.report.export.ExportFormat;
 import org.egov.report.service.ReportService;
 import org.egov.swagger.model.MetadataResponse;
 import org.egov.swagger.model.ReportRequest;
@@ -12,11 +13,13 @@ import org.egov.swagger.model.ReportResponse;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -77,6 +80,29 @@ public class ReportController {
     }
 
 
+    @PostMapping("/{moduleName}/_export")
+    public void exportReportData(@PathVariable("moduleName") String moduleName,
+                                 @RequestParam(value = "format", defaultValue = "csv") String format,
+                                 @RequestBody @Valid final ReportRequest reportRequest, final BindingResult errors,
+                                 HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        String fileName = String.valueOf(reportRequest.getReportName()).replaceAll("[^A-Za-z0-9._-]", "_");
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + fileName + "." + exportFormat.getExtension() + "\"");
+        try {
+            reportService.exportReportData(reportRequest, moduleName, reportRequest.getRequestInfo().getAuthToken(),
+                    exportFormat, response.getOutputStream());
+        } catch (CustomException e) {
+            log.error("Error in exporting report data", e);
+            throw e;
+        } catch (Exception e) {
+            log.error("Error in exporting report data", e);
+            throw new CustomException("ERROR_IN_EXPORTING_REPORT_DATA", e.getMessage());
+        }
+    }
+
+
     @PostMapping("/{moduleName}/total/_get")
     @ResponseBody
     public ResponseEntity<?> getReportDataTotal(@PathVariable("moduleName") String moduleName, @RequestBody @Valid final ReportRequest reportRequest,
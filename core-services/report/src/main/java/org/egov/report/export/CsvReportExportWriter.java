@@ -0,0 +1,67 @@
+package org.egov.report.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.egov.swagger.model.SourceColumn;
+
+public class CsvReportExportWriter implements ReportExportWriter {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer writer;
+
+    private final List<SourceColumn> columns;
+
+    public CsvReportExportWriter(OutputStream outputStream, List<SourceColumn> columns) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.columns = columns;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            SourceColumn column = columns.get(i);
+            writeValue(column.getLabel() != null ? column.getLabel() : column.getName());
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void writeRow(List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                writer.write(',');
+            writeValue(values.get(i));
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /*
+     * Values with separators, quotes or line breaks are quoted, with the quotes doubled
+     */
+    private void writeValue(Object value) throws IOException {
+        if (value == null)
+            return;
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
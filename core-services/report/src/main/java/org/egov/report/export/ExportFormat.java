@@ -0,0 +1,53 @@
+package org.egov.report.export;
+
+import java.io.OutputStream;
+import java.util.List;
+
+import org.egov.swagger.model.SourceColumn;
+import org.egov.tracer.model.CustomException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public enum ExportFormat {
+
+    CSV("text/csv;charset=UTF-8", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ReportExportWriter createWriter(OutputStream outputStream, List<SourceColumn> columns, ObjectMapper objectMapper,
+                                           int xlsxWindowSize) {
+        switch (this) {
+            case XLSX:
+                return new XlsxReportExportWriter(outputStream, columns, xlsxWindowSize);
+            case NDJSON:
+                return new NdjsonReportExportWriter(outputStream, columns, objectMapper);
+            default:
+                return new CsvReportExportWriter(outputStream, columns);
+        }
+    }
+
+    public static ExportFormat fromValue(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.extension.equalsIgnoreCase(format))
+                return exportFormat;
+        }
+        throw new CustomException("INVALID_EXPORT_FORMAT", "Export format should be one of csv, xlsx or ndjson");
+    }
+}
@@ -0,0 +1,52 @@
+package org.egov.report.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.egov.swagger.model.SourceColumn;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * One json object per row, keyed on the names of the source columns
+ */
+public class NdjsonReportExportWriter implements ReportExportWriter {
+
+    private static final byte[] LINE_SEPARATOR = { '\n' };
+
+    private final OutputStream outputStream;
+
+    private final List<SourceColumn> columns;
+
+    private final ObjectWriter objectWriter;
+
+    public NdjsonReportExportWriter(OutputStream outputStream, List<SourceColumn> columns, ObjectMapper objectMapper) {
+        this.outputStream = outputStream;
+        this.columns = columns;
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void writeHeader() {
+        // The column names are the keys of every row
+    }
+
+    @Override
+    public void writeRow(List<Object> values) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++)
+            row.put(columns.get(i).getName(), values.get(i));
+        objectWriter.writeValue(outputStream, row);
+        outputStream.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        outputStream.flush();
+    }
+}
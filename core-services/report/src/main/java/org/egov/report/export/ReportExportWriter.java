@@ -0,0 +1,29 @@
+package org.egov.report.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the rows of a report to the response as they are read from the database.
+ * Implementations keep no more than a bounded window of rows in memory.
+ */
+public interface ReportExportWriter extends Closeable {
+
+    void writeHeader() throws IOException;
+
+    /**
+     * @param values values of the source columns of the report, in the order of the columns
+     */
+    void writeRow(List<Object> values) throws IOException;
+
+    /**
+     * Completes the export and flushes it to the response, to be called once after the last row
+     */
+    void finish() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        // Nothing is held apart from the response
+    }
+}
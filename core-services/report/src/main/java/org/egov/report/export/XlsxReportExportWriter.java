@@ -0,0 +1,93 @@
+package org.egov.report.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.egov.swagger.model.SourceColumn;
+
+/**
+ * Streaming workbook, only the last rows of the window are kept in memory and the rest are flushed to
+ * compressed temporary files. Rows beyond the limit of a sheet are continued on a new sheet.
+ *
+ * The workbook can only be written out once complete, so the response is sent on finish.
+ */
+public class XlsxReportExportWriter implements ReportExportWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private final OutputStream outputStream;
+
+    private final List<SourceColumn> columns;
+
+    private final SXSSFWorkbook workbook;
+
+    private final int maxRowsPerSheet;
+
+    private SXSSFSheet sheet;
+
+    private int rowIndex;
+
+    public XlsxReportExportWriter(OutputStream outputStream, List<SourceColumn> columns, int windowSize) {
+        this(outputStream, columns, windowSize, MAX_ROWS_PER_SHEET);
+    }
+
+    XlsxReportExportWriter(OutputStream outputStream, List<SourceColumn> columns, int windowSize, int maxRowsPerSheet) {
+        this.outputStream = outputStream;
+        this.columns = columns;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        this.workbook = new SXSSFWorkbook(windowSize);
+        this.workbook.setCompressTempFiles(true);
+    }
+
+    @Override
+    public void writeHeader() {
+        sheet = workbook.createSheet();
+        rowIndex = 0;
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < columns.size(); i++) {
+            SourceColumn column = columns.get(i);
+            row.createCell(i).setCellValue(column.getLabel() != null ? column.getLabel() : column.getName());
+        }
+    }
+
+    @Override
+    public void writeRow(List<Object> values) {
+        if (rowIndex >= maxRowsPerSheet)
+            writeHeader();
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value == null)
+                continue;
+            Cell cell = row.createCell(i);
+            if (value instanceof Number && !(value instanceof BigDecimal && ((BigDecimal) value).precision() > 15))
+                cell.setCellValue(((Number) value).doubleValue());
+            else if (value instanceof Boolean)
+                cell.setCellValue((Boolean) value);
+            else
+                cell.setCellValue(value.toString());
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * Removes the temporary files of the workbook, whether or not it has been written
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+}
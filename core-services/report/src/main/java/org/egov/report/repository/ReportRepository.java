@@ -8,13 +8,20 @@ import org.egov.tracer.model.CustomException;
 import org.postgresql.util.PSQLException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.*;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,10 +42,23 @@ public class ReportRepository {
     @Value(("${report.query.timeout}"))
     public int queryExecutionTimeout;
 
+    @Value("${report.export.fetch.size:1000}")
+    private int exportFetchSize;
+
+    @Value("${report.export.query.timeout:600}")
+    private int exportQueryTimeout;
+
+    private NamedParameterJdbcTemplate exportJdbcTemplate;
+
     @PostConstruct
     private void init(){
         this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
         jdbcTemplate.setQueryTimeout(queryExecutionTimeout);
+
+        JdbcTemplate exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        exportTemplate.setFetchSize(exportFetchSize);
+        exportTemplate.setQueryTimeout(exportQueryTimeout);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(exportTemplate);
     }
 
     private Map<String, Object>  getQueryParameters(ReportRequest reportRequest) {
@@ -114,6 +134,61 @@ public class ReportRepository {
         return maps;
     }
 
+    /**
+     * Runs the report query on a server side cursor and passes the rows to the consumer in batches of the fetch size,
+     * so that no more than a batch of rows is held in memory. The postgres driver uses a cursor only within a transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamData(ReportRequest reportRequest, ReportDefinition reportDefinition, String authToken,
+                           Consumer<List<Map<String, Object>>> batchConsumer) throws CustomException {
+
+        Long startTime = new Date().getTime();
+        String query = getQuery(reportRequest, reportDefinition, authToken);
+        Map<String, Object> parameters = getQueryParameters(reportRequest);
+        List<SourceColumn> columns = reportDefinition.getSourceColumns();
+        log.info("final export query:" + query);
+
+        class BatchHandler implements RowCallbackHandler {
+            private final ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+            private List<Map<String, Object>> batch = new ArrayList<>(exportFetchSize);
+            private int rowNum = 0;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                batch.add(rowMapper.mapRow(rs, rowNum++));
+                if (batch.size() >= exportFetchSize)
+                    flush();
+            }
+
+            private void flush() {
+                if (batch.isEmpty())
+                    return;
+                convertStringArraystoListForEncryption(batch, columns);
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(exportFetchSize);
+            }
+        }
+        BatchHandler batchHandler = new BatchHandler();
+
+        try {
+            exportJdbcTemplate.query(query, new MapSqlParameterSource(parameters), batchHandler);
+            batchHandler.flush();
+        } catch (DataAccessResourceFailureException ex) {
+            log.info("Export Query Execution Failed Due To Timeout: ", ex);
+            PSQLException cause = (PSQLException) ex.getCause();
+            if (cause != null && cause.getSQLState().equals("57014")) {
+                throw new CustomException("QUERY_EXECUTION_TIMEOUT", "Query failed, as it took more than: "+ (exportQueryTimeout) + " seconds to execute");
+            } else {
+                throw ex;
+            }
+        } catch (DataAccessException e) {
+            log.info("Export Query Execution Failed: ", e);
+            throw new CustomException("QUERY_EXEC_ERROR", "Error while executing query: " + e.getMessage());
+        }
+
+        Long totalExecutionTime = new Date().getTime() - startTime;
+        log.info("total export time taken in millisecount:" + totalExecutionTime);
+    }
 
     private void convertStringArraystoListForEncryption(List<Map<String, Object>> maps, List<SourceColumn> columns) {
         HashSet<String> arrayColumns = new HashSet<>();
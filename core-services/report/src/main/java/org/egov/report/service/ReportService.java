@@ -15,16 +15,21 @@ import org.egov.domain.model.ReportDefinitions;
 import org.egov.domain.model.Response;
 import org.egov.encryption.EncryptionService;
 import org.egov.encryption.audit.AuditService;
+import org.egov.report.export.ExportFormat;
+import org.egov.report.export.ReportExportWriter;
 import org.egov.report.repository.ReportRepository;
 import org.egov.swagger.model.*;
 import org.egov.swagger.model.ColumnDetail.TypeEnum;
 import org.egov.tracer.model.CustomException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -50,6 +55,9 @@ public class ReportService {
     @Autowired
     private AuditService auditService;
 
+    @Value("${report.export.xlsx.window.size:100}")
+    private int xlsxWindowSize;
+
     public MetadataResponse getMetaData(MetaDataRequest metaDataRequest, String moduleName) throws CustomException {
         try {
             MetadataResponse metadataResponse = new MetadataResponse();
@@ -247,31 +255,75 @@ public class ReportService {
         return reportResponse;
     }
 
+    /**
+     * Writes the report data in the given format as the rows are read from the database, rows are read,
+     * decrypted and written in batches so the memory used does not grow with the number of rows.
+     */
+    public void exportReportData(ReportRequest reportRequest, String moduleName, String authToken, ExportFormat format,
+                                 OutputStream outputStream) throws IOException {
+        ReportDefinitions rds = ReportApp.getReportDefs();
+        ReportDefinition reportDefinition = rds.getReportDefinition(moduleName + " " + reportRequest.getReportName());
+        if (reportDefinition == null)
+            throw new CustomException("REPORT_CONFIG_ERROR", "Error in retrieving report definition");
+
+        List<SourceColumn> columns = reportDefinition.getSourceColumns();
+        boolean isDecryptionRequired = (reportDefinition.getdecryptionPathId() != null) && (reportRequest.getRequestInfo() != null)
+                && (reportRequest.getRequestInfo().getUserInfo() != null);
+
+        try (ReportExportWriter writer = format.createWriter(outputStream, columns, objectMapper, xlsxWindowSize)) {
+            writer.writeHeader();
+            reportRepository.streamData(reportRequest, reportDefinition, authToken, batch -> {
+                List<Map<String, Object>> maps = batch;
+                if (isDecryptionRequired) {
+                    try {
+                        maps = encryptionService.decryptJson(reportRequest.getRequestInfo(), maps,
+                                reportDefinition.getdecryptionPathId(), "Retrieve Report Data", Map.class);
+                    } catch (IOException e) {
+                        log.error("IO exception while decrypting report: " + e.getMessage());
+                        throw new CustomException("REPORT_DECRYPTION_ERROR", "Error while decrypting report data");
+                    }
+                }
+                try {
+                    for (Map<String, Object> map : maps)
+                        writer.writeRow(getRowValues(columns, map));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     private void populateData(List<SourceColumn> columns, List<Map<String, Object>> maps,
                               ReportResponse reportResponse) {
 
         List<List<Object>> lists = new ArrayList<>();
 
         for (int i = 0; i < maps.size(); i++) {
-            List<Object> objects = new ArrayList<>();
-            Map<String, Object> map = maps.get(i);
-            Map<String, Object> newMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            newMap.putAll(map);
-            // restore ['abc','xyz'] -> 'abc, xyz'  -- earlier the string had to be transformed to array to allow decryption incase of encrypted columns
-            for (SourceColumn sourceColm : columns) {
-                if (sourceColm.getType().toString().equals("stringarray") && (newMap.get(sourceColm.getName()) != null)) {
-                    List<String> stringlist = (List<String>) newMap.get(sourceColm.getName());
-                    String value = StringUtils.join(stringlist, ", ");
-                    objects.add(value);
-                } else {
-                    objects.add(newMap.get(sourceColm.getName()));
-                }
-            }
-            lists.add(objects);
+            lists.add(getRowValues(columns, maps.get(i)));
         }
         reportResponse.setReportData(lists);
     }
 
+    private List<Object> getRowValues(List<SourceColumn> columns, Map<String, Object> map) {
+        List<Object> objects = new ArrayList<>();
+        Map<String, Object> newMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        newMap.putAll(map);
+        // restore ['abc','xyz'] -> 'abc, xyz'  -- earlier the string had to be transformed to array to allow decryption incase of encrypted columns
+        for (SourceColumn sourceColm : columns) {
+            if (sourceColm.getType().toString().equals("stringarray") && (newMap.get(sourceColm.getName()) != null)) {
+                List<String> stringlist = (List<String>) newMap.get(sourceColm.getName());
+                String value = StringUtils.join(stringlist, ", ");
+                objects.add(value);
+            } else {
+                objects.add(newMap.get(sourceColm.getName()));
+            }
+        }
+        return objects;
+    }
+
     private void populateReportHeader(ReportDefinition reportDefinition, ReportResponse reportResponse) {
 
         //Let's check whether there's a linked report, we will set the default value in header columns according to that
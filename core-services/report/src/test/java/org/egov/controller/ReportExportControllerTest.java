@@ -0,0 +1,95 @@
+package org.egov.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.egov.domain.model.ReportDefinitions;
+import org.egov.report.export.ExportFormat;
+import org.egov.report.service.ReportService;
+import org.egov.swagger.model.ReportRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+public class ReportExportControllerTest {
+
+    private static final String REQUEST = "{\"RequestInfo\":{\"authToken\":\"token\"},\"tenantId\":\"pb.amritsar\","
+            + "\"reportName\":\"Collection Report/2024\",\"searchParams\":[]}";
+
+    private MockMvc mockMvc;
+
+    private ReportService reportService;
+
+    @Before
+    public void setUp() {
+        reportService = mock(ReportService.class);
+        ReportController reportController = new ReportController(mock(ReportDefinitions.class));
+        ReflectionTestUtils.setField(reportController, "reportService", reportService);
+        mockMvc = MockMvcBuilders.standaloneSetup(reportController).build();
+    }
+
+    @Test
+    public void testCsvExportIsAnAttachment() throws Exception {
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArgument(4)).write("a,b\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).exportReportData(any(ReportRequest.class), eq("PT"), eq("token"), eq(ExportFormat.CSV),
+                any(OutputStream.class));
+
+        mockMvc.perform(post("/PT/_export").contentType(MediaType.APPLICATION_JSON).content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"Collection_Report_2024.csv\""))
+                .andExpect(content().string("a,b\r\n"));
+    }
+
+    @Test
+    public void testXlsxExport() throws Exception {
+        mockMvc.perform(post("/PT/_export").param("format", "XLSX").contentType(MediaType.APPLICATION_JSON)
+                .content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"Collection_Report_2024.xlsx\""));
+
+        verify(reportService).exportReportData(any(ReportRequest.class), eq("PT"), eq("token"), eq(ExportFormat.XLSX),
+                any(OutputStream.class));
+    }
+
+    @Test
+    public void testNdjsonExport() throws Exception {
+        mockMvc.perform(post("/PT/_export").param("format", "ndjson").contentType(MediaType.APPLICATION_JSON)
+                .content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"Collection_Report_2024.ndjson\""));
+    }
+
+    @Test(expected = Exception.class)
+    public void testUnknownFormatIsRejected() throws Exception {
+        try {
+            mockMvc.perform(post("/PT/_export").param("format", "pdf").contentType(MediaType.APPLICATION_JSON)
+                    .content(REQUEST));
+        } finally {
+            verifyNoInteractions(reportService);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.egov.report.export;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.egov.swagger.model.SourceColumn;
+import org.junit.Test;
+
+public class CsvReportExportWriterTest {
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    @Test
+    public void testHeaderUsesLabelsAndFallsBackToNames() throws IOException {
+        CsvReportExportWriter writer = new CsvReportExportWriter(outputStream, columns());
+        writer.writeHeader();
+        writer.finish();
+
+        assertEquals("Application No,status,\"Amount, in Rs\"\r\n", output());
+    }
+
+    @Test
+    public void testPlainValuesAreNotQuoted() throws IOException {
+        CsvReportExportWriter writer = new CsvReportExportWriter(outputStream, columns());
+        writer.writeRow(Arrays.asList("PB-123", "APPROVED", 10.5));
+        writer.finish();
+
+        assertEquals("PB-123,APPROVED,10.5\r\n", output());
+    }
+
+    @Test
+    public void testNullValuesAreEmpty() throws IOException {
+        CsvReportExportWriter writer = new CsvReportExportWriter(outputStream, columns());
+        writer.writeRow(Arrays.asList(null, "APPROVED", null));
+        writer.finish();
+
+        assertEquals(",APPROVED,\r\n", output());
+    }
+
+    @Test
+    public void testSeparatorsQuotesAndLineBreaksAreQuoted() throws IOException {
+        CsvReportExportWriter writer = new CsvReportExportWriter(outputStream, columns());
+        writer.writeRow(Arrays.asList("a,b", "say \"hi\"", "line1\nline2"));
+        writer.writeRow(Arrays.asList("cr\r", "\"", ""));
+        writer.finish();
+
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"line1\nline2\"\r\n\"cr\r\",\"\"\"\",\r\n", output());
+    }
+
+    @Test
+    public void testNonAsciiValuesAreWrittenInUtf8() throws IOException {
+        CsvReportExportWriter writer = new CsvReportExportWriter(outputStream, columns());
+        writer.writeRow(Arrays.asList("ਅੰਮ੍ਰਿਤਸਰ", "é", 1));
+        writer.finish();
+
+        assertEquals("ਅੰਮ੍ਰਿਤਸਰ,é,1\r\n", output());
+    }
+
+    private String output() {
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static List<SourceColumn> columns() {
+        return Arrays.asList(column("applicationNo", "Application No"), column("status", null),
+                column("amount", "Amount, in Rs"));
+    }
+
+    private static SourceColumn column(String name, String label) {
+        SourceColumn column = new SourceColumn();
+        column.setName(name);
+        column.setLabel(label);
+        return column;
+    }
+}
@@ -0,0 +1,117 @@
+package org.egov.report.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class XlsxReportExportWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = temporaryFolder.newFolder("poifiles");
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir));
+    }
+
+    @After
+    public void tearDown() {
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+    }
+
+    @Test
+    public void testRowsAreWrittenUnderTheHeader() throws IOException {
+        try (XlsxReportExportWriter writer = new XlsxReportExportWriter(outputStream,
+                CsvReportExportWriterTest.columns(), 10)) {
+            writer.writeHeader();
+            writer.writeRow(Arrays.asList("PB-1", null, 10.5));
+            writer.writeRow(Arrays.asList("PB-2", "APPROVED", true));
+            writer.finish();
+        }
+
+        try (XSSFWorkbook workbook = read()) {
+            assertEquals(1, workbook.getNumberOfSheets());
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals("Application No", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("status", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals("PB-1", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertNull(sheet.getRow(1).getCell(1));
+            assertEquals(10.5, sheet.getRow(1).getCell(2).getNumericCellValue(), 0.0);
+            assertTrue(sheet.getRow(2).getCell(2).getBooleanCellValue());
+            assertEquals(2, sheet.getLastRowNum());
+        }
+    }
+
+    @Test
+    public void testRowsBeyondTheSheetLimitContinueOnANewSheetWithTheHeader() throws IOException {
+        try (XlsxReportExportWriter writer = new XlsxReportExportWriter(outputStream,
+                CsvReportExportWriterTest.columns(), 2, 3)) {
+            writer.writeHeader();
+            for (int i = 1; i <= 5; i++)
+                writer.writeRow(Arrays.asList("PB-" + i, "APPROVED", i));
+            writer.finish();
+        }
+
+        try (XSSFWorkbook workbook = read()) {
+            assertEquals(3, workbook.getNumberOfSheets());
+            assertSheet(workbook.getSheetAt(0), "PB-1", "PB-2");
+            assertSheet(workbook.getSheetAt(1), "PB-3", "PB-4");
+            assertSheet(workbook.getSheetAt(2), "PB-5");
+        }
+    }
+
+    @Test
+    public void testCloseDisposesTheTemporaryFiles() throws IOException {
+        XlsxReportExportWriter writer = new XlsxReportExportWriter(outputStream, CsvReportExportWriterTest.columns(), 1, 3);
+        writer.writeHeader();
+        for (int i = 1; i <= 5; i++)
+            writer.writeRow(Arrays.asList("PB-" + i, "APPROVED", i));
+        assertTrue(hasTemporaryFiles());
+
+        // Export failed before finish, the temporary files are removed all the same
+        writer.close();
+        assertFalse(hasTemporaryFiles());
+        assertEquals(0, outputStream.size());
+    }
+
+    private void assertSheet(Sheet sheet, String... applicationNos) {
+        assertEquals("Application No", sheet.getRow(0).getCell(0).getStringCellValue());
+        assertEquals(applicationNos.length, sheet.getLastRowNum());
+        for (int i = 0; i < applicationNos.length; i++) {
+            Row row = sheet.getRow(i + 1);
+            assertEquals(applicationNos[i], row.getCell(0).getStringCellValue());
+        }
+    }
+
+    private boolean hasTemporaryFiles() {
+        File[] files = tempDir.listFiles();
+        return files != null && files.length > 0;
+    }
+
+    private XSSFWorkbook read() throws IOException {
+        return new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+}
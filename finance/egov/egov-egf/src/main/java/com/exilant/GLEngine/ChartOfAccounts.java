@@ -515,6 +515,7 @@ public class ChartOfAccounts {
 			throw new TaskFailedException(e.getMessage());
 		}
 		// entityManager.flush();
+		// the postings are journaled for the daily balances in egf_ledger_balance by the triggers on generalledger
 		if (!postInGL(txnList))
 			return false;
 		return true;
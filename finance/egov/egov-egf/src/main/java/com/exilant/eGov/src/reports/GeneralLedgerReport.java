@@ -1069,6 +1069,20 @@ public class GeneralLedgerReport {
                     .append(" AND vh.voucherDate <to_date(:voucherToDate,'dd/mm/yyyy') AND vh.status not in (")
                     .append(defaultStatusExclude).append(") AND")
                     .append(" gl.CREDITamount>0) AS \"creditAmount\" FROM chartofaccounts coa WHERE coa.glcode IN (:glcode)");
+        } else if (fundSourceId.equalsIgnoreCase("")) {
+            // the daily balances of the account codes answer the balance when the subledger is not asked for
+            fundCondition = fundId.equalsIgnoreCase("") ? "" : "AND lb.fundid = :fundId ";
+            functionCondition = StringUtils.isEmpty(functionId) ? "" : " AND lb.functionid = :functionId ";
+            deptCondition = deptCode != null && !deptCode.equalsIgnoreCase("") ? " AND lb.departmentcode = :departmentCode " : "";
+			queryTillDateOpBal.append(
+					"SELECT CASE WHEN sum(lb.debitamount) is null THEN 0 ELSE sum(lb.debitamount) END AS \"debitAmount\", ")
+					.append(" CASE WHEN sum(lb.creditamount) is null THEN 0 ELSE sum(lb.creditamount) END AS \"creditAmount\" ")
+					.append(" FROM egf_ledger_balance lb")
+					.append(" WHERE lb.glcodeid IN (SELECT id FROM chartofaccounts WHERE glcode IN (:glcode)) ")
+					.append(fundCondition).append(functionCondition).append(deptCondition)
+					.append(" AND lb.balancedate >= to_date(:voucherFromDate,'dd/MM/YYYY')")
+					.append(" AND lb.balancedate <to_date(:voucherToDate,'dd/MM/YYYY') AND lb.status not in (")
+					.append(defaultStatusExclude).append(")");
         } else {
 			queryTillDateOpBal.append(
 					"SELECT CASE WHEN sum(gl.debitAmount) is null THEN 0 ELSE sum(gl.debitAmount) END AS \"debitAmount\", ")
@@ -1159,23 +1159,25 @@ public class EgovCommon {
 				.getConfigValuesByModuleAndKey(FinancialConstants.MODULE_NAME_APPCONFIG, "statusexcludeReport");
 		final String statusExclude = appList.get(0).getValue();
 		if (null == accountdetailType && null == accountdetailkey) {
-			glCodeBalQry.append("SELECT (case when sum(gl.debitAmount) is null then 0 else sum(gl.debitAmount) end -")
-					.append(" case when sum(gl.creditAmount)  is null then 0 else sum(gl.creditAmount) end)")
-					.append(" as amount FROM  CGeneralLedger gl , CVoucherHeader vh  ").append(misTab)
-					.append(" WHERE gl.voucherHeaderId.id=vh.id and gl.glcodeId.glcode=:glCode").append(fundCond)
-					.append(deptCond)
-					.append(" and vh.voucherDate >= (select startingDate from CFinancialYear where  startingDate <= :startDate")
-					.append(" AND endingDate >= :endDate) and vh.voucherDate <:voucherDate")
-					.append(" and vh.status not in (:statusExclude)");
-
-			final Query query = getPersistenceService().getSession().createQuery(glCodeBalQry.toString());
+			// balance of the account code from the daily balances maintained on posting
+			glCodeBalQry.append("SELECT coalesce(sum(lb.debitamount), 0) - coalesce(sum(lb.creditamount), 0) as amount")
+					.append(" FROM egf_ledger_balance lb, chartofaccounts coa")
+					.append(" WHERE lb.glcodeid = coa.id and coa.glcode = :glCode")
+					.append(fundcode != null ? " and lb.fundid = (select id from fund where code = :fundcode)" : "")
+					.append(deptCode != null && !deptCode.isEmpty() && !deptCode.equals("-1")
+							? " and lb.departmentcode = :deptCode" : "")
+					.append(" and lb.balancedate >= (select startingdate from financialyear where startingdate <= :startDate")
+					.append(" AND endingdate >= :endDate) and lb.balancedate < :voucherDate")
+					.append(" and lb.status not in (:statusExclude)");
+
+			final Query query = getPersistenceService().getSession().createSQLQuery(glCodeBalQry.toString());
 			query.setParameter("glCode", glcode).setParameter("startDate", asondate)
 					.setParameter("endDate", asondate)
 					.setParameter("voucherDate", asondate)
 					.setParameterList("statusExclude", financialUtils.getStatuses(statusExclude));
 			persistenceService.populateQueryWithParams(query, params);
 			final List<Object> list = query.list();
-			glCodeBalance = BigDecimal.valueOf((Integer) list.get(0));
+			glCodeBalance = list.get(0) == null ? BigDecimal.ZERO : new BigDecimal(list.get(0).toString());
         } else {
             // Getting the debit balance.
 			glCodeDbtBalQry.append(
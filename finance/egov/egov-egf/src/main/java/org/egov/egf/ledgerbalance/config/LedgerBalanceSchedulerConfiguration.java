@@ -0,0 +1,81 @@
+package org.egov.egf.ledgerbalance.config;
+
+import static org.quartz.CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.egov.egf.ledgerbalance.scheduler.LedgerBalanceJournalJob;
+import org.egov.infra.config.scheduling.QuartzSchedulerConfiguration;
+import org.egov.infra.config.scheduling.SchedulerConfigCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.quartz.CronTriggerFactoryBean;
+import org.springframework.scheduling.quartz.JobDetailFactoryBean;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+@Configuration
+@Conditional(SchedulerConfigCondition.class)
+public class LedgerBalanceSchedulerConfiguration extends QuartzSchedulerConfiguration {
+    private static final String FIN_LEDGER_BALANCE_TRIGGER = "FIN_LEDGER_BALANCE_TRIGGER";
+    private static final String FIN_LEDGER_BALANCE_TRIGGER_GROUP = "FIN_LEDGER_BALANCE_TRIGGER_GROUP";
+    private static final String FINANCE_LEDGER_SCHEDULER = "finance-ledger-scheduler";
+    private static final String MODULE_NAME = "finance";
+    private static final String FIN_LEDGER_BALANCE_JOB = "FIN_LEDGER_BALANCE_JOB";
+    private static final String FIN_LEDGER_BALANCE_JOB_GROUP = "FIN_LEDGER_BALANCE_JOB_GROUP";
+    @Value("${finance-ledger-balance-fold-cron-expression:0 */5 * ? * *}")
+    private String ledgerBalanceCronExp;
+
+    @Bean(destroyMethod = "destroy")
+    public SchedulerFactoryBean ledgerBalanceScheduler(DataSource dataSource) {
+        SchedulerFactoryBean ledgerBalanceScheduler = createScheduler(dataSource);
+        ledgerBalanceScheduler.setSchedulerName(FINANCE_LEDGER_SCHEDULER);
+        ledgerBalanceScheduler.setAutoStartup(true);
+        ledgerBalanceScheduler.setOverwriteExistingJobs(true);
+        ledgerBalanceScheduler.setTriggers(
+                ledgerBalanceCronTrigger().getObject());
+        return ledgerBalanceScheduler;
+    }
+
+    @Bean
+    public CronTriggerFactoryBean ledgerBalanceCronTrigger() {
+        CronTriggerFactoryBean ledgerBalanceCron = new CronTriggerFactoryBean();
+        ledgerBalanceCron.setJobDetail(ledgerBalanceJobDetail().getObject());
+        ledgerBalanceCron.setGroup(FIN_LEDGER_BALANCE_TRIGGER_GROUP);
+        ledgerBalanceCron.setName(FIN_LEDGER_BALANCE_TRIGGER);
+        ledgerBalanceCron.setCronExpression(ledgerBalanceCronExp);
+        ledgerBalanceCron.setMisfireInstruction(MISFIRE_INSTRUCTION_DO_NOTHING);
+        return ledgerBalanceCron;
+    }
+
+    @Bean
+    public JobDetailFactoryBean ledgerBalanceJobDetail() {
+        JobDetailFactoryBean ledgerBalanceJobDetail = new JobDetailFactoryBean();
+        ledgerBalanceJobDetail.setGroup(FIN_LEDGER_BALANCE_JOB_GROUP);
+        ledgerBalanceJobDetail.setName(FIN_LEDGER_BALANCE_JOB);
+        ledgerBalanceJobDetail.setDurability(true);
+        ledgerBalanceJobDetail.setJobClass(LedgerBalanceJournalJob.class);
+        ledgerBalanceJobDetail.setRequestsRecovery(true);
+        Map<String, String> jobDetailMap = prepareJobDetailMap();
+        jobDetailMap.put("jobBeanName", "ledgerBalanceJournalJob");
+        ledgerBalanceJobDetail.setJobDataAsMap(jobDetailMap);
+        return ledgerBalanceJobDetail;
+    }
+
+    private Map<String, String> prepareJobDetailMap() {
+        Map<String, String> jobDetailMap = new HashMap<>();
+        jobDetailMap.put("userName", "system");
+        jobDetailMap.put("cityDataRequired", "true");
+        jobDetailMap.put("moduleName", MODULE_NAME);
+        return jobDetailMap;
+    }
+
+    @Bean("ledgerBalanceJournalJob")
+    public LedgerBalanceJournalJob ledgerBalanceJournalJob() {
+        return new LedgerBalanceJournalJob();
+    }
+}
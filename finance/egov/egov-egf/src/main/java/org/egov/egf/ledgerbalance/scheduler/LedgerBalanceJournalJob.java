@@ -0,0 +1,18 @@
+package org.egov.egf.ledgerbalance.scheduler;
+
+import org.egov.egf.ledgerbalance.service.LedgerBalanceService;
+import org.egov.infra.scheduler.quartz.AbstractQuartzJob;
+import org.quartz.DisallowConcurrentExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@DisallowConcurrentExecution
+public class LedgerBalanceJournalJob extends AbstractQuartzJob {
+
+    @Autowired
+    private transient LedgerBalanceService ledgerBalanceService;
+
+    @Override
+    public void executeJob() {
+        ledgerBalanceService.foldJournal();
+    }
+}
@@ -0,0 +1,31 @@
+package org.egov.egf.ledgerbalance.service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.apache.log4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class LedgerBalanceService {
+
+    private static final Logger LOGGER = Logger.getLogger(LedgerBalanceService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Moves the postings journaled by the triggers on the ledger into the daily balances of egf_ledger_balance.
+     * The reports read the journal not yet folded as well, so a fold only keeps the journal short.
+     */
+    @Transactional
+    public int foldJournal() {
+        final int folded = ((Number) entityManager.createNativeQuery("select egf_fold_ledger_balance_journal()")
+                .getSingleResult()).intValue();
+        if (LOGGER.isDebugEnabled())
+            LOGGER.debug("Folded the ledger balance journal into " + folded + " daily balances");
+        return folded;
+    }
+}
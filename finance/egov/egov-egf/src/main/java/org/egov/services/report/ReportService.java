@@ -268,18 +268,36 @@ public abstract class ReportService {
 			final String coaType, final String subReportType, Map<String, Object> params) {
 		String voucherStatusToExclude = getAppConfigValueFor("EGF", "statusexcludeReport");
 		final Map<String, Object> sqlParams = new HashMap<>();
-		final Query query = persistenceService.getSession().createSQLQuery(new StringBuilder(
-				"select c.majorcode as glCode,v.fundid as fundId,c.type as type,sum(debitamount)-sum(creditamount) as amount")
-						.append(" from generalledger g,chartofaccounts c,voucherheader v ,vouchermis mis")
-						.append(" where v.id=mis.voucherheaderid and ")
-						.append("v.id=g.voucherheaderid and c.type in (:coaType) and c.id=g.glcodeid")
-						.append(" and v.status not in (:voucherStatusToExclude)  AND v.voucherdate <= :voucherToDate")
-						.append(" and v.voucherdate >= :voucherFromDate")
-						.append(" and substr(c.glcode,1,:minorCodeLength) in ")
-						.append("(select distinct coa2.glcode from chartofaccounts coa2, schedulemapping s")
-						.append(" where s.id=coa2.scheduleid and ")
-						.append("coa2.classification=2 and s.reporttype = :reporttype) ").append(filterQuery)
-						.append(" group by c.majorcode,v.fundid,c.type order by c.majorcode").toString())
+		final StringBuilder queryStr;
+		// the daily balances answer the statement unless it is filtered on the department, which is looked up by id
+		if (params.containsKey("departmentid"))
+			queryStr = new StringBuilder(
+					"select c.majorcode as glCode,v.fundid as fundId,c.type as type,sum(debitamount)-sum(creditamount) as amount")
+							.append(" from generalledger g,chartofaccounts c,voucherheader v ,vouchermis mis")
+							.append(" where v.id=mis.voucherheaderid and ")
+							.append("v.id=g.voucherheaderid and c.type in (:coaType) and c.id=g.glcodeid")
+							.append(" and v.status not in (:voucherStatusToExclude)  AND v.voucherdate <= :voucherToDate")
+							.append(" and v.voucherdate >= :voucherFromDate")
+							.append(" and substr(c.glcode,1,:minorCodeLength) in ")
+							.append("(select distinct coa2.glcode from chartofaccounts coa2, schedulemapping s")
+							.append(" where s.id=coa2.scheduleid and ")
+							.append("coa2.classification=2 and s.reporttype = :reporttype) ").append(filterQuery)
+							.append(" group by c.majorcode,v.fundid,c.type order by c.majorcode");
+		else
+			queryStr = new StringBuilder(
+					"select c.majorcode as glCode,lb.fundid as fundId,c.type as type,sum(lb.debitamount)-sum(lb.creditamount) as amount")
+							.append(" from egf_ledger_balance lb,chartofaccounts c")
+							.append(" where c.type in (:coaType) and c.id=lb.glcodeid")
+							.append(" and lb.status not in (:voucherStatusToExclude) and lb.balancedate <= :voucherToDate")
+							.append(" and lb.balancedate >= :voucherFromDate")
+							.append(" and substr(c.glcode,1,:minorCodeLength) in ")
+							.append("(select distinct coa2.glcode from chartofaccounts coa2, schedulemapping s")
+							.append(" where s.id=coa2.scheduleid and ")
+							.append("coa2.classification=2 and s.reporttype = :reporttype) ")
+							.append(getLedgerBalanceFilterQuery(params))
+							.append(" group by c.majorcode,lb.fundid,c.type")
+							.append(" having sum(lb.debitamount)<>0 or sum(lb.creditamount)<>0 order by c.majorcode");
+		final Query query = persistenceService.getSession().createSQLQuery(queryStr.toString())
 				.addScalar("glCode").addScalar("fundId",LongType.INSTANCE).addScalar("type")
 				.addScalar("amount", BigDecimalType.INSTANCE)
 				.setResultTransformer(Transformers.aliasToBean(StatementResultObject.class));
@@ -294,6 +312,15 @@ public abstract class ReportService {
 		return query.list();
 	}
 
+	private String getLedgerBalanceFilterQuery(final Map<String, Object> params) {
+		final StringBuilder query = new StringBuilder();
+		if (params.containsKey("functionid"))
+			query.append(" and lb.functionid=:functionid");
+		if (params.containsKey("fundid"))
+			query.append(" and lb.fundid=:fundid");
+		return query.toString();
+	}
+
 	protected Map<String, String> getSubSchedule(final String subReportType) {
 		final Map<String, String> scheduleNumberToName = new HashMap<String, String>();
 		final List<Object[]> rows = persistenceService.getSession()
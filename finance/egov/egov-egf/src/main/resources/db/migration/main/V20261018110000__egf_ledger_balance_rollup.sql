@@ -0,0 +1,238 @@
+-- Daily rollup of the ledger postings per account code, fund, function, department and voucher status.
+-- The status of the voucher is kept so that the reports can exclude the statuses configured in statusexcludeReport.
+--
+-- The postings, modifications and cancellations of vouchers are written by statement level triggers on generalledger,
+-- voucherheader and vouchermis into egf_ledger_balance_journal. The journal is only inserted into, so the transactions
+-- posting in the ledger do not wait on each other for the balance rows. egf_fold_ledger_balance_journal(), run by the
+-- ledger balance job, moves the journal into the daily balances of egf_ledger_balance_total. The reports read the view
+-- egf_ledger_balance, which adds the journal not yet folded to the daily balances.
+-- The transition tables of the triggers need PostgreSQL 10 or later.
+
+CREATE TABLE egf_ledger_balance_total
+(
+  balancedate date NOT NULL,
+  glcodeid bigint NOT NULL,
+  fundid bigint,
+  functionid bigint,
+  departmentcode character varying(50),
+  status smallint,
+  debitamount numeric(18,2) NOT NULL DEFAULT 0,
+  creditamount numeric(18,2) NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX uk_egf_ledger_balance_total ON egf_ledger_balance_total (balancedate, glcodeid, coalesce(fundid, 0),
+  coalesce(functionid, 0), coalesce(departmentcode, ''), coalesce(status, -1));
+CREATE INDEX idx_egf_ledger_balance_total_glcode ON egf_ledger_balance_total (glcodeid, balancedate);
+CREATE INDEX idx_egf_ledger_balance_total_fund ON egf_ledger_balance_total (fundid, balancedate);
+
+CREATE TABLE egf_ledger_balance_journal
+(
+  balancedate date NOT NULL,
+  glcodeid bigint NOT NULL,
+  fundid bigint,
+  functionid bigint,
+  departmentcode character varying(50),
+  status smallint,
+  debitamount numeric(18,2) NOT NULL DEFAULT 0,
+  creditamount numeric(18,2) NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_egf_ledger_balance_journal_glcode ON egf_ledger_balance_journal (glcodeid, balancedate);
+
+CREATE VIEW egf_ledger_balance AS
+  SELECT balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount
+  FROM egf_ledger_balance_total
+  UNION ALL
+  SELECT balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount
+  FROM egf_ledger_balance_journal;
+
+-- Voucher attributes under which all the postings of a voucher are added (sign = 1) or taken out (sign = -1)
+CREATE TYPE egf_ledger_balance_move AS (voucherheaderid bigint, balancedate date, fundid bigint,
+  departmentcode character varying(50), status smallint, sign integer);
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_journal_moves(p_moves egf_ledger_balance_move[]) RETURNS void AS $BODY$
+begin
+	INSERT INTO egf_ledger_balance_journal (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select m.balancedate, gl.glcodeid, m.fundid, gl.functionid, m.departmentcode, m.status,
+		m.sign * sum(gl.debitamount), m.sign * sum(gl.creditamount)
+	from unnest(p_moves) m, generalledger gl
+	where gl.voucherheaderid = m.voucherheaderid
+	group by m.voucherheaderid, m.sign, m.balancedate, m.fundid, m.departmentcode, m.status, gl.glcodeid, gl.functionid
+	having sum(gl.debitamount) <> 0 or sum(gl.creditamount) <> 0;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_gl_ins_trg() RETURNS trigger AS $BODY$
+begin
+	INSERT INTO egf_ledger_balance_journal (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select cast(v.voucherdate as date), gl.glcodeid, v.fundid, gl.functionid,
+		(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = v.id limit 1), v.status,
+		gl.debitamount, gl.creditamount
+	from new_postings gl, voucherheader v
+	where v.id = gl.voucherheaderid and (gl.debitamount <> 0 or gl.creditamount <> 0);
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_gl_upd_trg() RETURNS trigger AS $BODY$
+begin
+	INSERT INTO egf_ledger_balance_journal (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select cast(v.voucherdate as date), gl.glcodeid, v.fundid, gl.functionid,
+		(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = v.id limit 1), v.status,
+		gl.sign * gl.debitamount, gl.sign * gl.creditamount
+	from (select o.id, o.voucherheaderid, o.glcodeid, o.functionid, o.debitamount, o.creditamount, -1 as sign
+			from old_postings o
+			union all
+			select n.id, n.voucherheaderid, n.glcodeid, n.functionid, n.debitamount, n.creditamount, 1 as sign
+			from new_postings n) gl, voucherheader v
+	where v.id = gl.voucherheaderid and (gl.debitamount <> 0 or gl.creditamount <> 0)
+		and gl.id in (select o.id from old_postings o join new_postings n on n.id = o.id
+			where (o.voucherheaderid, o.glcodeid, o.functionid, o.debitamount, o.creditamount)
+				is distinct from (n.voucherheaderid, n.glcodeid, n.functionid, n.debitamount, n.creditamount));
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_gl_del_trg() RETURNS trigger AS $BODY$
+begin
+	INSERT INTO egf_ledger_balance_journal (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select cast(v.voucherdate as date), gl.glcodeid, v.fundid, gl.functionid,
+		(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = v.id limit 1), v.status,
+		-gl.debitamount, -gl.creditamount
+	from old_postings gl, voucherheader v
+	where v.id = gl.voucherheaderid and (gl.debitamount <> 0 or gl.creditamount <> 0);
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_vh_upd_trg() RETURNS trigger AS $BODY$
+begin
+	perform egf_ledger_balance_journal_moves(array(
+		select cast(row(o.id, cast(o.voucherdate as date), o.fundid,
+			(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = o.id limit 1), o.status, -1)
+			as egf_ledger_balance_move)
+		from old_vouchers o join new_vouchers n on n.id = o.id
+		where cast(o.voucherdate as date) is distinct from cast(n.voucherdate as date)
+			or o.fundid is distinct from n.fundid or o.status is distinct from n.status
+		union all
+		select cast(row(n.id, cast(n.voucherdate as date), n.fundid,
+			(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = n.id limit 1), n.status, 1)
+			as egf_ledger_balance_move)
+		from old_vouchers o join new_vouchers n on n.id = o.id
+		where cast(o.voucherdate as date) is distinct from cast(n.voucherdate as date)
+			or o.fundid is distinct from n.fundid or o.status is distinct from n.status));
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+-- The postings of a voucher without vouchermis are kept without department, a vouchermis moves them to its department
+CREATE OR REPLACE FUNCTION egf_ledger_balance_mis_ins_trg() RETURNS trigger AS $BODY$
+begin
+	perform egf_ledger_balance_journal_moves(array(
+		select cast(row(v.id, cast(v.voucherdate as date), v.fundid, mv.departmentcode, v.status, mv.sign)
+			as egf_ledger_balance_move)
+		from new_mis n, voucherheader v,
+			lateral (values (null, -1), (n.departmentcode, 1)) as mv (departmentcode, sign)
+		where v.id = n.voucherheaderid));
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_mis_upd_trg() RETURNS trigger AS $BODY$
+begin
+	perform egf_ledger_balance_journal_moves(array(
+		select cast(row(v.id, cast(v.voucherdate as date), v.fundid, mv.departmentcode, v.status, mv.sign)
+			as egf_ledger_balance_move)
+		from old_mis o join new_mis n on n.id = o.id,
+			lateral (values (o.voucherheaderid, o.departmentcode, -1), (o.voucherheaderid, null, 1),
+				(n.voucherheaderid, null, -1), (n.voucherheaderid, n.departmentcode, 1))
+				as mv (voucherheaderid, departmentcode, sign),
+			voucherheader v
+		where v.id = mv.voucherheaderid
+			and (o.departmentcode is distinct from n.departmentcode or o.voucherheaderid is distinct from n.voucherheaderid)));
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION egf_ledger_balance_mis_del_trg() RETURNS trigger AS $BODY$
+begin
+	perform egf_ledger_balance_journal_moves(array(
+		select cast(row(v.id, cast(v.voucherdate as date), v.fundid, mv.departmentcode, v.status, mv.sign)
+			as egf_ledger_balance_move)
+		from old_mis o, voucherheader v,
+			lateral (values (o.departmentcode, -1), (null, 1)) as mv (departmentcode, sign)
+		where v.id = o.voucherheaderid));
+	return null;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_egf_ledger_balance_gl_ins AFTER INSERT ON generalledger
+  REFERENCING NEW TABLE AS new_postings FOR EACH STATEMENT EXECUTE PROCEDURE egf_ledger_balance_gl_ins_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_gl_upd AFTER UPDATE ON generalledger
+  REFERENCING OLD TABLE AS old_postings NEW TABLE AS new_postings FOR EACH STATEMENT
+  EXECUTE PROCEDURE egf_ledger_balance_gl_upd_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_gl_del AFTER DELETE ON generalledger
+  REFERENCING OLD TABLE AS old_postings FOR EACH STATEMENT EXECUTE PROCEDURE egf_ledger_balance_gl_del_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_vh_upd AFTER UPDATE ON voucherheader
+  REFERENCING OLD TABLE AS old_vouchers NEW TABLE AS new_vouchers FOR EACH STATEMENT
+  EXECUTE PROCEDURE egf_ledger_balance_vh_upd_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_mis_ins AFTER INSERT ON vouchermis
+  REFERENCING NEW TABLE AS new_mis FOR EACH STATEMENT EXECUTE PROCEDURE egf_ledger_balance_mis_ins_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_mis_upd AFTER UPDATE ON vouchermis
+  REFERENCING OLD TABLE AS old_mis NEW TABLE AS new_mis FOR EACH STATEMENT
+  EXECUTE PROCEDURE egf_ledger_balance_mis_upd_trg();
+
+CREATE TRIGGER trg_egf_ledger_balance_mis_del AFTER DELETE ON vouchermis
+  REFERENCING OLD TABLE AS old_mis FOR EACH STATEMENT EXECUTE PROCEDURE egf_ledger_balance_mis_del_trg();
+
+-- Moves the journal into the daily balances and returns the number of daily balances added or updated. The balances
+-- are updated in the order of their key so that two folds cannot deadlock, and a fold returns at once while another
+-- one runs on the schema. The journal rows committed after the fold started are left to the next fold.
+CREATE OR REPLACE FUNCTION egf_fold_ledger_balance_journal() RETURNS integer AS $BODY$
+declare
+	folded integer;
+begin
+	if not pg_try_advisory_xact_lock(hashtext(current_schema() || '.egf_ledger_balance_journal')) then
+		return 0;
+	end if;
+	with journal as (
+		DELETE FROM egf_ledger_balance_journal
+		RETURNING balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount
+	)
+	INSERT INTO egf_ledger_balance_total (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select balancedate, glcodeid, max(fundid), max(functionid), max(departmentcode), max(status), sum(debitamount), sum(creditamount)
+	from journal
+	group by balancedate, glcodeid, coalesce(fundid, 0), coalesce(functionid, 0), coalesce(departmentcode, ''), coalesce(status, -1)
+	having sum(debitamount) <> 0 or sum(creditamount) <> 0
+	order by balancedate, glcodeid, coalesce(fundid, 0), coalesce(functionid, 0), coalesce(departmentcode, ''), coalesce(status, -1)
+	ON CONFLICT (balancedate, glcodeid, coalesce(fundid, 0), coalesce(functionid, 0), coalesce(departmentcode, ''), coalesce(status, -1))
+	DO UPDATE SET debitamount = egf_ledger_balance_total.debitamount + excluded.debitamount,
+		creditamount = egf_ledger_balance_total.creditamount + excluded.creditamount;
+	GET DIAGNOSTICS folded = ROW_COUNT;
+	return folded;
+end;
+$BODY$ LANGUAGE plpgsql;
+
+-- Recomputes the daily balances from generalledger, to be run offline after bulk loads or to repair the rollup.
+-- The lock waits for the transactions posting in the ledger, the postings made after the rebuild are journaled by the triggers.
+CREATE OR REPLACE FUNCTION egf_rebuild_ledger_balance() RETURNS void AS $BODY$
+begin
+	LOCK TABLE egf_ledger_balance_journal, egf_ledger_balance_total IN EXCLUSIVE MODE;
+	DELETE FROM egf_ledger_balance_journal;
+	DELETE FROM egf_ledger_balance_total;
+	INSERT INTO egf_ledger_balance_total (balancedate, glcodeid, fundid, functionid, departmentcode, status, debitamount, creditamount)
+	select balancedate, glcodeid, max(fundid), max(functionid), max(departmentcode), max(status), sum(debitamount), sum(creditamount)
+	from (select cast(vh.voucherdate as date) as balancedate, gl.glcodeid, vh.fundid, gl.functionid, vh.status,
+			(select mis.departmentcode from vouchermis mis where mis.voucherheaderid = vh.id limit 1) as departmentcode,
+			gl.debitamount, gl.creditamount
+		from generalledger gl join voucherheader vh on vh.id = gl.voucherheaderid) postings
+	group by balancedate, glcodeid, coalesce(fundid, 0), coalesce(functionid, 0), coalesce(departmentcode, ''), coalesce(status, -1);
+end;
+$BODY$ LANGUAGE plpgsql;
+
+SELECT egf_rebuild_ledger_balance();
@@ -0,0 +1,277 @@
+package org.egov.egf.ledgerbalance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the rollup migration on PostgreSQL 10 or later against the queries on generalledger that the reports ran
+ * before. The test runs when egf.test.db.url is set, with egf.test.db.username and egf.test.db.password, and works in
+ * its own schema which is dropped afterwards.
+ */
+public class LedgerBalanceRollupTest {
+
+    private static final String SCHEMA = "egf_ledger_balance_test";
+    private static final String MIGRATION = "/db/migration/main/V20261018110000__egf_ledger_balance_rollup.sql";
+    private static final long[] FUNDS = { 1, 2 };
+    private static final long[] GLCODES = { 101, 102, 103 };
+    private static final Date FROM_DATE = Date.valueOf("2026-04-01");
+    private static final Date TO_DATE = Date.valueOf("2026-06-30");
+    private static final Date OPENING_FROM_DATE = Date.valueOf("2026-01-01");
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        final String url = System.getProperty("egf.test.db.url");
+        Assume.assumeNotNull(url);
+        connection = DriverManager.getConnection(url, System.getProperty("egf.test.db.username"),
+                System.getProperty("egf.test.db.password"));
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("SET search_path TO " + SCHEMA);
+        execute("CREATE TABLE voucherheader (id bigint PRIMARY KEY, voucherdate timestamp, fundid bigint, status smallint)");
+        execute("CREATE TABLE vouchermis (id bigint PRIMARY KEY, voucherheaderid bigint, departmentcode character varying(50))");
+        execute("CREATE TABLE generalledger (id bigint PRIMARY KEY, voucherheaderid bigint, glcodeid bigint, functionid bigint,"
+                + " debitamount double precision, creditamount double precision)");
+
+        // postings made before the migration are loaded by the rebuild
+        execute("INSERT INTO voucherheader VALUES (1, '2026-02-10', 1, 0), (2, '2026-04-15', 1, 0), (3, '2026-05-20', 2, 0)");
+        execute("INSERT INTO vouchermis VALUES (1, 1, 'D1'), (2, 2, 'D2')");
+        execute("INSERT INTO generalledger VALUES (1, 1, 101, 10, 500.25, 0), (2, 1, 102, null, 0, 500.25),"
+                + " (3, 2, 101, 10, 120, 0), (4, 2, 103, 10, 0, 120), (5, 3, 102, null, 75.5, 0), (6, 3, 103, null, 0, 75.5)");
+        try (InputStream script = getClass().getResourceAsStream(MIGRATION);
+                Scanner scanner = new Scanner(script, StandardCharsets.UTF_8.name())) {
+            execute(scanner.useDelimiter("\\A").next());
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testMigrationLoadsTheExistingPostings() throws SQLException {
+        assertTrue(journal().isEmpty());
+        assertBalances();
+    }
+
+    @Test
+    public void testPostingsAreJournaled() throws SQLException {
+        execute("INSERT INTO voucherheader VALUES (4, '2026-06-01', 2, 0)");
+        execute("INSERT INTO vouchermis VALUES (4, 4, 'D1')");
+        execute("INSERT INTO generalledger VALUES (7, 4, 101, 10, 40, 0), (8, 4, 101, 11, 60, 0), (9, 4, 103, null, 0, 100)");
+
+        assertFalse(journal().isEmpty());
+        assertBalancesBeforeAndAfterFold();
+    }
+
+    @Test
+    public void testLedgerLineUpdates() throws SQLException {
+        execute("UPDATE generalledger SET debitamount = 150 WHERE id = 3");
+        execute("UPDATE generalledger SET creditamount = 150 WHERE id = 4");
+        execute("UPDATE generalledger SET glcodeid = 103, functionid = 11 WHERE id = 5");
+        execute("UPDATE generalledger SET voucherheaderid = 2 WHERE id in (5, 6)");
+        // an update which does not change the posting is not journaled
+        execute("UPDATE generalledger SET debitamount = debitamount WHERE id = 1");
+
+        assertBalancesBeforeAndAfterFold();
+    }
+
+    @Test
+    public void testVoucherStatusDateAndFundChanges() throws SQLException {
+        execute("UPDATE voucherheader SET status = 4 WHERE id in (2, 3)");
+        assertBalancesBeforeAndAfterFold();
+
+        execute("UPDATE voucherheader SET status = 0, voucherdate = '2026-03-31' WHERE id = 2");
+        execute("UPDATE voucherheader SET fundid = 1, voucherdate = '2026-05-20 00:00:00' WHERE id = 3");
+        execute("UPDATE voucherheader SET fundid = 2 WHERE id = 1");
+        assertBalancesBeforeAndAfterFold();
+    }
+
+    @Test
+    public void testVoucherDepartmentChanges() throws SQLException {
+        execute("UPDATE vouchermis SET departmentcode = 'D2' WHERE id = 1");
+        execute("INSERT INTO vouchermis VALUES (3, 3, 'D1')");
+        assertBalancesBeforeAndAfterFold();
+
+        execute("DELETE FROM vouchermis WHERE id = 2");
+        execute("UPDATE vouchermis SET voucherheaderid = 2 WHERE id = 3");
+        assertBalancesBeforeAndAfterFold();
+    }
+
+    @Test
+    public void testLedgerLineDeletes() throws SQLException {
+        execute("DELETE FROM generalledger WHERE id in (3, 5)");
+        assertBalancesBeforeAndAfterFold();
+
+        execute("DELETE FROM generalledger WHERE voucherheaderid = 1");
+        assertBalancesBeforeAndAfterFold();
+    }
+
+    @Test
+    public void testFoldIsIdempotent() throws SQLException {
+        execute("UPDATE voucherheader SET status = 4 WHERE id = 1");
+        assertTrue(fold() > 0);
+
+        assertEquals(0, fold());
+        assertTrue(journal().isEmpty());
+        assertBalances();
+    }
+
+    @Test
+    public void testRebuildRepairsTheBalances() throws SQLException {
+        execute("UPDATE voucherheader SET status = 4 WHERE id = 3");
+        fold();
+        execute("UPDATE egf_ledger_balance_total SET debitamount = debitamount + 1");
+        execute("INSERT INTO egf_ledger_balance_journal (balancedate, glcodeid, fundid, debitamount, creditamount)"
+                + " VALUES ('2026-04-15', 101, 1, 0, 10)");
+
+        execute("SELECT egf_rebuild_ledger_balance()");
+
+        assertTrue(journal().isEmpty());
+        assertBalances();
+    }
+
+    private void assertBalancesBeforeAndAfterFold() throws SQLException {
+        assertBalances();
+        fold();
+        assertTrue(journal().isEmpty());
+        assertBalances();
+    }
+
+    private void assertBalances() throws SQLException {
+        assertEquals(
+                rows("SELECT voucherdate, glcodeid, fundid, functionid, departmentcode, status,"
+                        + " cast(sum(debitamount) as numeric(18,2)), cast(sum(creditamount) as numeric(18,2))"
+                        + " FROM (SELECT cast(vh.voucherdate as date) AS voucherdate, gl.glcodeid, vh.fundid, gl.functionid,"
+                        + " (SELECT mis.departmentcode FROM vouchermis mis WHERE mis.voucherheaderid = vh.id limit 1) AS departmentcode,"
+                        + " vh.status, gl.debitamount, gl.creditamount"
+                        + " FROM generalledger gl, voucherheader vh WHERE vh.id = gl.voucherheaderid) postings"
+                        + " GROUP BY 1, 2, 3, 4, 5, 6 ORDER BY 1, 2, 3, 4, 5, 6"),
+                rows("SELECT balancedate, glcodeid, fundid, functionid, departmentcode, status,"
+                        + " sum(debitamount), sum(creditamount) FROM egf_ledger_balance"
+                        + " GROUP BY 1, 2, 3, 4, 5, 6 HAVING sum(debitamount) <> 0 OR sum(creditamount) <> 0"
+                        + " ORDER BY 1, 2, 3, 4, 5, 6"));
+        for (final long fundId : FUNDS) {
+            assertTrialBalance(fundId);
+            for (final long glcodeId : GLCODES) {
+                assertGeneralLedgerOpeningBalance(glcodeId, fundId);
+                assertGlcodeBalanceBeforeDate(glcodeId, fundId);
+            }
+        }
+    }
+
+    /** TrialBalanceAction, balances of the period per account code of the fund, with and without department */
+    private void assertTrialBalance(final long fundId) throws SQLException {
+        assertEquals(
+                rows("SELECT gl.glcodeid, cast(sum(gl.creditamount) as numeric(18,2)), cast(sum(gl.debitamount) as numeric(18,2))"
+                        + " FROM generalledger gl, voucherheader vh WHERE vh.id = gl.voucherheaderid AND vh.fundid = ?"
+                        + " AND vh.voucherdate >= ? AND vh.voucherdate <= ? AND vh.status not in (4)"
+                        + " GROUP BY gl.glcodeid ORDER BY gl.glcodeid", fundId, FROM_DATE, TO_DATE),
+                rows("SELECT lb.glcodeid, sum(lb.creditamount), sum(lb.debitamount) FROM egf_ledger_balance lb"
+                        + " WHERE lb.fundid = ? AND lb.balancedate >= ? AND lb.balancedate <= ? AND lb.status not in (4)"
+                        + " GROUP BY lb.glcodeid HAVING sum(lb.debitamount) <> 0 OR sum(lb.creditamount) <> 0"
+                        + " ORDER BY lb.glcodeid", fundId, FROM_DATE, TO_DATE));
+        assertEquals(
+                rows("SELECT gl.glcodeid, cast(sum(gl.creditamount) as numeric(18,2)), cast(sum(gl.debitamount) as numeric(18,2))"
+                        + " FROM generalledger gl, voucherheader vh, vouchermis mis WHERE vh.id = gl.voucherheaderid"
+                        + " AND mis.voucherheaderid = vh.id AND mis.departmentcode = 'D1' AND vh.fundid = ?"
+                        + " AND vh.voucherdate >= ? AND vh.voucherdate <= ? AND vh.status not in (4)"
+                        + " GROUP BY gl.glcodeid ORDER BY gl.glcodeid", fundId, OPENING_FROM_DATE, TO_DATE),
+                rows("SELECT lb.glcodeid, sum(lb.creditamount), sum(lb.debitamount) FROM egf_ledger_balance lb"
+                        + " WHERE lb.departmentcode = 'D1' AND lb.fundid = ? AND lb.balancedate >= ? AND lb.balancedate <= ?"
+                        + " AND lb.status not in (4) GROUP BY lb.glcodeid HAVING sum(lb.debitamount) <> 0 OR sum(lb.creditamount) <> 0"
+                        + " ORDER BY lb.glcodeid", fundId, OPENING_FROM_DATE, TO_DATE));
+    }
+
+    /** GeneralLedgerReport, debit and credit of the account code till the start date */
+    private void assertGeneralLedgerOpeningBalance(final long glcodeId, final long fundId) throws SQLException {
+        assertEquals(
+                rows("SELECT cast(coalesce(sum(gl.debitamount), 0) as numeric(18,2)), cast(coalesce(sum(gl.creditamount), 0) as numeric(18,2))"
+                        + " FROM generalledger gl, voucherheader vh WHERE vh.id = gl.voucherheaderid AND gl.glcodeid = ?"
+                        + " AND vh.fundid = ? AND vh.voucherdate >= ? AND vh.voucherdate < ? AND vh.status not in (4)",
+                        glcodeId, fundId, OPENING_FROM_DATE, FROM_DATE),
+                rows("SELECT cast(coalesce(sum(lb.debitamount), 0) as numeric(18,2)), cast(coalesce(sum(lb.creditamount), 0) as numeric(18,2))"
+                        + " FROM egf_ledger_balance lb"
+                        + " WHERE lb.glcodeid = ? AND lb.fundid = ? AND lb.balancedate >= ? AND lb.balancedate < ?"
+                        + " AND lb.status not in (4)", glcodeId, fundId, OPENING_FROM_DATE, FROM_DATE));
+    }
+
+    /** EgovCommon.getGlcodeBalBeforeDate, balance of the account code before the date, with and without department */
+    private void assertGlcodeBalanceBeforeDate(final long glcodeId, final long fundId) throws SQLException {
+        assertEquals(
+                rows("SELECT cast(coalesce(sum(gl.debitamount), 0) - coalesce(sum(gl.creditamount), 0) as numeric(18,2))"
+                        + " FROM generalledger gl, voucherheader vh WHERE vh.id = gl.voucherheaderid AND gl.glcodeid = ?"
+                        + " AND vh.fundid = ? AND vh.voucherdate >= ? AND vh.voucherdate < ? AND vh.status not in (4)",
+                        glcodeId, fundId, OPENING_FROM_DATE, TO_DATE),
+                rows("SELECT cast(coalesce(sum(lb.debitamount), 0) - coalesce(sum(lb.creditamount), 0) as numeric(18,2))"
+                        + " FROM egf_ledger_balance lb"
+                        + " WHERE lb.glcodeid = ? AND lb.fundid = ? AND lb.balancedate >= ? AND lb.balancedate < ?"
+                        + " AND lb.status not in (4)", glcodeId, fundId, OPENING_FROM_DATE, TO_DATE));
+        assertEquals(
+                rows("SELECT cast(coalesce(sum(gl.debitamount), 0) - coalesce(sum(gl.creditamount), 0) as numeric(18,2))"
+                        + " FROM generalledger gl, voucherheader vh, vouchermis mis WHERE vh.id = gl.voucherheaderid"
+                        + " AND mis.voucherheaderid = vh.id AND mis.departmentcode = 'D2' AND gl.glcodeid = ?"
+                        + " AND vh.fundid = ? AND vh.voucherdate >= ? AND vh.voucherdate < ? AND vh.status not in (4)",
+                        glcodeId, fundId, OPENING_FROM_DATE, TO_DATE),
+                rows("SELECT cast(coalesce(sum(lb.debitamount), 0) - coalesce(sum(lb.creditamount), 0) as numeric(18,2))"
+                        + " FROM egf_ledger_balance lb"
+                        + " WHERE lb.departmentcode = 'D2' AND lb.glcodeid = ? AND lb.fundid = ? AND lb.balancedate >= ?"
+                        + " AND lb.balancedate < ? AND lb.status not in (4)", glcodeId, fundId, OPENING_FROM_DATE, TO_DATE));
+    }
+
+    private int fold() throws SQLException {
+        return Integer.parseInt(rows("SELECT egf_fold_ledger_balance_journal()").get(0));
+    }
+
+    private List<String> journal() throws SQLException {
+        return rows("SELECT * FROM egf_ledger_balance_journal");
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private List<String> rows(final String sql, final Object... params) throws SQLException {
+        final List<String> rows = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++)
+                statement.setObject(i + 1, params[i]);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                final int columns = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    final StringBuilder row = new StringBuilder();
+                    for (int column = 1; column <= columns; column++)
+                        row.append(column > 1 ? "|" : "").append(resultSet.getString(column));
+                    rows.add(row.toString());
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -373,118 +373,124 @@ public class TrialBalanceAction extends BaseFormAction {
             defaultStatusExclude = listAppConfVal.get(0).getValue();
         else
             throw new ApplicationRuntimeException("Exlcude statusses not  are not defined for Reports");
-        final StringBuffer query = new StringBuffer(" SELECT gl.glcode AS \"accCode\" ,coa.name AS \"accName\" ,vh.fundid AS \"fundId\",")
-                .append("(SUM(debitamount)+SUM((SELECT case when SUM(OPENINGDEBITBALANCE)  is null  then 0 else SUM(OPENINGDEBITBALANCE) end")
-                .append(" FROM transactionsummary")
-                .append(" WHERE financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate)")
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) AND fundid=vh.fundid")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append("))/COUNT(*))-")
-                .append(" (SUM(creditamount)+SUM((SELECT  case when SUM(OPENINGCREDITBALANCE)  is null  then 0 else SUM(OPENINGCREDITBALANCE) end FROM")
-                .append(" transactionsummary WHERE financialyearid=(SELECT id FROM financialyear  WHERE startingdate<=:toDate AND endingdate>=:toDate)")
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) AND fundid=vh.fundid")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append("))/COUNT(*) ) as \"amount\" ")
-                .append(" FROM generalledger gl,chartofaccounts   coa,voucherheader vh ")
-                .append(voucherMisTable)
-                .append(" WHERE coa.glcode=gl.glcode AND gl.voucherheaderid=vh.id")
-                .append(misClause)
-                .append(" AND vh.status not in (")
-                .append(defaultStatusExclude)
-                .append(") ")
-                .append(" AND  vh.voucherdate<=:toDate AND vh.voucherdate>=(SELECT startingdate FROM financialyear WHERE  startingdate<=:toDate AND   endingdate>=:toDate) ")
-                .append(fundcondition)
-                .append( " ")
-                .append(misDeptCond)
-                .append(functionaryCond)
-                .append(functionIdCond)
-                .append(fieldIdCond)
-                .append(" GROUP BY gl.glcode,coa.name,vh.fundid    HAVING (SUM(debitamount)>0 OR SUM(creditamount)>0) And")
-                .append(" (SUM(debitamount)+SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0 else SUM(OPENINGDEBITBALANCE) end FROM")
-                .append(" transactionsummary WHERE  financialyearid=(SELECT id FROM financialyear WHERE startingdate <=:toDate")
-                .append(" AND endingdate >=:toDate) AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append("))/COUNT(*))-")
-                .append(" (SUM(creditamount)+SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end FROM")
-                .append(" transactionsummary WHERE financialyearid=(SELECT id FROM financialyear    WHERE startingdate<=:toDate AND endingdate>=:toDate) ")
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode)  ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append("))/COUNT(*) )<>0")
-                .append(" union")
-                .append(" SELECT coa.glcode AS \"accCode\" ,coa.name AS \"accName\" , fu.id as \"fundId\", SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0")
-                .append(" else SUM(OPENINGDEBITBALANCE) end ")
-                .append(" FROM transactionsummary WHERE financialyearid=(SELECT id FROM financialyear WHERE  startingdate<=:toDate AND endingdate>=:toDate)")
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE  glcode=coa.glcode) AND fundid= (select id from fund where id=fu.id)")
-                .append(" ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append(")) - SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end as \"amount\" FROM transactionsummary WHERE")
-                .append(" financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate) AND glcodeid =(SELECT id FROM chartofaccounts")
-                .append(" WHERE glcode=coa.glcode)AND fundid= (select id from fund where id=fu.id)")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append(")) ")
-                .append(" FROM chartofaccounts  coa, fund fu  WHERE  fu.id IN(SELECT fundid from transactionsummary WHERE financialyearid =")
-                .append(" (SELECT id FROM financialyear WHERE startingdate<=:toDate ")
-                .append(" AND endingdate>=:toDate) ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE  glcode=coa.glcode) ) AND coa.id NOT IN(SELECT glcodeid FROM generalledger gl,voucherheader vh ")
-                .append(voucherMisTable)
-                .append(" WHERE ")
-                .append(" vh.status not in (")
-                .append(defaultStatusExclude)
-                .append(") ")
-                .append(misClause)
-                .append(misDeptCond)
-                .append(functionaryCond)
-                .append(functionIdCond)
-                .append(fieldIdCond)
-                .append(" AND vh.id=gl.voucherheaderid AND vh.fundid=fu.id AND vh.voucherdate<=:toDate AND vh.voucherdate>=")
-                .append("(SELECT startingdate FROM financialyear WHERE  startingdate<=:toDate AND   endingdate>=:toDate) ")
-                .append(fundcondition)
-                .append( ")")
-                .append(" GROUP BY coa.glcode,coa.name, fu.id")
-                .append(" HAVING((SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0 else SUM(OPENINGDEBITBALANCE) end FROM transactionsummary WHERE")
-                .append(" financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate) AND glcodeid =")
-                .append("(SELECT id FROM chartofaccounts WHERE glcode=coa.glcode) ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond)
-                .append(tsFunctionIdCond)
-                .append(tsFieldIdCond)
-                .append(" )) >0 )")
-                .append(" OR (SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end")
-                .append(" FROM transactionsummary WHERE financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate)")
-                .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=coa.glcode) ")
-                .append(fundcondition)
-                .append(tsDeptCond)
-                .append(tsfunctionaryCond).append(tsFunctionIdCond).append(tsFieldIdCond).append("))>0 ))  ORDER BY \"accCode\"");
+        final StringBuffer query;
+        // the daily balances answer the report unless it is filtered on the functionary, the division or the
+        // function, the function filter of this report selecting the vouchers having a line of the function
+        if (null == rb.getFunctionaryId() && null == rb.getDivisionId() && null == rb.getFunctionId())
+            query = getLedgerBalanceAsOnDateQuery(fundcondition, tsDeptCond, defaultStatusExclude);
+        else
+            query = new StringBuffer(" SELECT gl.glcode AS \"accCode\" ,coa.name AS \"accName\" ,vh.fundid AS \"fundId\",")
+                    .append("(SUM(debitamount)+SUM((SELECT case when SUM(OPENINGDEBITBALANCE)  is null  then 0 else SUM(OPENINGDEBITBALANCE) end")
+                    .append(" FROM transactionsummary")
+                    .append(" WHERE financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate)")
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) AND fundid=vh.fundid")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append("))/COUNT(*))-")
+                    .append(" (SUM(creditamount)+SUM((SELECT  case when SUM(OPENINGCREDITBALANCE)  is null  then 0 else SUM(OPENINGCREDITBALANCE) end FROM")
+                    .append(" transactionsummary WHERE financialyearid=(SELECT id FROM financialyear  WHERE startingdate<=:toDate AND endingdate>=:toDate)")
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) AND fundid=vh.fundid")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append("))/COUNT(*) ) as \"amount\" ")
+                    .append(" FROM generalledger gl,chartofaccounts   coa,voucherheader vh ")
+                    .append(voucherMisTable)
+                    .append(" WHERE coa.glcode=gl.glcode AND gl.voucherheaderid=vh.id")
+                    .append(misClause)
+                    .append(" AND vh.status not in (")
+                    .append(defaultStatusExclude)
+                    .append(") ")
+                    .append(" AND  vh.voucherdate<=:toDate AND vh.voucherdate>=(SELECT startingdate FROM financialyear WHERE  startingdate<=:toDate AND   endingdate>=:toDate) ")
+                    .append(fundcondition)
+                    .append( " ")
+                    .append(misDeptCond)
+                    .append(functionaryCond)
+                    .append(functionIdCond)
+                    .append(fieldIdCond)
+                    .append(" GROUP BY gl.glcode,coa.name,vh.fundid    HAVING (SUM(debitamount)>0 OR SUM(creditamount)>0) And")
+                    .append(" (SUM(debitamount)+SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0 else SUM(OPENINGDEBITBALANCE) end FROM")
+                    .append(" transactionsummary WHERE  financialyearid=(SELECT id FROM financialyear WHERE startingdate <=:toDate")
+                    .append(" AND endingdate >=:toDate) AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode) ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append("))/COUNT(*))-")
+                    .append(" (SUM(creditamount)+SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end FROM")
+                    .append(" transactionsummary WHERE financialyearid=(SELECT id FROM financialyear    WHERE startingdate<=:toDate AND endingdate>=:toDate) ")
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=gl.glcode)  ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append("))/COUNT(*) )<>0")
+                    .append(" union")
+                    .append(" SELECT coa.glcode AS \"accCode\" ,coa.name AS \"accName\" , fu.id as \"fundId\", SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0")
+                    .append(" else SUM(OPENINGDEBITBALANCE) end ")
+                    .append(" FROM transactionsummary WHERE financialyearid=(SELECT id FROM financialyear WHERE  startingdate<=:toDate AND endingdate>=:toDate)")
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE  glcode=coa.glcode) AND fundid= (select id from fund where id=fu.id)")
+                    .append(" ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append(")) - SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end as \"amount\" FROM transactionsummary WHERE")
+                    .append(" financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate) AND glcodeid =(SELECT id FROM chartofaccounts")
+                    .append(" WHERE glcode=coa.glcode)AND fundid= (select id from fund where id=fu.id)")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append(")) ")
+                    .append(" FROM chartofaccounts  coa, fund fu  WHERE  fu.id IN(SELECT fundid from transactionsummary WHERE financialyearid =")
+                    .append(" (SELECT id FROM financialyear WHERE startingdate<=:toDate ")
+                    .append(" AND endingdate>=:toDate) ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE  glcode=coa.glcode) ) AND coa.id NOT IN(SELECT glcodeid FROM generalledger gl,voucherheader vh ")
+                    .append(voucherMisTable)
+                    .append(" WHERE ")
+                    .append(" vh.status not in (")
+                    .append(defaultStatusExclude)
+                    .append(") ")
+                    .append(misClause)
+                    .append(misDeptCond)
+                    .append(functionaryCond)
+                    .append(functionIdCond)
+                    .append(fieldIdCond)
+                    .append(" AND vh.id=gl.voucherheaderid AND vh.fundid=fu.id AND vh.voucherdate<=:toDate AND vh.voucherdate>=")
+                    .append("(SELECT startingdate FROM financialyear WHERE  startingdate<=:toDate AND   endingdate>=:toDate) ")
+                    .append(fundcondition)
+                    .append( ")")
+                    .append(" GROUP BY coa.glcode,coa.name, fu.id")
+                    .append(" HAVING((SUM((SELECT case when SUM(OPENINGDEBITBALANCE) IS NULL then 0 else SUM(OPENINGDEBITBALANCE) end FROM transactionsummary WHERE")
+                    .append(" financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate) AND glcodeid =")
+                    .append("(SELECT id FROM chartofaccounts WHERE glcode=coa.glcode) ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond)
+                    .append(tsFunctionIdCond)
+                    .append(tsFieldIdCond)
+                    .append(" )) >0 )")
+                    .append(" OR (SUM((SELECT  case when SUM(OPENINGCREDITBALANCE) IS NULL then 0 else SUM(OPENINGCREDITBALANCE) end")
+                    .append(" FROM transactionsummary WHERE financialyearid=(SELECT id FROM financialyear WHERE startingdate<=:toDate AND endingdate>=:toDate)")
+                    .append(" AND glcodeid =(SELECT id FROM chartofaccounts WHERE glcode=coa.glcode) ")
+                    .append(fundcondition)
+                    .append(tsDeptCond)
+                    .append(tsfunctionaryCond).append(tsFunctionIdCond).append(tsFieldIdCond).append("))>0 ))  ORDER BY \"accCode\"");
         if (LOGGER.isDebugEnabled())
             LOGGER.debug("&&&query  " + query.toString());
         try
@@ -640,6 +646,38 @@ public class TrialBalanceAction extends BaseFormAction {
 
     }
 	
+	/**
+	 * Balance as on date per account code and fund, from the opening balances of the year and the daily balances
+	 * in egf_ledger_balance till the date. As in the query on generalledger, the account codes having postings in
+	 * the year are kept when their balance is not zero and the others when they have an opening balance.
+	 */
+	private StringBuffer getLedgerBalanceAsOnDateQuery(final String fundcondition, final String tsDeptCond,
+			final String defaultStatusExclude) {
+		return new StringBuffer(" SELECT coa.glcode AS \"accCode\" ,coa.name AS \"accName\" ,bal.fundid AS \"fundId\",")
+				.append(" SUM(bal.debitamount)-SUM(bal.creditamount) AS \"amount\"")
+				.append(" FROM (SELECT lb.glcodeid,lb.fundid,lb.debitamount,lb.creditamount,lb.debitamount+lb.creditamount AS postedamount")
+				.append(" FROM egf_ledger_balance lb,financialyear fy")
+				.append(" WHERE fy.startingdate<=:toDate AND fy.endingdate>=:toDate")
+				.append(" AND lb.balancedate>=fy.startingdate AND lb.balancedate<=:toDate")
+				.append(" AND lb.status not in (")
+				.append(defaultStatusExclude)
+				.append(") ")
+				.append(fundcondition)
+				.append(tsDeptCond)
+				.append(" UNION ALL")
+				.append(" SELECT ts.glcodeid,ts.fundid,ts.openingdebitbalance,ts.openingcreditbalance,0")
+				.append(" FROM transactionsummary ts,financialyear fy")
+				.append(" WHERE ts.financialyearid=fy.id AND fy.startingdate<=:toDate AND fy.endingdate>=:toDate")
+				.append(fundcondition)
+				.append(tsDeptCond)
+				.append(") bal,chartofaccounts coa")
+				.append(" WHERE bal.glcodeid=coa.id")
+				.append(" GROUP BY coa.glcode,coa.name,bal.fundid")
+				.append(" HAVING (SUM(bal.postedamount)>0 AND SUM(bal.debitamount)-SUM(bal.creditamount)<>0)")
+				.append(" OR (SUM(bal.postedamount)=0 AND (SUM(bal.debitamount)>0 OR SUM(bal.creditamount)>0))")
+				.append(" ORDER BY \"accCode\"");
+	}
+
 	private void getReportForDateRange() {
 
         if (LOGGER.isDebugEnabled())
@@ -649,12 +687,14 @@ public class TrialBalanceAction extends BaseFormAction {
         String misDeptCond = "";
         final Map<String, Object> deptQuertParams = new HashMap<>();
         String tsDeptCond = "";
+        String lbDeptCond = "";
         String functionaryCond = "";
         final Map<String, Object> functionaryQueryParams = new HashMap<>();
         String tsfunctionaryCond = "";
         String functionIdCond = "";
         final Map<String, Object> functionQueryParams = new HashMap<>();
         String tsFunctionIdCond = "";
+        String lbFunctionIdCond = "";
         String tsdivisionIdCond = "";
         String misdivisionIdCond = "";
         final Map<String, Object> divisionQueryParams = new HashMap<>();
@@ -666,6 +706,7 @@ public class TrialBalanceAction extends BaseFormAction {
         if (null != rb.getDepartmentCode() && !rb.getDepartmentCode().isEmpty()) {
             misDeptCond = " and mis.DepartmentCode=:departmentCode";
             tsDeptCond = " and ts.DepartmentCode=:departmentCode";
+            lbDeptCond = " and lb.departmentcode=:departmentCode";
             deptQuertParams.put("departmentCode", rb.getDepartmentCode());
         }
         if (null != rb.getFunctionaryId()) {
@@ -676,6 +717,7 @@ public class TrialBalanceAction extends BaseFormAction {
         if (null != rb.getFunctionId()) {
             functionIdCond = " and gl.functionid=:functionId";
             tsFunctionIdCond = " and ts.FUNCTIONID=:functionId";
+            lbFunctionIdCond = " and lb.functionid=:functionId";
             functionQueryParams.put("functionId", rb.getFunctionId());
         }
         if (null != rb.getDivisionId()) {
@@ -730,22 +772,40 @@ public class TrialBalanceAction extends BaseFormAction {
         if (LOGGER.isDebugEnabled())
             LOGGER.debug("get till date balance for all account codes");
         // get till date balance for all account codes
-        final StringBuffer tillDateOPBStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(gl.creditAmount) as tillDateCreditOPB,")
-                .append("sum(gl.debitAmount) as tillDateDebitOPB")
-                .append(" FROM generalledger  gl,chartofaccounts coa,financialyear fy,Voucherheader vh ")
-                .append(voucherMisTable)
-                .append( " WHERE gl.glcodeid=coa.id and vh.id=gl.voucherheaderid  and vh.fundid=:fundId ")
-                .append(misClause)
-                .append(misDeptCond)
-                .append(functionaryCond)
-                .append(functionIdCond)
-                .append(misdivisionIdCond )
-                .append(" AND vh.voucherdate>=fy.startingdate AND vh.voucherdate<=:fromDateMinus1 ")
-                .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
-                .append(" AND vh.status not in (" )
-                .append(defaultStatusExclude)
-                .append(")")
-                .append(" GROUP BY gl.glcodeid,coa.glcode,coa.name ORDER BY coa.glcode ASC");
+        // the daily balances answer the report unless it is filtered on the functionary or the division
+        final boolean fromLedgerBalance = null == rb.getFunctionaryId() && null == rb.getDivisionId();
+        final StringBuffer tillDateOPBStr;
+        if (fromLedgerBalance)
+            tillDateOPBStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(lb.creditamount) as tillDateCreditOPB,")
+                    .append("sum(lb.debitamount) as tillDateDebitOPB")
+                    .append(" FROM egf_ledger_balance lb,chartofaccounts coa,financialyear fy ")
+                    .append(" WHERE lb.glcodeid=coa.id and lb.fundid=:fundId ")
+                    .append(lbDeptCond)
+                    .append(lbFunctionIdCond)
+                    .append(" AND lb.balancedate>=fy.startingdate AND lb.balancedate<=:fromDateMinus1 ")
+                    .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
+                    .append(" AND lb.status not in (")
+                    .append(defaultStatusExclude)
+                    .append(")")
+                    .append(" GROUP BY lb.glcodeid,coa.glcode,coa.name")
+                    .append(" HAVING SUM(lb.debitamount)<>0 OR SUM(lb.creditamount)<>0 ORDER BY coa.glcode ASC");
+        else
+            tillDateOPBStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(gl.creditAmount) as tillDateCreditOPB,")
+                    .append("sum(gl.debitAmount) as tillDateDebitOPB")
+                    .append(" FROM generalledger  gl,chartofaccounts coa,financialyear fy,Voucherheader vh ")
+                    .append(voucherMisTable)
+                    .append( " WHERE gl.glcodeid=coa.id and vh.id=gl.voucherheaderid  and vh.fundid=:fundId ")
+                    .append(misClause)
+                    .append(misDeptCond)
+                    .append(functionaryCond)
+                    .append(functionIdCond)
+                    .append(misdivisionIdCond )
+                    .append(" AND vh.voucherdate>=fy.startingdate AND vh.voucherdate<=:fromDateMinus1 ")
+                    .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
+                    .append(" AND vh.status not in (" )
+                    .append(defaultStatusExclude)
+                    .append(")")
+                    .append(" GROUP BY gl.glcodeid,coa.glcode,coa.name ORDER BY coa.glcode ASC");
         final Query tillDateOPBQry = persistenceService.getSession().createSQLQuery(tillDateOPBStr.toString())
                 .addScalar("accCode")
                 .addScalar("accName")
@@ -772,22 +832,38 @@ public class TrialBalanceAction extends BaseFormAction {
         if (LOGGER.isDebugEnabled())
             LOGGER.debug("get current debit and credit sum for all account codes  ");
         // get current debit and credit sum for all account codes
-        final StringBuffer currentDebitCreditStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(gl.creditAmount) as creditAmount,")
-                .append("sum(gl.debitAmount) as debitAmount")
-                .append(" FROM generalledger gl,chartofaccounts coa,financialyear fy,Voucherheader vh ")
-                .append(voucherMisTable)
-                .append(" WHERE gl.glcodeid=coa.id and vh.id= gl.voucherheaderid AND  vh.fundid=:fundId ")
-                .append(misClause)
-                .append(misDeptCond)
-                .append(functionaryCond)
-                .append(functionIdCond)
-                .append(misdivisionIdCond)
-                .append(" AND vh.voucherdate>=:fromDate AND vh.voucherdate<=:toDate ")
-                .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
-                .append(" AND vh.status not in (")
-                .append(defaultStatusExclude)
-                .append(") ")
-                .append(" GROUP BY gl.glcodeid,coa.glcode,coa.name ORDER BY coa.glcode ASC");
+        final StringBuffer currentDebitCreditStr;
+        if (fromLedgerBalance)
+            currentDebitCreditStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(lb.creditamount) as creditAmount,")
+                    .append("sum(lb.debitamount) as debitAmount")
+                    .append(" FROM egf_ledger_balance lb,chartofaccounts coa,financialyear fy ")
+                    .append(" WHERE lb.glcodeid=coa.id AND lb.fundid=:fundId ")
+                    .append(lbDeptCond)
+                    .append(lbFunctionIdCond)
+                    .append(" AND lb.balancedate>=:fromDate AND lb.balancedate<=:toDate ")
+                    .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
+                    .append(" AND lb.status not in (")
+                    .append(defaultStatusExclude)
+                    .append(") ")
+                    .append(" GROUP BY lb.glcodeid,coa.glcode,coa.name")
+                    .append(" HAVING SUM(lb.debitamount)<>0 OR SUM(lb.creditamount)<>0 ORDER BY coa.glcode ASC");
+        else
+            currentDebitCreditStr = new StringBuffer("SELECT coa.glcode AS accCode ,coa.name  AS accName, SUM(gl.creditAmount) as creditAmount,")
+                    .append("sum(gl.debitAmount) as debitAmount")
+                    .append(" FROM generalledger gl,chartofaccounts coa,financialyear fy,Voucherheader vh ")
+                    .append(voucherMisTable)
+                    .append(" WHERE gl.glcodeid=coa.id and vh.id= gl.voucherheaderid AND  vh.fundid=:fundId ")
+                    .append(misClause)
+                    .append(misDeptCond)
+                    .append(functionaryCond)
+                    .append(functionIdCond)
+                    .append(misdivisionIdCond)
+                    .append(" AND vh.voucherdate>=:fromDate AND vh.voucherdate<=:toDate ")
+                    .append(" AND fy.startingdate<=:fromDate AND fy.endingdate>=:toDate")
+                    .append(" AND vh.status not in (")
+                    .append(defaultStatusExclude)
+                    .append(") ")
+                    .append(" GROUP BY gl.glcodeid,coa.glcode,coa.name ORDER BY coa.glcode ASC");
         final Query currentDebitCreditQry = persistenceService.getSession().createSQLQuery(currentDebitCreditStr.toString())
                 .addScalar("accCode")
                 .addScalar("accName")
@@ -157,4 +157,7 @@ public class InboxConfiguration {
 
 	@Value("${egov.searcher.tp.search.desc.path}")
 	private String tpInboxSearcherDescEndpoint;
-}
\ No newline at end of file
+
+	@Value("${inbox.es.multisearch.enabled:true}")
+	private Boolean isInboxMultiSearchEnabled;
+}
@@ -11,15 +11,20 @@ import static org.egov.inbox.util.InboxConstants.CREATED_TIME_KEY;
 import static org.egov.inbox.util.InboxConstants.CURRENT_PROCESS_INSTANCE_CONSTANT;
 import static org.egov.inbox.util.InboxConstants.DATA_KEY;
 import static org.egov.inbox.util.InboxConstants.DOC_COUNT_KEY;
+import static org.egov.inbox.util.InboxConstants.ERROR_KEY;
 import static org.egov.inbox.util.InboxConstants.HITS;
 import static org.egov.inbox.util.InboxConstants.KEY;
 import static org.egov.inbox.util.InboxConstants.LAST_MODIFIED_TIME_KEY;
+import static org.egov.inbox.util.InboxConstants.MULTI_SEARCH_HEADER;
+import static org.egov.inbox.util.InboxConstants.MULTI_SEARCH_PATH;
+import static org.egov.inbox.util.InboxConstants.RESPONSES_KEY;
 import static org.egov.inbox.util.InboxConstants.SEARCH_PATH;
 import static org.egov.inbox.util.InboxConstants.SERVICESLA_KEY;
 import static org.egov.inbox.util.InboxConstants.SOURCE_KEY;
 import static org.egov.inbox.util.InboxConstants.STATE_UUID_PATH;
 import static org.egov.inbox.util.InboxConstants.STATUSID_KEY;
 import static org.egov.inbox.util.InboxConstants.STATUS_COUNT_AGGREGATIONS_BUCKETS_PATH;
+import static org.egov.inbox.util.InboxConstants.TOOK_KEY;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -28,6 +33,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.egov.hash.HashService;
 import org.egov.inbox.config.InboxConfiguration;
@@ -36,6 +42,7 @@ import org.egov.inbox.repository.builder.V2.InboxQueryBuilder;
 import org.egov.inbox.service.WorkflowService;
 import org.egov.inbox.service.V2.validator.ValidatorDefaultImplementation;
 import org.egov.inbox.util.ElasticSearchUtil;
+import org.egov.inbox.util.ErrorConstants;
 import org.egov.inbox.util.MDMSUtil;
 import org.egov.inbox.web.model.Inbox;
 import org.egov.inbox.web.model.InboxRequest;
@@ -62,12 +69,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.wnameless.json.flattener.JsonFlattener;
 import com.jayway.jsonpath.JsonPath;
 
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class InboxServiceV2 {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String MULTI_SEARCH_TIMER = "inbox.es.msearch";
+
+    private static final String QUERY_TIMER = "inbox.es.query";
+
+    private static final String INDEX_TAG = "index";
+
+    private static final String QUERY_TAG = "query";
+
+    private static final String SEARCH_QUERY_NAME = "search";
+
+    private static final String COUNT_QUERY_NAME = "count";
+
+    private static final String STATUS_COUNT_QUERY_NAME = "statusCount";
+
+    private static final String NEARING_SLA_COUNT_QUERY_NAME = "nearingSlaCount";
+
     @Autowired
     private InboxConfiguration config;
 
@@ -97,7 +123,8 @@ public class InboxServiceV2 {
 
 
     /**
-     *
+     * Fetches the inbox items, total count, status wise count and nearing sla count. When multi search is
+     * enabled all the ES queries are sent in a single _msearch round trip instead of one call per query.
      * @param inboxRequest
      * @return
      */
@@ -106,16 +133,126 @@ public class InboxServiceV2 {
         validator.validateSearchCriteria(inboxRequest);
         InboxQueryConfiguration inboxQueryConfiguration = mdmsUtil.getConfigFromMDMS(inboxRequest.getInbox().getTenantId(), inboxRequest.getInbox().getProcessSearchCriteria().getModuleName());
         hashParamsWhereverRequiredBasedOnConfiguration(inboxRequest.getInbox().getModuleSearchCriteria(), inboxQueryConfiguration);
-        List<Inbox> items = getInboxItems(inboxRequest, inboxQueryConfiguration.getIndex());
+
+        List<BusinessService> businessServices = workflowService.getBusinessServices(inboxRequest);
+        enrichActionableStatusesFromRole(inboxRequest, businessServices);
+        if(CollectionUtils.isEmpty(inboxRequest.getInbox().getProcessSearchCriteria().getStatus())){
+            return InboxResponse.builder().items(new ArrayList<>()).totalCount(0).statusMap(new ArrayList<>()).nearingSlaCount(0).build();
+        }
+
+        if(config.getIsInboxMultiSearchEnabled())
+            return getInboxResponseFromMultiSearch(inboxRequest, businessServices, inboxQueryConfiguration.getIndex());
+
+        List<Inbox> items = getInboxItems(inboxRequest, businessServices, inboxQueryConfiguration.getIndex());
         enrichProcessInstanceInInboxItems(items);
-        Integer totalCount = CollectionUtils.isEmpty(inboxRequest.getInbox().getProcessSearchCriteria().getStatus()) ? 0 : getTotalApplicationCount(inboxRequest, inboxQueryConfiguration.getIndex());
-        List<HashMap<String, Object>> statusCountMap = CollectionUtils.isEmpty(inboxRequest.getInbox().getProcessSearchCriteria().getStatus()) ? new ArrayList<>() : getStatusCountMap(inboxRequest, inboxQueryConfiguration.getIndex());
-        Integer nearingSlaCount = CollectionUtils.isEmpty(inboxRequest.getInbox().getProcessSearchCriteria().getStatus()) ? 0 : getApplicationsNearingSlaCount(inboxRequest, inboxQueryConfiguration.getIndex());
+        Integer totalCount = getTotalApplicationCount(inboxRequest, inboxQueryConfiguration.getIndex());
+        List<HashMap<String, Object>> statusCountMap = getStatusCountMap(inboxRequest, businessServices, inboxQueryConfiguration.getIndex());
+        Integer nearingSlaCount = getApplicationsNearingSlaCount(inboxRequest, businessServices, inboxQueryConfiguration.getIndex());
         InboxResponse inboxResponse = InboxResponse.builder().items(items).totalCount(totalCount).statusMap(statusCountMap).nearingSlaCount(nearingSlaCount).build();
 
         return inboxResponse;
     }
 
+    private InboxResponse getInboxResponseFromMultiSearch(InboxRequest inboxRequest, List<BusinessService> businessServices, String indexName){
+        Set<String> actionableStatuses = new HashSet<>(inboxRequest.getInbox().getProcessSearchCriteria().getStatus());
+
+        List<String> queryNames = new ArrayList<>();
+        List<Map<String, Object>> queryBodies = new ArrayList<>();
+
+        queryNames.add(SEARCH_QUERY_NAME);
+        queryBodies.add(queryBuilder.getESQuery(inboxRequest, Boolean.TRUE));
+        queryNames.add(COUNT_QUERY_NAME);
+        queryBodies.add(queryBuilder.getESQuery(inboxRequest, Boolean.FALSE));
+        queryNames.add(STATUS_COUNT_QUERY_NAME);
+        queryBodies.add(queryBuilder.getStatusCountQuery(inboxRequest));
+        List<Map<String, Object>> nearingSlaQueries = getNearingSlaCountQueries(inboxRequest, businessServices);
+        nearingSlaQueries.forEach(query -> {
+            queryNames.add(NEARING_SLA_COUNT_QUERY_NAME);
+            queryBodies.add(query);
+        });
+
+        List<Map<String, Object>> responses = multiSearch(indexName, queryNames, queryBodies);
+
+        List<Inbox> items = parseInboxItemsFromSearchResponse(responses.get(0), businessServices);
+        enrichProcessInstanceInInboxItems(items);
+        Integer totalCount = getTotalHits(responses.get(1));
+        List<HashMap<String, Object>> statusCountMap = transformStatusMap(businessServices,
+                parseStatusCountMapFromAggregationResponse(responses.get(2), actionableStatuses));
+        Integer nearingSlaCount = 0;
+        for(int i = 3; i < responses.size(); i++)
+            nearingSlaCount += getTotalHits(responses.get(i));
+
+        return InboxResponse.builder().items(items).totalCount(totalCount).statusMap(statusCountMap).nearingSlaCount(nearingSlaCount).build();
+    }
+
+    /**
+     * Sends the queries to the index in one _msearch request, the responses are returned in the order of the
+     * queries. The time ES took for each query is recorded against the query name.
+     * @param indexName
+     * @param queryNames
+     * @param queryBodies
+     * @return
+     */
+    private List<Map<String, Object>> multiSearch(String indexName, List<String> queryNames, List<Map<String, Object>> queryBodies){
+        StringBuilder body = new StringBuilder();
+        try {
+            for(Map<String, Object> queryBody : queryBodies)
+                body.append(MULTI_SEARCH_HEADER).append("\n").append(mapper.writeValueAsString(queryBody)).append("\n");
+        } catch (JsonProcessingException e) {
+            throw new CustomException("EG_INBOX_QUERY_ERR", "Error while building the inbox queries");
+        }
+
+        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
+        headers.setContentType(NDJSON);
+
+        long startTime = System.nanoTime();
+        Map<String, Object> result = (Map<String, Object>) serviceRequestRepository.fetchResult(getURI(indexName, MULTI_SEARCH_PATH),
+                new HttpEntity<>(body.toString(), headers));
+        long timeTaken = System.nanoTime() - startTime;
+        Metrics.timer(MULTI_SEARCH_TIMER, INDEX_TAG, indexName).record(timeTaken, TimeUnit.NANOSECONDS);
+
+        List<Map<String, Object>> responses = result == null ? null : (List<Map<String, Object>>) result.get(RESPONSES_KEY);
+        if(responses == null || responses.size() != queryBodies.size())
+            throw new CustomException("EG_INBOX_MSEARCH_ERR", "Invalid response received from ES multi search");
+
+        for(int i = 0; i < responses.size(); i++){
+            Map<String, Object> response = responses.get(i);
+            if(response.containsKey(ERROR_KEY))
+                throw new CustomException("EG_INBOX_MSEARCH_ERR", "Inbox " + queryNames.get(i) + " query failed: " + response.get(ERROR_KEY));
+            if(response.get(TOOK_KEY) instanceof Number)
+                Metrics.timer(QUERY_TIMER, INDEX_TAG, indexName, QUERY_TAG, queryNames.get(i))
+                        .record(((Number) response.get(TOOK_KEY)).longValue(), TimeUnit.MILLISECONDS);
+        }
+        log.info("Inbox multi search of {} queries on {} took {}ms", queryBodies.size(), indexName, TimeUnit.NANOSECONDS.toMillis(timeTaken));
+        return responses;
+    }
+
+    /**
+     * Executes a single query on the index, recording the time taken against the query name
+     */
+    private Map<String, Object> search(String indexName, String queryName, Map<String, Object> finalQueryBody){
+        String q;
+        try {
+            q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
+            log.debug("Query: {}", q);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize the inbox query for index {}", indexName, e);
+            throw new CustomException(ErrorConstants.PARSING_ERROR, "Failed to serialize the inbox query");
+        }
+
+        StringBuilder uri = getURI(indexName, SEARCH_PATH);
+        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Use the JSON string 'q' in the HttpEntity
+        HttpEntity<String> requestEntity = new HttpEntity<>(q, headers);
+
+        long startTime = System.nanoTime();
+        Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, requestEntity);
+        Metrics.timer(QUERY_TIMER, INDEX_TAG, indexName, QUERY_TAG, queryName).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
     private void hashParamsWhereverRequiredBasedOnConfiguration(Map<String, Object> moduleSearchCriteria, InboxQueryConfiguration inboxQueryConfiguration) {
 
         inboxQueryConfiguration.getAllowedSearchCriteria().forEach(searchParam -> {
@@ -153,46 +290,11 @@ public class InboxServiceV2 {
         });
     }
 
-    private List<Inbox> getInboxItems(InboxRequest inboxRequest, String indexName){
-        List<BusinessService> businessServices = workflowService.getBusinessServices(inboxRequest);
-        enrichActionableStatusesFromRole(inboxRequest, businessServices);
-        if(CollectionUtils.isEmpty(inboxRequest.getInbox().getProcessSearchCriteria().getStatus())){
-            return new ArrayList<>();
-        }
-//        Map<String, Object> finalQueryBody = queryBuilder.getESQuery(inboxRequest, Boolean.TRUE);
-//        try {
-//            String q = mapper.writeValueAsString(finalQueryBody);
-//            log.info("Query: "+q);
-//        }
-//        catch (Exception e){
-//            e.printStackTrace();
-//        }
-//        StringBuilder uri = getURI(indexName, SEARCH_PATH);
-//        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
-//        headers.setContentType(MediaType.APPLICATION_JSON);
-//        HttpEntity<String> requestEntity = new HttpEntity<>(finalQueryBody, headers);
-//        Object result = serviceRequestRepository.fetchResult(uri, finalQueryBody);
-//        
+    private List<Inbox> getInboxItems(InboxRequest inboxRequest, List<BusinessService> businessServices, String indexName){
         Map<String, Object> finalQueryBody = queryBuilder.getESQuery(inboxRequest, Boolean.TRUE);
-        String q = null;
-        try {
-            q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
-            log.info("Query: " + q);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        StringBuilder uri = getURI(indexName, SEARCH_PATH);
-        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        // Use the JSON string 'q' in the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(q, headers);
-    
-//        
-        Object result = serviceRequestRepository.fetchResult(uri, requestEntity);
+        Object result = search(indexName, SEARCH_QUERY_NAME, finalQueryBody);
         List<Inbox> inboxItemsList = parseInboxItemsFromSearchResponse(result, businessServices);
-        log.info(result.toString());
+        log.debug("Inbox search response: {}", result);
         return inboxItemsList;
     }
 
@@ -224,55 +326,12 @@ public class InboxServiceV2 {
     public Integer getTotalApplicationCount(InboxRequest inboxRequest, String indexName){
 
         Map<String, Object> finalQueryBody = queryBuilder.getESQuery(inboxRequest, Boolean.FALSE);
-//        StringBuilder uri = getURI(indexName, COUNT_PATH);
-//        ---------------------------------------------
-        String q = null;
-        try {
-            q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
-            log.info("Query: " + q);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        StringBuilder uri = getURI(indexName, SEARCH_PATH);
-        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        Map<String, Object> response = search(indexName, COUNT_QUERY_NAME, finalQueryBody);
+        return getTotalHits(response);
+    }
 
-        // Use the JSON string 'q' in the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(q, headers);
-    
-        
-        Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, requestEntity);
-//        ---------------------------------------------
-//        Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, finalQueryBody);
-//        log.info("response: " + response);
-//        Integer totalCount = 0;
-//        if(response.containsKey("total")){
-//            totalCount = (Integer) response.get("total");
-//        }else{
-//            throw new CustomException("INBOX_COUNT_ERR", "Error occurred while executing ES count query");
-//        }
-//        return totalCount;
+    private Integer getTotalHits(Map<String, Object> response){
         Integer currentCount = 0;
-//        if (response.containsKey("total")) {
-//            Object totalValue = response.get("total");
-//
-//            if (totalValue instanceof Integer) {
-//                currentCount = (Integer) totalValue;
-//            } else if (totalValue instanceof Long) {
-//                currentCount = ((Long) totalValue).intValue();  // Convert Long to Integer
-//            } else if (totalValue instanceof String) {
-//                try {
-//                    currentCount = Integer.parseInt((String) totalValue);
-//                } catch (NumberFormatException e) {
-//                    throw new CustomException("INBOX_COUNT_ERR", "Invalid format for 'total': " + totalValue);
-//                }
-//            } else {
-//                throw new CustomException("INBOX_COUNT_ERR", "'total' has an unsupported type: " + totalValue.getClass());
-//            }
-//        } else {
-//            throw new CustomException("INBOX_COUNT_ERR", "Error occurred while executing ES count query - 'total' key missing.");
-//        }
         if (response.containsKey("hits") && response.get("hits") instanceof Map &&
         	    ((Map<String, Object>) response.get("hits")).containsKey("total")) {
 
@@ -280,46 +339,21 @@ public class InboxServiceV2 {
 
         	    if (total.containsKey("value")) {
         	    	currentCount = (Integer) total.get("value");
-        	        System.out.println("Total hits: " + currentCount);
         	    } else {
         	        throw new IllegalArgumentException("The 'value' field is missing in 'total'.");
         	    }
         	} else {
         	    throw new IllegalArgumentException("The 'total' field is missing in 'hits'.");
         	}
-
-
-      return currentCount;
-
+        return currentCount;
     }
 
-    public List<HashMap<String, Object>> getStatusCountMap(InboxRequest inboxRequest, String indexName){
+    public List<HashMap<String, Object>> getStatusCountMap(InboxRequest inboxRequest, List<BusinessService> businessServices, String indexName){
         Map<String, Object> finalQueryBody = queryBuilder.getStatusCountQuery(inboxRequest);
-//        StringBuilder uri = getURI(indexName, SEARCH_PATH);
-//        ------------------------------
-        String q = null;
-        try {
-            q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
-            log.info("Query: " + q);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        StringBuilder uri = getURI(indexName, SEARCH_PATH);
-        HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        // Use the JSON string 'q' in the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(q, headers);
-    
-        
-        Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, requestEntity);
-        
-//        --------------------------------
-//        Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, finalQueryBody);
+        Map<String, Object> response = search(indexName, STATUS_COUNT_QUERY_NAME, finalQueryBody);
         Set<String> actionableStatuses = new HashSet<>(inboxRequest.getInbox().getProcessSearchCriteria().getStatus());
         HashMap<String, Object> statusCountMap = parseStatusCountMapFromAggregationResponse(response, actionableStatuses);
-        List<HashMap<String, Object>> transformedStatusMap = transformStatusMap(inboxRequest, statusCountMap);
+        List<HashMap<String, Object>> transformedStatusMap = transformStatusMap(businessServices, statusCountMap);
         return transformedStatusMap;
     }
 
@@ -346,13 +380,11 @@ public class InboxServiceV2 {
         return null;
     }
 
-    private List<HashMap<String,Object>> transformStatusMap(InboxRequest request,HashMap<String, Object> statusCountMap) {
+    private List<HashMap<String,Object>> transformStatusMap(List<BusinessService> businessServices,HashMap<String, Object> statusCountMap) {
 
         if(CollectionUtils.isEmpty(statusCountMap))
             return null;
 
-        List<BusinessService> businessServices = workflowService.getBusinessServices(request);
-
         Map<String,String> statusIdToBusinessServiceMap = workflowService.getStatusIdToBusinessServiceMap(businessServices);
         Map<String, String> statusIdToApplicationStatusMap = workflowService.getApplicationStatusIdToStatusMap(businessServices);
 
@@ -417,8 +449,23 @@ public class InboxServiceV2 {
         return inboxItemList;
     }
 
-    public Integer getApplicationsNearingSlaCount(InboxRequest inboxRequest, String indexName) {
-        List<BusinessService> businessServicesObjs = workflowService.getBusinessServices(inboxRequest);
+    public Integer getApplicationsNearingSlaCount(InboxRequest inboxRequest, List<BusinessService> businessServices, String indexName) {
+        Integer totalCount = 0;
+        for(Map<String, Object> finalQueryBody : getNearingSlaCountQueries(inboxRequest, businessServices)){
+            Map<String, Object> response = search(indexName, NEARING_SLA_COUNT_QUERY_NAME, finalQueryBody);
+            totalCount += getTotalHits(response);
+        }
+        return totalCount;
+    }
+
+    /**
+     * Builds one nearing sla count query per business service of the statuses in the search criteria, as the
+     * sla differs by business service. The statuses of the search criteria are left unchanged.
+     * @param inboxRequest
+     * @param businessServicesObjs
+     * @return
+     */
+    private List<Map<String, Object>> getNearingSlaCountQueries(InboxRequest inboxRequest, List<BusinessService> businessServicesObjs) {
         Map<String, Long> businessServiceSlaMap = new HashMap<>();
         Map<String, HashSet<String>> businessServiceVsStateUuids = new HashMap<>();
         businessServicesObjs.forEach(businessService -> {
@@ -456,89 +503,14 @@ public class InboxServiceV2 {
             });
         }
 
-
-
-        List<String> businessServices = new ArrayList<>(businessServiceVsUuidsBasedOnSearchCriteria.keySet());
-        Integer totalCount = 0;
-        // Fetch slot percentage only once here !!!!!!!!!!
-
-
-        for(int i = 0; i < businessServices.size(); i++){
-            String businessService = businessServices.get(i);
-            Long businessServiceSla = businessServiceSlaMap.get(businessService);
-            inboxRequest.getInbox().getProcessSearchCriteria().setStatus(businessServiceVsUuidsBasedOnSearchCriteria.get(businessService));
-            Map<String, Object> finalQueryBody = queryBuilder.getNearingSlaCountQuery(inboxRequest, businessServiceSla);
-//            StringBuilder uri = getURI(indexName, COUNT_PATH);
-//  -----------------------------------------------------------      
-            String q = null;
-            try {
-                q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
-                log.info("Query: " + q);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            StringBuilder uri = getURI(indexName, SEARCH_PATH);
-            HttpHeaders headers = elasticSearchUtil.getHttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            // Use the JSON string 'q' in the HttpEntity
-            HttpEntity<String> requestEntity = new HttpEntity<>(q, headers);
-        
-            
-            Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, requestEntity);
-//    ------------------------------------------------------------------        
-//            Map<String, Object> response = (Map<String, Object>) serviceRequestRepository.fetchResult(uri, finalQueryBody);
-//            Integer currentCount = 0;
-//            if(response.containsKey("total")){
-//                currentCount = (Integer) response.get("total");
-//            }else{
-//                throw new CustomException("INBOX_COUNT_ERR", "Error occurred while executing ES count query");
-//            }
-//            totalCount += currentCount;
-//        }
-            Integer currentCount = 0;
-//            if (response.containsKey("total")) {
-//                Object totalValue = response.get("total");
-//
-//                if (totalValue instanceof Integer) {
-//                    currentCount = (Integer) totalValue;
-//                } else if (totalValue instanceof Long) {
-//                    currentCount = ((Long) totalValue).intValue();  // Convert Long to Integer
-//                } else if (totalValue instanceof String) {
-//                    try {
-//                        currentCount = Integer.parseInt((String) totalValue);
-//                    } catch (NumberFormatException e) {
-//                        throw new CustomException("INBOX_COUNT_ERR", "Invalid format for 'total': " + totalValue);
-//                    }
-//                } else {
-//                    throw new CustomException("INBOX_COUNT_ERR", "'total' has an unsupported type: " + totalValue.getClass());
-//                }
-//            } else {
-//                throw new CustomException("INBOX_COUNT_ERR", "Error occurred while executing ES count query - 'total' key missing.");
-//            }
-
-            if (response.containsKey("hits") && response.get("hits") instanceof Map &&
-            	    ((Map<String, Object>) response.get("hits")).containsKey("total")) {
-
-            	    Map<String, Object> total = (Map<String, Object>) ((Map<String, Object>) response.get("hits")).get("total");
-
-            	    if (total.containsKey("value")) {
-            	    	currentCount = (Integer) total.get("value");
-            	        System.out.println("Total hits: " + currentCount);
-            	    } else {
-            	        throw new IllegalArgumentException("The 'value' field is missing in 'total'.");
-            	    }
-            	} else {
-            	    throw new IllegalArgumentException("The 'total' field is missing in 'hits'.");
-            	}
-            if (currentCount != null) {
-                totalCount += currentCount;
-            }
-
-
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for(Map.Entry<String, List<String>> entry : businessServiceVsUuidsBasedOnSearchCriteria.entrySet()){
+            Long businessServiceSla = businessServiceSlaMap.get(entry.getKey());
+            inboxRequest.getInbox().getProcessSearchCriteria().setStatus(entry.getValue());
+            queries.add(queryBuilder.getNearingSlaCountQuery(inboxRequest, businessServiceSla));
         }
-		return totalCount;
+        inboxRequest.getInbox().getProcessSearchCriteria().setStatus(uuidsInSearchCriteria);
+        return queries;
     }
 
 
@@ -573,12 +545,13 @@ public class InboxServiceV2 {
 //        }
 //        StringBuilder uri = getURI(index, SEARCH_PATH);
         //-----------------------------------------------
-        String q = null;
+        String q;
         try {
             q = mapper.writeValueAsString(finalQueryBody);  // Convert Map to JSON string
-            log.info("Query: " + q);
-        } catch (Exception e) {
-            e.printStackTrace();
+            log.debug("Query: {}", q);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize the inbox query for index {}", index, e);
+            throw new CustomException(ErrorConstants.PARSING_ERROR, "Failed to serialize the inbox query");
         }
 
         StringBuilder uri = getURI(index, SEARCH_PATH);
@@ -35,6 +35,17 @@ public class InboxConstants {
 
     public static final String COUNT_PATH = "/_count";
 
+    public static final String MULTI_SEARCH_PATH = "/_msearch";
+
+    // Empty header line of a _msearch body, the index is taken from the url
+    public static final String MULTI_SEARCH_HEADER = "{}";
+
+    public static final String RESPONSES_KEY = "responses";
+
+    public static final String ERROR_KEY = "error";
+
+    public static final String TOOK_KEY = "took";
+
     public static final String SORT_ORDER_CONSTANT = "sortOrder";
 
     public static final String SORT_BY_CONSTANT = "sortBy";
@@ -1,9 +1,15 @@
 package org.egov.pt.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.pt.models.Locality;
@@ -22,9 +28,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Enriches the locality of properties from egov-location.
+ *
+ * The locality boundaries of a tenant are fetched in one call and kept for the ttl, so enriching the
+ * properties of a search makes no call when the boundaries are cached and one call otherwise. Concurrent
+ * loads of a tenant share one call. A code which is not in the cached boundaries, ex: a locality added
+ * after the load, reloads them at most once per miss reload interval. A code still missing after a load
+ * is remembered as missing until the ttl expires.
+ */
+@Slf4j
 @Service
 public class BoundaryService {
 
+	private static final String BOUNDARY_JSONPATH = "$..boundary[*]";
+
 	@Value("${egov.location.host}")
 	private String locationHost;
 
@@ -40,6 +60,18 @@ public class BoundaryService {
 	@Autowired
 	private ObjectMapper mapper;
 
+	@Value("${egov.location.boundary.cache.ttl.seconds:3600}")
+	private Long boundaryCacheTtlSeconds;
+
+	@Value("${egov.location.boundary.cache.miss.reload.seconds:60}")
+	private Long boundaryMissReloadSeconds;
+
+	//Locality boundaries per tenant and hierarchy, keyed on the boundary code
+	private final Map<String, TenantBoundaries> boundaries = new ConcurrentHashMap<>();
+
+	//Locks on which the loads of a tenant and hierarchy wait for each other
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
 	/**
 	 * Enriches the locality object by calling the location service
 	 * 
@@ -53,10 +85,83 @@ public class BoundaryService {
 		if (ObjectUtils.isEmpty(property))
 			return;
 
-		String tenantId = property.getTenantId();
+		getAreaType(Collections.singletonList(property), requestInfo, hierarchyTypeCode);
+	}
+
+	/**
+	 * Enriches the locality objects of the properties, the boundaries are fetched once per tenant
+	 * 
+	 * @param properties
+	 *            Properties to be enriched
+	 * @param hierarchyTypeCode
+	 *            HierarchyTypeCode of the boundaries
+	 */
+	public void getAreaType(List<Property> properties, RequestInfo requestInfo, String hierarchyTypeCode) {
+
+		Map<String, List<Property>> tenantIdToProperties = new LinkedHashMap<>();
+		for (Property property : properties) {
+			if (ObjectUtils.isEmpty(property))
+				continue;
+			if (property.getAddress() == null || property.getAddress().getLocality() == null)
+				throw new CustomException("INVALID ADDRESS", "The address or locality cannot be null");
+			tenantIdToProperties.computeIfAbsent(property.getTenantId(), tenantId -> new ArrayList<>()).add(property);
+		}
+
+		tenantIdToProperties.forEach((tenantId, tenantProperties) -> {
+
+			String key = tenantId + ":" + hierarchyTypeCode;
+			TenantBoundaries tenantBoundaries = boundaries.get(key);
+			if (tenantBoundaries == null || tenantBoundaries.isExpired())
+				tenantBoundaries = loadBoundaries(key, tenantBoundaries, tenantId, requestInfo, hierarchyTypeCode);
+			if (tenantBoundaries == null)
+				return;
+
+			for (Property property : tenantProperties) {
+
+				String code = property.getAddress().getLocality().getCode();
+				Object boundaryObject = tenantBoundaries.codeToBoundary.get(code);
+				if (boundaryObject == null && tenantBoundaries.canReloadFor(code)) {
+					TenantBoundaries reloaded = loadBoundaries(key, tenantBoundaries, tenantId, requestInfo, hierarchyTypeCode);
+					if (reloaded != null) {
+						tenantBoundaries = reloaded;
+						boundaryObject = tenantBoundaries.codeToBoundary.get(code);
+					}
+				}
+				if (boundaryObject == null) {
+					tenantBoundaries.missingCodes.add(code);
+					throw new CustomException("BOUNDARY MDMS DATA ERROR", "The boundary data was not found");
+				}
+
+				// converted for every property, the cached boundaries are not shared with the response
+				Locality boundary = mapper.convertValue(boundaryObject, Locality.class);
+				if (boundary.getName() == null)
+					throw new CustomException("INVALID BOUNDARY DATA", "The boundary data for the code "
+							+ code + " is not available");
+				property.getAddress().setLocality(boundary);
+			}
+		});
+	}
+
+	/**
+	 * Fetches all the locality boundaries of the tenant and caches them, unless another request replaced
+	 * the stale boundaries while this one waited for the lock
+	 * 
+	 * @param stale
+	 *            The boundaries which the caller found expired or missing a code, null if none were cached
+	 * @return the boundaries, null if the location service gave no response
+	 */
+	private TenantBoundaries loadBoundaries(String key, TenantBoundaries stale, String tenantId, RequestInfo requestInfo,
+			String hierarchyTypeCode) {
+
+		synchronized (loadLocks.computeIfAbsent(key, lockKey -> new Object())) {
+			TenantBoundaries current = boundaries.get(key);
+			if (current != null && current != stale && !current.isExpired())
+				return current;
+			return fetchBoundaries(key, tenantId, requestInfo, hierarchyTypeCode);
+		}
+	}
 
-		if (property.getAddress() == null || property.getAddress().getLocality() == null)
-			throw new CustomException("INVALID ADDRESS", "The address or locality cannot be null");
+	private TenantBoundaries fetchBoundaries(String key, String tenantId, RequestInfo requestInfo, String hierarchyTypeCode) {
 
 		StringBuilder uri = new StringBuilder(locationHost);
 		uri.append(locationContextPath).append(locationEndpoint);
@@ -64,53 +169,54 @@ public class BoundaryService {
 		if (hierarchyTypeCode != null)
 			uri.append("&").append("hierarchyTypeCode=").append(hierarchyTypeCode);
 
-		uri.append("&").append("boundaryType=").append("Locality").append("&").append("codes=")
-				.append(property.getAddress().getLocality().getCode());
+		uri.append("&").append("boundaryType=").append("Locality");
 
 		Optional<Object> response = serviceRequestRepository.fetchResult(uri, RequestInfoWrapper.builder().requestInfo(requestInfo).build());
-		
-		if (response.isPresent()) {
-			LinkedHashMap responseMap = (LinkedHashMap) response.get();
-			if (CollectionUtils.isEmpty(responseMap))
-				throw new CustomException("BOUNDARY ERROR", "The response from location service is empty or null");
-			String jsonString = new JSONObject(responseMap).toString();
-
-			Map<String, String> propertyIdToJsonPath = getJsonpath(property);
+		if (!response.isPresent())
+			return null;
 
-			DocumentContext context = JsonPath.parse(jsonString);
+		LinkedHashMap responseMap = (LinkedHashMap) response.get();
+		if (CollectionUtils.isEmpty(responseMap))
+			throw new CustomException("BOUNDARY ERROR", "The response from location service is empty or null");
+		String jsonString = new JSONObject(responseMap).toString();
 
-			Object boundaryObject = context.read(propertyIdToJsonPath.get(property.getPropertyId()));
-			if (!(boundaryObject instanceof ArrayList) || CollectionUtils.isEmpty((ArrayList) boundaryObject))
-				throw new CustomException("BOUNDARY MDMS DATA ERROR", "The boundary data was not found");
+		DocumentContext context = JsonPath.parse(jsonString);
 
-			ArrayList boundaryResponse = context.read(propertyIdToJsonPath.get(property.getPropertyId()));
-			Locality boundary = mapper.convertValue(boundaryResponse.get(0), Locality.class);
-			if (boundary.getName() == null)
-				throw new CustomException("INVALID BOUNDARY DATA", "The boundary data for the code "
-						+ property.getAddress().getLocality().getCode() + " is not available");
-			property.getAddress().setLocality(boundary);
+		Object boundaryObject = context.read(BOUNDARY_JSONPATH);
+		if (!(boundaryObject instanceof ArrayList) || CollectionUtils.isEmpty((ArrayList) boundaryObject))
+			throw new CustomException("BOUNDARY MDMS DATA ERROR", "The boundary data was not found");
 
+		Map<String, Object> codeToBoundary = new HashMap<>();
+		for (Object boundary : (ArrayList) boundaryObject) {
+			if (boundary instanceof Map && ((Map) boundary).get("code") != null)
+				codeToBoundary.putIfAbsent(String.valueOf(((Map) boundary).get("code")), boundary);
 		}
 
-		// $..boundary[?(@.code=="JLC476")].area
-
+		TenantBoundaries tenantBoundaries = new TenantBoundaries(codeToBoundary, System.currentTimeMillis());
+		boundaries.put(key, tenantBoundaries);
+		log.info("Loaded " + codeToBoundary.size() + " locality boundaries for " + key);
+		return tenantBoundaries;
 	}
 
-	/**
-	 * Prepares map of propertyId to jsonpath which contains the code of the
-	 * property
-	 * 
-	 * @param request
-	 *            PropertyRequest for create
-	 * @return Map of propertyId to jsonPath with properties locality code
-	 */
-	private Map<String, String> getJsonpath(Property property) {
+	private class TenantBoundaries {
+
+		private final Map<String, Object> codeToBoundary;
+		private final Set<String> missingCodes = ConcurrentHashMap.newKeySet();
+		private final long loadedAt;
+
+		private TenantBoundaries(Map<String, Object> codeToBoundary, long loadedAt) {
+			this.codeToBoundary = codeToBoundary;
+			this.loadedAt = loadedAt;
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() - loadedAt >= TimeUnit.SECONDS.toMillis(boundaryCacheTtlSeconds);
+		}
 
-		Map<String, String> propertyIdToJsonPath = new LinkedHashMap<>();
-		String jsonpath = "$..boundary[?(@.code==\"{}\")]";
-		propertyIdToJsonPath.put(property.getPropertyId(),
-				jsonpath.replace("{}", property.getAddress().getLocality().getCode()));
-		return propertyIdToJsonPath;
+		private boolean canReloadFor(String code) {
+			return !missingCodes.contains(code)
+					&& System.currentTimeMillis() - loadedAt >= TimeUnit.SECONDS.toMillis(boundaryMissReloadSeconds);
+		}
 	}
 
 }
@@ -201,6 +201,15 @@ public class EnrichmentService {
     	
         boundaryService.getAreaType(property, requestInfo, PTConstants.BOUNDARY_HEIRARCHY_CODE);
     }
+
+    /**
+     *  Enriches the locality objects of the properties of a search in one go
+     * @param properties The properties returned by search
+     */
+    public void enrichBoundary(List<Property> properties, RequestInfo requestInfo){
+
+        boundaryService.getAreaType(properties, requestInfo, PTConstants.BOUNDARY_HEIRARCHY_CODE);
+    }
     
     /**
      * 
@@ -517,9 +517,7 @@ public class PropertyService {
 				properties = repository.getPropertiesWithOwnerInfo(criteria, requestInfo, false);
 			}
 
-			properties.forEach(property -> {
-				enrichmentService.enrichBoundary(property, requestInfo);
-			});
+			enrichmentService.enrichBoundary(properties, requestInfo);
 		}
 
 		/* Decrypt here */
@@ -561,8 +559,7 @@ public class PropertyService {
 
 	public List<Property> searchPropertyPlainSearch(PropertyCriteria criteria, RequestInfo requestInfo) {
 		List<Property> properties = getPropertiesPlainSearch(criteria, requestInfo);
-		for(Property property:properties)
-			enrichmentService.enrichBoundary(property,requestInfo);
+		enrichmentService.enrichBoundary(properties,requestInfo);
 		return properties;
 	}
 
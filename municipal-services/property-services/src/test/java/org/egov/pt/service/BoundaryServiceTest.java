@@ -0,0 +1,163 @@
+package org.egov.pt.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.egov.common.contract.request.RequestInfo;
+import org.egov.pt.models.Address;
+import org.egov.pt.models.Locality;
+import org.egov.pt.models.Property;
+import org.egov.pt.repository.ServiceRequestRepository;
+import org.egov.tracer.model.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class BoundaryServiceTest {
+
+	private static final String TENANT_ID = "pb.amritsar";
+
+	private ServiceRequestRepository serviceRequestRepository;
+
+	private BoundaryService boundaryService;
+
+	@BeforeEach
+	public void setUp() {
+		serviceRequestRepository = mock(ServiceRequestRepository.class);
+		boundaryService = new BoundaryService();
+		ReflectionTestUtils.setField(boundaryService, "locationHost", "http://egov-location");
+		ReflectionTestUtils.setField(boundaryService, "locationContextPath", "/egov-location/location/v11/");
+		ReflectionTestUtils.setField(boundaryService, "locationEndpoint", "/boundarys/_search");
+		ReflectionTestUtils.setField(boundaryService, "serviceRequestRepository", serviceRequestRepository);
+		ReflectionTestUtils.setField(boundaryService, "mapper", new ObjectMapper());
+		ReflectionTestUtils.setField(boundaryService, "boundaryCacheTtlSeconds", 3600L);
+		ReflectionTestUtils.setField(boundaryService, "boundaryMissReloadSeconds", 0L);
+	}
+
+	@Test
+	public void testCachedBoundariesAreReused() {
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenReturn(response("L1", "L2"));
+		List<Property> properties = Arrays.asList(property("L1"), property("L2"));
+
+		boundaryService.getAreaType(properties, new RequestInfo(), "REVENUE");
+		Property property = property("L1");
+		boundaryService.getAreaType(property, new RequestInfo(), "REVENUE");
+
+		verify(serviceRequestRepository, times(1)).fetchResult(any(StringBuilder.class), any());
+		assertEquals("Locality L1", properties.get(0).getAddress().getLocality().getName());
+		assertEquals("Locality L2", properties.get(1).getAddress().getLocality().getName());
+		assertEquals("Locality L1", property.getAddress().getLocality().getName());
+	}
+
+	@Test
+	public void testMissingCodeReloadsOnceAndIsCachedAsMissing() {
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenReturn(response("L1"));
+		boundaryService.getAreaType(property("L1"), new RequestInfo(), "REVENUE");
+
+		assertThrows(CustomException.class, () -> boundaryService.getAreaType(property("INVALID"), new RequestInfo(), "REVENUE"));
+		assertThrows(CustomException.class, () -> boundaryService.getAreaType(property("INVALID"), new RequestInfo(), "REVENUE"));
+
+		// the first miss reloads, the second is answered from the missing codes until the ttl expires
+		verify(serviceRequestRepository, times(2)).fetchResult(any(StringBuilder.class), any());
+	}
+
+	@Test
+	public void testMissingCodeDoesNotReloadWithinTheMissReloadInterval() {
+		ReflectionTestUtils.setField(boundaryService, "boundaryMissReloadSeconds", 60L);
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenReturn(response("L1"));
+		boundaryService.getAreaType(property("L1"), new RequestInfo(), "REVENUE");
+
+		assertThrows(CustomException.class, () -> boundaryService.getAreaType(property("STALE1"), new RequestInfo(), "REVENUE"));
+		assertThrows(CustomException.class, () -> boundaryService.getAreaType(property("STALE2"), new RequestInfo(), "REVENUE"));
+
+		verify(serviceRequestRepository, times(1)).fetchResult(any(StringBuilder.class), any());
+	}
+
+	@Test
+	public void testLocalityAddedAfterTheLoadIsFoundOnReload() {
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenReturn(response("L1"), response("L1", "L3"));
+		boundaryService.getAreaType(property("L1"), new RequestInfo(), "REVENUE");
+
+		Property property = property("L3");
+		boundaryService.getAreaType(property, new RequestInfo(), "REVENUE");
+
+		assertEquals("Locality L3", property.getAddress().getLocality().getName());
+		verify(serviceRequestRepository, times(2)).fetchResult(any(StringBuilder.class), any());
+	}
+
+	@Test
+	public void testExpiredBoundariesAreReloaded() {
+		ReflectionTestUtils.setField(boundaryService, "boundaryCacheTtlSeconds", 0L);
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenReturn(response("L1"));
+
+		boundaryService.getAreaType(property("L1"), new RequestInfo(), "REVENUE");
+		boundaryService.getAreaType(property("L1"), new RequestInfo(), "REVENUE");
+
+		verify(serviceRequestRepository, times(2)).fetchResult(any(StringBuilder.class), any());
+	}
+
+	@Test
+	public void testConcurrentColdLoadsShareOneCall() throws Exception {
+		when(serviceRequestRepository.fetchResult(any(StringBuilder.class), any())).thenAnswer(invocation -> {
+			// slow enough for the other requests to find the tenant loading
+			Thread.sleep(200);
+			return response("L1");
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<Property>> requests = new ArrayList<>();
+			for (int i = 0; i < 4; i++)
+				requests.add(() -> {
+					Property property = property("L1");
+					boundaryService.getAreaType(property, new RequestInfo(), "REVENUE");
+					return property;
+				});
+			List<Future<Property>> results = executor.invokeAll(requests, 10, TimeUnit.SECONDS);
+
+			for (Future<Property> result : results)
+				assertEquals("Locality L1", result.get().getAddress().getLocality().getName());
+			verify(serviceRequestRepository, times(1)).fetchResult(any(StringBuilder.class), any());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Property property(String localityCode) {
+		return Property.builder().tenantId(TENANT_ID)
+				.address(Address.builder().locality(Locality.builder().code(localityCode).build()).build()).build();
+	}
+
+	private Optional<Object> response(String... codes) {
+		List<Map<String, Object>> boundary = new ArrayList<>();
+		for (String code : codes) {
+			Map<String, Object> locality = new LinkedHashMap<>();
+			locality.put("code", code);
+			locality.put("name", "Locality " + code);
+			boundary.add(locality);
+		}
+		LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+		response.put("TenantBoundary", Collections.singletonList(Collections.singletonMap("boundary", boundary)));
+		return Optional.of(response);
+	}
+
+}
@@ -0,0 +1,299 @@
+package org.egov.pt.calculator.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.egov.pt.calculator.web.models.BillingSlab;
+import org.egov.pt.calculator.web.models.property.Unit;
+
+/**
+ * Immutable, indexed form of the billing slabs of a tenant for a financial year.
+ *
+ *  - Slabs are kept in a trie on the property level attributes: property type, multi floored, area type,
+ *    property sub type, ownership and sub ownership category. Values are matched ignoring case, a slab with
+ *    the ALL value is matched by every property. Property type and multi floored have no ALL.
+ *  - The slabs of a leaf of that trie are kept in an interval tree on the plot size, and in a second trie on
+ *    the unit level attributes: usage category major, minor, sub minor, detail and occupancy type. The leaves
+ *    of the unit trie keep an interval tree on the floor range.
+ *
+ * Matching gives the same slabs as the filters earlier done on the full list of slabs for every property and
+ * unit, it walks the tries and stabs the interval trees instead.
+ */
+public final class BillingSlabMatcher {
+
+	//Number of leading levels of the property trie without an ALL fallback
+	private static final int PROPERTY_EXACT_LEVELS = 2;
+
+	private final String all;
+	private final Trie<PropertyLeaf> properties;
+	private final int size;
+
+	private BillingSlabMatcher(String all, Trie<PropertyLeaf> properties, int size) {
+		this.all = all;
+		this.properties = properties;
+		this.size = size;
+	}
+
+	/**
+	 * Compile the slabs into a matcher
+	 *
+	 * @param billingSlabs slabs of a tenant valid for the financial year
+	 * @param all value of the slab attributes which match every property and unit
+	 * @return matcher, safe to be shared across threads
+	 */
+	public static BillingSlabMatcher compile(List<BillingSlab> billingSlabs, String all) {
+		Map<PropertyLeaf, List<BillingSlab>> leafSlabs = new LinkedHashMap<>();
+		Trie<PropertyLeaf> properties = new Trie<>();
+		for (BillingSlab slab : billingSlabs) {
+			PropertyLeaf leaf = properties.computeIfAbsent(propertyKeys(slab), PropertyLeaf::new);
+			leafSlabs.computeIfAbsent(leaf, key -> new ArrayList<>()).add(slab);
+		}
+		leafSlabs.forEach(PropertyLeaf::build);
+		return new BillingSlabMatcher(key(all), properties, billingSlabs.size());
+	}
+
+	/**
+	 * Slabs matching the property level attributes, same as the first level filtering of the slabs
+	 *
+	 * @param plotSize land area, or built up area when there is no land area
+	 * @return the matching slabs, which can further be matched for the units of the property
+	 */
+	public PropertySlabs match(String propertyType, Boolean isPropertyMultiFloored, String areaType,
+			String propertySubType, String ownershipCategory, String subOwnershipCategory, Double plotSize) {
+
+		String[] keys = { key(propertyType), String.valueOf(isPropertyMultiFloored), key(areaType),
+				key(propertySubType), key(ownershipCategory), key(subOwnershipCategory) };
+		List<PropertyLeaf> leaves = new ArrayList<>();
+		properties.collect(keys, 0, PROPERTY_EXACT_LEVELS, all, leaves);
+
+		List<BillingSlab> slabs = new ArrayList<>();
+		for (PropertyLeaf leaf : leaves)
+			leaf.plots.stab(plotSize, plotSize == 0.0, slabs);
+
+		return new PropertySlabs(leaves, plotSize, slabs);
+	}
+
+	/**
+	 * @return number of slabs in the matcher
+	 */
+	public int size() {
+		return size;
+	}
+
+	public final class PropertySlabs {
+
+		private final List<PropertyLeaf> leaves;
+		private final double plotSize;
+		private final List<BillingSlab> billingSlabs;
+
+		private PropertySlabs(List<PropertyLeaf> leaves, double plotSize, List<BillingSlab> billingSlabs) {
+			this.leaves = leaves;
+			this.plotSize = plotSize;
+			this.billingSlabs = Collections.unmodifiableList(billingSlabs);
+		}
+
+		public List<BillingSlab> getBillingSlabs() {
+			return billingSlabs;
+		}
+
+		/**
+		 * Slabs of the property matching the unit, same as the second level filtering of the slabs
+		 *
+		 * @param unit unit of the property for which the tax has be calculated
+		 * @return the matching slabs, more than one means the slabs are overlapping
+		 */
+		public List<BillingSlab> getUnitSlabs(Unit unit) {
+			if (billingSlabs.isEmpty())
+				return Collections.emptyList();
+
+			String[] keys = { key(unit.getUsageCategoryMajor()), key(unit.getUsageCategoryMinor()),
+					key(unit.getUsageCategorySubMinor()), key(unit.getUsageCategoryDetail()),
+					key(unit.getOccupancyType()) };
+			double floorNo = Double.parseDouble(unit.getFloorNo());
+
+			List<BillingSlab> floorSlabs = new ArrayList<>();
+			List<IntervalTree> floors = new ArrayList<>();
+			for (PropertyLeaf leaf : leaves) {
+				floors.clear();
+				leaf.units.collect(keys, 0, 0, all, floors);
+				for (IntervalTree tree : floors)
+					tree.stab(floorNo, true, floorSlabs);
+			}
+
+			List<BillingSlab> matchingSlabs = new ArrayList<>();
+			for (BillingSlab slab : floorSlabs) {
+				if (isPlotMatching(slab, plotSize))
+					matchingSlabs.add(slab);
+			}
+			return matchingSlabs;
+		}
+	}
+
+	private static boolean isPlotMatching(BillingSlab slab, double plotSize) {
+		if (plotSize == 0.0)
+			return fromPlotSize(slab) <= plotSize && toPlotSize(slab) >= plotSize;
+		return fromPlotSize(slab) < plotSize && toPlotSize(slab) >= plotSize;
+	}
+
+	private static String[] propertyKeys(BillingSlab slab) {
+		return new String[] { key(slab.getPropertyType()), String.valueOf(slab.getIsPropertyMultiFloored()),
+				key(slab.getAreaType()), key(slab.getPropertySubType()), key(slab.getOwnerShipCategory()),
+				key(slab.getSubOwnerShipCategory()) };
+	}
+
+	private static String[] unitKeys(BillingSlab slab) {
+		return new String[] { key(slab.getUsageCategoryMajor()), key(slab.getUsageCategoryMinor()),
+				key(slab.getUsageCategorySubMinor()), key(slab.getUsageCategoryDetail()),
+				key(slab.getOccupancyType()) };
+	}
+
+	private static String key(String value) {
+		return value == null ? null : value.toLowerCase(Locale.ROOT);
+	}
+
+	/*
+	 * Missing bounds are open, as is done while enriching the slabs on create and update
+	 */
+	private static double fromPlotSize(BillingSlab slab) {
+		return slab.getFromPlotSize() == null ? Double.NEGATIVE_INFINITY : slab.getFromPlotSize();
+	}
+
+	private static double toPlotSize(BillingSlab slab) {
+		return slab.getToPlotSize() == null ? Double.POSITIVE_INFINITY : slab.getToPlotSize();
+	}
+
+	private static double fromFloor(BillingSlab slab) {
+		return slab.getFromFloor() == null ? Double.NEGATIVE_INFINITY : slab.getFromFloor();
+	}
+
+	private static double toFloor(BillingSlab slab) {
+		return slab.getToFloor() == null ? Double.POSITIVE_INFINITY : slab.getToFloor();
+	}
+
+	private static final class PropertyLeaf {
+
+		private IntervalTree plots;
+		private final Trie<IntervalTree> units = new Trie<>();
+
+		private void build(List<BillingSlab> slabs) {
+			plots = new IntervalTree(slabs, BillingSlabMatcher::fromPlotSize, BillingSlabMatcher::toPlotSize);
+
+			Map<String, List<BillingSlab>> unitSlabs = new LinkedHashMap<>();
+			for (BillingSlab slab : slabs)
+				unitSlabs.computeIfAbsent(String.join("|", Arrays.asList(unitKeys(slab))), key -> new ArrayList<>())
+						.add(slab);
+			for (List<BillingSlab> sameUnitSlabs : unitSlabs.values()) {
+				IntervalTree floors = new IntervalTree(sameUnitSlabs, BillingSlabMatcher::fromFloor,
+						BillingSlabMatcher::toFloor);
+				units.computeIfAbsent(unitKeys(sameUnitSlabs.get(0)), () -> floors);
+			}
+		}
+	}
+
+	/**
+	 * Trie of attribute values, the values of a slab are the path to the leaf holding it.
+	 * Every level after the exact levels also follows the child of the ALL value.
+	 */
+	private static final class Trie<T> {
+
+		private final Map<String, Trie<T>> children = new HashMap<>();
+		private T value;
+
+		private T computeIfAbsent(String[] keys, Supplier<T> supplier) {
+			Trie<T> node = this;
+			for (String key : keys)
+				node = node.children.computeIfAbsent(key, k -> new Trie<>());
+			if (node.value == null)
+				node.value = supplier.get();
+			return node.value;
+		}
+
+		private void collect(String[] keys, int index, int exactLevels, String all, List<T> values) {
+			if (index == keys.length) {
+				if (value != null)
+					values.add(value);
+				return;
+			}
+			String key = keys[index];
+			Trie<T> child = key == null ? null : children.get(key);
+			if (child != null)
+				child.collect(keys, index + 1, exactLevels, all, values);
+			if (index >= exactLevels && !all.equals(key)) {
+				Trie<T> allChild = children.get(all);
+				if (allChild != null)
+					allChild.collect(keys, index + 1, exactLevels, all, values);
+			}
+		}
+	}
+
+	/**
+	 * Static interval tree: the intervals sorted on the lower bound form an implicit balanced tree, every node
+	 * keeping the highest upper bound of its subtree. A stabbing query is O(log n + matches).
+	 */
+	private static final class IntervalTree {
+
+		private final BillingSlab[] slabs;
+		private final double[] from;
+		private final double[] to;
+		private final double[] maxTo;
+
+		private IntervalTree(List<BillingSlab> intervals, ToDoubleFunction<BillingSlab> lower,
+				ToDoubleFunction<BillingSlab> upper) {
+			slabs = intervals.toArray(new BillingSlab[0]);
+			Arrays.sort(slabs, Comparator.comparingDouble(lower));
+			from = new double[slabs.length];
+			to = new double[slabs.length];
+			maxTo = new double[slabs.length];
+			for (int i = 0; i < slabs.length; i++) {
+				from[i] = lower.applyAsDouble(slabs[i]);
+				to[i] = upper.applyAsDouble(slabs[i]);
+			}
+			buildMaxTo(0, slabs.length);
+		}
+
+		private double buildMaxTo(int low, int high) {
+			if (low >= high)
+				return Double.NEGATIVE_INFINITY;
+			int mid = (low + high) >>> 1;
+			maxTo[mid] = Math.max(to[mid], Math.max(buildMaxTo(low, mid), buildMaxTo(mid + 1, high)));
+			return maxTo[mid];
+		}
+
+		/**
+		 * Adds the intervals containing the point, the upper bound is always inclusive
+		 */
+		private void stab(double point, boolean lowerInclusive, List<BillingSlab> result) {
+			//Intervals starting after the point are past the limit
+			int low = 0, high = from.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (from[mid] < point || (lowerInclusive && from[mid] == point))
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			stab(0, from.length, low, point, result);
+		}
+
+		private void stab(int low, int high, int limit, double point, List<BillingSlab> result) {
+			if (low >= high || low >= limit)
+				return;
+			int mid = (low + high) >>> 1;
+			if (maxTo[mid] < point)
+				return;
+			stab(low, mid, limit, point, result);
+			if (mid < limit && to[mid] >= point)
+				result.add(slabs[mid]);
+			stab(mid + 1, high, limit, point, result);
+		}
+	}
+}
@@ -1,8 +1,12 @@
 package org.egov.pt.calculator.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.pt.calculator.producer.Producer;
@@ -48,10 +52,23 @@ public class BillingSlabService {
 	@Value("${billingslab.max.toPLotSize}")
 	private Double maxToPlotSize;
 
+	@Value("${billingslab.matcher.cache.ttl.seconds:300}")
+	private Long matcherCacheTtlSeconds;
+
+	@Value("${billingslab.matcher.cache.write.settle.seconds:30}")
+	private Long matcherCacheWriteSettleSeconds;
+
+	//Compiled slabs per tenant and financial year along with the time they were loaded
+	private final Map<String, CachedMatcher> matchers = new ConcurrentHashMap<>();
+
+	//Time of the last create or update of slabs per tenant
+	private final Map<String, Long> slabWrites = new ConcurrentHashMap<>();
+
 	public BillingSlabRes createBillingSlab(BillingSlabReq billingSlabReq) {
 		enrichBillingSlabForCreate(billingSlabReq);
 		String tenantId = billingSlabReq.getBillingSlab().get(0).getTenantId();
 		producer.push(tenantId,configurations.getBillingSlabSavePersisterTopic(), billingSlabReq);
+		slabsWritten(tenantId);
 		return billingSlabUtils.getBillingSlabResponse(billingSlabReq);
 	}
 	
@@ -59,6 +76,7 @@ public class BillingSlabService {
 		enrichBillingSlabForUpdate(billingSlabReq);
 		String tenantId = billingSlabReq.getBillingSlab().get(0).getTenantId();
 		producer.push(tenantId,configurations.getBillingSlabUpdatePersisterTopic(), billingSlabReq);
+		slabsWritten(tenantId);
 		return billingSlabUtils.getBillingSlabResponse(billingSlabReq);
 	}
 	
@@ -104,5 +122,64 @@ public class BillingSlabService {
 		return BillingSlabRes.builder().responseInfo(factory.createResponseInfoFromRequestInfo(requestInfo, true))
 				.billingSlab(billingSlabs).build();
 	}
+
+	/**
+	 * Slabs of the tenant valid for the financial year, compiled for matching properties and units.
+	 *
+	 * The matcher is loaded once and kept for the ttl. Slabs are saved by the persister after create and update
+	 * return, so a matcher of the tenant is not reused unless it was loaded at least the settle time after the
+	 * last write, which gives the persister that long to commit. Slabs can also be changed through another
+	 * instance, the ttl bounds how long such a change can go unseen.
+	 *
+	 * @param tenantId tenant of the property
+	 * @param financialYear financial year in the format 2018-19
+	 * @return matcher of the slabs
+	 */
+	public BillingSlabMatcher getBillingSlabMatcher(String tenantId, String financialYear) {
+		String key = tenantId + ":" + financialYear;
+		CachedMatcher cached = matchers.get(key);
+		if (cached != null && isFresh(tenantId, cached))
+			return cached.matcher;
+
+		String validFrom = financialYear.split("-")[0] + "-04-01";
+		String validTo = "20" + financialYear.split("-")[1] + "-03-31";
+		BillingSlabSearchCriteria slabSearchCriteria = BillingSlabSearchCriteria.builder().tenantId(tenantId)
+				.validFrom(validFrom).validTo(validTo).build();
+
+		long loadedAt = System.currentTimeMillis();
+		List<BillingSlab> billingSlabs;
+		try {
+			billingSlabs = dbRepository.searchBillingSlab(slabSearchCriteria);
+		} catch (Exception e) {
+			log.error("Exception while fetching billing slabs from db: " + e);
+			return BillingSlabMatcher.compile(Collections.emptyList(), configurations.getSlabValueAll());
+		}
+
+		BillingSlabMatcher matcher = BillingSlabMatcher.compile(billingSlabs, configurations.getSlabValueAll());
+		matchers.put(key, new CachedMatcher(matcher, loadedAt));
+		log.info("Loaded " + matcher.size() + " billing slabs for " + key);
+		return matcher;
+	}
+
+	private boolean isFresh(String tenantId, CachedMatcher cached) {
+		if (System.currentTimeMillis() - cached.loadedAt >= TimeUnit.SECONDS.toMillis(matcherCacheTtlSeconds))
+			return false;
+		Long writtenAt = slabWrites.get(tenantId);
+		return writtenAt == null || cached.loadedAt - writtenAt >= TimeUnit.SECONDS.toMillis(matcherCacheWriteSettleSeconds);
+	}
+
+	private void slabsWritten(String tenantId) {
+		slabWrites.put(tenantId, System.currentTimeMillis());
+		matchers.keySet().removeIf(key -> key.startsWith(tenantId + ":"));
+	}
+
+	private static class CachedMatcher {
+		private final BillingSlabMatcher matcher;
+		private final long loadedAt;
+
+		private CachedMatcher(BillingSlabMatcher matcher, long loadedAt) {
+			this.matcher = matcher;
+			this.loadedAt = loadedAt;
+		}
+	}
 }
- 
@@ -0,0 +1,207 @@
+package org.egov.pt.calculator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.egov.pt.calculator.web.models.BillingSlab;
+import org.egov.pt.calculator.web.models.property.Unit;
+import org.junit.jupiter.api.Test;
+
+class BillingSlabMatcherTest {
+
+	private static final String ALL = "ALL";
+
+	@Test
+	void testPlotSizeBoundsAreExclusiveBelowUnlessPlotSizeIsZero() {
+		BillingSlab zeroToHundred = slab("1", "BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 0.0, 100.0);
+		BillingSlab hundredUp = slab("2", "BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 100.0,
+				Double.POSITIVE_INFINITY);
+		List<BillingSlab> slabs = Arrays.asList(zeroToHundred, hundredUp);
+		BillingSlabMatcher matcher = BillingSlabMatcher.compile(slabs, ALL);
+
+		for (double plotSize : new double[] { 0.0, 0.5, 100.0, 100.5 }) {
+			assertEquals(ids(filterProperty(slabs, "BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", plotSize)),
+					ids(matcher.match("BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", plotSize)
+							.getBillingSlabs()), "plot size " + plotSize);
+		}
+		assertEquals(ids(Arrays.asList(zeroToHundred)),
+				ids(matcher.match("BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 100.0).getBillingSlabs()));
+		assertEquals(ids(Arrays.asList(zeroToHundred)),
+				ids(matcher.match("BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 0.0).getBillingSlabs()));
+	}
+
+	@Test
+	void testFloorBoundsAreInclusive() {
+		BillingSlab ground = unitSlab("1", "RESIDENTIAL", "SELFOCCUPIED", -1.0, 0.0);
+		BillingSlab upper = unitSlab("2", "RESIDENTIAL", "SELFOCCUPIED", 0.0, 3.0);
+		List<BillingSlab> slabs = Arrays.asList(ground, upper);
+		BillingSlabMatcher matcher = BillingSlabMatcher.compile(slabs, ALL);
+
+		for (String floorNo : new String[] { "-1", "0", "3", "4" }) {
+			Unit unit = unit("RESIDENTIAL", "SELFOCCUPIED", floorNo);
+			assertEquals(ids(filterUnit(filterProperty(slabs, "BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL",
+					"SINGLEOWNER", 50.0), unit)),
+					ids(matcher.match("BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 50.0)
+							.getUnitSlabs(unit)), "floor " + floorNo);
+		}
+	}
+
+	@Test
+	void testAllMatchesEveryValueExceptOnPropertyTypeAndMultiFloored() {
+		BillingSlab allArea = slab("1", "BUILTUP", false, ALL, ALL, ALL, ALL, 0.0, 1000.0);
+		BillingSlab allPropertyType = slab("2", ALL, false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 0.0, 1000.0);
+		BillingSlab lowerCase = slab("3", "builtup", false, "a", "residential", "individual", "singleowner", 0.0, 1000.0);
+		List<BillingSlab> slabs = Arrays.asList(allArea, allPropertyType, lowerCase);
+		BillingSlabMatcher matcher = BillingSlabMatcher.compile(slabs, ALL);
+
+		assertEquals(ids(Arrays.asList(allArea, lowerCase)),
+				ids(matcher.match("BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 10.0).getBillingSlabs()));
+		assertEquals(ids(filterProperty(slabs, "BUILTUP", true, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 10.0)),
+				ids(matcher.match("BUILTUP", true, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 10.0).getBillingSlabs()));
+	}
+
+	@Test
+	void testMatchesLinearFilterOnRandomSlabs() {
+		Random random = new Random(42);
+		String[] propertyTypes = { "BUILTUP", "VACANT", ALL };
+		String[] values = { "A", "B", ALL, "a" };
+		Double[] bounds = { 0.0, 10.0, 100.0, 500.0, Double.POSITIVE_INFINITY };
+		Double[] floors = { -1.0, 0.0, 1.0, 5.0, Double.POSITIVE_INFINITY };
+
+		List<BillingSlab> slabs = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			int from = random.nextInt(bounds.length - 1);
+			int to = from + 1 + random.nextInt(bounds.length - from - 1);
+			int fromFloor = random.nextInt(floors.length - 1);
+			int toFloor = fromFloor + random.nextInt(floors.length - fromFloor);
+			BillingSlab slab = slab(String.valueOf(i), pick(random, propertyTypes), random.nextBoolean(),
+					pick(random, values), pick(random, values), pick(random, values), pick(random, values), bounds[from],
+					bounds[to]);
+			slab.setUsageCategoryMajor(pick(random, values));
+			slab.setUsageCategoryMinor(pick(random, values));
+			slab.setUsageCategorySubMinor(pick(random, values));
+			slab.setUsageCategoryDetail(pick(random, values));
+			slab.setOccupancyType(pick(random, values));
+			slab.setFromFloor(floors[fromFloor]);
+			slab.setToFloor(floors[toFloor]);
+			slabs.add(slab);
+		}
+		BillingSlabMatcher matcher = BillingSlabMatcher.compile(slabs, ALL);
+
+		String[] propertyValues = { "A", "B", "C" };
+		double[] plotSizes = { 0.0, 5.0, 10.0, 50.0, 100.0, 500.0, 1000.0 };
+		String[] floorNos = { "-1", "0", "1", "3", "5", "9" };
+		for (int i = 0; i < 500; i++) {
+			String propertyType = pick(random, new String[] { "BUILTUP", "VACANT" });
+			boolean multiFloored = random.nextBoolean();
+			String areaType = pick(random, propertyValues);
+			String subType = pick(random, propertyValues);
+			String ownership = pick(random, propertyValues);
+			String subOwnership = pick(random, propertyValues);
+			double plotSize = plotSizes[random.nextInt(plotSizes.length)];
+
+			List<BillingSlab> expected = filterProperty(slabs, propertyType, multiFloored, areaType, subType, ownership,
+					subOwnership, plotSize);
+			BillingSlabMatcher.PropertySlabs propertySlabs = matcher.match(propertyType, multiFloored, areaType, subType,
+					ownership, subOwnership, plotSize);
+			assertEquals(ids(expected), ids(propertySlabs.getBillingSlabs()));
+
+			Unit unit = new Unit();
+			unit.setUsageCategoryMajor(pick(random, propertyValues));
+			unit.setUsageCategoryMinor(pick(random, propertyValues));
+			unit.setUsageCategorySubMinor(pick(random, propertyValues));
+			unit.setUsageCategoryDetail(pick(random, propertyValues));
+			unit.setOccupancyType(pick(random, propertyValues));
+			unit.setFloorNo(pick(random, floorNos));
+			assertEquals(ids(filterUnit(expected, unit)), ids(propertySlabs.getUnitSlabs(unit)));
+		}
+	}
+
+	/*
+	 * Filtering of the slabs as done in EstimationService before the matcher
+	 */
+	private static List<BillingSlab> filterProperty(List<BillingSlab> billingSlabs, String dtlPtType,
+			Boolean dtlIsMultiFloored, String dtlAreaType, String dtlPtSubType, String dtlOwnerShipCat,
+			String dtlSubOwnerShipCat, double plotSize) {
+		return billingSlabs.stream().filter(slab -> {
+			boolean isPropertyMultiFloored = slab.getIsPropertyMultiFloored().equals(dtlIsMultiFloored);
+			boolean isAreaMatching = slab.getAreaType().equalsIgnoreCase(dtlAreaType) || ALL.equalsIgnoreCase(slab.getAreaType());
+			boolean isPtTypeMatching = slab.getPropertyType().equalsIgnoreCase(dtlPtType);
+			boolean isPtSubTypeMatching = slab.getPropertySubType().equalsIgnoreCase(dtlPtSubType)
+					|| ALL.equalsIgnoreCase(slab.getPropertySubType());
+			boolean isOwnerShipMatching = slab.getOwnerShipCategory().equalsIgnoreCase(dtlOwnerShipCat)
+					|| ALL.equalsIgnoreCase(slab.getOwnerShipCategory());
+			boolean isSubOwnerShipMatching = slab.getSubOwnerShipCategory().equalsIgnoreCase(dtlSubOwnerShipCat)
+					|| ALL.equalsIgnoreCase(slab.getSubOwnerShipCategory());
+			boolean isPlotMatching;
+			if (plotSize == 0.0)
+				isPlotMatching = slab.getFromPlotSize() <= plotSize && slab.getToPlotSize() >= plotSize;
+			else
+				isPlotMatching = slab.getFromPlotSize() < plotSize && slab.getToPlotSize() >= plotSize;
+			return isPtTypeMatching && isPtSubTypeMatching && isOwnerShipMatching && isSubOwnerShipMatching
+					&& isPlotMatching && isAreaMatching && isPropertyMultiFloored;
+		}).collect(Collectors.toList());
+	}
+
+	private static List<BillingSlab> filterUnit(List<BillingSlab> billingSlabs, Unit unit) {
+		Double floorNo = Double.parseDouble(unit.getFloorNo());
+		return billingSlabs.stream().filter(billSlb -> (billSlb.getUsageCategoryMajor().equalsIgnoreCase(unit.getUsageCategoryMajor())
+				|| billSlb.getUsageCategoryMajor().equalsIgnoreCase(ALL))
+				&& (billSlb.getUsageCategoryMinor().equalsIgnoreCase(unit.getUsageCategoryMinor())
+						|| billSlb.getUsageCategoryMinor().equalsIgnoreCase(ALL))
+				&& (billSlb.getUsageCategorySubMinor().equalsIgnoreCase(unit.getUsageCategorySubMinor())
+						|| billSlb.getUsageCategorySubMinor().equalsIgnoreCase(ALL))
+				&& (billSlb.getUsageCategoryDetail().equalsIgnoreCase(unit.getUsageCategoryDetail())
+						|| billSlb.getUsageCategoryDetail().equalsIgnoreCase(ALL))
+				&& billSlb.getFromFloor() <= floorNo && billSlb.getToFloor() >= floorNo
+				&& (billSlb.getOccupancyType().equalsIgnoreCase(unit.getOccupancyType())
+						|| billSlb.getOccupancyType().equalsIgnoreCase(ALL)))
+				.collect(Collectors.toList());
+	}
+
+	private static BillingSlab slab(String id, String propertyType, boolean multiFloored, String areaType,
+			String subType, String ownership, String subOwnership, Double fromPlotSize, Double toPlotSize) {
+		return BillingSlab.builder().id(id).tenantId("pb.amritsar").propertyType(propertyType)
+				.isPropertyMultiFloored(multiFloored).areaType(areaType).propertySubType(subType)
+				.ownerShipCategory(ownership).subOwnerShipCategory(subOwnership).fromPlotSize(fromPlotSize)
+				.toPlotSize(toPlotSize).usageCategoryMajor(ALL).usageCategoryMinor(ALL).usageCategorySubMinor(ALL)
+				.usageCategoryDetail(ALL).occupancyType(ALL).fromFloor(Double.NEGATIVE_INFINITY)
+				.toFloor(Double.POSITIVE_INFINITY).build();
+	}
+
+	private static BillingSlab unitSlab(String id, String usageCategoryMajor, String occupancyType, Double fromFloor,
+			Double toFloor) {
+		BillingSlab slab = slab(id, "BUILTUP", false, "A", "RESIDENTIAL", "INDIVIDUAL", "SINGLEOWNER", 0.0, 100.0);
+		slab.setUsageCategoryMajor(usageCategoryMajor);
+		slab.setOccupancyType(occupancyType);
+		slab.setFromFloor(fromFloor);
+		slab.setToFloor(toFloor);
+		return slab;
+	}
+
+	private static Unit unit(String usageCategoryMajor, String occupancyType, String floorNo) {
+		Unit unit = new Unit();
+		unit.setUsageCategoryMajor(usageCategoryMajor);
+		unit.setUsageCategoryMinor("X");
+		unit.setUsageCategorySubMinor("X");
+		unit.setUsageCategoryDetail("X");
+		unit.setOccupancyType(occupancyType);
+		unit.setFloorNo(floorNo);
+		return unit;
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static Set<String> ids(List<BillingSlab> slabs) {
+		return slabs.stream().map(BillingSlab::getId).collect(Collectors.toCollection(TreeSet::new));
+	}
+}
@@ -0,0 +1,92 @@
+package org.egov.pt.calculator.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.egov.pt.calculator.producer.Producer;
+import org.egov.pt.calculator.repository.PTCalculatorDBRepository;
+import org.egov.pt.calculator.util.BillingSlabUtils;
+import org.egov.pt.calculator.util.Configurations;
+import org.egov.pt.calculator.web.models.BillingSlab;
+import org.egov.pt.calculator.web.models.BillingSlabReq;
+import org.egov.pt.calculator.web.models.BillingSlabSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BillingSlabServiceTest {
+
+	@Mock
+	private BillingSlabUtils billingSlabUtils;
+
+	@Mock
+	private Producer producer;
+
+	@Mock
+	private Configurations configurations;
+
+	@Mock
+	private PTCalculatorDBRepository dbRepository;
+
+	@InjectMocks
+	private BillingSlabService billingSlabService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(billingSlabService, "matcherCacheTtlSeconds", 300L);
+		ReflectionTestUtils.setField(billingSlabService, "matcherCacheWriteSettleSeconds", 30L);
+		when(configurations.getSlabValueAll()).thenReturn("ALL");
+		when(dbRepository.searchBillingSlab(any(BillingSlabSearchCriteria.class))).thenReturn(Collections.emptyList());
+	}
+
+	@Test
+	void testGetBillingSlabMatcherIsCached() {
+		BillingSlabMatcher matcher = billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19");
+		assertSame(matcher, billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19"));
+		verify(dbRepository, times(1)).searchBillingSlab(any(BillingSlabSearchCriteria.class));
+	}
+
+	@Test
+	void testGetBillingSlabMatcherIsNotCachedUntilTheWriteSettles() {
+		billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19");
+		billingSlabService.createBillingSlab(billingSlabReq("pb.amritsar"));
+
+		//the persister may not have committed yet, so every read goes to the db within the settle time
+		billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19");
+		billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19");
+		verify(dbRepository, times(3)).searchBillingSlab(any(BillingSlabSearchCriteria.class));
+
+		ReflectionTestUtils.setField(billingSlabService, "matcherCacheWriteSettleSeconds", 0L);
+		BillingSlabMatcher matcher = billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19");
+		assertSame(matcher, billingSlabService.getBillingSlabMatcher("pb.amritsar", "2018-19"));
+		verify(dbRepository, times(4)).searchBillingSlab(any(BillingSlabSearchCriteria.class));
+	}
+
+	@Test
+	void testWriteDoesNotAffectOtherTenants() {
+		BillingSlabMatcher matcher = billingSlabService.getBillingSlabMatcher("pb.jalandhar", "2018-19");
+		billingSlabService.updateBillingSlab(billingSlabReq("pb.amritsar"));
+		assertSame(matcher, billingSlabService.getBillingSlabMatcher("pb.jalandhar", "2018-19"));
+		verify(dbRepository, times(1)).searchBillingSlab(any(BillingSlabSearchCriteria.class));
+	}
+
+	private BillingSlabReq billingSlabReq(String tenantId) {
+		BillingSlabReq billingSlabReq = new BillingSlabReq();
+		billingSlabReq.setBillingSlab(new ArrayList<>(Collections.singletonList(BillingSlab.builder().tenantId(tenantId).build())));
+		return billingSlabReq;
+	}
+}
@@ -188,8 +188,8 @@ public class SWCalculationConfiguration {
 	@Value("${bulk.demand.batch.value}")
 	private Integer bulkbatchSize;
 
-	@Value("${bulk.demand.offset.value}")
-	private Integer batchOffset;
+	@Value("${bulk.demand.parallelism:4}")
+	private Integer bulkDemandParallelism;
 
 	@Value("${egov.internal.microservice.user.uuid}")
 	private String egovInternalMicroserviceUserUuid;
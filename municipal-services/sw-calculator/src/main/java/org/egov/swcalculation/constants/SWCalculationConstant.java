@@ -387,4 +387,13 @@ public class SWCalculationConstant {
 
 
 	public static Map<String, Object> masterMap;
+
+	public static final String BULK_DEMAND_IN_PROGRESS = "IN_PROGRESS";
+
+	public static final String BULK_DEMAND_COMPLETED = "COMPLETED";
+
+	public static final String BULK_DEMAND_BATCH_TIMER = "sw.bulk.demand.batch";
+
+	public static final String BULK_DEMAND_CONNECTIONS_COUNTER = "sw.bulk.demand.connections";
+
 }
@@ -8,6 +8,7 @@ import org.egov.swcalculation.repository.rowMapper.DemandSchedulerRowMapper;
 import org.egov.swcalculation.repository.rowMapper.SewerageConnectionRowMapper;
 import org.egov.swcalculation.repository.rowMapper.SewerageDemandRowMapper;
 import org.egov.swcalculation.repository.rowMapper.SewerageRowMapper;
+import org.egov.swcalculation.web.models.BulkDemandCheckpoint;
 import org.egov.swcalculation.web.models.SewerageConnection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -45,28 +46,44 @@ public class SewerageCalculatorDaoImpl implements SewerageCalculatorDao {
 	}
 
 	@Override
-	public List<SewerageConnection> getConnectionsNoList(String tenantId, String connectionType, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate) {
+	public List<SewerageConnection> getConnectionsNoList(String tenantId, String connectionType, List<String> connectionNos, Long fromDate, Long toDate) {
 		List<Object> preparedStatement = new ArrayList<>();
-		String query = queryBuilder.getConnectionNumberList(tenantId, connectionType, preparedStatement, batchOffset, batchsize, fromDate, toDate);
-		StringBuilder builder = new StringBuilder();
-		builder.append("sewerage ").append(connectionType).append(" connection list : ").append(query);
-		log.info(builder.toString());
+		String query = queryBuilder.getConnectionNumberList(tenantId, connectionType, preparedStatement, connectionNos, fromDate, toDate);
 		return jdbcTemplate.query(query, preparedStatement.toArray(), sewerageRowMapper);
 	}
 
 	@Override
-	public long getConnectionCount(String tenantid, Long fromDate, Long toDate){
-		//List<Object> preparedStatement = new ArrayList<>();
-		String query = queryBuilder.getCountQuery();
-		//preparedStatement.add(tenantid);
-		/*preparedStatement.add(fromDate);
-		preparedStatement.add(toDate);
-		preparedStatement.add(tenantid);*/
+	public List<String> getConnectionNumberPage(String tenantId, String lastConnectionNo, Integer batchsize) {
+		List<Object> preparedStatement = new ArrayList<>();
+		String query = queryBuilder.getConnectionNumberPage(tenantId, lastConnectionNo, batchsize, preparedStatement);
+		return jdbcTemplate.queryForList(query, preparedStatement.toArray(), String.class);
+	}
 
-		long count = jdbcTemplate.queryForObject(query,Integer.class);
-		return count;
+	@Override
+	public BulkDemandCheckpoint getBulkDemandCheckpoint(String tenantId, Long billingPeriodFrom, Long billingPeriodTo) {
+		List<BulkDemandCheckpoint> checkpoints = jdbcTemplate.query(SWCalculatorQueryBuilder.BULK_DEMAND_CHECKPOINT_SEARCH_QUERY,
+				new Object[] { tenantId, billingPeriodFrom, billingPeriodTo }, (rs, rowNum) -> BulkDemandCheckpoint.builder()
+						.tenantId(rs.getString("tenantid"))
+						.billingPeriodFrom(rs.getLong("billingperiodfrom"))
+						.billingPeriodTo(rs.getLong("billingperiodto"))
+						.lastConnectionNo(rs.getString("lastconnectionno"))
+						.status(rs.getString("status"))
+						.connectionCount(rs.getLong("connectioncount"))
+						.batchCount(rs.getLong("batchcount"))
+						.createdTime(rs.getLong("createdtime"))
+						.lastModifiedTime(rs.getLong("lastmodifiedtime"))
+						.build());
+		return checkpoints.isEmpty() ? null : checkpoints.get(0);
 	}
-	
+
+	@Override
+	public void saveBulkDemandCheckpoint(BulkDemandCheckpoint checkpoint) {
+		jdbcTemplate.update(SWCalculatorQueryBuilder.BULK_DEMAND_CHECKPOINT_UPSERT_QUERY, checkpoint.getTenantId(),
+				checkpoint.getBillingPeriodFrom(), checkpoint.getBillingPeriodTo(), checkpoint.getLastConnectionNo(),
+				checkpoint.getStatus(), checkpoint.getConnectionCount(), checkpoint.getBatchCount(),
+				checkpoint.getCreatedTime(), checkpoint.getLastModifiedTime());
+	}
+
 	@Override
 	public List<SewerageConnection> getConnectionsNoListForDemand(String tenantId, String connectionType, Long fromDate, Long toDate) {
 		List<Object> preparedStatement = new ArrayList<>();
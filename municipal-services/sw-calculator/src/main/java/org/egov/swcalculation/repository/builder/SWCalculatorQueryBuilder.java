@@ -1,5 +1,6 @@
 package org.egov.swcalculation.repository.builder;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.stereotype.Controller;
@@ -7,12 +8,19 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class SWCalculatorQueryBuilder {
 	
+	private static final String CONNECTION_NUMBER_PAGE_QUERY = "SELECT DISTINCT connectionno FROM eg_sw_connection WHERE tenantid = ? AND connectionno IS NOT NULL";
+
+	public static final String BULK_DEMAND_CHECKPOINT_SEARCH_QUERY = "SELECT tenantid, billingperiodfrom, billingperiodto, lastconnectionno, status, connectioncount, batchcount, createdtime, lastmodifiedtime"
+			+ " FROM eg_sw_bulk_demand_checkpoint WHERE tenantid = ? AND billingperiodfrom = ? AND billingperiodto = ?";
+
+	public static final String BULK_DEMAND_CHECKPOINT_UPSERT_QUERY = "INSERT INTO eg_sw_bulk_demand_checkpoint (tenantid, billingperiodfrom, billingperiodto, lastconnectionno, status, connectioncount, batchcount, createdtime, lastmodifiedtime)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (tenantid, billingperiodfrom, billingperiodto) DO UPDATE SET lastconnectionno = EXCLUDED.lastconnectionno,"
+			+ " status = EXCLUDED.status, connectioncount = EXCLUDED.connectioncount, batchcount = EXCLUDED.batchcount, createdtime = EXCLUDED.createdtime, lastmodifiedtime = EXCLUDED.lastmodifiedtime";
+
 	private static final String connectionNoListQuery = "SELECT distinct(conn.connectionno) FROM eg_sw_connection conn INNER JOIN eg_sw_service sw ON conn.id = sw.connection_id";
 	
 	private static final String distinctTenantIdsCriteria = "SELECT distinct(tenantid) FROM eg_sw_connection sw";
 
-	private  static final String countQuery = "select count(*) from eg_sw_connection";
-
 	private static final String INNER_JOIN_STRING = "INNER JOIN";
 
 	private static final String LEFT_OUTER_JOIN_STRING = " LEFT OUTER JOIN ";
@@ -77,39 +85,45 @@ public class SWCalculatorQueryBuilder {
 		return distinctTenantIdsCriteria;
 	}
 
-	public String getCountQuery() {
-		return countQuery;
-	}
-
-	public String getConnectionNumberList(String tenantId, String connectionType, List<Object> preparedStatement, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate) {
+	/**
+	 * Connections pending for demand among the given connection numbers
+	 */
+	public String getConnectionNumberList(String tenantId, String connectionType, List<Object> preparedStatement, List<String> connectionNos, Long fromDate, Long toDate) {
 		StringBuilder query = new StringBuilder(SEWERAGE_SEARCH_QUERY);
-		// Add connection type
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" sc.connectiontype = ? ");
 		preparedStatement.add(connectionType);
 
-		// add tenantid
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" conn.tenantid = ? ");
 		preparedStatement.add(tenantId);
-		
-		//Add not null condition
-		addClauseIfRequired(preparedStatement, query);
-		query.append(" conn.connectionno is not null");
 
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" conn.connectionno NOT IN (select distinct(consumercode) from egbs_demand_v1 dmd where (dmd.taxperiodfrom >= ? and dmd.taxperiodto <= ?) and businessservice = 'SW' and tenantid=?)");
 		preparedStatement.add(fromDate);
 		preparedStatement.add(toDate);
 		preparedStatement.add(tenantId);
-		
+
 		addClauseIfRequired(preparedStatement, query);
-		String orderbyClause = " conn.connectionno IN (select connectionno FROM eg_sw_connection where tenantid=? and connectionno is not null ORDER BY connectionno OFFSET ? LIMIT ?)";
+		query.append(" conn.connectionno IN (").append(String.join(",", Collections.nCopies(connectionNos.size(), "?"))).append(")");
+		preparedStatement.addAll(connectionNos);
+
+		return query.toString();
+	}
+
+	/**
+	 * Next page of connection numbers of the tenant after the given connection number, in connection number order.
+	 * Keyset pagination, so every page costs the same irrespective of how far the bulk run has gone.
+	 */
+	public String getConnectionNumberPage(String tenantId, String lastConnectionNo, Integer batchsize, List<Object> preparedStatement) {
+		StringBuilder query = new StringBuilder(CONNECTION_NUMBER_PAGE_QUERY);
 		preparedStatement.add(tenantId);
-		preparedStatement.add(batchOffset);
+		if (lastConnectionNo != null) {
+			query.append(" AND connectionno > ?");
+			preparedStatement.add(lastConnectionNo);
+		}
+		query.append(" ORDER BY connectionno LIMIT ?");
 		preparedStatement.add(batchsize);
-		query.append(orderbyClause);
-
 		return query.toString();
 	}
 	
@@ -16,9 +16,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.apache.commons.lang3.StringUtils;
 import org.egov.common.contract.request.RequestInfo;
 import org.egov.common.contract.request.Role;
@@ -46,6 +54,7 @@ import org.springframework.util.CollectionUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import net.minidev.json.JSONArray;
 
@@ -110,6 +119,18 @@ public class DemandService {
 	@Autowired
 	private EnrichmentService enrichmentService;
 
+	private ExecutorService bulkDemandExecutor;
+
+	@PostConstruct
+	public void initBulkDemandExecutor() {
+		bulkDemandExecutor = Executors.newFixedThreadPool(configs.getBulkDemandParallelism());
+	}
+
+	@PreDestroy
+	public void shutdownBulkDemandExecutor() {
+		bulkDemandExecutor.shutdown();
+	}
+
 	private Object calculationReq;
 	private SewerageConnectionRequest request;
 	private RequestInfo requestInfo;
@@ -992,14 +1013,10 @@ public class DemandService {
 		if(isCurrentDateIsMatching((String) billingMasterData.get(SWCalculationConstant.Billing_Cycle_String), startDay)) {
 
 			Integer batchsize = configs.getBulkbatchSize();
-			Integer batchOffset = configs.getBatchOffset();
 
 			if(bulkBillCriteria.getLimit() != null)
 				batchsize = Math.toIntExact(bulkBillCriteria.getLimit());
 
-			if(bulkBillCriteria.getOffset() != null)
-				batchOffset = Math.toIntExact(bulkBillCriteria.getOffset());
-
 			Map<String, Object> masterMap = masterDataService.loadMasterData(requestInfo, tenantId);
 
 			ArrayList<?> billingFrequencyMap = (ArrayList<?>) masterMap
@@ -1012,54 +1029,146 @@ public class DemandService {
 			Long fromDate = (Long) financialYearMaster.get(SWCalculationConstant.STARTING_DATE_APPLICABLES);
 			Long toDate = (Long) financialYearMaster.get(SWCalculationConstant.ENDING_DATE_APPLICABLES);
 
-			long count = sewerageCalculatorDao.getConnectionCount(tenantId, fromDate, toDate);
-			
-			log.info("Count: "+count);
+			generateDemandInBatches(requestInfo, tenantId, bulkBillCriteria, batchsize, fromDate, toDate);
+		}
+	}
 
-			if(count > 0) {
-				while (batchOffset < count) {
-					List<SewerageConnection> connections = sewerageCalculatorDao.getConnectionsNoList(tenantId,
-							SWCalculationConstant.nonMeterdConnection, batchOffset, batchsize, fromDate, toDate);
-					log.info("Size of the connection list for batch : "+ batchOffset + " is " + connections.size());
-					connections = enrichmentService.filterConnections(connections);
-					
-					if(connections.size()>0){
-						List<CalculationCriteria> calculationCriteriaList = new ArrayList<>();
+	/**
+	 * Walks the connections of the tenant in pages of connection numbers, keyset paginated on the connection number.
+	 * Up to bulk.demand.parallelism pages are processed at a time on the bulk demand executor, after every such wave
+	 * the last connection number is saved as the checkpoint of the tenant for the billing cycle. A resumed run starts
+	 * after the checkpoint, a dry run only counts the connections which would be billed and leaves the checkpoint as is.
+	 *
+	 * @param requestInfo - Request Info Object
+	 * @param tenantId - Tenant Id
+	 * @param bulkBillCriteria - Critera for bulk bill generation
+	 * @param batchsize - Connection numbers per page
+	 * @param fromDate - Start of the billing cycle
+	 * @param toDate - End of the billing cycle
+	 */
+	private void generateDemandInBatches(RequestInfo requestInfo, String tenantId, BulkBillCriteria bulkBillCriteria,
+			Integer batchsize, Long fromDate, Long toDate) {
+
+		boolean isDryRun = Boolean.TRUE.equals(bulkBillCriteria.getIsDryRun());
+		BulkDemandCheckpoint checkpoint = sewerageCalculatorDao.getBulkDemandCheckpoint(tenantId, fromDate, toDate);
+		if (checkpoint != null && Boolean.TRUE.equals(bulkBillCriteria.getIsResume())) {
+			if (SWCalculationConstant.BULK_DEMAND_COMPLETED.equals(checkpoint.getStatus())) {
+				log.info("Bulk demand generation of tenant " + tenantId + " is already completed for the billing cycle");
+				return;
+			}
+			log.info("Resuming bulk demand generation of tenant " + tenantId + " after connection " + checkpoint.getLastConnectionNo());
+		} else {
+			checkpoint = BulkDemandCheckpoint.builder().tenantId(tenantId).billingPeriodFrom(fromDate)
+					.billingPeriodTo(toDate).connectionCount(0L).batchCount(0L)
+					.createdTime(System.currentTimeMillis()).build();
+		}
 
-						for (SewerageConnection connection : connections) {
-							CalculationCriteria calculationCriteria = CalculationCriteria.builder().tenantId(tenantId)
-									.assessmentYear(estimationService.getAssessmentYear()).connectionNo(connection.getConnectionNo())
-									.sewerageConnection(connection).build();
-							calculationCriteriaList.add(calculationCriteria);
-						}
+		String assessmentYear = estimationService.getAssessmentYear();
+		String lastConnectionNo = checkpoint.getLastConnectionNo();
+		long batchNo = checkpoint.getBatchCount();
+		long connectionCount = 0;
+		long startTime = System.currentTimeMillis();
+		boolean hasMorePages = true;
+
+		while (hasMorePages) {
+			List<List<String>> pages = new ArrayList<>();
+			while (hasMorePages && pages.size() < configs.getBulkDemandParallelism()) {
+				List<String> page = sewerageCalculatorDao.getConnectionNumberPage(tenantId, lastConnectionNo, batchsize);
+				if (!page.isEmpty()) {
+					pages.add(page);
+					lastConnectionNo = page.get(page.size() - 1);
+				}
+				hasMorePages = page.size() == batchsize;
+			}
+			if (pages.isEmpty())
+				break;
+
+			List<CompletableFuture<Integer>> batches = new ArrayList<>();
+			for (List<String> page : pages) {
+				long currentBatchNo = ++batchNo;
+				batches.add(CompletableFuture.supplyAsync(() -> generateDemandForBatch(requestInfo, tenantId, page,
+						currentBatchNo, assessmentYear, fromDate, toDate, isDryRun), bulkDemandExecutor));
+			}
+			int waveCount = 0;
+			try {
+				for (CompletableFuture<Integer> batch : batches)
+					waveCount += batch.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+			connectionCount += waveCount;
+
+			checkpoint.setLastConnectionNo(lastConnectionNo);
+			checkpoint.setBatchCount(batchNo);
+			checkpoint.setConnectionCount(checkpoint.getConnectionCount() + waveCount);
+			checkpoint.setStatus(SWCalculationConstant.BULK_DEMAND_IN_PROGRESS);
+			checkpoint.setLastModifiedTime(System.currentTimeMillis());
+			if (!isDryRun)
+				sewerageCalculatorDao.saveBulkDemandCheckpoint(checkpoint);
+		}
 
-						/*MigrationCount migrationCount = MigrationCount.builder().id(UUID.randomUUID().toString()).offset(Long.valueOf(batchOffset)).limit(Long.valueOf(batchsize)).recordCount(Long.valueOf(connectionNos.size()))
-								.tenantid(tenantId).createdTime(System.currentTimeMillis()).businessService("SW").build();*/
+		checkpoint.setStatus(SWCalculationConstant.BULK_DEMAND_COMPLETED);
+		checkpoint.setLastModifiedTime(System.currentTimeMillis());
+		if (!isDryRun)
+			sewerageCalculatorDao.saveBulkDemandCheckpoint(checkpoint);
 
-						MigrationCount migrationCount = MigrationCount.builder()
-								.tenantid(tenantId)
-								.businessService("SW")
-								.limit(Long.valueOf(batchsize))
-								.id(UUID.randomUUID().toString())
-								.offset(Long.valueOf(batchOffset))
-								.createdTime(System.currentTimeMillis())
-								.recordCount(Long.valueOf(connections.size()))
-								.build();
+		long timeTaken = Math.max(System.currentTimeMillis() - startTime, 1);
+		log.info((isDryRun ? "Dry run of bulk" : "Bulk") + " demand generation of tenant " + tenantId + " : "
+				+ connectionCount + " connections in " + timeTaken + " ms (" + connectionCount * 1000 / timeTaken
+				+ " connections/s)");
+	}
 
-						CalculationReq calculationReq = CalculationReq.builder()
-								.calculationCriteria(calculationCriteriaList)
-								.requestInfo(requestInfo)
-								.isconnectionCalculation(true)
-								.migrationCount(migrationCount).build();
-						
-						kafkaTemplate.send(configs.getCreateDemand(), calculationReq);
-						log.info("Bulk bill Gen batch info : " + migrationCount);
-						calculationCriteriaList.clear();
-					}
-					batchOffset = batchOffset + batchsize;
-				}
+	/**
+	 * Pushes the connections of the page which are pending for demand to the demand generation topic
+	 *
+	 * @return number of connections pending for demand in the page
+	 */
+	private int generateDemandForBatch(RequestInfo requestInfo, String tenantId, List<String> connectionNos,
+			long batchNo, String assessmentYear, Long fromDate, Long toDate, boolean isDryRun) {
+
+		long startTime = System.nanoTime();
+		List<SewerageConnection> connections = sewerageCalculatorDao.getConnectionsNoList(tenantId,
+				SWCalculationConstant.nonMeterdConnection, connectionNos, fromDate, toDate);
+		connections = enrichmentService.filterConnections(connections);
+
+		if (!connections.isEmpty() && !isDryRun) {
+			List<CalculationCriteria> calculationCriteriaList = new ArrayList<>();
+			for (SewerageConnection connection : connections) {
+				CalculationCriteria calculationCriteria = CalculationCriteria.builder().tenantId(tenantId)
+						.assessmentYear(assessmentYear).connectionNo(connection.getConnectionNo())
+						.sewerageConnection(connection).build();
+				calculationCriteriaList.add(calculationCriteria);
 			}
+			MigrationCount migrationCount = MigrationCount.builder()
+					.tenantid(tenantId)
+					.businessService("SW")
+					.limit(Long.valueOf(connectionNos.size()))
+					.id(UUID.randomUUID().toString())
+					.offset(batchNo)
+					.createdTime(System.currentTimeMillis())
+					.recordCount(Long.valueOf(connections.size()))
+					.build();
+
+			CalculationReq calculationReq = CalculationReq.builder()
+					.calculationCriteria(calculationCriteriaList)
+					.requestInfo(requestInfo)
+					.isconnectionCalculation(true)
+					.migrationCount(migrationCount).build();
+
+			kafkaTemplate.send(configs.getCreateDemand(), calculationReq);
+			log.info("Bulk bill Gen batch info : " + migrationCount);
 		}
+
+		long timeTaken = System.nanoTime() - startTime;
+		Metrics.timer(SWCalculationConstant.BULK_DEMAND_BATCH_TIMER, "tenantId", tenantId, "dryRun", String.valueOf(isDryRun))
+				.record(timeTaken, TimeUnit.NANOSECONDS);
+		Metrics.counter(SWCalculationConstant.BULK_DEMAND_CONNECTIONS_COUNTER, "tenantId", tenantId, "dryRun", String.valueOf(isDryRun))
+				.increment(connections.size());
+		long timeTakenMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(timeTaken), 1);
+		log.info("Bulk demand batch " + batchNo + " of tenant " + tenantId + " : " + connections.size() + " of "
+				+ connectionNos.size() + " connections pending for demand, took " + timeTakenMillis + " ms ("
+				+ connections.size() * 1000 / timeTakenMillis + " connections/s)");
+		return connections.size();
 	}
 	
 	/**
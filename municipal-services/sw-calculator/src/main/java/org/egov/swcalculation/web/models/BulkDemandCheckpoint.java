@@ -0,0 +1,35 @@
+package org.egov.swcalculation.web.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of the bulk demand generation of a tenant for a billing cycle
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkDemandCheckpoint {
+
+	private String tenantId;
+
+	private Long billingPeriodFrom;
+
+	private Long billingPeriodTo;
+
+	// Connection number of the last page whose demands were pushed
+	private String lastConnectionNo;
+
+	private String status;
+
+	private Long connectionCount;
+
+	private Long batchCount;
+
+	private Long createdTime;
+
+	private Long lastModifiedTime;
+}
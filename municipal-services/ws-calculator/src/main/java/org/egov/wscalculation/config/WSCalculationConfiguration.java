@@ -203,8 +203,8 @@ public class WSCalculationConfiguration {
 	@Value("${bulk.demand.batch.value}")
 	private Integer bulkbatchSize;
 
-	@Value("${bulk.demand.offset.value}")
-	private Integer batchOffset;
+	@Value("${bulk.demand.parallelism:4}")
+	private Integer bulkDemandParallelism;
 
 	@Value("${egov.internal.microservice.user.uuid}")
 	private String egovInternalMicroserviceUserUuid;
@@ -361,4 +361,12 @@ public class WSCalculationConstant {
 	
 	public static final String TENANTID_MDC_STRING = "TENANTID";
 
+	public static final String BULK_DEMAND_IN_PROGRESS = "IN_PROGRESS";
+
+	public static final String BULK_DEMAND_COMPLETED = "COMPLETED";
+
+	public static final String BULK_DEMAND_BATCH_TIMER = "ws.bulk.demand.batch";
+
+	public static final String BULK_DEMAND_CONNECTIONS_COUNTER = "ws.bulk.demand.connections";
+
 }
@@ -6,6 +6,7 @@ import java.util.List;
 import org.egov.wscalculation.web.models.MeterConnectionRequest;
 import org.egov.wscalculation.web.models.MeterReading;
 import org.egov.wscalculation.web.models.MeterReadingSearchCriteria;
+import org.egov.wscalculation.web.models.BulkDemandCheckpoint;
 import org.egov.wscalculation.web.models.WaterConnection;
 
 public interface WSCalculationDao {
@@ -22,7 +23,13 @@ public interface WSCalculationDao {
 	
 	int isMeterReadingConnectionExist(List<String> ids);
 	
-	List<WaterConnection> getConnectionsNoList(String tenantId, String connectionType, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate);
+	List<WaterConnection> getConnectionsNoList(String tenantId, String connectionType, List<String> connectionNos, Long fromDate, Long toDate);
+
+	List<String> getConnectionNumberPage(String tenantId, String lastConnectionNo, Integer batchsize);
+
+	BulkDemandCheckpoint getBulkDemandCheckpoint(String tenantId, Long billingPeriodFrom, Long billingPeriodTo);
+
+	void saveBulkDemandCheckpoint(BulkDemandCheckpoint checkpoint);
 	
 	List<WaterConnection> getConnectionsNoListForDemand(String tenantId, String connectionType, Long fromDate, Long toDate);
 
@@ -30,8 +37,6 @@ public interface WSCalculationDao {
 	
 	int isBillingPeriodExists(String connectionNo, String billingPeriod);
 
-	long getConnectionCount(String tenantid, Long fromDate, Long toDate);
-	
 	List<WaterConnection> getConnection(String tenantId, String consumerCode,String connectionType,Long fromDate, Long toDate);
 
 }
@@ -17,6 +17,7 @@ import org.egov.wscalculation.repository.rowmapper.WaterRowMapper;
 import org.egov.wscalculation.web.models.MeterConnectionRequest;
 import org.egov.wscalculation.web.models.MeterReading;
 import org.egov.wscalculation.web.models.MeterReadingSearchCriteria;
+import org.egov.wscalculation.web.models.BulkDemandCheckpoint;
 import org.egov.wscalculation.web.models.WaterConnection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -137,12 +138,43 @@ public class WSCalculationDaoImpl implements WSCalculationDao {
 	}
 	
 	@Override
-	public List<WaterConnection> getConnectionsNoList(String tenantId, String connectionType, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate) {
+	public List<WaterConnection> getConnectionsNoList(String tenantId, String connectionType, List<String> connectionNos, Long fromDate, Long toDate) {
 		List<Object> preparedStatement = new ArrayList<>();
-		String query = queryBuilder.getConnectionNumberList(tenantId, connectionType, preparedStatement, batchOffset, batchsize, fromDate, toDate);
-		log.info("water " + connectionType + " connection list : " + query);
+		String query = queryBuilder.getConnectionNumberList(tenantId, connectionType, preparedStatement, connectionNos, fromDate, toDate);
 		return jdbcTemplate.query(query, preparedStatement.toArray(), waterRowMapper);
 	}
+
+	@Override
+	public List<String> getConnectionNumberPage(String tenantId, String lastConnectionNo, Integer batchsize) {
+		List<Object> preparedStatement = new ArrayList<>();
+		String query = queryBuilder.getConnectionNumberPage(tenantId, lastConnectionNo, batchsize, preparedStatement);
+		return jdbcTemplate.queryForList(query, preparedStatement.toArray(), String.class);
+	}
+
+	@Override
+	public BulkDemandCheckpoint getBulkDemandCheckpoint(String tenantId, Long billingPeriodFrom, Long billingPeriodTo) {
+		List<BulkDemandCheckpoint> checkpoints = jdbcTemplate.query(WSCalculatorQueryBuilder.BULK_DEMAND_CHECKPOINT_SEARCH_QUERY,
+				new Object[] { tenantId, billingPeriodFrom, billingPeriodTo }, (rs, rowNum) -> BulkDemandCheckpoint.builder()
+						.tenantId(rs.getString("tenantid"))
+						.billingPeriodFrom(rs.getLong("billingperiodfrom"))
+						.billingPeriodTo(rs.getLong("billingperiodto"))
+						.lastConnectionNo(rs.getString("lastconnectionno"))
+						.status(rs.getString("status"))
+						.connectionCount(rs.getLong("connectioncount"))
+						.batchCount(rs.getLong("batchcount"))
+						.createdTime(rs.getLong("createdtime"))
+						.lastModifiedTime(rs.getLong("lastmodifiedtime"))
+						.build());
+		return checkpoints.isEmpty() ? null : checkpoints.get(0);
+	}
+
+	@Override
+	public void saveBulkDemandCheckpoint(BulkDemandCheckpoint checkpoint) {
+		jdbcTemplate.update(WSCalculatorQueryBuilder.BULK_DEMAND_CHECKPOINT_UPSERT_QUERY, checkpoint.getTenantId(),
+				checkpoint.getBillingPeriodFrom(), checkpoint.getBillingPeriodTo(), checkpoint.getLastConnectionNo(),
+				checkpoint.getStatus(), checkpoint.getConnectionCount(), checkpoint.getBatchCount(),
+				checkpoint.getCreatedTime(), checkpoint.getLastModifiedTime());
+	}
 	
 	@Override
 	public List<WaterConnection> getConnectionsNoListForDemand(String tenantId, String connectionType, Long fromDate, Long toDate) {
@@ -175,16 +207,4 @@ public class WSCalculationDaoImpl implements WSCalculationDao {
 		return jdbcTemplate.queryForObject(query, preparedStatement.toArray(), Integer.class);
 	}
 	
-	@Override
-	public long getConnectionCount(String tenantid, Long fromDate, Long toDate){
-		//List<Object> preparedStatement = new ArrayList<>();
-		String query = queryBuilder.getCountQuery();
-		//preparedStatement.add(tenantid);
-		/*preparedStatement.add(fromDate);
-		preparedStatement.add(toDate);
-		preparedStatement.add(tenantid);*/
-
-		long count = jdbcTemplate.queryForObject(query, Integer.class);
-		return count;
-	}
 }
@@ -1,5 +1,6 @@
 package org.egov.wscalculation.repository.builder;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -16,6 +17,15 @@ public class WSCalculatorQueryBuilder {
 	@Autowired
 	private WSCalculationConfiguration config;
 
+	private static final String CONNECTION_NUMBER_PAGE_QUERY = "SELECT DISTINCT connectionno FROM eg_ws_connection WHERE tenantid = ? AND connectionno IS NOT NULL";
+
+	public static final String BULK_DEMAND_CHECKPOINT_SEARCH_QUERY = "SELECT tenantid, billingperiodfrom, billingperiodto, lastconnectionno, status, connectioncount, batchcount, createdtime, lastmodifiedtime"
+			+ " FROM eg_ws_bulk_demand_checkpoint WHERE tenantid = ? AND billingperiodfrom = ? AND billingperiodto = ?";
+
+	public static final String BULK_DEMAND_CHECKPOINT_UPSERT_QUERY = "INSERT INTO eg_ws_bulk_demand_checkpoint (tenantid, billingperiodfrom, billingperiodto, lastconnectionno, status, connectioncount, batchcount, createdtime, lastmodifiedtime)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (tenantid, billingperiodfrom, billingperiodto) DO UPDATE SET lastconnectionno = EXCLUDED.lastconnectionno,"
+			+ " status = EXCLUDED.status, connectioncount = EXCLUDED.connectioncount, batchcount = EXCLUDED.batchcount, createdtime = EXCLUDED.createdtime, lastmodifiedtime = EXCLUDED.lastmodifiedtime";
+
 	private static final String Offset_Limit_String = "OFFSET ? LIMIT ?";
 	private final static String Query = "SELECT mr.id, mr.connectionNo as connectionId, mr.billingPeriod, mr.meterStatus, mr.lastReading, mr.lastReadingDate, mr.currentReading,"
 			+ " mr.currentReadingDate, mr.createdBy as mr_createdBy, mr.tenantid, mr.lastModifiedBy as mr_lastModifiedBy,"
@@ -35,8 +45,6 @@ public class WSCalculatorQueryBuilder {
 
 	private static final String distinctTenantIdsCriteria = "SELECT distinct(tenantid) FROM eg_ws_connection ws";
 
-	private  static final String countQuery = "select count(*) from eg_ws_connection";
-
 	private static String holderSelectValues = "connectionholder.tenantid as holdertenantid, connectionholder.connectionid as holderapplicationId, userid, connectionholder.status as holderstatus, isprimaryholder, connectionholdertype, holdershippercentage, connectionholder.relationship as holderrelationship, connectionholder.createdby as holdercreatedby, connectionholder.createdtime as holdercreatedtime, connectionholder.lastmodifiedby as holderlastmodifiedby, connectionholder.lastmodifiedtime as holderlastmodifiedtime";
 
 	private static final String INNER_JOIN_STRING = "INNER JOIN";
@@ -109,10 +117,6 @@ public class WSCalculatorQueryBuilder {
 		return distinctTenantIdsCriteria;
 	}
 	
-	public String getCountQuery() {
-		return countQuery;
-	}
-	
 	/**
 	 * 
 	 * @param criteria
@@ -246,36 +250,46 @@ public class WSCalculatorQueryBuilder {
 	}
 	
 	
-	public String getConnectionNumberList(String tenantId, String connectionType, List<Object> preparedStatement, Integer batchOffset, Integer batchsize, Long fromDate, Long toDate) {
-		//StringBuilder query = new StringBuilder(connectionNoListQuery);
-		//StringBuilder query = new StringBuilder(connectionNoListQuery);
+	/**
+	 * Connections pending for demand among the given connection numbers
+	 */
+	public String getConnectionNumberList(String tenantId, String connectionType, List<Object> preparedStatement, List<String> connectionNos, Long fromDate, Long toDate) {
 		StringBuilder query = new StringBuilder(WATER_SEARCH_QUERY);
-		// Add connection type
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" wc.connectiontype = ? ");
 		preparedStatement.add(connectionType);
-		// add tenantid
+
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" conn.tenantid = ? ");
 		preparedStatement.add(tenantId);
-		addClauseIfRequired(preparedStatement, query);
-		query.append(" conn.connectionno is not null");
-		
+
 		addClauseIfRequired(preparedStatement, query);
 		query.append(" conn.connectionno NOT IN (select distinct(consumercode) from egbs_demand_v1 dmd where (dmd.taxperiodfrom >= ? and dmd.taxperiodto <= ?) and businessservice = 'WS' and tenantid=?)");
 		preparedStatement.add(fromDate);
 		preparedStatement.add(toDate);
 		preparedStatement.add(tenantId);
-		
+
 		addClauseIfRequired(preparedStatement, query);
-		String orderbyClause = " conn.connectionno IN (select connectionno FROM eg_ws_connection where tenantid=? and connectionno is not null ORDER BY connectionno OFFSET ? LIMIT ?)";
+		query.append(" conn.connectionno IN (").append(String.join(",", Collections.nCopies(connectionNos.size(), "?"))).append(")");
+		preparedStatement.addAll(connectionNos);
+
+		return query.toString();
+	}
+
+	/**
+	 * Next page of connection numbers of the tenant after the given connection number, in connection number order.
+	 * Keyset pagination, so every page costs the same irrespective of how far the bulk run has gone.
+	 */
+	public String getConnectionNumberPage(String tenantId, String lastConnectionNo, Integer batchsize, List<Object> preparedStatement) {
+		StringBuilder query = new StringBuilder(CONNECTION_NUMBER_PAGE_QUERY);
 		preparedStatement.add(tenantId);
-		preparedStatement.add(batchOffset);
+		if (lastConnectionNo != null) {
+			query.append(" AND connectionno > ?");
+			preparedStatement.add(lastConnectionNo);
+		}
+		query.append(" ORDER BY connectionno LIMIT ?");
 		preparedStatement.add(batchsize);
-		query.append(orderbyClause);
-
 		return query.toString();
-		
 	}
 
 	public String getConnectionNumberListForDemand(String tenantId, String connectionType, List<Object> preparedStatement, Long fromDate, Long toDate) {
@@ -31,4 +31,10 @@ public class BulkBillCriteria {
 	
 	@JsonProperty("tenantId")
 	private String tenantId;
+
+	@JsonProperty("isDryRun")
+	private Boolean isDryRun;
+
+	@JsonProperty("isResume")
+	private Boolean isResume;
 }
\ No newline at end of file
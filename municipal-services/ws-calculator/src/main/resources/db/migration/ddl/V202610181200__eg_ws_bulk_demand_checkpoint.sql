@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS eg_ws_bulk_demand_checkpoint (
+  tenantid CHARACTER VARYING (256) NOT NULL,
+  billingperiodfrom bigint NOT NULL,
+  billingperiodto bigint NOT NULL,
+  lastconnectionno CHARACTER VARYING (256),
+  status CHARACTER VARYING (64) NOT NULL,
+  connectioncount bigint NOT NULL,
+  batchcount bigint NOT NULL,
+  createdtime bigint NOT NULL,
+  lastmodifiedtime bigint NOT NULL,
+  CONSTRAINT pk_eg_ws_bulk_demand_checkpoint PRIMARY KEY (tenantid, billingperiodfrom, billingperiodto)
+);